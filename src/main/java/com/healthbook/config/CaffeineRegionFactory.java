@@ -0,0 +1,23 @@
+package com.healthbook.config;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cache de second niveau Hibernate sur Caffeine JCache (régions définies dans application.conf).
+ * Chaque SessionFactory a son propre gestionnaire JCache : deux contextes de la même JVM
+ * (tests sur des bases H2 distinctes) ne partagent pas d'entités sous les mêmes identifiants.
+ */
+public class CaffeineRegionFactory extends JCacheRegionFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected URI getUri(SessionFactoryOptions settings, Map<String, Object> properties) {
+        return URI.create("health-book-" + UUID.randomUUID());
+    }
+}
@@ -0,0 +1,50 @@
+package com.healthbook.config;
+
+/**
+ * Lecture de ses propres écritures avec des réplicas : instant de la dernière écriture validée
+ * par l'utilisateur (relu de sa session par CoherenceLectureFilter) et écriture validée pendant
+ * la requête en cours. Un réplica n'est choisi que s'il a rejoué un battement postérieur.
+ * Hors requête HTTP (tâches planifiées, démarrage), les écritures ne sont pas suivies.
+ */
+final class CoherenceLecture {
+
+    private static final ThreadLocal<Boolean> SUIVI = new ThreadLocal<>();
+    private static final ThreadLocal<Long> ECRITURE_SESSION = new ThreadLocal<>();
+    private static final ThreadLocal<Long> ECRITURE_REQUETE = new ThreadLocal<>();
+
+    private CoherenceLecture() {
+    }
+
+    // Début de requête : dernière écriture connue de l'utilisateur (null si aucune)
+    static void ouvrir(Long derniereEcriture) {
+        SUIVI.set(Boolean.TRUE);
+        if (derniereEcriture == null) {
+            ECRITURE_SESSION.remove();
+        } else {
+            ECRITURE_SESSION.set(derniereEcriture);
+        }
+    }
+
+    // Instant (ms) que le réplica doit avoir atteint ; 0 si l'utilisateur n'a rien écrit
+    static long exigence() {
+        Long session = ECRITURE_SESSION.get();
+        Long requete = ECRITURE_REQUETE.get();
+        return Math.max(session != null ? session : 0, requete != null ? requete : 0);
+    }
+
+    static void ecritureValidee(long instant) {
+        if (SUIVI.get() != null) {
+            ECRITURE_REQUETE.set(instant);
+        }
+    }
+
+    static Long ecritureDeLaRequete() {
+        return ECRITURE_REQUETE.get();
+    }
+
+    static void effacer() {
+        SUIVI.remove();
+        ECRITURE_SESSION.remove();
+        ECRITURE_REQUETE.remove();
+    }
+}
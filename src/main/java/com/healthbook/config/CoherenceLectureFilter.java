@@ -0,0 +1,49 @@
+package com.healthbook.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Porte l'instant de la dernière écriture d'un utilisateur d'une requête à l'autre (session) :
+ * après une prise de RDV, la page suivante est lue sur la base principale tant qu'aucun réplica
+ * ne l'a rejointe. Placé avant Spring Security, qui lit aussi l'utilisateur en base.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.replicas.urls")
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class CoherenceLectureFilter extends OncePerRequestFilter {
+
+    static final String DERNIERE_ECRITURE = "healthbook.derniereEcriture";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HttpSession session = request.getSession(false);
+        CoherenceLecture.ouvrir(session != null ? (Long) session.getAttribute(DERNIERE_ECRITURE) : null);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Long ecriture = CoherenceLecture.ecritureDeLaRequete();
+            // Session relue : la connexion peut en avoir créé une nouvelle
+            HttpSession sessionFinale = request.getSession(false);
+            if (ecriture != null && sessionFinale != null) {
+                try {
+                    sessionFinale.setAttribute(DERNIERE_ECRITURE, ecriture);
+                } catch (IllegalStateException invalidee) {
+                    // Session fermée pendant la requête (déconnexion)
+                }
+            }
+            CoherenceLecture.effacer();
+        }
+    }
+}
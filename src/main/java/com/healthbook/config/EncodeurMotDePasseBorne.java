@@ -0,0 +1,134 @@
+package com.healthbook.config;
+
+import com.healthbook.dto.StatistiquesHachage;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exécute BCrypt (encode et matches) sur un pool dédié de taille fixe avec une file bornée.
+ * Les threads Tomcat attendent le résultat sans consommer de CPU ; quand la file est pleine
+ * la demande est refusée tout de suite au lieu de bloquer les autres pages.
+ */
+public class EncodeurMotDePasseBorne implements PasswordEncoder {
+
+    private final PasswordEncoder delegue;
+    private final ThreadPoolExecutor executeur;
+    private final long attenteMaxMillis;
+
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder rejets = new LongAdder();
+    private final LongAdder attenteTotaleNanos = new LongAdder();
+    private final LongAdder dureeTotaleNanos = new LongAdder();
+    private final LongAccumulator attenteMaxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator dureeMaxNanos = new LongAccumulator(Math::max, 0);
+
+    public EncodeurMotDePasseBorne(PasswordEncoder delegue, int threads, int tailleFile, long attenteMaxMillis) {
+        this.delegue = delegue;
+        this.attenteMaxMillis = attenteMaxMillis;
+        AtomicInteger numero = new AtomicInteger();
+        this.executeur = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tailleFile),
+                tache -> {
+                    Thread thread = new Thread(tache, "hachage-mdp-" + numero.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // ========================
+    // PASSWORD ENCODER
+    // ========================
+    @Override
+    public String encode(CharSequence motDePasse) {
+        return executer(() -> delegue.encode(motDePasse));
+    }
+
+    @Override
+    public boolean matches(CharSequence motDePasse, String hache) {
+        return executer(() -> delegue.matches(motDePasse, hache));
+    }
+
+    // Vrai si le hash stocké a un coût inférieur au coût configuré : rehaché à la connexion
+    @Override
+    public boolean upgradeEncoding(String hache) {
+        return delegue.upgradeEncoding(hache);
+    }
+
+    // ========================
+    // STATISTIQUES
+    // ========================
+    public StatistiquesHachage statistiques() {
+        long nombre = operations.sum();
+        return new StatistiquesHachage(
+                nombre,
+                rejets.sum(),
+                executeur.getQueue().size(),
+                nombre == 0 ? 0 : attenteTotaleNanos.sum() / nombre / 1_000,
+                attenteMaxNanos.get() / 1_000,
+                nombre == 0 ? 0 : dureeTotaleNanos.sum() / nombre / 1_000,
+                dureeMaxNanos.get() / 1_000);
+    }
+
+    public void arreter() {
+        executeur.shutdownNow();
+    }
+
+    // ========================
+    // MÉTHODES PRIVÉES
+    // ========================
+    private <T> T executer(Callable<T> calcul) {
+        long soumission = System.nanoTime();
+        Future<T> resultat;
+        try {
+            resultat = executeur.submit(() -> {
+                long debut = System.nanoTime();
+                try {
+                    return calcul.call();
+                } finally {
+                    mesurer(debut - soumission, System.nanoTime() - debut);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejets.increment();
+            throw new AuthenticationServiceException("Trop de demandes d'authentification en cours, veuillez réessayer");
+        }
+
+        try {
+            return resultat.get(attenteMaxMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            resultat.cancel(true);
+            rejets.increment();
+            throw new AuthenticationServiceException("Délai d'authentification dépassé, veuillez réessayer");
+        } catch (InterruptedException e) {
+            resultat.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Authentification interrompue");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new AuthenticationServiceException("Erreur de hachage du mot de passe", e.getCause());
+        }
+    }
+
+    private void mesurer(long attenteNanos, long dureeNanos) {
+        operations.increment();
+        attenteTotaleNanos.add(attenteNanos);
+        attenteMaxNanos.accumulate(attenteNanos);
+        dureeTotaleNanos.add(dureeNanos);
+        dureeMaxNanos.accumulate(dureeNanos);
+    }
+}
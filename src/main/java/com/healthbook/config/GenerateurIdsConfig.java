@@ -0,0 +1,53 @@
+package com.healthbook.config;
+
+import com.healthbook.entity.RendezVous;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aligne le générateur d'identifiants des RDV sur les lignes déjà présentes
+ * (créées du temps de l'auto-incrément ou importées hors application).
+ * L'EntityManagerFactory est injectée pour passer après les migrations et la validation du schéma.
+ */
+@Component
+public class GenerateurIdsConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(GenerateurIdsConfig.class);
+    private static final String ENTITE = "rendez_vous";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public GenerateurIdsConfig(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ========================
+    // ALIGNEMENT AU DÉMARRAGE
+    // ========================
+    @PostConstruct
+    public void alignerGenerateurRendezVous() {
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM rendez_vous", Long.class);
+            // Un bloc complet au-delà du max : le premier bloc alloué ne peut pas recouvrir l'existant
+            long prochainId = maxId + RendezVous.TAILLE_ALLOCATION_ID + 1;
+
+            int lignes = jdbcTemplate.update(
+                    "UPDATE generateurs_id SET prochain_id = ? WHERE entite = ? AND prochain_id < ?",
+                    prochainId, ENTITE, prochainId);
+            Integer existe = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM generateurs_id WHERE entite = ?", Integer.class, ENTITE);
+            if (lignes == 0 && existe == 0) {
+                jdbcTemplate.update("INSERT INTO generateurs_id (entite, prochain_id) VALUES (?, ?)",
+                        ENTITE, prochainId);
+            }
+        } catch (RuntimeException e) {
+            // Sans alignement, les premiers identifiants alloués peuvent recouvrir des RDV existants
+            log.error("Alignement du générateur d'identifiants des RDV impossible", e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.healthbook.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Placé avant l'authentification par formulaire : une tentative refusée par le limiteur
+ * reçoit un 429 sans aucune vérification BCrypt.
+ */
+public class LimiteurConnexionFilter extends OncePerRequestFilter {
+
+    private static final RequestMatcher CONNEXION = PathPatternRequestMatcher.withDefaults()
+            .matcher(HttpMethod.POST, "/login");
+
+    private final LimiteurConnexions limiteur;
+
+    public LimiteurConnexionFilter(LimiteurConnexions limiteur) {
+        this.limiteur = limiteur;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !CONNEXION.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long attenteMillis = limiteur.tenter(request.getParameter("username"), request.getRemoteAddr());
+        if (attenteMillis > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf((attenteMillis + 999) / 1000));
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Trop de tentatives de connexion, veuillez réessayer plus tard");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,125 @@
+package com.healthbook.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Seaux à jetons des tentatives de connexion, un par identifiant et un par adresse IP.
+ * Chaque seau tient dans un AtomicLong (instant théorique où il sera de nouveau plein,
+ * algorithme GCRA) : consommer un jeton est un simple compare-and-set, sans verrou.
+ * Un seau plein équivaut à un seau absent, on peut donc le retirer sans rien perdre ;
+ * au-delà de la capacité, les seaux pleins sont purgés puis, sous attaque, ceux qui le redeviendront
+ * le plus tôt (les moins sollicités récemment) : un seau épuisé par un attaquant est conservé.
+ */
+@Component
+public class LimiteurConnexions {
+
+    private final Map<String, AtomicLong> seaux = new ConcurrentHashMap<>();
+    private final AtomicBoolean purgeEnCours = new AtomicBoolean();
+    private final Regle regleIdentifiant;
+    private final Regle regleAdresse;
+    private final int clesMax;
+    private final LongSupplier horloge;
+
+    @Autowired
+    public LimiteurConnexions(@Value("${app.connexion.rafale-identifiant:5}") int rafaleIdentifiant,
+                              @Value("${app.connexion.recharge-identifiant-ms:12000}") long rechargeIdentifiantMillis,
+                              @Value("${app.connexion.rafale-ip:20}") int rafaleAdresse,
+                              @Value("${app.connexion.recharge-ip-ms:1000}") long rechargeAdresseMillis,
+                              @Value("${app.connexion.cles-max:100000}") int clesMax) {
+        this(new Regle(rafaleIdentifiant, rechargeIdentifiantMillis), new Regle(rafaleAdresse, rechargeAdresseMillis),
+                clesMax, System::nanoTime);
+    }
+
+    LimiteurConnexions(Regle regleIdentifiant, Regle regleAdresse, int clesMax, LongSupplier horloge) {
+        this.regleIdentifiant = regleIdentifiant;
+        this.regleAdresse = regleAdresse;
+        this.clesMax = clesMax;
+        this.horloge = horloge;
+    }
+
+    // ========================
+    // CONSOMMER UNE TENTATIVE
+    // ========================
+
+    /**
+     * Prend un jeton dans le seau de l'adresse puis dans celui de l'identifiant.
+     * Retourne 0 si la tentative est autorisée, sinon le délai d'attente en millisecondes.
+     */
+    public long tenter(String identifiant, String adresse) {
+        long maintenant = horloge.getAsLong();
+        long attente = consommer("ip:" + adresse, regleAdresse, maintenant);
+        if (attente == 0 && identifiant != null && !identifiant.isBlank()) {
+            attente = consommer("id:" + identifiant.trim().toLowerCase(), regleIdentifiant, maintenant);
+        }
+        return attente;
+    }
+
+    public int taille() {
+        return seaux.size();
+    }
+
+    // ========================
+    // MÉTHODES PRIVÉES
+    // ========================
+    private long consommer(String cle, Regle regle, long maintenant) {
+        AtomicLong seau = seaux.get(cle);
+        if (seau == null) {
+            if (seaux.size() >= clesMax) {
+                purger(maintenant);
+            }
+            seau = seaux.computeIfAbsent(cle, c -> new AtomicLong(maintenant));
+        }
+
+        while (true) {
+            long pleinA = seau.get();
+            long base = Math.max(pleinA, maintenant);
+            // Plus de jeton tant que le seau ne peut pas absorber un intervalle de plus
+            long depassement = base + regle.intervalleNanos - maintenant - regle.capaciteNanos;
+            if (depassement > 0) {
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(depassement));
+            }
+            if (seau.compareAndSet(pleinA, base + regle.intervalleNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    // Un seul thread purge, les autres continuent sans attendre
+    private void purger(long maintenant) {
+        if (!purgeEnCours.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            seaux.values().removeIf(seau -> seau.get() <= maintenant);
+            int aRetirer = seaux.size() - clesMax * 3 / 4;
+            if (aRetirer <= 0) {
+                return;
+            }
+            // Seuil : instant de remplissage du aRetirer-ième seau le plus proche d'être plein
+            long[] pleinsA = seaux.values().stream().mapToLong(AtomicLong::get).sorted().toArray();
+            if (pleinsA.length > 0) {
+                long seuil = pleinsA[Math.min(aRetirer, pleinsA.length) - 1];
+                seaux.values().removeIf(seau -> seau.get() <= seuil);
+            }
+        } finally {
+            purgeEnCours.set(false);
+        }
+    }
+
+    // Rafale autorisée et délai de recharge d'un jeton
+    record Regle(long capaciteNanos, long intervalleNanos) {
+
+        Regle(int rafale, long rechargeMillis) {
+            this(TimeUnit.MILLISECONDS.toNanos(rechargeMillis) * rafale, TimeUnit.MILLISECONDS.toNanos(rechargeMillis));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.healthbook.config;
+
+import com.healthbook.service.ExpediteurFichier;
+import com.healthbook.service.ExpediteurNotifications;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class NotificationsConfig {
+
+    // Expéditeur par défaut : fichier local ; un autre bean ExpediteurNotifications (SMTP) le remplace
+    @Bean
+    @ConditionalOnMissingBean(ExpediteurNotifications.class)
+    public ExpediteurNotifications expediteurNotifications(
+            @Value("${app.notifications.fichier:${java.io.tmpdir}/healthbook/notifications.log}") String fichier,
+            @Value("${app.notifications.cles-retenues:10000}") int clesRetenues) {
+        return new ExpediteurFichier(Path.of(fichier), clesRetenues);
+    }
+}
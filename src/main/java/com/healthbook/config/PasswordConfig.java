@@ -1,15 +1,21 @@
 package com.healthbook.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class PasswordConfig {
-    
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+
+    // Pool borné : une rafale d'inscriptions ou de connexions ne monopolise pas les threads HTTP
+    @Bean(destroyMethod = "arreter")
+    public EncodeurMotDePasseBorne passwordEncoder(
+            @Value("${app.hachage.cout-bcrypt:10}") int cout,
+            @Value("${app.hachage.threads:0}") int threads,
+            @Value("${app.hachage.taille-file:64}") int tailleFile,
+            @Value("${app.hachage.attente-max-ms:5000}") long attenteMaxMillis) {
+        int taillePool = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new EncodeurMotDePasseBorne(new BCryptPasswordEncoder(cout), taillePool, tailleFile, attenteMaxMillis);
     }
-}
\ No newline at end of file
+}
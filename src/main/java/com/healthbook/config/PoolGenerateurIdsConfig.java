@@ -0,0 +1,48 @@
+package com.healthbook.config;
+
+import com.healthbook.entity.GenerateurIdentifiantsParBlocs;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Pool réservé aux blocs d'identifiants (GenerateurIdentifiantsParBlocs), avec les réglages du
+ * pool principal : une réservation prise pendant une transaction n'attend jamais une connexion
+ * tenue par une autre requête. Transmis à Hibernate par ses propriétés ; sans pool Hikari
+ * (base embarquée des tests), le générateur garde le pool principal.
+ */
+@Configuration
+public class PoolGenerateurIdsConfig implements DisposableBean {
+
+    private volatile HikariDataSource pool;
+
+    @Bean
+    public HibernatePropertiesCustomizer poolGenerateurIds(ObjectProvider<HikariDataSource> principal,
+                                                           @Value("${app.generateur-ids.taille-pool:2}") int taillePool) {
+        return proprietes -> {
+            HikariDataSource source = principal.getIfUnique();
+            if (source == null) {
+                return;
+            }
+            HikariConfig config = new HikariConfig();
+            source.copyStateTo(config);
+            config.setPoolName("generateur-ids");
+            config.setMaximumPoolSize(taillePool);
+            config.setMinimumIdle(1);
+            pool = new HikariDataSource(config);
+            proprietes.put(GenerateurIdentifiantsParBlocs.DATASOURCE, pool);
+        };
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+}
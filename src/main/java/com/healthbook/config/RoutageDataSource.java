@@ -0,0 +1,177 @@
+package com.healthbook.config;
+
+import com.healthbook.util.Transactions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aiguillage des connexions : les transactions en lecture seule vont à un réplica, tout le
+ * reste (écritures, hors transaction) à la base principale. À placer derrière un
+ * LazyConnectionDataSourceProxy, pour que la connexion soit demandée une fois la transaction
+ * marquée en lecture seule.
+ *
+ * Un battement (instant en ms) est écrit sur la base principale puis relu sur chaque réplica :
+ * un réplica en retard de plus de retardMaxMillis, ou injoignable, est écarté. Après une
+ * écriture, les lectures du même utilisateur restent sur la base principale jusqu'à ce qu'un
+ * réplica ait rejoué un battement postérieur (voir CoherenceLecture).
+ */
+public class RoutageDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(RoutageDataSource.class);
+    private static final String TABLE_BATTEMENT = "battement_replication";
+    private static final Object ECRITURE_SUIVIE = new Object();
+
+    private final DataSource primaire;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long retardMaxMillis;
+    private final AtomicInteger tour = new AtomicInteger();
+    private final AtomicLong lecturesReplica = new AtomicLong();
+    private final AtomicLong lecturesPrimaire = new AtomicLong();
+
+    public RoutageDataSource(DataSource primaire, List<? extends DataSource> replicas, long retardMaxMillis) {
+        this.primaire = primaire;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + (i + 1), replicas.get(i)));
+        }
+        this.retardMaxMillis = retardMaxMillis;
+    }
+
+    // Premier battement dès la fin du démarrage (table créée par les migrations), sans attendre la tâche planifiée
+    @EventListener(ContextRefreshedEvent.class)
+    public void initialiser() {
+        battre();
+    }
+
+    // ========================
+    // AIGUILLAGE
+    // ========================
+    @Override
+    public Connection getConnection() throws SQLException {
+        return cible().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return cible().getConnection(username, password);
+    }
+
+    private DataSource cible() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return primaire;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            suivreEcriture();
+            return primaire;
+        }
+
+        int nombre = replicas.size();
+        if (nombre == 0) {
+            return primaire;
+        }
+        long exigence = CoherenceLecture.exigence();
+        long maintenant = System.currentTimeMillis();
+        int depart = Math.floorMod(tour.getAndIncrement(), nombre);
+        for (int i = 0; i < nombre; i++) {
+            Replica replica = replicas.get((depart + i) % nombre);
+            if (replica.disponible && replica.battementVu >= exigence
+                    && maintenant - replica.battementVu <= retardMaxMillis) {
+                lecturesReplica.incrementAndGet();
+                return replica.dataSource;
+            }
+        }
+        // Aucun réplica assez à jour : lecture sur la base principale
+        lecturesPrimaire.incrementAndGet();
+        return primaire;
+    }
+
+    // Une fois par transaction d'écriture : instant du commit retenu pour les lectures suivantes
+    private void suivreEcriture() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(ECRITURE_SUIVIE)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(ECRITURE_SUIVIE, Boolean.TRUE);
+        Transactions.apresCommit(() -> CoherenceLecture.ecritureValidee(System.currentTimeMillis()));
+        Transactions.apresFin(() -> TransactionSynchronizationManager.unbindResourceIfPossible(ECRITURE_SUIVIE));
+    }
+
+    // ========================
+    // BATTEMENT ET RETARD DES RÉPLICAS
+    // ========================
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.battement-ms:1000}")
+    public void battre() {
+        try {
+            new JdbcTemplate(primaire).update("UPDATE " + TABLE_BATTEMENT + " SET instant = ? WHERE id = 1",
+                    System.currentTimeMillis());
+        } catch (DataAccessException e) {
+            log.warn("Battement non écrit sur la base principale : {}", e.getMessage());
+        }
+        for (Replica replica : replicas) {
+            boolean etaitDisponible = replica.disponible;
+            try {
+                Long instant = new JdbcTemplate(replica.dataSource)
+                        .queryForObject("SELECT instant FROM " + TABLE_BATTEMENT + " WHERE id = 1", Long.class);
+                replica.battementVu = instant != null ? instant : 0;
+                replica.disponible = true;
+            } catch (DataAccessException e) {
+                replica.disponible = false;
+                if (etaitDisponible) {
+                    log.warn("{} écarté : {}", replica.nom, e.getMessage());
+                }
+            }
+        }
+    }
+
+    public long getLecturesReplica() {
+        return lecturesReplica.get();
+    }
+
+    public long getLecturesPrimaire() {
+        return lecturesPrimaire.get();
+    }
+
+    // Retard de chaque réplica (ms), -1 s'il est injoignable
+    public List<Long> getRetardsMillis() {
+        long maintenant = System.currentTimeMillis();
+        return replicas.stream().map(replica -> replica.disponible ? maintenant - replica.battementVu : -1L).toList();
+    }
+
+    public void fermer() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable fermable) {
+                try {
+                    fermable.close();
+                } catch (Exception e) {
+                    log.warn("Fermeture de {} : {}", replica.nom, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String nom;
+        private final DataSource dataSource;
+        private volatile boolean disponible;
+        private volatile long battementVu;
+
+        private Replica(String nom, DataSource dataSource) {
+            this.nom = nom;
+            this.dataSource = dataSource;
+        }
+    }
+}
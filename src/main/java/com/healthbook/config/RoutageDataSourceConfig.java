@@ -0,0 +1,64 @@
+package com.healthbook.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Active seulement si des réplicas sont déclarés (app.datasource.replicas.urls) ; sinon la
+ * source de données unique de Spring Boot reste en place. Les réplicas reprennent l'utilisateur,
+ * le mot de passe et le pilote de spring.datasource.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.urls")
+public class RoutageDataSourceConfig {
+
+    // Pool de la base principale, réglé comme d'habitude par spring.datasource.hikari.* ; les migrations y passent
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimaire(DataSourceProperties proprietes) {
+        return proprietes.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "fermer")
+    public RoutageDataSource routageDataSource(@Qualifier("dataSourcePrimaire") DataSource primaire,
+                                               DataSourceProperties proprietes,
+                                               @Value("${app.datasource.replicas.urls}") List<String> urls,
+                                               @Value("${app.datasource.replicas.taille-pool:20}") int taillePool,
+                                               @Value("${app.datasource.replicas.retard-max-ms:5000}") long retardMaxMillis) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            // Pool ouvert à la première lecture : un réplica absent au démarrage est simplement écarté
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(proprietes.determineUsername());
+            replica.setPassword(proprietes.determinePassword());
+            replica.setDriverClassName(proprietes.determineDriverClassName());
+            replica.setMaximumPoolSize(taillePool);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new RoutageDataSource(primaire, replicas, retardMaxMillis);
+    }
+
+    // Connexion réelle obtenue à la première requête SQL, quand le caractère lecture seule est connu
+    @Bean
+    @Primary
+    public DataSource dataSource(RoutageDataSource routageDataSource) {
+        return new LazyConnectionDataSourceProxy(routageDataSource);
+    }
+}
@@ -1,10 +1,15 @@
 package com.healthbook.config;
 
+import java.util.Map;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.ExceptionMappingAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
@@ -13,8 +18,10 @@ import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, LimiteurConnexions limiteurConnexions) throws Exception {
         http
+            // ⏱️ LIMITATION DES TENTATIVES DE CONNEXION (avant tout calcul BCrypt)
+            .addFilterBefore(new LimiteurConnexionFilter(limiteurConnexions), UsernamePasswordAuthenticationFilter.class)
             // 🔒 PROTECTION CSRF
             .csrf(csrf -> csrf
                 .csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse())
@@ -33,7 +40,10 @@ public class SecurityConfig {
                 .requestMatchers("/", "/login", "/register", "/css/**", "/js/**").permitAll()
                 .requestMatchers("/admin/**").hasRole("ADMIN")
                 .requestMatchers("/patients", "/patients/**").hasRole("ADMIN")
+                .requestMatchers("/medecins/import").hasRole("ADMIN")
+                .requestMatchers("/medecins/suggest").hasAnyRole("ADMIN", "MEDECIN", "PATIENT")
                 .requestMatchers("/medecins", "/medecins/**").hasAnyRole("ADMIN", "MEDECIN")
+                .requestMatchers("/rendezvous/import", "/rendezvous/export").hasRole("ADMIN")
                 .requestMatchers("/rendezvous/**").hasAnyRole("ADMIN", "MEDECIN", "PATIENT")
                 .requestMatchers("/dashboard/**").authenticated()
                 .anyRequest().authenticated()
@@ -42,7 +52,7 @@ public class SecurityConfig {
             .formLogin(form -> form
                 .loginPage("/login")
                 .defaultSuccessUrl("/dashboard", true)
-                .failureUrl("/login?error=true")
+                .failureHandler(echecConnexion())
                 .permitAll()
             )
             // 🚪 DÉCONNEXION SÉCURISÉE
@@ -56,4 +66,13 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    // Pool de hachage saturé : message distinct de « mot de passe incorrect »
+    private ExceptionMappingAuthenticationFailureHandler echecConnexion() {
+        ExceptionMappingAuthenticationFailureHandler handler = new ExceptionMappingAuthenticationFailureHandler();
+        handler.setDefaultFailureUrl("/login?error=true");
+        handler.setExceptionMappings(Map.of(
+                AuthenticationServiceException.class.getName(), "/login?error=indisponible"));
+        return handler;
+    }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import java.util.Arrays;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -43,7 +44,9 @@ public class AuthController {
     public String login(@RequestParam(value = "error", required = false) String error,
                        @RequestParam(value = "logout", required = false) String logout,
                        Model model) {
-        if (error != null) {
+        if ("indisponible".equals(error)) {
+            model.addAttribute("error", "Trop de connexions en cours, veuillez réessayer dans un instant");
+        } else if (error != null) {
             model.addAttribute("error", "Email ou mot de passe incorrect");
         }
         if (logout != null) {
@@ -160,6 +163,9 @@ public class AuthController {
             
             logger.info("Création compte: {} {} ({})", prenom, nom, userRole);
 
+            // Haché avant toute écriture : un refus du pool ne laisse pas de fiche orpheline
+            String motDePasseHache = passwordEncoder.encode(password);
+
             Patient patient = null;
             Medecin medecin = null;
             
@@ -186,7 +192,7 @@ public class AuthController {
             
             User user = new User();
             user.setUsername(email.trim().toLowerCase());
-            user.setPassword(passwordEncoder.encode(password));
+            user.setPassword(motDePasseHache);
             user.setRole(userRole);
             
             if (patient != null) user.setPatient(patient);
@@ -197,7 +203,13 @@ public class AuthController {
             model.addAttribute("success", "Compte créé avec succès ! Vous pouvez maintenant vous connecter.");
             model.addAttribute("roles", Arrays.asList("PATIENT", "MEDECIN"));
             return "auth/register";
-            
+
+        } catch (AuthenticationServiceException e) {
+            // Pool de hachage saturé : l'utilisateur peut réessayer
+            logger.warn("Inscription refusée: {}", e.getMessage());
+            model.addAttribute("error", e.getMessage());
+            model.addAttribute("roles", Arrays.asList("PATIENT", "MEDECIN"));
+            return "auth/register";
         } catch (Exception e) {
             logger.error("Erreur inscription: {}", e.getMessage());
             model.addAttribute("error", "Une erreur technique est survenue. Veuillez réessayer.");
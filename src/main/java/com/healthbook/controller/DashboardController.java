@@ -1,13 +1,23 @@
 package com.healthbook.controller;
 
+import com.healthbook.config.EncodeurMotDePasseBorne;
+import com.healthbook.dto.CurseurRendezVous;
+import com.healthbook.dto.TableauDeBord;
+import com.healthbook.dto.UtilisateurConnecte;
 import com.healthbook.entity.*;
 import com.healthbook.service.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 @Controller
@@ -17,37 +27,71 @@ public class DashboardController {
     private final UserService userService;
     private final PatientService patientService;
     private final MedecinService medecinService;
+    private final EncodeurMotDePasseBorne encodeurMotDePasse;
+    private final StatistiquesCacheService statistiquesCacheService;
+    private final VersionsRendezVous versionsRendezVous;
+    private final DistributeurNotifications distributeurNotifications;
+    private final PlanificateurRappels planificateurRappels;
+    private final SecurityContextRepository securityContextRepository = new HttpSessionSecurityContextRepository();
 
     public DashboardController(RendezVousService rendezVousService, 
                              UserService userService,
                              PatientService patientService,
-                             MedecinService medecinService) {
+                             MedecinService medecinService,
+                             EncodeurMotDePasseBorne encodeurMotDePasse,
+                             StatistiquesCacheService statistiquesCacheService,
+                             VersionsRendezVous versionsRendezVous,
+                             DistributeurNotifications distributeurNotifications,
+                             PlanificateurRappels planificateurRappels) {
         this.rendezVousService = rendezVousService;
         this.userService = userService;
         this.patientService = patientService;
         this.medecinService = medecinService;
+        this.encodeurMotDePasse = encodeurMotDePasse;
+        this.statistiquesCacheService = statistiquesCacheService;
+        this.versionsRendezVous = versionsRendezVous;
+        this.distributeurNotifications = distributeurNotifications;
+        this.planificateurRappels = planificateurRappels;
     }
 
     // ========================
     // DASHBOARD PRINCIPAL - GET /dashboard
     // ========================
     @GetMapping("/dashboard")
-    public String dashboard(Model model, HttpServletResponse response) {
-        // 🔥 DÉSACTIVER le cache pour forcer le rafraîchissement
-        response.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
-        response.setHeader("Pragma", "no-cache");
-        response.setDateHeader("Expires", 0);
-        
-        // Récupérer l'utilisateur connecté
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = (User) userService.loadUserByUsername(username);
+    public String dashboard(@RequestParam(required = false) String avant,
+                            @RequestParam(required = false) String apres,
+                            Model model, WebRequest requete, HttpServletResponse response) {
+        // Utilisateur connecté (instantané de session, sans requête)
+        UtilisateurConnecte user = UtilisateurConnecte.courant(userService);
 
-        // 🔥 FORCER le rechargement des RDV à CHAQUE appel
-        var rendezVous = rendezVousService.getRendezVousByUser(user);
-        model.addAttribute("rendezvous", rendezVous);
+        if (user.estAdmin()) {
+            // 🔥 DÉSACTIVER le cache : les compteurs (hachage, cache) changent à chaque requête
+            response.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
+            response.setHeader("Pragma", "no-cache");
+            response.setDateHeader("Expires", 0);
+        } else {
+            // 🔥 REVALIDER à chaque appel : 304 sans requête ni rendu si aucun RDV n'a changé
+            response.setHeader("Cache-Control", "private, no-cache");
+            if (requete.checkNotModified(versionsRendezVous.etag(user, "dashboard", requete.getSessionId()))) {
+                return null;
+            }
+        }
+
+        // Une page de RDV à la fois ; partitions, comptages par statut et prochain RDV préparés pour le template
+        TableauDeBord tableau = rendezVousService.getTableauDeBord(user,
+                CurseurRendezVous.lire(avant), CurseurRendezVous.lire(apres));
+        model.addAttribute("tableau", tableau);
+        model.addAttribute("rendezvous", tableau.page().rendezVous());
+        model.addAttribute("page", tableau.page());
         model.addAttribute("user", user);
 
+        if (user.estAdmin()) {
+            model.addAttribute("hachage", encodeurMotDePasse.statistiques());
+            model.addAttribute("regionsCache", statistiquesCacheService.getRegions());
+            model.addAttribute("notifications", distributeurNotifications.statistiques());
+            model.addAttribute("rappelsProgrammes", planificateurRappels.getNombreProgrammes());
+        }
+
         // Rediriger vers le template approprié
         switch (user.getRole()) {
             case PATIENT:
@@ -66,17 +110,15 @@ public class DashboardController {
     // ========================
     @GetMapping("/dashboard/edit")
     public String editProfileForm(Model model) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = (User) userService.loadUserByUsername(username);
+        UtilisateurConnecte user = UtilisateurConnecte.courant(userService);
         
         model.addAttribute("user", user);
         
         // Pré-remplir avec les données existantes
-        if (user.getRole() == Role.PATIENT && user.getPatient() != null) {
-            model.addAttribute("person", user.getPatient());
-        } else if (user.getRole() == Role.MEDECIN && user.getMedecin() != null) {
-            model.addAttribute("person", user.getMedecin());
+        if (user.estPatient()) {
+            patientService.getPatientById(user.getPatientId()).ifPresent(patient -> model.addAttribute("person", patient));
+        } else if (user.estMedecin()) {
+            medecinService.getMedecinById(user.getMedecinId()).ifPresent(medecin -> model.addAttribute("person", medecin));
         }
         
         return "dashboard/edit-profile";
@@ -89,26 +131,29 @@ public class DashboardController {
     public String updateProfile(@RequestParam String nom,
                               @RequestParam String prenom,
                               @RequestParam(required = false) String telephone,
-                              Model model) {
+                              Model model,
+                              HttpServletRequest request,
+                              HttpServletResponse response) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User user = (User) userService.loadUserByUsername(username);
+            UtilisateurConnecte user = UtilisateurConnecte.courant(userService);
             
             // Mettre à jour selon le rôle
-            if (user.getRole() == Role.PATIENT && user.getPatient() != null) {
-                Patient patient = user.getPatient();
+            if (user.estPatient()) {
+                Patient patient = patientService.getPatientById(user.getPatientId())
+                        .orElseThrow(() -> new RuntimeException("Patient non trouvé"));
                 patient.setNom(nom);
                 patient.setPrenom(prenom);
                 patient.setTelephone(telephone);
                 patientService.updatePatient(patient.getId(), patient);
-            } else if (user.getRole() == Role.MEDECIN && user.getMedecin() != null) {
-                Medecin medecin = user.getMedecin();
+            } else if (user.estMedecin()) {
+                Medecin medecin = medecinService.getMedecinById(user.getMedecinId())
+                        .orElseThrow(() -> new RuntimeException("Médecin non trouvé"));
                 medecin.setNom(nom);
                 medecin.setPrenom(prenom);
                 medecin.setTelephone(telephone);
                 medecinService.updateMedecin(medecin.getId(), medecin);
             }
+            rafraichirUtilisateurConnecte(request, response);
             
             return "redirect:/dashboard?success=Profil+mis+à+jour";
         } catch (Exception e) {
@@ -116,4 +161,19 @@ public class DashboardController {
             return "dashboard/edit-profile";
         }
     }
+
+    // Remplace l'instantané de session après un changement de profil
+    private void rafraichirUtilisateurConnecte(HttpServletRequest request, HttpServletResponse response) {
+        Authentication actuelle = SecurityContextHolder.getContext().getAuthentication();
+        UtilisateurConnecte utilisateur = UtilisateurConnecte.depuis(userService.loadUserByUsername(actuelle.getName()));
+        utilisateur.eraseCredentials();
+
+        UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+                utilisateur, null, utilisateur.getAuthorities());
+        authentication.setDetails(actuelle.getDetails());
+        SecurityContext contexte = SecurityContextHolder.createEmptyContext();
+        contexte.setAuthentication(authentication);
+        SecurityContextHolder.setContext(contexte);
+        securityContextRepository.saveContext(contexte, request, response);
+    }
 }
\ No newline at end of file
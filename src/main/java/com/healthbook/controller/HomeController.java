@@ -1,10 +1,8 @@
 package com.healthbook.controller;
 
-import com.healthbook.entity.User;
-import com.healthbook.entity.Role;
-import com.healthbook.service.PatientService;
-import com.healthbook.service.MedecinService;
-import com.healthbook.service.RendezVousService;
+import com.healthbook.dto.StatistiquesAccueil;
+import com.healthbook.dto.UtilisateurConnecte;
+import com.healthbook.service.StatistiquesAccueilService;
 import com.healthbook.service.UserService;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,18 +13,12 @@ import org.springframework.web.bind.annotation.GetMapping;
 @Controller
 public class HomeController {
 
-    private final PatientService patientService;
-    private final MedecinService medecinService;
-    private final RendezVousService rendezVousService;
+    private final StatistiquesAccueilService statistiquesAccueilService;
     private final UserService userService;
 
-    public HomeController(PatientService patientService,
-                         MedecinService medecinService,
-                         RendezVousService rendezVousService,
+    public HomeController(StatistiquesAccueilService statistiquesAccueilService,
                          UserService userService) {
-        this.patientService = patientService;
-        this.medecinService = medecinService;
-        this.rendezVousService = rendezVousService;
+        this.statistiquesAccueilService = statistiquesAccueilService;
         this.userService = userService;
     }
 
@@ -41,18 +33,15 @@ public class HomeController {
                                  !authentication.getName().equals("anonymousUser");
         
         if (isAuthenticated) {
-            String username = authentication.getName();
-            User user = (User) userService.loadUserByUsername(username);
-            model.addAttribute("currentUser", user);
+            model.addAttribute("currentUser", UtilisateurConnecte.courant(userService));
         }
         
-        // Statistiques globales (visibles par tous)
-        long totalPatients = patientService.countPatients();
-        long totalMedecins = medecinService.getAllMedecins().size();
+        // Statistiques globales (visibles par tous, en cache quelques secondes)
+        StatistiquesAccueil statistiques = statistiquesAccueilService.getStatistiques();
         
-        model.addAttribute("totalPatients", totalPatients);
-        model.addAttribute("totalMedecins", totalMedecins);
-        model.addAttribute("prochainsRDV", rendezVousService.getProchainsRendezVous());
+        model.addAttribute("totalPatients", statistiques.totalPatients());
+        model.addAttribute("totalMedecins", statistiques.totalMedecins());
+        model.addAttribute("rendezVousAVenir", statistiques.rendezVousAVenir());
         
         return "home";
     }
@@ -1,11 +1,17 @@
 package com.healthbook.controller;
 
+import com.healthbook.dto.RapportImport;
+import com.healthbook.dto.SuggestionMedecin;
 import com.healthbook.entity.Medecin;
+import com.healthbook.service.AnnuaireImportService;
 import com.healthbook.service.MedecinService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @Controller
@@ -13,9 +19,11 @@ import java.util.List;
 public class MedecinController {
 
     private final MedecinService medecinService;
+    private final AnnuaireImportService annuaireImportService;
 
-    public MedecinController(MedecinService medecinService) {
+    public MedecinController(MedecinService medecinService, AnnuaireImportService annuaireImportService) {
         this.medecinService = medecinService;
+        this.annuaireImportService = annuaireImportService;
     }
 
     // ========================
@@ -56,4 +64,37 @@ public class MedecinController {
         
         return "medecins/list";
     }
-}
\ No newline at end of file
+
+    // ========================
+    // AUTOCOMPLÉTION (JSON) - GET /medecins/suggest?q=...
+    // ========================
+    @GetMapping("/suggest")
+    @ResponseBody
+    public List<SuggestionMedecin> suggererMedecins(@RequestParam(defaultValue = "") String q,
+                                                    @RequestParam(defaultValue = "10") int nombre) {
+        return medecinService.suggererMedecins(q, nombre);
+    }
+
+    // ========================
+    // IMPORT EN MASSE - GET/POST /medecins/import
+    // ========================
+    @GetMapping("/import")
+    public String showImportForm() {
+        return "medecins/import";
+    }
+
+    @PostMapping("/import")
+    public String importerMedecins(@RequestParam("fichier") MultipartFile fichier, Model model) {
+        if (fichier.isEmpty()) {
+            model.addAttribute("error", "Veuillez choisir un fichier CSV");
+            return "medecins/import";
+        }
+        try (InputStream flux = fichier.getInputStream()) {
+            RapportImport rapport = annuaireImportService.importerMedecins(flux);
+            model.addAttribute("rapport", rapport);
+        } catch (IOException | RuntimeException e) {
+            model.addAttribute("error", "Erreur lors de l'import : " + e.getMessage());
+        }
+        return "medecins/import";
+    }
+}
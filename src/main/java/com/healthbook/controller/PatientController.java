@@ -1,15 +1,18 @@
 package com.healthbook.controller;
 
+import com.healthbook.dto.RapportImport;
+import com.healthbook.dto.UtilisateurConnecte;
 import com.healthbook.entity.Patient;
-import com.healthbook.entity.User;
+import com.healthbook.service.AnnuaireImportService;
 import com.healthbook.service.PatientService;
 import com.healthbook.service.UserService;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,39 +22,44 @@ public class PatientController {
 
     private final PatientService patientService;
     private final UserService userService;
+    private final AnnuaireImportService annuaireImportService;
 
-    public PatientController(PatientService patientService, UserService userService) {
+    public PatientController(PatientService patientService, UserService userService,
+                             AnnuaireImportService annuaireImportService) {
         this.patientService = patientService;
         this.userService = userService;
+        this.annuaireImportService = annuaireImportService;
     }
 
-    // Récupérer l'utilisateur connecté
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return (User) userService.loadUserByUsername(username);
+    // Récupérer l'utilisateur connecté (instantané de session)
+    private UtilisateurConnecte getCurrentUser() {
+        return UtilisateurConnecte.courant(userService);
     }
 
     // ========================
     // LISTE PATIENTS - GET /patients
     // ========================
     @GetMapping
-    public String listPatients(Model model) {
-        User currentUser = getCurrentUser();
+    public String listPatients(@RequestParam(required = false) String q, Model model) {
+        UtilisateurConnecte currentUser = getCurrentUser();
         List<Patient> patients;
         
         // 🔒 SÉCURITÉ : Filtrer selon le rôle
         if (currentUser.getRole().name().equals("ADMIN")) {
-            patients = patientService.getAllPatients(); // Admin voit tout
+            // Admin voit tout, ou le résultat de sa recherche
+            patients = q == null || q.isBlank() ? patientService.getAllPatients() : patientService.searchPatients(q);
         } else if (currentUser.getRole().name().equals("PATIENT")) {
             // Patient ne voit que lui-même
-            patients = List.of(currentUser.getPatient());
+            patients = currentUser.estPatient()
+                    ? patientService.getPatientById(currentUser.getPatientId()).map(List::of).orElse(List.of())
+                    : List.of();
         } else {
             // Médecin ou autres : liste vide ou accès refusé
             return "redirect:/dashboard?error=Accès+refusé";
         }
         
         model.addAttribute("patients", patients);
+        model.addAttribute("recherche", q);
         return "patients/list";
     }
 
@@ -60,11 +68,11 @@ public class PatientController {
     // ========================
     @GetMapping("/{id}")
     public String viewPatient(@PathVariable Long id, Model model) {
-        User currentUser = getCurrentUser();
+        UtilisateurConnecte currentUser = getCurrentUser();
         
         // 🔒 SÉCURITÉ : Vérifier les permissions
         if (currentUser.getRole().name().equals("PATIENT") && 
-            !currentUser.getPatient().getId().equals(id)) {
+            !id.equals(currentUser.getPatientId())) {
             return "redirect:/dashboard?error=Accès+refusé";
         }
         
@@ -82,7 +90,7 @@ public class PatientController {
     // ========================
     @GetMapping("/{id}/delete")
     public String deletePatient(@PathVariable Long id) {
-        User currentUser = getCurrentUser();
+        UtilisateurConnecte currentUser = getCurrentUser();
         
         // 🔒 SÉCURITÉ : Seul ADMIN peut supprimer
         if (!currentUser.getRole().name().equals("ADMIN")) {
@@ -114,4 +122,27 @@ public class PatientController {
             return "patients/form";
         }
     }
-}
\ No newline at end of file
+
+    // ========================
+    // IMPORT EN MASSE - GET/POST /patients/import
+    // ========================
+    @GetMapping("/import")
+    public String showImportForm() {
+        return "patients/import";
+    }
+
+    @PostMapping("/import")
+    public String importerPatients(@RequestParam("fichier") MultipartFile fichier, Model model) {
+        if (fichier.isEmpty()) {
+            model.addAttribute("error", "Veuillez choisir un fichier CSV");
+            return "patients/import";
+        }
+        try (InputStream flux = fichier.getInputStream()) {
+            RapportImport rapport = annuaireImportService.importerPatients(flux);
+            model.addAttribute("rapport", rapport);
+        } catch (IOException | RuntimeException e) {
+            model.addAttribute("error", "Erreur lors de l'import : " + e.getMessage());
+        }
+        return "patients/import";
+    }
+}
@@ -1,21 +1,45 @@
 package com.healthbook.controller;
 
+import com.healthbook.dto.AgendaMedecin;
+import com.healthbook.dto.CreneauLibre;
+import com.healthbook.dto.CurseurRendezVous;
+import com.healthbook.dto.PageRendezVous;
+import com.healthbook.dto.RapportImport;
+import com.healthbook.dto.UtilisateurConnecte;
 import com.healthbook.entity.Medecin;
 import com.healthbook.entity.Patient;
 import com.healthbook.entity.Role;
 import com.healthbook.entity.RendezVous;
-import com.healthbook.entity.User;
+import com.healthbook.service.AgendaService;
+import com.healthbook.service.CreneauxLibresService;
+import com.healthbook.service.DiffusionRendezVous;
+import com.healthbook.service.ExportRendezVousService;
 import com.healthbook.service.MedecinService;
 import com.healthbook.service.PatientService;
+import com.healthbook.service.RendezVousImportService;
 import com.healthbook.service.RendezVousService;
 import com.healthbook.service.UserService;
+import com.healthbook.service.VersionsRendezVous;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -27,50 +51,86 @@ public class RendezVousController {
     private final PatientService patientService;
     private final MedecinService medecinService;
     private final UserService userService;
+    private final CreneauxLibresService creneauxLibresService;
+    private final RendezVousImportService rendezVousImportService;
+    private final AgendaService agendaService;
+    private final VersionsRendezVous versionsRendezVous;
+    private final DiffusionRendezVous diffusion;
+    private final ExportRendezVousService exportRendezVousService;
+
+    private static final int CRENEAUX_PROPOSES = 10;
+    private static final int CRENEAUX_MAX = 50;
 
     public RendezVousController(RendezVousService rendezVousService,
                               PatientService patientService,
                               MedecinService medecinService,
-                              UserService userService) {
+                              UserService userService,
+                              CreneauxLibresService creneauxLibresService,
+                              RendezVousImportService rendezVousImportService,
+                              AgendaService agendaService,
+                              VersionsRendezVous versionsRendezVous,
+                              DiffusionRendezVous diffusion,
+                              ExportRendezVousService exportRendezVousService) {
         this.rendezVousService = rendezVousService;
         this.patientService = patientService;
         this.medecinService = medecinService;
         this.userService = userService;
+        this.creneauxLibresService = creneauxLibresService;
+        this.rendezVousImportService = rendezVousImportService;
+        this.agendaService = agendaService;
+        this.versionsRendezVous = versionsRendezVous;
+        this.diffusion = diffusion;
+        this.exportRendezVousService = exportRendezVousService;
     }
 
     // ========================
-    // MÉTHODE UTILITAIRE - Récupérer l'utilisateur connecté
+    // MÉTHODE UTILITAIRE - Récupérer l'utilisateur connecté (instantané de session)
     // ========================
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return (User) userService.loadUserByUsername(username);
+    private UtilisateurConnecte getCurrentUser() {
+        return UtilisateurConnecte.courant(userService);
+    }
+
+    // Un patient ne peut prendre RDV que pour lui-même
+    private List<Patient> patientsDe(UtilisateurConnecte currentUser) {
+        return currentUser.estPatient()
+                ? patientService.getPatientById(currentUser.getPatientId()).map(List::of).orElse(List.of())
+                : List.of();
     }
 
     // ========================
     // FORMULAIRE RDV - GET /rendezvous/new
     // ========================
     @GetMapping("/new")
-    public String showRendezVousForm(Model model) {
-        User currentUser = getCurrentUser();
+    public String showRendezVousForm(@RequestParam(required = false) String specialite, Model model) {
+        UtilisateurConnecte currentUser = getCurrentUser();
         
-        // 🔒 SÉCURITÉ : Filtrer les patients selon le rôle
-        if (currentUser.getRole() == Role.ADMIN) {
-            // Admin : voir tous les patients et médecins
-            model.addAttribute("patients", patientService.getAllPatients());
-            model.addAttribute("medecins", medecinService.getAllMedecins());
-        } else if (currentUser.getRole() == Role.PATIENT) {
-            // Patient : ne peut prendre RDV que pour lui-même
-            model.addAttribute("patients", List.of(currentUser.getPatient()));
-            model.addAttribute("medecins", medecinService.getAllMedecins());
-        } else if (currentUser.getRole() == Role.MEDECIN) {
+        if (currentUser.getRole() == Role.MEDECIN) {
             // Médecin : ne peut pas prendre de RDV
             return "redirect:/dashboard?error=Accès+refusé";
         }
+        preparerFormulaire(currentUser, model);
+        
+        // Aide à la saisie : prochains créneaux libres de la spécialité choisie
+        if (specialite != null && !specialite.isEmpty()) {
+            model.addAttribute("selectedSpecialite", specialite);
+            model.addAttribute("creneauxLibres", creneauxLibresService.prochainsCreneauxLibres(
+                    specialite, CRENEAUX_PROPOSES, LocalDateTime.now()));
+        }
         
         return "rendezvous/form";
     }
 
+    // ========================
+    // PROCHAINS CRÉNEAUX LIBRES (JSON) - GET /rendezvous/creneaux?specialite=...
+    // ========================
+    @GetMapping("/creneaux")
+    @ResponseBody
+    public List<CreneauLibre> prochainsCreneauxLibres(@RequestParam String specialite,
+                                                      @RequestParam(defaultValue = "10") int nombre) {
+        int nombreBorne = Math.max(1, Math.min(nombre, CRENEAUX_MAX));
+        return creneauxLibresService.prochainsCreneauxLibres(specialite, nombreBorne, LocalDateTime.now());
+    }
+
     // ========================
     // PRISE DE RDV - POST /rendezvous/new
     // ========================
@@ -80,11 +140,11 @@ public class RendezVousController {
                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateHeure,
                                   @RequestParam String motif,
                                   Model model) {
-        User currentUser = getCurrentUser();
+        UtilisateurConnecte currentUser = getCurrentUser();
         
         // 🔒 SÉCURITÉ : Vérifier les permissions
         if (currentUser.getRole() == Role.PATIENT && 
-            !currentUser.getPatient().getId().equals(patientId)) {
+            !patientId.equals(currentUser.getPatientId())) {
             return "redirect:/dashboard?error=Accès+refusé";
         }
         
@@ -94,47 +154,166 @@ public class RendezVousController {
         } catch (Exception e) {
             model.addAttribute("error", e.getMessage());
             
-            // Recharger les listes selon le rôle
-            if (currentUser.getRole() == Role.ADMIN) {
-                model.addAttribute("patients", patientService.getAllPatients());
-                model.addAttribute("medecins", medecinService.getAllMedecins());
-            } else if (currentUser.getRole() == Role.PATIENT) {
-                model.addAttribute("patients", List.of(currentUser.getPatient()));
-                model.addAttribute("medecins", medecinService.getAllMedecins());
-            }
+            // Recharger les listes du formulaire
+            preparerFormulaire(currentUser, model);
             
             return "rendezvous/form";
         }
     }
 
+    // Listes du formulaire de prise de RDV (affichage et réaffichage après erreur)
+    private void preparerFormulaire(UtilisateurConnecte currentUser, Model model) {
+        // 🔒 SÉCURITÉ : Filtrer les patients selon le rôle
+        if (currentUser.getRole() == Role.ADMIN) {
+            // Admin : voir tous les patients et médecins
+            model.addAttribute("patients", patientService.getAllPatients());
+            model.addAttribute("medecins", medecinService.getAllMedecins());
+        } else if (currentUser.getRole() == Role.PATIENT) {
+            // Patient : ne peut prendre RDV que pour lui-même
+            model.addAttribute("patients", patientsDe(currentUser));
+            model.addAttribute("medecins", medecinService.getAllMedecins());
+        }
+        model.addAttribute("specialites", medecinService.getAllSpecialites());
+    }
+
+    // ========================
+    // IMPORT EN MASSE (ADMIN) - GET/POST /rendezvous/import
+    // ========================
+    @GetMapping("/import")
+    public String showImportForm() {
+        return "rendezvous/import";
+    }
+
+    @PostMapping("/import")
+    public String importerRendezVous(@RequestParam("fichier") MultipartFile fichier, Model model) {
+        if (fichier.isEmpty()) {
+            model.addAttribute("error", "Veuillez choisir un fichier CSV");
+            return "rendezvous/import";
+        }
+        try (InputStream flux = fichier.getInputStream()) {
+            RapportImport rapport = rendezVousImportService.importerCsv(flux);
+            model.addAttribute("rapport", rapport);
+        } catch (IOException | RuntimeException e) {
+            model.addAttribute("error", "Erreur lors de l'import : " + e.getMessage());
+        }
+        return "rendezvous/import";
+    }
+
     // ========================
     // LISTE RDV - GET /rendezvous
     // ========================
     @GetMapping
-    public String listRendezVous(Model model) {
-        User currentUser = getCurrentUser();
+    public String listRendezVous(@RequestParam(required = false) String avant,
+                                 @RequestParam(required = false) String apres,
+                                 Model model, WebRequest requete, HttpServletResponse response) {
+        UtilisateurConnecte currentUser = getCurrentUser();
+
+        // Revalidation à chaque affichage : 304 sans requête ni rendu si aucun RDV n'a changé
+        response.setHeader("Cache-Control", "private, no-cache");
+        if (requete.checkNotModified(versionsRendezVous.etag(currentUser, "liste", requete.getSessionId()))) {
+            return null;
+        }
         
-        // 🔒 SÉCURITÉ : Utiliser la méthode sécurisée
-        var rendezvous = rendezVousService.getRendezVousByUser(currentUser);
-        model.addAttribute("rendezvous", rendezvous);
+        // 🔒 SÉCURITÉ : Utiliser la méthode sécurisée, une page à la fois
+        PageRendezVous page = rendezVousService.getPageRendezVousByUser(currentUser,
+                CurseurRendezVous.lire(avant), CurseurRendezVous.lire(apres));
+        model.addAttribute("rendezvous", page.rendezVous());
+        model.addAttribute("page", page);
         
         return "rendezvous/list";
     }
 
+    // ========================
+    // EXPORT CSV - GET /rendezvous/export (admin, écrit au fil de la lecture)
+    // ========================
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exporterCsv() {
+        StreamingResponseBody corps = sortie -> exportRendezVousService.exporterCsv(sortie);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("rendez-vous-" + LocalDate.now() + ".csv").build().toString())
+                .body(corps);
+    }
+
+    // ========================
+    // EXPORT ICALENDAR - GET /rendezvous/agenda.ics (médecin : son agenda, admin : ?medecinId=)
+    // ========================
+    @GetMapping("/agenda.ics")
+    public ResponseEntity<StreamingResponseBody> exporterIcs(@RequestParam(required = false) Long medecinId) {
+        UtilisateurConnecte currentUser = getCurrentUser();
+
+        // 🔒 SÉCURITÉ : un médecin n'exporte que son agenda
+        Long medecinExporte;
+        if (currentUser.estMedecin()) {
+            medecinExporte = currentUser.getMedecinId();
+        } else if (currentUser.getRole() == Role.ADMIN && medecinId != null) {
+            medecinExporte = medecinId;
+        } else {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        StreamingResponseBody corps = sortie -> exportRendezVousService.exporterIcs(medecinExporte, sortie);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "calendar", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("agenda-" + medecinExporte + ".ics").build().toString())
+                .body(corps);
+    }
+
+    // ========================
+    // FLUX TEMPS RÉEL - GET /rendezvous/flux (Server-Sent Events)
+    // ========================
+    @GetMapping(path = "/flux", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter flux() {
+        // 🔒 SÉCURITÉ : chacun ne reçoit que les modifications de ses propres RDV
+        return diffusion.abonner(getCurrentUser());
+    }
+
+    // ========================
+    // AGENDA MÉDECIN - GET /rendezvous/agenda?vue=SEMAINE|MOIS&date=2025-03-14
+    // ========================
+    @GetMapping("/agenda")
+    public String agenda(@RequestParam(defaultValue = "SEMAINE") AgendaMedecin.Vue vue,
+                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                         @RequestParam(required = false) Long medecinId,
+                         Model model) {
+        UtilisateurConnecte currentUser = getCurrentUser();
+        
+        // 🔒 SÉCURITÉ : un médecin ne voit que son agenda, l'admin choisit le médecin
+        Long medecinAffiche;
+        if (currentUser.estMedecin()) {
+            medecinAffiche = currentUser.getMedecinId();
+        } else if (currentUser.getRole() == Role.ADMIN) {
+            model.addAttribute("medecins", medecinService.getAllMedecins());
+            medecinAffiche = medecinId;
+        } else {
+            return "redirect:/dashboard?error=Accès+refusé";
+        }
+        
+        if (medecinAffiche != null) {
+            LocalDate jour = date != null ? date : LocalDate.now();
+            model.addAttribute("agenda", agendaService.getAgenda(medecinAffiche, jour, vue));
+        }
+        model.addAttribute("vue", vue);
+        model.addAttribute("medecinId", medecinAffiche);
+        return "rendezvous/agenda";
+    }
+
     // ========================
     // CONFIRMER UN RDV - POST /rendezvous/{id}/confirm
     // ========================
     @PostMapping("/{id}/confirm")
     public String confirmRendezVous(@PathVariable Long id) {
         try {
-            User currentUser = getCurrentUser();
+            UtilisateurConnecte currentUser = getCurrentUser();
             RendezVous rdv = rendezVousService.findById(id)
                     .orElseThrow(() -> new RuntimeException("RDV non trouvé"));
             
             // 🔒 SÉCURITÉ : Seul le médecin concerné peut confirmer
-            if (currentUser.getRole() == Role.MEDECIN && 
-                currentUser.getMedecin() != null &&
-                currentUser.getMedecin().getId().equals(rdv.getMedecin().getId())) {
+            if (currentUser.estMedecin() && 
+                currentUser.getMedecinId().equals(rdv.getMedecin().getId())) {
                 
                 rendezVousService.confirmerRendezVous(id);
                 return "redirect:/dashboard?success=RDV+confirmé";
@@ -152,20 +331,18 @@ public class RendezVousController {
     @PostMapping("/{id}/cancel")
     public String cancelRendezVous(@PathVariable Long id) {
         try {
-            User currentUser = getCurrentUser();
+            UtilisateurConnecte currentUser = getCurrentUser();
             RendezVous rdv = rendezVousService.findById(id)
                     .orElseThrow(() -> new RuntimeException("RDV non trouvé"));
             
             // 🔒 SÉCURITÉ : Patient peut annuler ses RDV, médecin peut annuler ses consultations
             boolean canCancel = false;
             
-            if (currentUser.getRole() == Role.PATIENT && 
-                currentUser.getPatient() != null &&
-                currentUser.getPatient().getId().equals(rdv.getPatient().getId())) {
+            if (currentUser.estPatient() && 
+                currentUser.getPatientId().equals(rdv.getPatient().getId())) {
                 canCancel = true;
-            } else if (currentUser.getRole() == Role.MEDECIN && 
-                       currentUser.getMedecin() != null &&
-                       currentUser.getMedecin().getId().equals(rdv.getMedecin().getId())) {
+            } else if (currentUser.estMedecin() && 
+                       currentUser.getMedecinId().equals(rdv.getMedecin().getId())) {
                 canCancel = true;
             } else if (currentUser.getRole() == Role.ADMIN) {
                 canCancel = true;
@@ -0,0 +1,27 @@
+package com.healthbook.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Agenda d'un médecin sur une semaine ou un mois : un jour par entrée, jours vides compris.
+ * La période couvre [debut, fin).
+ */
+public record AgendaMedecin(Long medecinId, Vue vue, LocalDate debut, LocalDate fin, List<JourAgenda> jours) {
+
+    public enum Vue {
+        SEMAINE, MOIS
+    }
+
+    public LocalDate precedent() {
+        return vue == Vue.SEMAINE ? debut.minusWeeks(1) : debut.minusMonths(1);
+    }
+
+    public LocalDate suivant() {
+        return fin;
+    }
+
+    public int nombreRendezVous() {
+        return jours.stream().mapToInt(jour -> jour.rendezVous().size()).sum();
+    }
+}
@@ -0,0 +1,22 @@
+package com.healthbook.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Créneau occupé dans l'agenda d'un médecin (projection légère d'un RendezVous).
+ */
+public record Creneau(Long rendezVousId, LocalDateTime debut, Integer duree) {
+
+    public static final int DUREE_PAR_DEFAUT = 30;
+
+    // Durée maximale acceptée : borne aussi la fenêtre de recherche des RDV qui débordent sur un créneau
+    public static final int DUREE_MAX = 24 * 60;
+
+    public int dureeMinutes() {
+        return duree != null ? duree : DUREE_PAR_DEFAUT;
+    }
+
+    public LocalDateTime fin() {
+        return debut.plusMinutes(dureeMinutes());
+    }
+}
@@ -0,0 +1,10 @@
+package com.healthbook.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Créneau libre proposé à la prise de rendez-vous.
+ */
+public record CreneauLibre(Long medecinId, String medecinNom, String medecinPrenom,
+                           String specialite, LocalDateTime debut) {
+}
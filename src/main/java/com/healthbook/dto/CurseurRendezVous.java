@@ -0,0 +1,34 @@
+package com.healthbook.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position dans une liste de RDV triée par (dateHeure, id), transmise dans l'URL
+ * sous la forme « 2025-03-14T09:30_42 ».
+ */
+public record CurseurRendezVous(LocalDateTime dateHeure, Long id) {
+
+    // Borne de la première page : postérieure à tous les RDV possibles
+    public static final CurseurRendezVous FIN = new CurseurRendezVous(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    public static CurseurRendezVous lire(String jeton) {
+        if (jeton == null || jeton.isBlank()) {
+            return null;
+        }
+        int separateur = jeton.lastIndexOf('_');
+        if (separateur < 0) {
+            return null;
+        }
+        try {
+            return new CurseurRendezVous(LocalDateTime.parse(jeton.substring(0, separateur)),
+                    Long.valueOf(jeton.substring(separateur + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public String jeton() {
+        return dateHeure + "_" + id;
+    }
+}
@@ -0,0 +1,28 @@
+package com.healthbook.dto;
+
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Patient;
+import com.healthbook.entity.RendezVous;
+
+import java.time.LocalDateTime;
+
+/**
+ * Modification d'un RDV poussée aux tableaux de bord ouverts (flux SSE /rendezvous/flux).
+ * Construit dans la transaction de la modification, envoyé après commit.
+ */
+public record EvenementRendezVous(Type type, Long id, LocalDateTime dateHeure, RendezVous.StatutRDV statut,
+                                  String motif, Long patientId, String patient, Long medecinId, String medecin) {
+
+    public enum Type { CREE, CONFIRME, ANNULE, SUPPRIME }
+
+    public static EvenementRendezVous depuis(Type type, RendezVous rendezVous) {
+        Patient patient = rendezVous.getPatient();
+        Medecin medecin = rendezVous.getMedecin();
+        return new EvenementRendezVous(type, rendezVous.getId(), rendezVous.getDateHeure(), rendezVous.getStatut(),
+                rendezVous.getMotif(),
+                patient != null ? patient.getId() : null,
+                patient != null ? patient.getNom() + " " + patient.getPrenom() : null,
+                medecin != null ? medecin.getId() : null,
+                medecin != null ? medecin.getNom() + " " + medecin.getPrenom() : null);
+    }
+}
@@ -0,0 +1,12 @@
+package com.healthbook.dto;
+
+import com.healthbook.entity.RendezVous;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * RDV d'une journée de l'agenda, triés par heure.
+ */
+public record JourAgenda(LocalDate date, List<RendezVous> rendezVous) {
+}
@@ -0,0 +1,7 @@
+package com.healthbook.dto;
+
+/**
+ * Message remis à l'expéditeur ; la clé est stable d'un essai à l'autre (dédoublonnage).
+ */
+public record MessageNotification(String cle, String destinataire, String sujet, String corps) {
+}
@@ -0,0 +1,9 @@
+package com.healthbook.dto;
+
+import com.healthbook.entity.RendezVous;
+
+/**
+ * Ligne d'un comptage de RDV groupé par statut (GROUP BY en base).
+ */
+public record NombreParStatut(RendezVous.StatutRDV statut, long nombre) {
+}
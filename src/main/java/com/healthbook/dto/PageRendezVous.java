@@ -0,0 +1,16 @@
+package com.healthbook.dto;
+
+import com.healthbook.entity.RendezVous;
+
+import java.util.List;
+
+/**
+ * Page de RDV (du plus récent au plus ancien) avec les jetons des pages voisines,
+ * null quand il n'y a rien de plus récent ou de plus ancien.
+ */
+public record PageRendezVous(List<RendezVous> rendezVous, String plusRecents, String plusAnciens) {
+
+    public static PageRendezVous vide() {
+        return new PageRendezVous(List.of(), null, null);
+    }
+}
@@ -0,0 +1,7 @@
+package com.healthbook.dto;
+
+/**
+ * Champs d'un patient indexés pour la recherche (chargés sans les entités).
+ */
+public record PatientRecherche(Long id, String nom, String prenom, String email, String telephone) {
+}
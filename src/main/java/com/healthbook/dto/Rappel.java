@@ -0,0 +1,11 @@
+package com.healthbook.dto;
+
+import com.healthbook.entity.Notification.TypeNotification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rappel programmé pour un RDV ; la date du RDV permet d'écarter un rappel devenu obsolète.
+ */
+public record Rappel(Long rendezVousId, LocalDateTime dateHeure, TypeNotification type) {
+}
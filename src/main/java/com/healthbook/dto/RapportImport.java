@@ -0,0 +1,14 @@
+package com.healthbook.dto;
+
+import java.util.List;
+
+/**
+ * Bilan d'un import en masse : lignes lues, importées, rejetées (avec les premières erreurs) et débit.
+ */
+public record RapportImport(int lignesLues, int lignesImportees, int lignesRejetees,
+                            List<String> erreurs, long dureeMillis) {
+
+    public long lignesParSeconde() {
+        return dureeMillis > 0 ? lignesImportees * 1000L / dureeMillis : lignesImportees;
+    }
+}
@@ -0,0 +1,7 @@
+package com.healthbook.dto;
+
+/**
+ * Chiffres affichés sur la page d'accueil publique.
+ */
+public record StatistiquesAccueil(long totalPatients, long totalMedecins, long rendezVousAVenir) {
+}
@@ -0,0 +1,14 @@
+package com.healthbook.dto;
+
+/**
+ * Compteurs du pool de hachage des mots de passe (inscription, connexion, rehachage).
+ * Les durées sont en microsecondes : attente dans la file puis calcul BCrypt.
+ */
+public record StatistiquesHachage(long operations,
+                                  long rejets,
+                                  int enFile,
+                                  long attenteMoyenneMicros,
+                                  long attenteMaxMicros,
+                                  long dureeMoyenneMicros,
+                                  long dureeMaxMicros) {
+}
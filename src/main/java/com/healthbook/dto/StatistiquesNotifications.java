@@ -0,0 +1,14 @@
+package com.healthbook.dto;
+
+/**
+ * Compteurs du distributeur de notifications depuis le démarrage. Le retard est l'âge du plus
+ * ancien message en attente ; le débit est celui du dernier passage (messages par seconde).
+ */
+public record StatistiquesNotifications(long envoyees,
+                                        long nouvellesTentatives,
+                                        long echecs,
+                                        long enAttente,
+                                        long retardSecondes,
+                                        long debitParSeconde,
+                                        long dureeDernierLotMillis) {
+}
@@ -0,0 +1,14 @@
+package com.healthbook.dto;
+
+/**
+ * Compteurs d'une région du cache de second niveau, pour dimensionner application.conf.
+ * elementsEnMemoire vaut -1 quand le fournisseur ne le publie pas.
+ */
+public record StatistiquesRegionCache(String region, long hits, long miss, long puts, long elementsEnMemoire) {
+
+    // Pourcentage de lectures servies par le cache
+    public long tauxSucces() {
+        long lectures = hits + miss;
+        return lectures == 0 ? 0 : hits * 100 / lectures;
+    }
+}
@@ -0,0 +1,7 @@
+package com.healthbook.dto;
+
+/**
+ * Médecin proposé par l'autocomplétion (réponse JSON de /medecins/suggest).
+ */
+public record SuggestionMedecin(Long id, String nom, String prenom, String specialite) {
+}
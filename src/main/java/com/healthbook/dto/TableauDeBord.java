@@ -0,0 +1,66 @@
+package com.healthbook.dto;
+
+import com.healthbook.entity.RendezVous;
+import com.healthbook.entity.RendezVous.StatutRDV;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Données du tableau de bord préparées pour le template : la page affichée séparée en
+ * RDV actifs et annulés, les comptages par statut (sur tout l'historique, calculés en base)
+ * et le prochain RDV. Le template n'a plus qu'à itérer.
+ */
+public record TableauDeBord(PageRendezVous page,
+                            List<RendezVous> actifs,
+                            List<RendezVous> annules,
+                            Map<StatutRDV, Long> nombreParStatut,
+                            RendezVous prochainRendezVous) {
+
+    public static TableauDeBord construire(PageRendezVous page, List<NombreParStatut> nombres, RendezVous prochain) {
+        List<RendezVous> actifs = new ArrayList<>();
+        List<RendezVous> annules = new ArrayList<>();
+        for (RendezVous rendezVous : page.rendezVous()) {
+            (rendezVous.getStatut() == StatutRDV.ANNULE ? annules : actifs).add(rendezVous);
+        }
+
+        Map<StatutRDV, Long> parStatut = new EnumMap<>(StatutRDV.class);
+        for (StatutRDV statut : StatutRDV.values()) {
+            parStatut.put(statut, 0L);
+        }
+        for (NombreParStatut ligne : nombres) {
+            parStatut.merge(ligne.statut(), ligne.nombre(), Long::sum);
+        }
+        return new TableauDeBord(page, List.copyOf(actifs), List.copyOf(annules), parStatut, prochain);
+    }
+
+    // ========================
+    // COMPTAGES (pour le template)
+    // ========================
+    public long nombreEnAttente() {
+        return nombreParStatut.get(StatutRDV.EN_ATTENTE);
+    }
+
+    public long nombreConfirmes() {
+        return nombreParStatut.get(StatutRDV.CONFIRME);
+    }
+
+    public long nombreTermines() {
+        return nombreParStatut.get(StatutRDV.TERMINE);
+    }
+
+    public long nombreAnnules() {
+        return nombreParStatut.get(StatutRDV.ANNULE);
+    }
+
+    // RDV non annulés
+    public long nombreActifs() {
+        return total() - nombreAnnules();
+    }
+
+    public long total() {
+        return nombreParStatut.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
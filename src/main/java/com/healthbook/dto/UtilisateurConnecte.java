@@ -0,0 +1,112 @@
+package com.healthbook.dto;
+
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Patient;
+import com.healthbook.entity.Role;
+import com.healthbook.entity.User;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Instantané de l'utilisateur connecté, gardé en session par Spring Security.
+ * Chargé une seule fois à la connexion (rôle, identifiants du patient ou du médecin
+ * lié, nom affiché) : les contrôleurs le lisent sans requête. Seul le mot de passe
+ * est effacé après l'authentification ; un changement de profil remplace l'instantané.
+ */
+public final class UtilisateurConnecte implements UserDetails, CredentialsContainer {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final String username;
+    private final Role role;
+    private final Long patientId;
+    private final Long medecinId;
+    private final String nom;
+    private final String prenom;
+    private final String telephone;
+    // Un seul rôle par utilisateur
+    private final GrantedAuthority authority;
+    private String password;
+
+    private UtilisateurConnecte(User user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.password = user.getPassword();
+        this.role = user.getRole();
+        Patient patient = user.getPatient();
+        Medecin medecin = user.getMedecin();
+        this.patientId = patient != null ? patient.getId() : null;
+        this.medecinId = medecin != null ? medecin.getId() : null;
+        this.nom = patient != null ? patient.getNom() : medecin != null ? medecin.getNom() : null;
+        this.prenom = patient != null ? patient.getPrenom() : medecin != null ? medecin.getPrenom() : null;
+        this.telephone = patient != null ? patient.getTelephone() : medecin != null ? medecin.getTelephone() : null;
+        this.authority = new SimpleGrantedAuthority("ROLE_" + role.name());
+    }
+
+    public static UtilisateurConnecte depuis(UserDetails details) {
+        if (details instanceof UtilisateurConnecte utilisateur) {
+            return utilisateur;
+        }
+        if (details instanceof User user) {
+            return new UtilisateurConnecte(user);
+        }
+        throw new IllegalStateException("Utilisateur non reconnu : " + details.getUsername());
+    }
+
+    // Utilisateur de la requête en cours : l'instantané de session, sinon (authentification
+    // qui n'est pas passée par le formulaire de connexion) rechargé par son identifiant
+    public static UtilisateurConnecte courant(UserDetailsService userDetailsService) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof UtilisateurConnecte utilisateur) {
+            return utilisateur;
+        }
+        return depuis(userDetailsService.loadUserByUsername(authentication.getName()));
+    }
+
+    public boolean estPatient() {
+        return role == Role.PATIENT && patientId != null;
+    }
+
+    public boolean estMedecin() {
+        return role == Role.MEDECIN && medecinId != null;
+    }
+
+    public boolean estAdmin() {
+        return role == Role.ADMIN;
+    }
+
+    // === UserDetails ===
+    @Override public Collection<? extends GrantedAuthority> getAuthorities() { return List.of(authority); }
+    @Override public String getPassword() { return password; }
+    @Override public String getUsername() { return username; }
+    @Override public void eraseCredentials() { password = null; }
+
+    // === GETTERS ===
+    public Long getId() { return id; }
+    public Role getRole() { return role; }
+    public Long getPatientId() { return patientId; }
+    public Long getMedecinId() { return medecinId; }
+    public String getNom() { return nom; }
+    public String getPrenom() { return prenom; }
+    public String getTelephone() { return telephone; }
+
+    @Override
+    public boolean equals(Object autre) {
+        return autre instanceof UtilisateurConnecte utilisateur && Objects.equals(username, utilisateur.username);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(username);
+    }
+}
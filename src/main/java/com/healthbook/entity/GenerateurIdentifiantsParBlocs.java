@@ -0,0 +1,109 @@
+package com.healthbook.entity;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.AnnotationBasedGenerator;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.IdentifierGenerator;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Member;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Distribue les identifiants d'un bloc réservé en mémoire ; un nouveau bloc est pris sur la
+ * ligne de generateurs_id (SELECT ... FOR UPDATE puis UPDATE) dans sa propre transaction.
+ *
+ * Le bloc est réservé pendant la transaction de la requête, qui tient déjà sa connexion : il
+ * passe donc par un petit pool à part (propriété DATASOURCE, voir GenerateurIdsConfig), sans
+ * quoi des réservations simultanées peuvent prendre toutes les connexions du pool principal et
+ * attendre chacune la seconde. Sans ce pool (tests JPA), la connexion vient du pool principal.
+ */
+public class GenerateurIdentifiantsParBlocs implements IdentifierGenerator, AnnotationBasedGenerator<IdentifiantParBlocs> {
+
+    public static final String DATASOURCE = "healthbook.generateur-ids.datasource";
+
+    private final ReentrantLock verrou = new ReentrantLock();
+
+    private String entite;
+    private int taille;
+    private DataSource dataSource;
+    private long prochain;
+    private long fin;
+
+    @Override
+    public void initialize(IdentifiantParBlocs config, Member membre, GeneratorCreationContext contexte) {
+        this.entite = config.entite();
+        this.taille = config.taille();
+        Object dedie = contexte.getServiceRegistry().requireService(ConfigurationService.class).getSettings().get(DATASOURCE);
+        this.dataSource = dedie instanceof DataSource pool
+                ? pool
+                : contexte.getServiceRegistry().requireService(ConnectionProvider.class).unwrap(DataSource.class);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object objet) {
+        verrou.lock();
+        try {
+            if (prochain == fin) {
+                prochain = reserverBloc();
+                fin = prochain + taille;
+            }
+            return prochain++;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    // Renvoie le premier identifiant du bloc [prochain_id, prochain_id + taille) et avance la ligne
+    private long reserverBloc() {
+        try (Connection connexion = dataSource.getConnection()) {
+            boolean autoCommit = connexion.getAutoCommit();
+            connexion.setAutoCommit(false);
+            try {
+                long debut = lireEtVerrouiller(connexion);
+                try (PreparedStatement maj = connexion.prepareStatement(
+                        "UPDATE generateurs_id SET prochain_id = ? WHERE entite = ?")) {
+                    maj.setLong(1, debut + taille);
+                    maj.setString(2, entite);
+                    maj.executeUpdate();
+                }
+                connexion.commit();
+                return debut;
+            } catch (SQLException | RuntimeException e) {
+                connexion.rollback();
+                throw e;
+            } finally {
+                connexion.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new HibernateException("Réservation d'identifiants impossible pour " + entite, e);
+        }
+    }
+
+    private long lireEtVerrouiller(Connection connexion) throws SQLException {
+        try (PreparedStatement lecture = connexion.prepareStatement(
+                "SELECT prochain_id FROM generateurs_id WHERE entite = ? FOR UPDATE")) {
+            lecture.setString(1, entite);
+            try (ResultSet resultat = lecture.executeQuery()) {
+                if (resultat.next()) {
+                    return resultat.getLong(1);
+                }
+            }
+        }
+        // Première réservation : ligne créée (une création concurrente échoue sur la clé primaire)
+        try (PreparedStatement creation = connexion.prepareStatement(
+                "INSERT INTO generateurs_id (entite, prochain_id) VALUES (?, ?)")) {
+            creation.setString(1, entite);
+            creation.setLong(2, 1);
+            creation.executeUpdate();
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,23 @@
+package com.healthbook.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Identifiant réservé par blocs dans la table generateurs_id : contrairement à IDENTITY,
+ * Hibernate peut regrouper les INSERT en batch. Voir GenerateurIdentifiantsParBlocs.
+ */
+@IdGeneratorType(GenerateurIdentifiantsParBlocs.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface IdentifiantParBlocs {
+
+    // Ligne de generateurs_id (colonne entite)
+    String entite();
+
+    int taille();
+}
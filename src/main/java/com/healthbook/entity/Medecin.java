@@ -1,10 +1,16 @@
 package com.healthbook.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "medecin")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "medecin", indexes = {
+    @Index(name = "idx_medecin_specialite_nom", columnList = "specialite, nom")
+})
 public class Medecin {
 
     @Id
@@ -0,0 +1,131 @@
+package com.healthbook.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Message à envoyer au patient (table « boîte d'envoi ») : écrit dans la même transaction
+ * que le changement de statut du RDV, puis envoyé en tâche de fond par DistributeurNotifications.
+ * La clé identifie le message auprès de l'expéditeur, qui ignore un message déjà reçu ;
+ * celle d'un rappel est déduite du RDV, un rappel n'est donc mis en file qu'une fois.
+ */
+@Entity
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notif_statut_essai", columnList = "statut, prochain_essai"),
+    @Index(name = "idx_notif_jeton", columnList = "jeton")
+})
+public class Notification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cle", unique = true, nullable = false, length = 80)
+    private String cle;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 20)
+    private TypeNotification type;
+
+    @Column(name = "rendez_vous_id", nullable = false)
+    private Long rendezVousId;
+
+    @Column(name = "destinataire", nullable = false, length = 150)
+    private String destinataire;
+
+    @Column(name = "sujet", nullable = false, length = 200)
+    private String sujet;
+
+    @Column(name = "corps", nullable = false, columnDefinition = "TEXT")
+    private String corps;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "statut", nullable = false, length = 20)
+    private StatutNotification statut = StatutNotification.EN_ATTENTE;
+
+    @Column(name = "tentatives", nullable = false)
+    private int tentatives;
+
+    // Prochain envoi possible : après un échec (attente croissante) ou la fin d'une réservation
+    @Column(name = "prochain_essai", nullable = false)
+    private LocalDateTime prochainEssai;
+
+    // Lot du distributeur qui a réservé le message
+    @Column(name = "jeton", length = 36)
+    private String jeton;
+
+    @Column(name = "derniere_erreur", length = 500)
+    private String derniereErreur;
+
+    @Column(name = "date_creation", nullable = false)
+    private LocalDateTime dateCreation = LocalDateTime.now();
+
+    @Column(name = "date_envoi")
+    private LocalDateTime dateEnvoi;
+
+    // === ENUMS ===
+    public enum TypeNotification {
+        CONFIRMATION, ANNULATION, RAPPEL_24H, RAPPEL_1H
+    }
+
+    public enum StatutNotification {
+        EN_ATTENTE, ENVOYEE, ECHEC
+    }
+
+    // === CONSTRUCTEURS ===
+    public Notification() {}
+
+    public Notification(String cle, TypeNotification type, Long rendezVousId,
+                        String destinataire, String sujet, String corps) {
+        this.cle = cle;
+        this.type = type;
+        this.rendezVousId = rendezVousId;
+        this.destinataire = destinataire;
+        this.sujet = sujet;
+        this.corps = corps;
+        this.prochainEssai = dateCreation;
+    }
+
+    // === GETTERS & SETTERS ===
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getCle() { return cle; }
+    public void setCle(String cle) { this.cle = cle; }
+
+    public TypeNotification getType() { return type; }
+    public void setType(TypeNotification type) { this.type = type; }
+
+    public Long getRendezVousId() { return rendezVousId; }
+    public void setRendezVousId(Long rendezVousId) { this.rendezVousId = rendezVousId; }
+
+    public String getDestinataire() { return destinataire; }
+    public void setDestinataire(String destinataire) { this.destinataire = destinataire; }
+
+    public String getSujet() { return sujet; }
+    public void setSujet(String sujet) { this.sujet = sujet; }
+
+    public String getCorps() { return corps; }
+    public void setCorps(String corps) { this.corps = corps; }
+
+    public StatutNotification getStatut() { return statut; }
+    public void setStatut(StatutNotification statut) { this.statut = statut; }
+
+    public int getTentatives() { return tentatives; }
+    public void setTentatives(int tentatives) { this.tentatives = tentatives; }
+
+    public LocalDateTime getProchainEssai() { return prochainEssai; }
+    public void setProchainEssai(LocalDateTime prochainEssai) { this.prochainEssai = prochainEssai; }
+
+    public String getJeton() { return jeton; }
+    public void setJeton(String jeton) { this.jeton = jeton; }
+
+    public String getDerniereErreur() { return derniereErreur; }
+    public void setDerniereErreur(String derniereErreur) { this.derniereErreur = derniereErreur; }
+
+    public LocalDateTime getDateCreation() { return dateCreation; }
+    public void setDateCreation(LocalDateTime dateCreation) { this.dateCreation = dateCreation; }
+
+    public LocalDateTime getDateEnvoi() { return dateEnvoi; }
+    public void setDateEnvoi(LocalDateTime dateEnvoi) { this.dateEnvoi = dateEnvoi; }
+}
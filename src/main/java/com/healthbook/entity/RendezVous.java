@@ -4,18 +4,27 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "rendez_vous")
+@Table(name = "rendez_vous", indexes = {
+    @Index(name = "idx_rdv_medecin_date", columnList = "medecin_id, date_heure"),
+    @Index(name = "idx_rdv_patient_date", columnList = "patient_id, date_heure"),
+    @Index(name = "idx_rdv_date", columnList = "date_heure"),
+    @Index(name = "idx_rdv_statut_date", columnList = "statut, date_heure")
+})
 public class RendezVous {
 
+    // Identifiants réservés par blocs : contrairement à IDENTITY, Hibernate peut regrouper les INSERT en batch
+    public static final int TAILLE_ALLOCATION_ID = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdentifiantParBlocs(entite = "rendez_vous", taille = TAILLE_ALLOCATION_ID)
     private Long id;
 
-    @ManyToOne
+    // LAZY : les listes chargent patient et médecin par jointure (EntityGraph des requêtes)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
     private Patient patient;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "medecin_id", nullable = false)
     private Medecin medecin;
 
@@ -1,8 +1,14 @@
 package com.healthbook.repository;
 
+import com.healthbook.dto.SuggestionMedecin;
 import com.healthbook.entity.Medecin;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +18,12 @@ import java.util.Optional;
 @Repository
 public interface MedecinRepository extends JpaRepository<Medecin, Long> {
 
+    // Tous les médecins (formulaire de RDV, liste) : identifiants en cache de requêtes,
+    // entités en cache de second niveau
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Medecin> findAll();
+
     // Trouver un médecin par email (unique)
     Optional<Medecin> findByEmail(String email);
     
@@ -21,13 +33,31 @@ public interface MedecinRepository extends JpaRepository<Medecin, Long> {
     // Trouver les médecins par nom (recherche)
     List<Medecin> findByNomContainingIgnoreCase(String nom);
     
-    // Liste de toutes les spécialités disponibles
+    // Identifiants de tous les médecins (validation des imports sans charger les entités)
+    @Query("SELECT m.id FROM Medecin m")
+    List<Long> findAllIds();
+    
+    // Emails de tous les médecins (dédoublonnage des imports sans charger les entités)
+    @Query("SELECT m.email FROM Medecin m")
+    List<String> findAllEmails();
+    
+    // Champs de l'autocomplétion, pour tous les médecins
+    @Query("SELECT new com.healthbook.dto.SuggestionMedecin(m.id, m.nom, m.prenom, m.specialite) FROM Medecin m")
+    List<SuggestionMedecin> findAllPourSuggestion();
+    
+    // Liste de toutes les spécialités disponibles (en cache, invalidée à chaque écriture sur medecin)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT DISTINCT m.specialite FROM Medecin m ORDER BY m.specialite")
     List<String> findAllSpecialites();
     
     // Recherche de médecins par spécialité et nom
     List<Medecin> findBySpecialiteAndNomContainingIgnoreCase(String specialite, String nom);
     
+    // Verrouiller la ligne du médecin (SELECT ... FOR UPDATE) : sérialise ses réservations entre instances
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Medecin m WHERE m.id = :id")
+    Optional<Medecin> findByIdForUpdate(@Param("id") Long id);
+    
     // Compter le nombre de médecins par spécialité
     @Query("SELECT COUNT(m) FROM Medecin m WHERE m.specialite = :specialite")
     long countBySpecialite(@Param("specialite") String specialite);
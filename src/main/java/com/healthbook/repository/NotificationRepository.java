@@ -0,0 +1,44 @@
+package com.healthbook.repository;
+
+import com.healthbook.entity.Notification;
+import com.healthbook.entity.Notification.StatutNotification;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    // Candidats d'un lot : en attente et dont l'échéance est passée, les plus anciens d'abord
+    @Query("SELECT n.id FROM Notification n WHERE n.statut = :statut AND n.prochainEssai <= :maintenant ORDER BY n.id")
+    List<Long> findIdsAEnvoyer(@Param("statut") StatutNotification statut,
+                               @Param("maintenant") LocalDateTime maintenant,
+                               Limit limit);
+
+    // Réservation conditionnelle : une ligne prise entre-temps par un autre distributeur n'est pas
+    // modifiée ; l'échéance repoussée à la fin du bail la rend de nouveau disponible si l'envoi n'aboutit pas
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Notification n SET n.jeton = :jeton, n.prochainEssai = :finBail "
+            + "WHERE n.id IN :ids AND n.statut = com.healthbook.entity.Notification.StatutNotification.EN_ATTENTE "
+            + "AND n.prochainEssai <= :maintenant")
+    int reserver(@Param("jeton") String jeton,
+                 @Param("finBail") LocalDateTime finBail,
+                 @Param("ids") List<Long> ids,
+                 @Param("maintenant") LocalDateTime maintenant);
+
+    List<Notification> findByJeton(String jeton);
+
+    boolean existsByCle(String cle);
+
+    long countByStatut(StatutNotification statut);
+
+    @Query("SELECT MIN(n.dateCreation) FROM Notification n WHERE n.statut = :statut")
+    Optional<LocalDateTime> findPlusAncienneDateCreation(@Param("statut") StatutNotification statut);
+}
@@ -1,9 +1,9 @@
 package com.healthbook.repository;
 
+import com.healthbook.dto.PatientRecherche;
 import com.healthbook.entity.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -24,7 +24,15 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     // Compter le nombre total de patients
     long count();
     
-    // Recherche combinée nom + prénom
-    @Query("SELECT p FROM Patient p WHERE LOWER(p.nom) LIKE LOWER(CONCAT('%', :recherche, '%')) OR LOWER(p.prenom) LIKE LOWER(CONCAT('%', :recherche, '%'))")
-    List<Patient> searchPatients(@Param("recherche") String recherche);
+    // Identifiants de tous les patients (validation des imports sans charger les entités)
+    @Query("SELECT p.id FROM Patient p")
+    List<Long> findAllIds();
+    
+    // Emails de tous les patients (dédoublonnage des imports sans charger les entités)
+    @Query("SELECT p.email FROM Patient p")
+    List<String> findAllEmails();
+    
+    // Champs indexés par la recherche plein texte, pour tous les patients
+    @Query("SELECT new com.healthbook.dto.PatientRecherche(p.id, p.nom, p.prenom, p.email, p.telephone) FROM Patient p")
+    List<PatientRecherche> findAllPourRecherche();
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package com.healthbook.repository;
 
+import com.healthbook.dto.Creneau;
+import com.healthbook.dto.NombreParStatut;
 import com.healthbook.entity.Medecin;
 import com.healthbook.entity.Patient;
 import com.healthbook.entity.RendezVous;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,23 +18,40 @@ import java.util.List;
 @Repository
 public interface RendezVousRepository extends JpaRepository<RendezVous, Long> {
 
+    // Les listes chargent patient et médecin dans la même requête (associations LAZY sur l'entité)
+    @Override
+    @EntityGraph(attributePaths = {"patient", "medecin"})
+    List<RendezVous> findAll();
+
     // Trouver les RDV d'un patient
+    @EntityGraph(attributePaths = {"patient", "medecin"})
     List<RendezVous> findByPatient(Patient patient);
     
     // Trouver les RDV d'un médecin
+    @EntityGraph(attributePaths = {"patient", "medecin"})
     List<RendezVous> findByMedecin(Medecin medecin);
     
     // Trouver les RDV par statut
+    @EntityGraph(attributePaths = {"patient", "medecin"})
     List<RendezVous> findByStatut(RendezVous.StatutRDV statut);
     
     // Trouver les RDV dans une plage de dates
+    @EntityGraph(attributePaths = {"patient", "medecin"})
     List<RendezVous> findByDateHeureBetween(LocalDateTime start, LocalDateTime end);
     
-    // RDV d'un médecin à une date spécifique
-    @Query("SELECT rv FROM RendezVous rv WHERE rv.medecin = :medecin AND DATE(rv.dateHeure) = DATE(:date)")
-    List<RendezVous> findRendezVousByMedecinAndDate(
-            @Param("medecin") Medecin medecin, 
-            @Param("date") LocalDateTime date);
+    // RDV d'un médecin à une date spécifique (plage [début du jour, lendemain) : pas de fonction sur la colonne)
+    default List<RendezVous> findRendezVousByMedecinAndDate(Medecin medecin, LocalDateTime date) {
+        LocalDateTime debutJour = date.toLocalDate().atStartOfDay();
+        return findByMedecinAndPeriode(medecin.getId(), debutJour, debutJour.plusDays(1));
+    }
+
+    // RDV d'un médecin dans [debut, fin), triés : servi par l'index (medecin_id, date_heure)
+    @EntityGraph(attributePaths = {"patient", "medecin"})
+    @Query("SELECT rv FROM RendezVous rv WHERE rv.medecin.id = :medecinId AND rv.dateHeure >= :debut AND rv.dateHeure < :fin ORDER BY rv.dateHeure ASC, rv.id ASC")
+    List<RendezVous> findByMedecinAndPeriode(
+            @Param("medecinId") Long medecinId,
+            @Param("debut") LocalDateTime debut,
+            @Param("fin") LocalDateTime fin);
     
     // Vérifier si un créneau est disponible pour un médecin
     @Query("SELECT COUNT(rv) FROM RendezVous rv WHERE rv.medecin = :medecin AND rv.dateHeure = :dateHeure AND rv.statut != 'ANNULE'")
@@ -38,7 +59,99 @@ public interface RendezVousRepository extends JpaRepository<RendezVous, Long> {
             @Param("medecin") Medecin medecin, 
             @Param("dateHeure") LocalDateTime dateHeure);
     
+    // Créneaux occupés d'un médecin à partir d'une date (chargement de l'index de disponibilité)
+    @Query("SELECT new com.healthbook.dto.Creneau(rv.id, rv.dateHeure, rv.duree) FROM RendezVous rv WHERE rv.medecin.id = :medecinId AND rv.dateHeure >= :depuis AND rv.statut != 'ANNULE'")
+    List<Creneau> findCreneauxOccupes(
+            @Param("medecinId") Long medecinId,
+            @Param("depuis") LocalDateTime depuis);
+
+    // Créneaux actifs d'un médecin commençant dans [debut, fin) : contrôle en base avant insertion
+    @Query("SELECT new com.healthbook.dto.Creneau(rv.id, rv.dateHeure, rv.duree) FROM RendezVous rv WHERE rv.medecin.id = :medecinId AND rv.dateHeure >= :debut AND rv.dateHeure < :fin AND rv.statut != 'ANNULE'")
+    List<Creneau> findCreneauxOccupesEntre(
+            @Param("medecinId") Long medecinId,
+            @Param("debut") LocalDateTime debut,
+            @Param("fin") LocalDateTime fin);
+
+    // Créneaux actifs, tous médecins, commençant dans [debut, fin) : fenêtre des rappels (index idx_rdv_date)
+    @Query("SELECT new com.healthbook.dto.Creneau(rv.id, rv.dateHeure, rv.duree) FROM RendezVous rv WHERE rv.dateHeure >= :debut AND rv.dateHeure < :fin AND rv.statut != 'ANNULE'")
+    List<Creneau> findCreneauxEntre(
+            @Param("debut") LocalDateTime debut,
+            @Param("fin") LocalDateTime fin);
+
+    // Pagination par clé d'un patient : RDV antérieurs au curseur, du plus récent au plus ancien.
+    // La borne « dateHeure <= curseur », redondante, donne une plage d'index à l'optimiseur (le OU seul n'en donne pas)
+    @EntityGraph(attributePaths = {"patient", "medecin"})
+    @Query("SELECT rv FROM RendezVous rv WHERE rv.patient.id = :patientId AND rv.dateHeure <= :dateHeure AND (rv.dateHeure < :dateHeure OR (rv.dateHeure = :dateHeure AND rv.id < :id)) ORDER BY rv.dateHeure DESC, rv.id DESC")
+    List<RendezVous> findPagePatientAvant(
+            @Param("patientId") Long patientId,
+            @Param("dateHeure") LocalDateTime dateHeure,
+            @Param("id") Long id,
+            Limit limit);
+
+    // Pagination par clé d'un patient : RDV postérieurs au curseur, du plus ancien au plus récent
+    @EntityGraph(attributePaths = {"patient", "medecin"})
+    @Query("SELECT rv FROM RendezVous rv WHERE rv.patient.id = :patientId AND rv.dateHeure >= :dateHeure AND (rv.dateHeure > :dateHeure OR (rv.dateHeure = :dateHeure AND rv.id > :id)) ORDER BY rv.dateHeure ASC, rv.id ASC")
+    List<RendezVous> findPagePatientApres(
+            @Param("patientId") Long patientId,
+            @Param("dateHeure") LocalDateTime dateHeure,
+            @Param("id") Long id,
+            Limit limit);
+
+    // Pagination par clé d'un médecin : RDV antérieurs au curseur, du plus récent au plus ancien
+    @EntityGraph(attributePaths = {"patient", "medecin"})
+    @Query("SELECT rv FROM RendezVous rv WHERE rv.medecin.id = :medecinId AND rv.dateHeure <= :dateHeure AND (rv.dateHeure < :dateHeure OR (rv.dateHeure = :dateHeure AND rv.id < :id)) ORDER BY rv.dateHeure DESC, rv.id DESC")
+    List<RendezVous> findPageMedecinAvant(
+            @Param("medecinId") Long medecinId,
+            @Param("dateHeure") LocalDateTime dateHeure,
+            @Param("id") Long id,
+            Limit limit);
+
+    // Pagination par clé d'un médecin : RDV postérieurs au curseur, du plus ancien au plus récent
+    @EntityGraph(attributePaths = {"patient", "medecin"})
+    @Query("SELECT rv FROM RendezVous rv WHERE rv.medecin.id = :medecinId AND rv.dateHeure >= :dateHeure AND (rv.dateHeure > :dateHeure OR (rv.dateHeure = :dateHeure AND rv.id > :id)) ORDER BY rv.dateHeure ASC, rv.id ASC")
+    List<RendezVous> findPageMedecinApres(
+            @Param("medecinId") Long medecinId,
+            @Param("dateHeure") LocalDateTime dateHeure,
+            @Param("id") Long id,
+            Limit limit);
+
+    // Pagination par clé (admin) : RDV antérieurs au curseur, du plus récent au plus ancien
+    @EntityGraph(attributePaths = {"patient", "medecin"})
+    @Query("SELECT rv FROM RendezVous rv WHERE rv.dateHeure <= :dateHeure AND (rv.dateHeure < :dateHeure OR (rv.dateHeure = :dateHeure AND rv.id < :id)) ORDER BY rv.dateHeure DESC, rv.id DESC")
+    List<RendezVous> findPageAvant(
+            @Param("dateHeure") LocalDateTime dateHeure,
+            @Param("id") Long id,
+            Limit limit);
+
+    // Pagination par clé (admin) : RDV postérieurs au curseur, du plus ancien au plus récent
+    @EntityGraph(attributePaths = {"patient", "medecin"})
+    @Query("SELECT rv FROM RendezVous rv WHERE rv.dateHeure >= :dateHeure AND (rv.dateHeure > :dateHeure OR (rv.dateHeure = :dateHeure AND rv.id > :id)) ORDER BY rv.dateHeure ASC, rv.id ASC")
+    List<RendezVous> findPageApres(
+            @Param("dateHeure") LocalDateTime dateHeure,
+            @Param("id") Long id,
+            Limit limit);
+
+    // Comptages par statut (tableau de bord) : une ligne par statut présent
+    @Query("SELECT new com.healthbook.dto.NombreParStatut(rv.statut, COUNT(rv)) FROM RendezVous rv WHERE rv.patient.id = :patientId GROUP BY rv.statut")
+    List<NombreParStatut> countParStatutPatient(@Param("patientId") Long patientId);
+
+    @Query("SELECT new com.healthbook.dto.NombreParStatut(rv.statut, COUNT(rv)) FROM RendezVous rv GROUP BY rv.statut")
+    List<NombreParStatut> countParStatut();
+
+    // Prochains RDV (non annulés) d'un patient
+    @EntityGraph(attributePaths = {"patient", "medecin"})
+    @Query("SELECT rv FROM RendezVous rv WHERE rv.patient.id = :patientId AND rv.dateHeure >= :now AND rv.statut != 'ANNULE' ORDER BY rv.dateHeure ASC, rv.id ASC")
+    List<RendezVous> findProchainsRendezVousPatient(@Param("patientId") Long patientId, @Param("now") LocalDateTime now, Limit limit);
+
     // Prochains RDV (non annulés)
-    @Query("SELECT rv FROM RendezVous rv WHERE rv.dateHeure >= :now AND rv.statut != 'ANNULE' ORDER BY rv.dateHeure ASC")
-    List<RendezVous> findProchainsRendezVous(@Param("now") LocalDateTime now);
+    @EntityGraph(attributePaths = {"patient", "medecin"})
+    @Query("SELECT rv FROM RendezVous rv WHERE rv.dateHeure >= :now AND rv.statut != 'ANNULE' ORDER BY rv.dateHeure ASC, rv.id ASC")
+    List<RendezVous> findProchainsRendezVous(@Param("now") LocalDateTime now, Limit limit);
+
+    @Query("SELECT COUNT(rv) FROM RendezVous rv WHERE rv.dateHeure >= :now AND rv.statut != 'ANNULE'")
+    long countRendezVousAVenir(@Param("now") LocalDateTime now);
+
+    // Rappels échus : RDV chargés avec patient et médecin en une requête
+    @Query("SELECT rv FROM RendezVous rv JOIN FETCH rv.patient JOIN FETCH rv.medecin WHERE rv.id IN :ids")
+    List<RendezVous> findAvecPatientEtMedecin(@Param("ids") List<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.AgendaMedecin;
+import com.healthbook.dto.JourAgenda;
+import com.healthbook.entity.RendezVous;
+import com.healthbook.repository.RendezVousRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vue calendrier d'un médecin : une seule requête par plage sur (medecin_id, date_heure),
+ * puis répartition des RDV (déjà triés) dans les jours de la période.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AgendaService {
+
+    private final RendezVousRepository rendezVousRepository;
+
+    public AgendaService(RendezVousRepository rendezVousRepository) {
+        this.rendezVousRepository = rendezVousRepository;
+    }
+
+    // ========================
+    // AGENDA SEMAINE / MOIS
+    // ========================
+    public AgendaMedecin getAgenda(Long medecinId, LocalDate date, AgendaMedecin.Vue vue) {
+        LocalDate debut = vue == AgendaMedecin.Vue.SEMAINE
+                ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : date.withDayOfMonth(1);
+        LocalDate fin = vue == AgendaMedecin.Vue.SEMAINE ? debut.plusWeeks(1) : debut.plusMonths(1);
+
+        Map<LocalDate, List<RendezVous>> parJour = new LinkedHashMap<>();
+        for (LocalDate jour = debut; jour.isBefore(fin); jour = jour.plusDays(1)) {
+            parJour.put(jour, new ArrayList<>());
+        }
+        for (RendezVous rdv : rendezVousRepository.findByMedecinAndPeriode(
+                medecinId, debut.atStartOfDay(), fin.atStartOfDay())) {
+            parJour.get(rdv.getDateHeure().toLocalDate()).add(rdv);
+        }
+
+        List<JourAgenda> jours = new ArrayList<>(parJour.size());
+        parJour.forEach((jour, rendezVous) -> jours.add(new JourAgenda(jour, rendezVous)));
+        return new AgendaMedecin(medecinId, vue, debut, fin, jours);
+    }
+}
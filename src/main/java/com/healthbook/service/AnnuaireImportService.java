@@ -0,0 +1,272 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.RapportImport;
+import com.healthbook.repository.MedecinRepository;
+import com.healthbook.repository.PatientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Import en masse de l'annuaire depuis un CSV (séparateur « ; ») :
+ * patients : nom;prenom;email;telephone;date_naissance
+ * médecins : nom;prenom;specialite;email;telephone;tarif_consultation
+ *
+ * Le fichier est lu ligne à ligne ; les emails déjà en base sont chargés une fois et les
+ * doublons (base ou fichier) rejetés en mémoire. Les lignes valides sont insérées par lots
+ * en batch JDBC (une transaction par lot) : les identifiants IDENTITY empêchent Hibernate
+ * de regrouper les INSERT. Les caches qui ne voient pas ces écritures sont invalidés à la fin.
+ */
+@Service
+public class AnnuaireImportService {
+
+    private static final String DEBUT_ENTETE = "nom";
+    private static final int ERREURS_MAX = 100;
+    private static final int LONGUEUR_NOM = 100;
+    private static final int LONGUEUR_EMAIL = 150;
+    private static final int LONGUEUR_TELEPHONE = 20;
+
+    private static final String INSERT_PATIENT = "INSERT INTO patient (nom, prenom, email, telephone, date_naissance, date_creation) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_MEDECIN = "INSERT INTO medecin (nom, prenom, specialite, email, telephone, tarif_consultation) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final PatientRepository patientRepository;
+    private final MedecinRepository medecinRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PatientRechercheIndex patientRechercheIndex;
+    private final MedecinSuggestionIndex medecinSuggestionIndex;
+    private final StatistiquesAccueilService statistiquesAccueil;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${app.import.taille-lot:1000}")
+    private int tailleLot;
+
+    public AnnuaireImportService(PatientRepository patientRepository,
+                                 MedecinRepository medecinRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 PatientRechercheIndex patientRechercheIndex,
+                                 MedecinSuggestionIndex medecinSuggestionIndex,
+                                 StatistiquesAccueilService statistiquesAccueil,
+                                 EntityManagerFactory entityManagerFactory) {
+        this.patientRepository = patientRepository;
+        this.medecinRepository = medecinRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.patientRechercheIndex = patientRechercheIndex;
+        this.medecinSuggestionIndex = medecinSuggestionIndex;
+        this.statistiquesAccueil = statistiquesAccueil;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    // ========================
+    // IMPORT DES PATIENTS
+    // ========================
+    public RapportImport importerPatients(InputStream flux) {
+        RapportImport rapport = importer(flux, patientRepository.findAllEmails(), INSERT_PATIENT, this::lirePatient);
+        patientRechercheIndex.invalider();
+        apresEcritureEnMasse();
+        return rapport;
+    }
+
+    // ========================
+    // IMPORT DES MÉDECINS
+    // ========================
+    public RapportImport importerMedecins(InputStream flux) {
+        RapportImport rapport = importer(flux, medecinRepository.findAllEmails(), INSERT_MEDECIN, this::lireMedecin);
+        medecinSuggestionIndex.invalider();
+        apresEcritureEnMasse();
+        return rapport;
+    }
+
+    // ========================
+    // MÉTHODES PRIVÉES
+    // ========================
+    private RapportImport importer(InputStream flux, List<String> emailsExistants, String insertion,
+                                   BiFunction<Integer, String[], LigneImport> lecture) {
+        long debut = System.nanoTime();
+        Set<String> emails = new HashSet<>(emailsExistants.size() * 2);
+        emailsExistants.forEach(email -> emails.add(cleEmail(email)));
+        List<String> erreurs = new ArrayList<>();
+        List<LigneImport> lot = new ArrayList<>(tailleLot);
+        int lignesLues = 0;
+        int importees = 0;
+
+        try (BufferedReader lecteur = new BufferedReader(new InputStreamReader(flux, StandardCharsets.UTF_8))) {
+            String ligne;
+            int numero = 0;
+            while ((ligne = lecteur.readLine()) != null) {
+                numero++;
+                if (ligne.isBlank() || (numero == 1 && ligne.toLowerCase(Locale.ROOT).startsWith(DEBUT_ENTETE))) {
+                    continue;
+                }
+                lignesLues++;
+                try {
+                    LigneImport valide = lecture.apply(numero, ligne.split(";", -1));
+                    if (!emails.add(cleEmail(valide.email()))) {
+                        throw new RuntimeException("email déjà utilisé (" + valide.email() + ")");
+                    }
+                    lot.add(valide);
+                } catch (RuntimeException e) {
+                    rejeter(erreurs, numero, e.getMessage());
+                }
+                if (lot.size() == tailleLot) {
+                    importees += inserer(insertion, lot, erreurs);
+                    lot.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Lecture du fichier impossible : " + e.getMessage());
+        }
+        if (!lot.isEmpty()) {
+            importees += inserer(insertion, lot, erreurs);
+        }
+
+        long dureeMillis = (System.nanoTime() - debut) / 1_000_000;
+        return new RapportImport(lignesLues, importees, lignesLues - importees, List.copyOf(erreurs), dureeMillis);
+    }
+
+    // Un lot en un batch JDBC ; en cas de conflit (inscription concurrente), ligne par ligne pour isoler le fautif
+    private int inserer(String insertion, List<LigneImport> lot, List<String> erreurs) {
+        List<Object[]> valeurs = lot.stream().map(LigneImport::valeurs).toList();
+        try {
+            transactionTemplate.executeWithoutResult(statut -> jdbcTemplate.batchUpdate(insertion, valeurs));
+            return lot.size();
+        } catch (DataAccessException e) {
+            int inserees = 0;
+            for (LigneImport ligne : lot) {
+                try {
+                    transactionTemplate.executeWithoutResult(statut -> jdbcTemplate.update(insertion, ligne.valeurs()));
+                    inserees++;
+                } catch (DataAccessException conflit) {
+                    rejeter(erreurs, ligne.numero(), "insertion refusée (" + ligne.email() + ")");
+                }
+            }
+            return inserees;
+        }
+    }
+
+    private LigneImport lirePatient(int numero, String[] colonnes) {
+        if (colonnes.length < 3) {
+            throw new RuntimeException("colonnes manquantes");
+        }
+        String email = email(colonnes[2]);
+        LocalDate dateNaissance;
+        try {
+            dateNaissance = colonne(colonnes, 4) != null ? LocalDate.parse(colonne(colonnes, 4)) : null;
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("date de naissance invalide (" + colonnes[4].trim() + ")");
+        }
+        return new LigneImport(numero, email, new Object[] {
+                obligatoire(colonnes[0], "nom"),
+                obligatoire(colonnes[1], "prénom"),
+                email,
+                telephone(colonne(colonnes, 3)),
+                dateNaissance != null ? Date.valueOf(dateNaissance) : null,
+                Timestamp.valueOf(LocalDateTime.now())
+        });
+    }
+
+    private LigneImport lireMedecin(int numero, String[] colonnes) {
+        if (colonnes.length < 4) {
+            throw new RuntimeException("colonnes manquantes");
+        }
+        String email = email(colonnes[3]);
+        BigDecimal tarif;
+        try {
+            tarif = colonne(colonnes, 5) != null ? new BigDecimal(colonne(colonnes, 5).replace(',', '.')) : null;
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("tarif invalide (" + colonnes[5].trim() + ")");
+        }
+        if (tarif != null && (tarif.signum() < 0 || tarif.precision() - tarif.scale() > 6)) {
+            throw new RuntimeException("tarif invalide (" + tarif + ")");
+        }
+        return new LigneImport(numero, email, new Object[] {
+                obligatoire(colonnes[0], "nom"),
+                obligatoire(colonnes[1], "prénom"),
+                obligatoire(colonnes[2], "spécialité"),
+                email,
+                telephone(colonne(colonnes, 4)),
+                tarif
+        });
+    }
+
+    private static String colonne(String[] colonnes, int index) {
+        if (index >= colonnes.length || colonnes[index].isBlank()) {
+            return null;
+        }
+        return colonnes[index].trim();
+    }
+
+    private static String obligatoire(String valeur, String nom) {
+        String texte = valeur.trim();
+        if (texte.isEmpty()) {
+            throw new RuntimeException(nom + " manquant");
+        }
+        if (texte.length() > LONGUEUR_NOM) {
+            throw new RuntimeException(nom + " trop long");
+        }
+        return texte;
+    }
+
+    private static String email(String valeur) {
+        String email = valeur.trim();
+        int arobase = email.indexOf('@');
+        if (arobase <= 0 || arobase == email.length() - 1 || email.length() > LONGUEUR_EMAIL) {
+            throw new RuntimeException("email invalide (" + email + ")");
+        }
+        return email;
+    }
+
+    private static String telephone(String valeur) {
+        if (valeur != null && valeur.length() > LONGUEUR_TELEPHONE) {
+            throw new RuntimeException("téléphone trop long");
+        }
+        return valeur;
+    }
+
+    // Même règle que l'unicité en base (collation insensible à la casse)
+    private static String cleEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Écritures faites hors Hibernate : statistiques d'accueil et requêtes en cache (liste des
+    // médecins, spécialités) sont à recalculer ; les entités en cache ne sont pas concernées
+    private void apresEcritureEnMasse() {
+        statistiquesAccueil.invalider();
+        entityManagerFactory.getCache().unwrap(Cache.class).evictQueryRegions();
+    }
+
+    private static void rejeter(List<String> erreurs, int numero, String message) {
+        if (erreurs.size() < ERREURS_MAX) {
+            erreurs.add("Ligne " + numero + " : " + message);
+        }
+    }
+
+    private record LigneImport(int numero, String email, Object[] valeurs) {
+    }
+}
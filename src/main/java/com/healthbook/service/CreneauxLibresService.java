@@ -0,0 +1,167 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.Creneau;
+import com.healthbook.dto.CreneauLibre;
+import com.healthbook.entity.Medecin;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Recherche des N prochains créneaux libres parmi tous les médecins d'une spécialité.
+ * Chaque médecin fournit un curseur sur ses créneaux libres (horaires d'ouverture
+ * moins les créneaux occupés de l'index) ; les curseurs sont fusionnés par un tas.
+ */
+@Service
+public class CreneauxLibresService {
+
+    private final MedecinService medecinService;
+    private final DisponibiliteIndex disponibiliteIndex;
+
+    //  HORAIRES D'OUVERTURE
+    private final int heureOuverture;
+    private final int dureeCreneau;
+    private final int horizonJours;
+    private final Set<DayOfWeek> joursOuvres;
+    private final LocalTime dernierDebut;
+
+    public CreneauxLibresService(MedecinService medecinService, DisponibiliteIndex disponibiliteIndex,
+                                 @Value("${app.agenda.heure-ouverture:8}") int heureOuverture,
+                                 @Value("${app.agenda.heure-fermeture:18}") int heureFermeture,
+                                 @Value("${app.agenda.duree-creneau:30}") int dureeCreneau,
+                                 @Value("${app.agenda.horizon-jours:60}") int horizonJours,
+                                 @Value("${app.agenda.jours-ouvres:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}") Set<DayOfWeek> joursOuvres) {
+        // Une configuration sans aucun créneau ferait boucler la recherche du prochain jour ouvré
+        if (joursOuvres == null || joursOuvres.isEmpty()) {
+            throw new IllegalArgumentException("app.agenda.jours-ouvres doit contenir au moins un jour");
+        }
+        if (heureOuverture < 0 || heureFermeture > 23 || heureOuverture >= heureFermeture) {
+            throw new IllegalArgumentException("Horaires d'ouverture invalides : " + heureOuverture + "h-" + heureFermeture + "h");
+        }
+        if (dureeCreneau <= 0 || dureeCreneau > (heureFermeture - heureOuverture) * 60) {
+            throw new IllegalArgumentException("Durée de créneau invalide : " + dureeCreneau + " min");
+        }
+        if (horizonJours <= 0) {
+            throw new IllegalArgumentException("Horizon de recherche invalide : " + horizonJours + " jours");
+        }
+        this.medecinService = medecinService;
+        this.disponibiliteIndex = disponibiliteIndex;
+        this.heureOuverture = heureOuverture;
+        this.dureeCreneau = dureeCreneau;
+        this.horizonJours = horizonJours;
+        this.joursOuvres = EnumSet.copyOf(joursOuvres);
+        this.dernierDebut = LocalTime.of(heureFermeture, 0).minusMinutes(dureeCreneau);
+    }
+
+    // ========================
+    // N PROCHAINS CRÉNEAUX LIBRES D'UNE SPÉCIALITÉ
+    // ========================
+    public List<CreneauLibre> prochainsCreneauxLibres(String specialite, int nombre, LocalDateTime depuis) {
+        LocalDateTime limite = depuis.plusDays(horizonJours);
+        PriorityQueue<Curseur> tas = new PriorityQueue<>(
+                Comparator.comparing((Curseur curseur) -> curseur.courant)
+                        .thenComparing(curseur -> curseur.medecin.getId()));
+
+        for (Medecin medecin : medecinService.getMedecinsBySpecialite(specialite)) {
+            LocalDateTime premier = premierCreneau(depuis);
+            Curseur curseur = new Curseur(medecin, premier, limite,
+                    disponibiliteIndex.creneauxOccupes(medecin.getId(), premier, limite.plusMinutes(dureeCreneau)));
+            if (curseur.avancerJusquAuLibre()) {
+                tas.add(curseur);
+            }
+        }
+
+        List<CreneauLibre> resultats = new ArrayList<>(nombre);
+        while (resultats.size() < nombre && !tas.isEmpty()) {
+            Curseur curseur = tas.poll();
+            Medecin medecin = curseur.medecin;
+            resultats.add(new CreneauLibre(medecin.getId(), medecin.getNom(), medecin.getPrenom(),
+                    medecin.getSpecialite(), curseur.courant));
+
+            curseur.courant = suivant(curseur.courant);
+            if (curseur.avancerJusquAuLibre()) {
+                tas.add(curseur);
+            }
+        }
+        return resultats;
+    }
+
+    // Premier début de créneau aligné sur la grille horaire, au plus tôt à "depuis"
+    private LocalDateTime premierCreneau(LocalDateTime depuis) {
+        LocalDateTime ouverture = depuis.toLocalDate().atTime(heureOuverture, 0);
+        if (depuis.isBefore(ouverture)) {
+            return aligner(ouverture);
+        }
+        long secondes = ChronoUnit.SECONDS.between(ouverture, depuis);
+        long secondesParCreneau = dureeCreneau * 60L;
+        long pas = (secondes + secondesParCreneau - 1) / secondesParCreneau;
+        return aligner(ouverture.plusMinutes(pas * dureeCreneau));
+    }
+
+    private LocalDateTime suivant(LocalDateTime creneau) {
+        return aligner(creneau.plusMinutes(dureeCreneau));
+    }
+
+    // Reporte un début hors horaires à l'ouverture du prochain jour ouvré
+    private LocalDateTime aligner(LocalDateTime creneau) {
+        LocalDateTime courant = creneau;
+        while (!joursOuvres.contains(courant.getDayOfWeek()) || courant.toLocalTime().isAfter(dernierDebut)) {
+            courant = courant.toLocalDate().plusDays(1).atTime(heureOuverture, 0);
+        }
+        return courant;
+    }
+
+    // Curseur sur les créneaux libres d'un médecin, borné par l'horizon de recherche.
+    // Les créneaux occupés, triés puis fusionnés en intervalles disjoints, sont parcourus
+    // une seule fois : un créneau qui en chevauche un est reporté au premier créneau après sa fin.
+    private final class Curseur {
+        final Medecin medecin;
+        final LocalDateTime limite;
+        final List<Occupe> occupes = new ArrayList<>();
+        int prochainOccupe;
+        LocalDateTime courant;
+
+        Curseur(Medecin medecin, LocalDateTime courant, LocalDateTime limite, List<Creneau> creneauxOccupes) {
+            this.medecin = medecin;
+            this.courant = courant;
+            this.limite = limite;
+            for (Creneau creneau : creneauxOccupes) {
+                int dernier = occupes.size() - 1;
+                if (dernier >= 0 && !creneau.debut().isAfter(occupes.get(dernier).fin())) {
+                    if (creneau.fin().isAfter(occupes.get(dernier).fin())) {
+                        occupes.set(dernier, new Occupe(occupes.get(dernier).debut(), creneau.fin()));
+                    }
+                } else {
+                    occupes.add(new Occupe(creneau.debut(), creneau.fin()));
+                }
+            }
+        }
+
+        boolean avancerJusquAuLibre() {
+            while (courant.isBefore(limite)) {
+                LocalDateTime fin = courant.plusMinutes(dureeCreneau);
+                while (prochainOccupe < occupes.size() && !occupes.get(prochainOccupe).fin().isAfter(courant)) {
+                    prochainOccupe++;
+                }
+                if (prochainOccupe == occupes.size() || !occupes.get(prochainOccupe).debut().isBefore(fin)) {
+                    return true;
+                }
+                courant = premierCreneau(occupes.get(prochainOccupe).fin());
+            }
+            return false;
+        }
+    }
+
+    private record Occupe(LocalDateTime debut, LocalDateTime fin) {
+    }
+}
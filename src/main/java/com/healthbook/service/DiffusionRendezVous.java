@@ -0,0 +1,162 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.EvenementRendezVous;
+import com.healthbook.dto.UtilisateurConnecte;
+import com.healthbook.entity.Role;
+import com.healthbook.util.Transactions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Diffusion des modifications de RDV aux tableaux de bord ouverts, un canal par patient,
+ * un par médecin et un pour les administrateurs. Une connexion inactive n'occupe aucun
+ * thread (requête asynchrone du conteneur) ; chaque envoi part sur un thread virtuel,
+ * un client lent ne retarde donc ni les autres ni la transaction qui a publié.
+ */
+@Component
+public class DiffusionRendezVous {
+
+    private static final String ADMINISTRATEURS = "admin";
+    private static final String EVENEMENT = "rendezvous";
+
+    private final Map<String, Set<SseEmitter>> abonnes = new ConcurrentHashMap<>();
+    private final AtomicInteger nombreAbonnes = new AtomicInteger();
+    private final ExecutorService envois = Executors.newVirtualThreadPerTaskExecutor();
+    private final long delaiMillis;
+    private final int abonnesMax;
+    private final long reconnexionMillis;
+
+    public DiffusionRendezVous(@Value("${app.sse.delai-ms:1800000}") long delaiMillis,
+                               @Value("${app.sse.abonnes-max:50000}") int abonnesMax,
+                               @Value("${app.sse.reconnexion-ms:5000}") long reconnexionMillis) {
+        this.delaiMillis = delaiMillis;
+        this.abonnesMax = abonnesMax;
+        this.reconnexionMillis = reconnexionMillis;
+    }
+
+    // ========================
+    // ABONNEMENT
+    // ========================
+    public SseEmitter abonner(UtilisateurConnecte user) {
+        SseEmitter emetteur = new SseEmitter(delaiMillis);
+        String canal = canal(user);
+        if (canal == null || nombreAbonnes.incrementAndGet() > abonnesMax) {
+            if (canal != null) {
+                nombreAbonnes.decrementAndGet();
+            }
+            // Trop de connexions : le navigateur réessaiera plus tard
+            envoyerPuisFermer(emetteur, reconnexionMillis * 12);
+            return emetteur;
+        }
+
+        abonnes.compute(canal, (cle, emetteurs) -> {
+            Set<SseEmitter> ensemble = emetteurs != null ? emetteurs : ConcurrentHashMap.newKeySet();
+            ensemble.add(emetteur);
+            return ensemble;
+        });
+        emetteur.onCompletion(() -> retirer(canal, emetteur));
+        emetteur.onError(erreur -> retirer(canal, emetteur));
+        try {
+            emetteur.send(SseEmitter.event().comment("connecté").reconnectTime(reconnexionMillis));
+        } catch (IOException e) {
+            retirer(canal, emetteur);
+        }
+        return emetteur;
+    }
+
+    public int getNombreAbonnes() {
+        return nombreAbonnes.get();
+    }
+
+    // ========================
+    // PUBLICATION (après commit)
+    // ========================
+    public void publier(EvenementRendezVous evenement) {
+        Transactions.apresCommit(() -> diffuser(evenement));
+    }
+
+    // Commentaire périodique : garde les proxys ouverts et détecte les connexions mortes
+    @Scheduled(fixedDelayString = "${app.sse.battement-ms:25000}")
+    public void battement() {
+        abonnes.forEach((canal, emetteurs) -> emetteurs.forEach(emetteur -> envois.execute(() -> {
+            try {
+                emetteur.send(SseEmitter.event().comment(""));
+            } catch (IOException | IllegalStateException e) {
+                retirer(canal, emetteur);
+            }
+        })));
+    }
+
+    @PreDestroy
+    public void arreter() {
+        abonnes.values().forEach(emetteurs -> emetteurs.forEach(SseEmitter::complete));
+        envois.shutdownNow();
+    }
+
+    // ========================
+    // MÉTHODES PRIVÉES
+    // ========================
+    private void diffuser(EvenementRendezVous evenement) {
+        envoyer("patient:" + evenement.patientId(), evenement);
+        envoyer("medecin:" + evenement.medecinId(), evenement);
+        envoyer(ADMINISTRATEURS, evenement);
+    }
+
+    private void envoyer(String canal, EvenementRendezVous evenement) {
+        Set<SseEmitter> emetteurs = abonnes.get(canal);
+        if (emetteurs == null) {
+            return;
+        }
+        for (SseEmitter emetteur : emetteurs) {
+            envois.execute(() -> {
+                try {
+                    emetteur.send(SseEmitter.event().name(EVENEMENT).data(evenement, MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException e) {
+                    // Connexion fermée côté client : le conteneur termine la requête
+                    retirer(canal, emetteur);
+                }
+            });
+        }
+    }
+
+    private void retirer(String canal, SseEmitter emetteur) {
+        abonnes.computeIfPresent(canal, (cle, emetteurs) -> {
+            if (emetteurs.remove(emetteur)) {
+                nombreAbonnes.decrementAndGet();
+            }
+            return emetteurs.isEmpty() ? null : emetteurs;
+        });
+    }
+
+    private static void envoyerPuisFermer(SseEmitter emetteur, long reconnexionMillis) {
+        try {
+            emetteur.send(SseEmitter.event().comment("complet").reconnectTime(reconnexionMillis));
+        } catch (IOException ignored) {
+            // Le client est déjà parti
+        }
+        emetteur.complete();
+    }
+
+    private static String canal(UtilisateurConnecte user) {
+        if (user.getRole() == Role.PATIENT && user.getPatientId() != null) {
+            return "patient:" + user.getPatientId();
+        } else if (user.getRole() == Role.MEDECIN && user.getMedecinId() != null) {
+            return "medecin:" + user.getMedecinId();
+        } else if (user.getRole() == Role.ADMIN) {
+            return ADMINISTRATEURS;
+        }
+        return null;
+    }
+}
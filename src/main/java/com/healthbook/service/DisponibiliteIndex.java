@@ -0,0 +1,197 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.Creneau;
+import com.healthbook.entity.RendezVous;
+import com.healthbook.repository.RendezVousRepository;
+import com.healthbook.util.Transactions;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Index en mémoire des créneaux occupés, un calendrier par médecin découpé en jours.
+ * Chaque calendrier est chargé à la première consultation (créneaux à partir
+ * d'aujourd'hui) puis maintenu à jour après commit des créations, confirmations
+ * et annulations : la vérification de disponibilité ne touche plus la base.
+ *
+ * Le test de chevauchement tient compte de la durée des RDV : seuls les jours
+ * couvrant [debut - dureeMax, fin) sont examinés, son coût ne dépend donc pas
+ * de la taille de l'historique du médecin.
+ */
+@Component
+public class DisponibiliteIndex {
+
+    private static final Creneau[] AUCUN = new Creneau[0];
+    private static final int NOMBRE_VERROUS = 64;
+
+    private final RendezVousRepository rendezVousRepository;
+    private final ConcurrentMap<Long, Calendrier> calendriers = new ConcurrentHashMap<>();
+    // Chargement et mises à jour d'un même médecin s'excluent (verrous répartis)
+    private final ReentrantLock[] verrous = new ReentrantLock[NOMBRE_VERROUS];
+
+    public DisponibiliteIndex(RendezVousRepository rendezVousRepository) {
+        this.rendezVousRepository = rendezVousRepository;
+        for (int i = 0; i < NOMBRE_VERROUS; i++) {
+            verrous[i] = new ReentrantLock();
+        }
+    }
+
+    // ========================
+    // CONSULTATION
+    // ========================
+    public boolean estDisponible(Long medecinId, LocalDateTime debut, int dureeMinutes) {
+        return !calendrier(medecinId).chevauche(debut, debut.plusMinutes(dureeMinutes));
+    }
+
+    // Créneaux qui chevauchent [debut, fin), triés par début
+    public List<Creneau> creneauxOccupes(Long medecinId, LocalDateTime debut, LocalDateTime fin) {
+        return calendrier(medecinId).entre(debut, fin);
+    }
+
+    // ========================
+    // MISE À JOUR (après commit)
+    // ========================
+    public void enregistrer(RendezVous rendezVous) {
+        Creneau creneau = versCreneau(rendezVous);
+        Long medecinId = rendezVous.getMedecin().getId();
+        Transactions.apresCommit(() -> sousVerrou(medecinId, () -> calendriers.computeIfPresent(medecinId, (id, calendrier) -> {
+            calendrier.ajouter(creneau);
+            calendrier.purger(LocalDate.now());
+            return calendrier;
+        })));
+    }
+
+    public void liberer(RendezVous rendezVous) {
+        Creneau creneau = versCreneau(rendezVous);
+        Long medecinId = rendezVous.getMedecin().getId();
+        Transactions.apresCommit(() -> sousVerrou(medecinId, () -> calendriers.computeIfPresent(medecinId, (id, calendrier) -> {
+            calendrier.retirer(creneau);
+            return calendrier;
+        })));
+    }
+
+    public void invalider(Long medecinId) {
+        calendriers.remove(medecinId);
+    }
+
+    // ========================
+    // CHARGEMENT PARESSEUX
+    // ========================
+    private Calendrier calendrier(Long medecinId) {
+        Calendrier existant = calendriers.get(medecinId);
+        if (existant != null) {
+            return existant;
+        }
+        // Les mises à jour du même médecin attendent la fin du chargement : aucune écriture
+        // ne peut être perdue. Pas de computeIfAbsent : la requête SQL s'exécuterait sous le
+        // moniteur de la ConcurrentHashMap, qui immobilise le thread porteur d'un thread virtuel.
+        return sousVerrou(medecinId, () -> {
+            Calendrier calendrier = calendriers.get(medecinId);
+            if (calendrier == null) {
+                calendrier = new Calendrier();
+                rendezVousRepository.findCreneauxOccupes(medecinId, LocalDate.now().atStartOfDay())
+                        .forEach(calendrier::ajouter);
+                calendriers.put(medecinId, calendrier);
+            }
+            return calendrier;
+        });
+    }
+
+    private <T> T sousVerrou(Long medecinId, Supplier<T> action) {
+        int hash = Long.hashCode(medecinId);
+        ReentrantLock verrou = verrous[(hash ^ (hash >>> 16)) & (NOMBRE_VERROUS - 1)];
+        verrou.lock();
+        try {
+            return action.get();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    private static Creneau versCreneau(RendezVous rendezVous) {
+        return new Creneau(rendezVous.getId(), rendezVous.getDateHeure(), rendezVous.getDuree());
+    }
+
+    // Créneaux d'un médecin regroupés par jour (tableaux triés, copiés à l'écriture) ;
+    // dureeMax borne le nombre de jours à examiner vers le passé
+    private static final class Calendrier {
+        final ConcurrentMap<LocalDate, Creneau[]> jours = new ConcurrentHashMap<>();
+        volatile int dureeMax = Creneau.DUREE_PAR_DEFAUT;
+        volatile LocalDate dernierePurge = LocalDate.MIN;
+
+        boolean chevauche(LocalDateTime debut, LocalDateTime fin) {
+            LocalDateTime borneBasse = debut.minusMinutes(dureeMax);
+            LocalDate dernierJour = fin.toLocalDate();
+            for (LocalDate jour = borneBasse.toLocalDate(); !jour.isAfter(dernierJour); jour = jour.plusDays(1)) {
+                for (Creneau creneau : jours.getOrDefault(jour, AUCUN)) {
+                    if (!creneau.debut().isBefore(fin)) {
+                        break;
+                    }
+                    if (creneau.debut().isAfter(borneBasse) && creneau.fin().isAfter(debut)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        List<Creneau> entre(LocalDateTime debut, LocalDateTime fin) {
+            List<Creneau> resultat = new ArrayList<>();
+            LocalDate dernierJour = fin.toLocalDate();
+            for (LocalDate jour = debut.minusMinutes(dureeMax).toLocalDate(); !jour.isAfter(dernierJour); jour = jour.plusDays(1)) {
+                for (Creneau creneau : jours.getOrDefault(jour, AUCUN)) {
+                    if (!creneau.debut().isBefore(fin)) {
+                        break;
+                    }
+                    if (creneau.fin().isAfter(debut)) {
+                        resultat.add(creneau);
+                    }
+                }
+            }
+            return resultat;
+        }
+
+        void ajouter(Creneau creneau) {
+            jours.merge(creneau.debut().toLocalDate(), new Creneau[] { creneau }, (existants, nouveau) -> {
+                List<Creneau> fusion = new ArrayList<>(existants.length + 1);
+                for (Creneau existant : existants) {
+                    if (!existant.rendezVousId().equals(creneau.rendezVousId())) {
+                        fusion.add(existant);
+                    }
+                }
+                fusion.add(creneau);
+                fusion.sort(Comparator.comparing(Creneau::debut));
+                return fusion.toArray(AUCUN);
+            });
+            if (creneau.dureeMinutes() > dureeMax) {
+                dureeMax = creneau.dureeMinutes();
+            }
+        }
+
+        void retirer(Creneau creneau) {
+            jours.computeIfPresent(creneau.debut().toLocalDate(), (jour, existants) -> {
+                Creneau[] restants = Arrays.stream(existants)
+                        .filter(existant -> !existant.rendezVousId().equals(creneau.rendezVousId()))
+                        .toArray(Creneau[]::new);
+                return restants.length == 0 ? null : restants;
+            });
+        }
+
+        // Les jours passés ne servent plus : purge au plus une fois par jour
+        void purger(LocalDate aujourdhui) {
+            if (dernierePurge.isBefore(aujourdhui)) {
+                jours.keySet().removeIf(jour -> jour.isBefore(aujourdhui));
+                dernierePurge = aujourdhui;
+            }
+        }
+    }
+}
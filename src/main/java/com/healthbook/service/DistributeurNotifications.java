@@ -0,0 +1,186 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.MessageNotification;
+import com.healthbook.dto.StatistiquesNotifications;
+import com.healthbook.entity.Notification;
+import com.healthbook.entity.Notification.StatutNotification;
+import com.healthbook.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envoi en tâche de fond des notifications mises en file par NotificationService, par lots :
+ * 1. réservation du lot (transaction courte) : les lignes reçoivent un jeton et un bail ;
+ * 2. remise à l'expéditeur, hors transaction et sans connexion tenue ;
+ * 3. enregistrement du résultat (transaction courte) : envoyée, nouvel essai après une attente
+ *    doublée à chaque échec, ou abandon après le nombre maximal de tentatives.
+ * Si l'instance s'arrête entre 1 et 3, le bail expire et le lot est repris ; l'expéditeur
+ * reconnaît alors les messages déjà remis à leur clé. Plusieurs instances peuvent tourner.
+ */
+@Component
+public class DistributeurNotifications {
+
+    private static final Logger log = LoggerFactory.getLogger(DistributeurNotifications.class);
+    private static final int LONGUEUR_ERREUR = 500;
+
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExpediteurNotifications expediteur;
+    private final int tailleLot;
+    private final int tentativesMax;
+    private final long delaiInitialMillis;
+    private final long delaiMaxMillis;
+    private final long dureeBailMillis;
+
+    private final AtomicLong envoyees = new AtomicLong();
+    private final AtomicLong nouvellesTentatives = new AtomicLong();
+    private final AtomicLong echecs = new AtomicLong();
+    private volatile long debitParSeconde;
+    private volatile long dureeDernierLotMillis;
+
+    public DistributeurNotifications(NotificationRepository notificationRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     ExpediteurNotifications expediteur,
+                                     @Value("${app.notifications.taille-lot:100}") int tailleLot,
+                                     @Value("${app.notifications.tentatives-max:8}") int tentativesMax,
+                                     @Value("${app.notifications.delai-initial-ms:5000}") long delaiInitialMillis,
+                                     @Value("${app.notifications.delai-max-ms:3600000}") long delaiMaxMillis,
+                                     @Value("${app.notifications.duree-bail-ms:60000}") long dureeBailMillis) {
+        this.notificationRepository = notificationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expediteur = expediteur;
+        this.tailleLot = tailleLot;
+        this.tentativesMax = tentativesMax;
+        this.delaiInitialMillis = delaiInitialMillis;
+        this.delaiMaxMillis = delaiMaxMillis;
+        this.dureeBailMillis = dureeBailMillis;
+    }
+
+    // ========================
+    // PASSAGE PÉRIODIQUE
+    // ========================
+    // Vide la file lot après lot ; s'arrête sur un lot incomplet (plus rien d'échu)
+    @Scheduled(initialDelayString = "${app.notifications.intervalle-ms:2000}",
+            fixedDelayString = "${app.notifications.intervalle-ms:2000}")
+    public int distribuer() {
+        long debut = System.nanoTime();
+        int total = 0;
+        int traites;
+        do {
+            traites = traiterLot();
+            total += traites;
+        } while (traites == tailleLot);
+
+        if (total > 0) {
+            long dureeNanos = Math.max(1, System.nanoTime() - debut);
+            debitParSeconde = total * 1_000_000_000L / dureeNanos;
+        }
+        return total;
+    }
+
+    // ========================
+    // STATISTIQUES (tableau de bord admin)
+    // ========================
+    public StatistiquesNotifications statistiques() {
+        long retardSecondes = notificationRepository.findPlusAncienneDateCreation(StatutNotification.EN_ATTENTE)
+                .map(date -> Math.max(0, Duration.between(date, LocalDateTime.now()).toSeconds()))
+                .orElse(0L);
+        return new StatistiquesNotifications(envoyees.get(), nouvellesTentatives.get(), echecs.get(),
+                notificationRepository.countByStatut(StatutNotification.EN_ATTENTE), retardSecondes,
+                debitParSeconde, dureeDernierLotMillis);
+    }
+
+    // ========================
+    // MÉTHODES PRIVÉES
+    // ========================
+    private int traiterLot() {
+        long debut = System.nanoTime();
+        String jeton = UUID.randomUUID().toString();
+        List<Notification> lot = reserver(jeton);
+        if (lot.isEmpty()) {
+            return 0;
+        }
+
+        List<MessageNotification> messages = lot.stream()
+                .map(n -> new MessageNotification(n.getCle(), n.getDestinataire(), n.getSujet(), n.getCorps()))
+                .toList();
+        Map<String, String> refus;
+        try {
+            refus = expediteur.envoyer(messages);
+        } catch (RuntimeException e) {
+            log.warn("Envoi d'un lot de {} notifications impossible : {}", messages.size(), e.getMessage());
+            refus = new HashMap<>();
+            for (MessageNotification message : messages) {
+                refus.put(message.cle(), String.valueOf(e.getMessage()));
+            }
+        }
+
+        enregistrerResultat(jeton, refus);
+        dureeDernierLotMillis = (System.nanoTime() - debut) / 1_000_000;
+        return lot.size();
+    }
+
+    private List<Notification> reserver(String jeton) {
+        return transactionTemplate.execute(statut -> {
+            LocalDateTime maintenant = LocalDateTime.now();
+            List<Long> ids = notificationRepository.findIdsAEnvoyer(StatutNotification.EN_ATTENTE, maintenant,
+                    Limit.of(tailleLot));
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            // Les lignes déjà réservées par une autre instance sont écartées par la condition de l'UPDATE
+            notificationRepository.reserver(jeton, maintenant.plusNanos(dureeBailMillis * 1_000_000), ids, maintenant);
+            return notificationRepository.findByJeton(jeton);
+        });
+    }
+
+    // Seules les lignes portant encore notre jeton sont mises à jour : un lot repris après
+    // expiration du bail appartient désormais à l'autre distributeur
+    private void enregistrerResultat(String jeton, Map<String, String> refus) {
+        transactionTemplate.executeWithoutResult(statut -> {
+            LocalDateTime maintenant = LocalDateTime.now();
+            for (Notification notification : notificationRepository.findByJeton(jeton)) {
+                notification.setJeton(null);
+                String erreur = refus.get(notification.getCle());
+                if (erreur == null) {
+                    notification.setStatut(StatutNotification.ENVOYEE);
+                    notification.setDateEnvoi(maintenant);
+                    notification.setDerniereErreur(null);
+                    envoyees.incrementAndGet();
+                    continue;
+                }
+
+                notification.setTentatives(notification.getTentatives() + 1);
+                notification.setDerniereErreur(erreur.length() > LONGUEUR_ERREUR ? erreur.substring(0, LONGUEUR_ERREUR) : erreur);
+                if (notification.getTentatives() >= tentativesMax) {
+                    notification.setStatut(StatutNotification.ECHEC);
+                    echecs.incrementAndGet();
+                    log.warn("Notification {} abandonnée après {} tentatives : {}",
+                            notification.getCle(), notification.getTentatives(), erreur);
+                } else {
+                    notification.setProchainEssai(maintenant.plusNanos(delai(notification.getTentatives()) * 1_000_000));
+                    nouvellesTentatives.incrementAndGet();
+                }
+            }
+        });
+    }
+
+    // 1er échec : délai initial, puis doublé à chaque tentative, plafonné
+    long delai(int tentatives) {
+        int exposant = Math.min(tentatives - 1, 30);
+        return Math.min(delaiMaxMillis, delaiInitialMillis << exposant);
+    }
+}
@@ -0,0 +1,111 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.MessageNotification;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Expéditeur de remplacement : un message par ligne (clé, destinataire, sujet, corps séparés
+ * par des tabulations) ajouté à un fichier local. Seules les dernières clés écrites sont retenues
+ * (relues en fin de fichier au démarrage) : un lot repris après expiration de son bail n'est pas
+ * dupliqué. Au-delà, l'unicité repose sur la clé de la notification en base et sur le jeton du lot.
+ */
+public class ExpediteurFichier implements ExpediteurNotifications {
+
+    // Estimation large d'une ligne : la fin de fichier relue au démarrage couvre les clés retenues
+    private static final int OCTETS_PAR_LIGNE = 1024;
+
+    private final Path fichier;
+    private final int clesMax;
+    private final Set<String> clesEcrites;
+    private final ReentrantLock verrou = new ReentrantLock();
+
+    public ExpediteurFichier(Path fichier, int clesMax) {
+        this.fichier = fichier;
+        this.clesMax = clesMax;
+        // Les plus anciennes clés sont oubliées au-delà de clesMax
+        this.clesEcrites = Collections.newSetFromMap(new LinkedHashMap<>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> plusAncienne) {
+                return size() > ExpediteurFichier.this.clesMax;
+            }
+        });
+        if (Files.exists(fichier)) {
+            try {
+                relireFinDeFichier();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Lecture de " + fichier + " impossible", e);
+            }
+        }
+    }
+
+    @Override
+    public Map<String, String> envoyer(List<MessageNotification> lot) {
+        verrou.lock();
+        try {
+            StringBuilder lignes = new StringBuilder();
+            List<String> nouvellesCles = new ArrayList<>();
+            for (MessageNotification message : lot) {
+                if (clesEcrites.contains(message.cle()) || nouvellesCles.contains(message.cle())) {
+                    continue;
+                }
+                lignes.append(message.cle()).append('\t').append(champ(message.destinataire())).append('\t')
+                        .append(champ(message.sujet())).append('\t').append(champ(message.corps()))
+                        .append(System.lineSeparator());
+                nouvellesCles.add(message.cle());
+            }
+            if (!nouvellesCles.isEmpty()) {
+                Files.createDirectories(fichier.toAbsolutePath().getParent());
+                Files.writeString(fichier, lignes, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                // Clés retenues une fois le lot écrit : un lot en échec sera réécrit entièrement
+                clesEcrites.addAll(nouvellesCles);
+            }
+            return Map.of();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Écriture de " + fichier + " impossible", e);
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    // Fin du fichier seulement : le démarrage ne dépend pas de la taille du journal
+    private void relireFinDeFichier() throws IOException {
+        try (SeekableByteChannel canal = Files.newByteChannel(fichier, StandardOpenOption.READ)) {
+            long debut = Math.max(0, canal.size() - (long) clesMax * OCTETS_PAR_LIGNE);
+            canal.position(debut);
+            BufferedReader lecteur = new BufferedReader(Channels.newReader(canal,
+                    StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE), -1));
+            if (debut > 0) {
+                // Première ligne tronquée
+                lecteur.readLine();
+            }
+            String ligne;
+            while ((ligne = lecteur.readLine()) != null) {
+                clesEcrites.add(ligne.split("\t", 2)[0]);
+            }
+        }
+    }
+
+    private static String champ(String valeur) {
+        return valeur.replace("\\", "\\\\").replace("\t", "\\t").replace("\r", "").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,20 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.MessageNotification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Canal de remise des notifications (fichier local par défaut, SMTP en production).
+ * Un message déjà remis (même clé) doit être ignoré : après une coupure entre l'envoi et
+ * l'enregistrement du résultat, le distributeur renvoie le lot.
+ */
+public interface ExpediteurNotifications {
+
+    /**
+     * Remet un lot de messages.
+     * @return les messages refusés (clé -> motif) ; une exception fait échouer tout le lot
+     */
+    Map<String, String> envoyer(List<MessageNotification> lot);
+}
@@ -0,0 +1,226 @@
+package com.healthbook.service;
+
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Patient;
+import com.healthbook.entity.RendezVous;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.CacheMode;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Export des rendez-vous en CSV (comptabilité) et en iCalendar (agenda d'un médecin).
+ * Les RDV sont lus en flux, écrits au fil de l'eau dans la réponse, et le contexte de
+ * persistance est vidé régulièrement : la mémoire utilisée ne dépend pas du nombre de lignes.
+ */
+@Service
+public class ExportRendezVousService {
+
+    static final int LIGNES_PAR_VIDAGE = 1000;
+
+    // Requêtes publiques : leurs plans sont vérifiés par PlansRequetesTest
+    public static final String REQUETE_EXPORT =
+            "SELECT rv FROM RendezVous rv JOIN FETCH rv.patient JOIN FETCH rv.medecin ORDER BY rv.dateHeure ASC, rv.id ASC";
+    public static final String REQUETE_EXPORT_MEDECIN =
+            "SELECT rv FROM RendezVous rv JOIN FETCH rv.patient JOIN FETCH rv.medecin WHERE rv.medecin.id = :medecinId "
+                    + "ORDER BY rv.dateHeure ASC, rv.id ASC";
+    // Connector/J : Integer.MIN_VALUE lit le résultat ligne à ligne en flux, sans useCursorFetch sur toute
+    // la source de données ; les autres pilotes (H2) lisent par paquets de cette taille
+    private static final int LIGNES_PAR_LECTURE = 1000;
+    private static final int LECTURE_EN_FLUX_MYSQL = Integer.MIN_VALUE;
+
+    // Préfixes qu'un tableur interprète comme une formule (injection CSV)
+    private static final String DEBUTS_FORMULE = "=+-@\t\r";
+
+    private static final String ENTETE_CSV = "id;date_heure;duree;statut;motif;patient_id;patient_nom;patient_prenom;"
+            + "medecin_id;medecin_nom;medecin_prenom;specialite;date_creation";
+    private static final DateTimeFormatter DATE_ICS = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    // Lignes iCalendar limitées à 75 octets (RFC 5545 §3.1), repliées au-delà
+    private static final int LONGUEUR_LIGNE_ICS = 75;
+
+    private final EntityManager entityManager;
+    private final int tailleLecture;
+
+    public ExportRendezVousService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        boolean mysql = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof MySQLDialect;
+        this.tailleLecture = mysql ? LECTURE_EN_FLUX_MYSQL : LIGNES_PAR_LECTURE;
+    }
+
+    // ========================
+    // EXPORT CSV (tous les RDV)
+    // ========================
+    @Transactional(readOnly = true)
+    public long exporterCsv(OutputStream sortie) throws IOException {
+        Writer ecrivain = ecrivain(sortie);
+        ecrivain.write(ENTETE_CSV);
+        ecrivain.write('\n');
+
+        long nombre = 0;
+        try (Stream<RendezVous> rendezVous = lire(entityManager.createQuery(REQUETE_EXPORT, RendezVous.class))) {
+            Iterator<RendezVous> lignes = rendezVous.iterator();
+            while (lignes.hasNext()) {
+                ecrireCsv(ecrivain, lignes.next());
+                nombre = vider(ecrivain, nombre + 1);
+            }
+        }
+        ecrivain.flush();
+        return nombre;
+    }
+
+    // ========================
+    // EXPORT ICALENDAR (agenda d'un médecin)
+    // ========================
+    @Transactional(readOnly = true)
+    public long exporterIcs(Long medecinId, OutputStream sortie) throws IOException {
+        Writer ecrivain = ecrivain(sortie);
+        String horodatage = LocalDateTime.now(ZoneOffset.UTC).format(DATE_ICS) + "Z";
+        ligneIcs(ecrivain, "BEGIN:VCALENDAR");
+        ligneIcs(ecrivain, "VERSION:2.0");
+        ligneIcs(ecrivain, "PRODID:-//HealthBook//Agenda medecin//FR");
+        ligneIcs(ecrivain, "CALSCALE:GREGORIAN");
+        ligneIcs(ecrivain, "X-WR-CALNAME:HealthBook");
+
+        long nombre = 0;
+        try (Stream<RendezVous> rendezVous = lire(entityManager.createQuery(REQUETE_EXPORT_MEDECIN, RendezVous.class)
+                .setParameter("medecinId", medecinId))) {
+            Iterator<RendezVous> lignes = rendezVous.iterator();
+            while (lignes.hasNext()) {
+                ecrireEvenement(ecrivain, lignes.next(), horodatage);
+                nombre = vider(ecrivain, nombre + 1);
+            }
+        }
+        ligneIcs(ecrivain, "END:VCALENDAR");
+        ecrivain.flush();
+        return nombre;
+    }
+
+    // ========================
+    // MÉTHODES PRIVÉES
+    // ========================
+    // Lecture en flux, sans passer par le cache de second niveau ; à fermer après usage
+    private Stream<RendezVous> lire(TypedQuery<RendezVous> requete) {
+        return requete.setHint(HibernateHints.HINT_FETCH_SIZE, tailleLecture)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream();
+    }
+
+    private static Writer ecrivain(OutputStream sortie) {
+        return new BufferedWriter(new OutputStreamWriter(sortie, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    // Détache les entités déjà écrites et envoie ce qui est prêt au client
+    private long vider(Writer ecrivain, long nombre) throws IOException {
+        if (nombre % LIGNES_PAR_VIDAGE == 0) {
+            entityManager.clear();
+            ecrivain.flush();
+        }
+        return nombre;
+    }
+
+    private static void ecrireCsv(Writer ecrivain, RendezVous rdv) throws IOException {
+        Patient patient = rdv.getPatient();
+        Medecin medecin = rdv.getMedecin();
+        ecrivain.write(String.join(";",
+                String.valueOf(rdv.getId()),
+                String.valueOf(rdv.getDateHeure()),
+                String.valueOf(rdv.getDuree()),
+                rdv.getStatut().name(),
+                champCsv(rdv.getMotif()),
+                String.valueOf(patient.getId()),
+                champCsv(patient.getNom()),
+                champCsv(patient.getPrenom()),
+                String.valueOf(medecin.getId()),
+                champCsv(medecin.getNom()),
+                champCsv(medecin.getPrenom()),
+                champCsv(medecin.getSpecialite()),
+                rdv.getDateCreation() != null ? rdv.getDateCreation().toString() : ""));
+        ecrivain.write('\n');
+    }
+
+    // Guillemets si le champ contient le séparateur, un guillemet ou un retour à la ligne ;
+    // une valeur qui commence comme une formule est préfixée d'une apostrophe et mise entre guillemets
+    static String champCsv(String valeur) {
+        if (valeur == null) {
+            return "";
+        }
+        if (!valeur.isEmpty() && DEBUTS_FORMULE.indexOf(valeur.charAt(0)) >= 0) {
+            return "\"'" + valeur.replace("\"", "\"\"") + '"';
+        }
+        if (valeur.indexOf(';') < 0 && valeur.indexOf('"') < 0 && valeur.indexOf('\n') < 0 && valeur.indexOf('\r') < 0) {
+            return valeur;
+        }
+        return '"' + valeur.replace("\"", "\"\"") + '"';
+    }
+
+    private static void ecrireEvenement(Writer ecrivain, RendezVous rdv, String horodatage) throws IOException {
+        int duree = rdv.getDuree() != null ? rdv.getDuree() : 30;
+        Patient patient = rdv.getPatient();
+        ligneIcs(ecrivain, "BEGIN:VEVENT");
+        ligneIcs(ecrivain, "UID:rdv-" + rdv.getId() + "@healthbook");
+        ligneIcs(ecrivain, "DTSTAMP:" + horodatage);
+        ligneIcs(ecrivain, "DTSTART:" + rdv.getDateHeure().format(DATE_ICS));
+        ligneIcs(ecrivain, "DTEND:" + rdv.getDateHeure().plusMinutes(duree).format(DATE_ICS));
+        ligneIcs(ecrivain, "SUMMARY:" + texteIcs("RDV " + patient.getNom() + " " + patient.getPrenom()));
+        if (rdv.getMotif() != null && !rdv.getMotif().isBlank()) {
+            ligneIcs(ecrivain, "DESCRIPTION:" + texteIcs(rdv.getMotif()));
+        }
+        ligneIcs(ecrivain, "STATUS:" + statutIcs(rdv.getStatut()));
+        ligneIcs(ecrivain, "END:VEVENT");
+    }
+
+    private static String statutIcs(RendezVous.StatutRDV statut) {
+        return switch (statut) {
+            case EN_ATTENTE -> "TENTATIVE";
+            case ANNULE -> "CANCELLED";
+            case CONFIRME, TERMINE -> "CONFIRMED";
+        };
+    }
+
+    // Échappement des valeurs texte (RFC 5545 §3.3.11)
+    static String texteIcs(String valeur) {
+        return valeur.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "\\n");
+    }
+
+    // Fin de ligne CRLF ; au-delà de 75 octets, la suite continue sur une ligne commençant par une espace
+    static void ligneIcs(Writer ecrivain, String ligne) throws IOException {
+        int octets = 0;
+        int limite = LONGUEUR_LIGNE_ICS;
+        for (int i = 0; i < ligne.length(); ) {
+            int caractere = ligne.codePointAt(i);
+            int taille = caractere < 0x80 ? 1 : caractere < 0x800 ? 2 : caractere < 0x10000 ? 3 : 4;
+            if (octets + taille > limite) {
+                ecrivain.write("\r\n ");
+                octets = 0;
+                limite = LONGUEUR_LIGNE_ICS - 1;
+            }
+            ecrivain.write(Character.toChars(caractere));
+            octets += taille;
+            i += Character.charCount(caractere);
+        }
+        ecrivain.write("\r\n");
+    }
+}
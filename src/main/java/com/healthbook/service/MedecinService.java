@@ -1,5 +1,6 @@
 package com.healthbook.service;
 
+import com.healthbook.dto.SuggestionMedecin;
 import com.healthbook.entity.Medecin;
 import com.healthbook.repository.MedecinRepository;
 import org.springframework.stereotype.Service;
@@ -10,10 +11,18 @@ import java.util.Optional;
 @Service
 public class MedecinService {
 
+    public static final int SUGGESTIONS_MAX = 20;
+
     private final MedecinRepository medecinRepository;
+    private final StatistiquesAccueilService statistiquesAccueil;
+    private final MedecinSuggestionIndex suggestionIndex;
 
-    public MedecinService(MedecinRepository medecinRepository) {
+    public MedecinService(MedecinRepository medecinRepository,
+                          StatistiquesAccueilService statistiquesAccueil,
+                          MedecinSuggestionIndex suggestionIndex) {
         this.medecinRepository = medecinRepository;
+        this.statistiquesAccueil = statistiquesAccueil;
+        this.suggestionIndex = suggestionIndex;
     }
 
     // ========================
@@ -23,7 +32,10 @@ public class MedecinService {
         if (medecinRepository.findByEmail(medecin.getEmail()).isPresent()) {
             throw new RuntimeException("Un médecin avec cet email existe déjà");
         }
-        return medecinRepository.save(medecin);
+        Medecin medecinSauvegarde = medecinRepository.save(medecin);
+        statistiquesAccueil.invalider();
+        suggestionIndex.indexer(medecinSauvegarde);
+        return medecinSauvegarde;
     }
 
     // ========================
@@ -40,6 +52,13 @@ public class MedecinService {
         return medecinRepository.findById(id);
     }
 
+    // ========================
+    // RÉCUPÉRER ET VERROUILLER UN MÉDECIN (PRISE DE RDV)
+    // ========================
+    public Optional<Medecin> getMedecinPourReservation(Long id) {
+        return medecinRepository.findByIdForUpdate(id);
+    }
+
     // ========================
     // TROUVER PAR SPÉCIALITÉ
     // ========================
@@ -65,6 +84,13 @@ public class MedecinService {
         }
     }
 
+    // ========================
+    // AUTOCOMPLÉTION (nom, prénom, spécialité, sans accents)
+    // ========================
+    public List<SuggestionMedecin> suggererMedecins(String saisie, int nombre) {
+        return suggestionIndex.suggerer(saisie, Math.max(1, Math.min(nombre, SUGGESTIONS_MAX)));
+    }
+
     // ========================
     // METTRE À JOUR UN MÉDECIN
     // ========================
@@ -85,7 +111,9 @@ public class MedecinService {
         medecin.setEmail(medecinDetails.getEmail());
         medecin.setTelephone(medecinDetails.getTelephone());
 
-        return medecinRepository.save(medecin);
+        Medecin medecinSauvegarde = medecinRepository.save(medecin);
+        suggestionIndex.indexer(medecinSauvegarde);
+        return medecinSauvegarde;
     }
 
     // ========================
@@ -95,6 +123,8 @@ public class MedecinService {
         Medecin medecin = medecinRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Médecin non trouvé avec l'id: " + id));
         medecinRepository.delete(medecin);
+        statistiquesAccueil.invalider();
+        suggestionIndex.retirer(id);
     }
 
     public List<Medecin> findAll() {
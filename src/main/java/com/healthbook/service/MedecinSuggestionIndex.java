@@ -0,0 +1,300 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.SuggestionMedecin;
+import com.healthbook.entity.Medecin;
+import com.healthbook.repository.MedecinRepository;
+import com.healthbook.util.TexteUtils;
+import com.healthbook.util.Transactions;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Arbre de préfixes en mémoire sur les mots du nom, du prénom et de la spécialité des
+ * médecins, normalisés (minuscules, sans accents : "hel" trouve "Hélène"). Une
+ * suggestion descend le long du préfixe puis parcourt le sous-arbre dans l'ordre
+ * alphabétique jusqu'à la limite : son coût dépend de la longueur du préfixe et du
+ * nombre de suggestions, pas du nombre de médecins.
+ *
+ * Avec plusieurs mots ("dupont card"), le plus long sert au parcours et les autres
+ * doivent préfixer un mot du même médecin. Chargé à la première suggestion, puis
+ * maintenu après commit par MedecinService.
+ */
+@Component
+public class MedecinSuggestionIndex {
+
+    private final MedecinRepository medecinRepository;
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    // Protégés par le verrou
+    private final Noeud racine = new Noeud();
+    private final Map<Long, SuggestionMedecin> medecins = new HashMap<>();
+    private final Map<Long, String[]> motsParMedecin = new HashMap<>();
+    private volatile boolean charge;
+
+    public MedecinSuggestionIndex(MedecinRepository medecinRepository) {
+        this.medecinRepository = medecinRepository;
+    }
+
+    // ========================
+    // SUGGESTIONS
+    // ========================
+    public List<SuggestionMedecin> suggerer(String saisie, int limite) {
+        String[] termes = termes(saisie);
+        if (termes.length == 0 || limite <= 0) {
+            return List.of();
+        }
+        // Le terme le plus long réduit le plus le sous-arbre à parcourir
+        String principal = termes[0];
+        for (String terme : termes) {
+            if (terme.length() > principal.length()) {
+                principal = terme;
+            }
+        }
+
+        assurerChargement();
+        verrou.readLock().lock();
+        try {
+            Noeud noeud = racine.descendre(principal);
+            if (noeud == null) {
+                return List.of();
+            }
+            LinkedHashSet<Long> trouves = new LinkedHashSet<>();
+            noeud.collecter(id -> {
+                if (correspondATous(motsParMedecin.get(id), termes)) {
+                    trouves.add(id);
+                }
+                return trouves.size() >= limite;
+            });
+            List<SuggestionMedecin> suggestions = new ArrayList<>(trouves.size());
+            trouves.forEach(id -> suggestions.add(medecins.get(id)));
+            return suggestions;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // ========================
+    // MISE À JOUR (après commit)
+    // ========================
+    public void indexer(Medecin medecin) {
+        SuggestionMedecin suggestion = new SuggestionMedecin(medecin.getId(), medecin.getNom(),
+                medecin.getPrenom(), medecin.getSpecialite());
+        Transactions.apresCommit(() -> ecrire(() -> {
+            if (charge) {
+                ajouter(suggestion);
+            }
+        }));
+    }
+
+    public void retirer(Long medecinId) {
+        Transactions.apresCommit(() -> ecrire(() -> {
+            if (charge) {
+                supprimer(medecinId);
+            }
+        }));
+    }
+
+    // Après une écriture en masse : rechargement complet à la prochaine suggestion
+    public void invalider() {
+        Transactions.apresCommit(() -> ecrire(() -> {
+            racine.vider();
+            medecins.clear();
+            motsParMedecin.clear();
+            charge = false;
+        }));
+    }
+
+    // ========================
+    // CHARGEMENT PARESSEUX
+    // ========================
+    private void assurerChargement() {
+        if (charge) {
+            return;
+        }
+        ecrire(() -> {
+            if (!charge) {
+                medecinRepository.findAllPourSuggestion().forEach(this::ajouter);
+                charge = true;
+            }
+        });
+    }
+
+    // ========================
+    // STRUCTURE
+    // ========================
+    private void ajouter(SuggestionMedecin medecin) {
+        supprimer(medecin.id());
+        // Champ absent : rien à indexer (String.valueOf indexerait le mot « null »)
+        String[] mots = termes(Stream.of(medecin.nom(), medecin.prenom(), medecin.specialite())
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(" ")));
+        medecins.put(medecin.id(), medecin);
+        motsParMedecin.put(medecin.id(), mots);
+        for (String mot : mots) {
+            racine.inserer(mot, 0, medecin.id());
+        }
+    }
+
+    private void supprimer(Long medecinId) {
+        String[] mots = motsParMedecin.remove(medecinId);
+        if (mots == null) {
+            return;
+        }
+        medecins.remove(medecinId);
+        for (String mot : mots) {
+            racine.retirer(mot, 0, medecinId);
+        }
+    }
+
+    private void ecrire(Runnable action) {
+        verrou.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    // Mots distincts de la saisie, normalisés
+    private static String[] termes(String saisie) {
+        String normalise = TexteUtils.normaliser(saisie);
+        return normalise.isEmpty() ? new String[0] : Arrays.stream(normalise.split(" ")).distinct().toArray(String[]::new);
+    }
+
+    private static boolean correspondATous(String[] mots, String[] termes) {
+        for (String terme : termes) {
+            boolean trouve = false;
+            for (String mot : mots) {
+                if (mot.startsWith(terme)) {
+                    trouve = true;
+                    break;
+                }
+            }
+            if (!trouve) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    // Renvoie true pour arrêter le parcours
+    @FunctionalInterface
+    private interface Visiteur {
+        boolean visiter(long medecinId);
+    }
+
+    // Enfants triés par caractère (parcours alphabétique), médecins dont un mot se termine ici
+    // (les mots d'un médecin sont distincts : pas de doublon dans un nœud)
+    private static final class Noeud {
+        char[] cles = new char[0];
+        Noeud[] enfants = new Noeud[0];
+        long[] medecins = new long[0];
+        int nombreMedecins;
+
+        Noeud descendre(String prefixe) {
+            Noeud noeud = this;
+            for (int i = 0; i < prefixe.length() && noeud != null; i++) {
+                noeud = noeud.enfant(prefixe.charAt(i));
+            }
+            return noeud;
+        }
+
+        Noeud enfant(char c) {
+            int position = Arrays.binarySearch(cles, c);
+            return position >= 0 ? enfants[position] : null;
+        }
+
+        void inserer(String mot, int profondeur, long medecinId) {
+            if (profondeur == mot.length()) {
+                if (nombreMedecins == medecins.length) {
+                    medecins = Arrays.copyOf(medecins, Math.max(2, nombreMedecins * 2));
+                }
+                medecins[nombreMedecins++] = medecinId;
+                return;
+            }
+            char c = mot.charAt(profondeur);
+            int position = Arrays.binarySearch(cles, c);
+            if (position < 0) {
+                position = -position - 1;
+                cles = inserer(cles, position, c);
+                Noeud[] nouveaux = new Noeud[enfants.length + 1];
+                System.arraycopy(enfants, 0, nouveaux, 0, position);
+                nouveaux[position] = new Noeud();
+                System.arraycopy(enfants, position, nouveaux, position + 1, enfants.length - position);
+                enfants = nouveaux;
+            }
+            enfants[position].inserer(mot, profondeur + 1, medecinId);
+        }
+
+        // Retire le médecin et élague les branches devenues vides ; true si ce nœud est vide
+        boolean retirer(String mot, int profondeur, long medecinId) {
+            if (profondeur == mot.length()) {
+                for (int i = 0; i < nombreMedecins; i++) {
+                    if (medecins[i] == medecinId) {
+                        System.arraycopy(medecins, i + 1, medecins, i, nombreMedecins - i - 1);
+                        nombreMedecins--;
+                        break;
+                    }
+                }
+            } else {
+                int position = Arrays.binarySearch(cles, mot.charAt(profondeur));
+                if (position >= 0 && enfants[position].retirer(mot, profondeur + 1, medecinId)) {
+                    cles = retirer(cles, position);
+                    Noeud[] restants = new Noeud[enfants.length - 1];
+                    System.arraycopy(enfants, 0, restants, 0, position);
+                    System.arraycopy(enfants, position + 1, restants, position, enfants.length - position - 1);
+                    enfants = restants;
+                }
+            }
+            return nombreMedecins == 0 && cles.length == 0;
+        }
+
+        // Parcours en profondeur : les mots plus courts d'abord, puis par ordre alphabétique
+        boolean collecter(Visiteur visiteur) {
+            for (int i = 0; i < nombreMedecins; i++) {
+                if (visiteur.visiter(medecins[i])) {
+                    return true;
+                }
+            }
+            for (Noeud enfant : enfants) {
+                if (enfant.collecter(visiteur)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void vider() {
+            cles = new char[0];
+            enfants = new Noeud[0];
+            medecins = new long[0];
+            nombreMedecins = 0;
+        }
+
+        private static char[] inserer(char[] tableau, int position, char c) {
+            char[] resultat = new char[tableau.length + 1];
+            System.arraycopy(tableau, 0, resultat, 0, position);
+            resultat[position] = c;
+            System.arraycopy(tableau, position, resultat, position + 1, tableau.length - position);
+            return resultat;
+        }
+
+        private static char[] retirer(char[] tableau, int position) {
+            char[] resultat = new char[tableau.length - 1];
+            System.arraycopy(tableau, 0, resultat, 0, position);
+            System.arraycopy(tableau, position + 1, resultat, position, tableau.length - position - 1);
+            return resultat;
+        }
+    }
+}
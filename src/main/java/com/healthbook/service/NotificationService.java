@@ -0,0 +1,79 @@
+package com.healthbook.service;
+
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Notification;
+import com.healthbook.entity.Notification.TypeNotification;
+import com.healthbook.entity.Patient;
+import com.healthbook.entity.RendezVous;
+import com.healthbook.repository.NotificationRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Mise en file des notifications aux patients. Le message est écrit dans la transaction du
+ * changement de statut : il n'existe que si ce changement est validé, et l'envoi (lent, faillible)
+ * se fait plus tard, hors requête, par DistributeurNotifications.
+ */
+@Service
+public class NotificationService {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy 'à' HH:mm");
+    private static final DateTimeFormatter CLE_DATE = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+
+    private final NotificationRepository notificationRepository;
+
+    public NotificationService(NotificationRepository notificationRepository) {
+        this.notificationRepository = notificationRepository;
+    }
+
+    // ========================
+    // MISE EN FILE (transaction de l'appelant)
+    // ========================
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Notification planifier(RendezVous rendezVous, TypeNotification type) {
+        return enregistrer(UUID.randomUUID().toString(), rendezVous, type);
+    }
+
+    // Clé tirée du RDV et de sa date : un rappel déjà en file (autre instance, redémarrage) est ignoré
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Notification planifierRappel(RendezVous rendezVous, TypeNotification type) {
+        String cle = type.name().toLowerCase(Locale.ROOT) + "-" + rendezVous.getId() + "-" + CLE_DATE.format(rendezVous.getDateHeure());
+        if (notificationRepository.existsByCle(cle)) {
+            return null;
+        }
+        return enregistrer(cle, rendezVous, type);
+    }
+
+    // ========================
+    // MÉTHODES PRIVÉES
+    // ========================
+    private Notification enregistrer(String cle, RendezVous rendezVous, TypeNotification type) {
+        Patient patient = rendezVous.getPatient();
+        Medecin medecin = rendezVous.getMedecin();
+        String date = DATE.format(rendezVous.getDateHeure());
+
+        String sujet = switch (type) {
+            case CONFIRMATION -> "Votre rendez-vous du " + date + " est confirmé";
+            case ANNULATION -> "Votre rendez-vous du " + date + " est annulé";
+            case RAPPEL_24H -> "Rappel : rendez-vous demain, le " + date;
+            case RAPPEL_1H -> "Rappel : rendez-vous dans une heure, le " + date;
+        };
+        String etat = switch (type) {
+            case CONFIRMATION -> "est confirmé";
+            case ANNULATION -> "est annulé";
+            case RAPPEL_24H, RAPPEL_1H -> "approche ; en cas d'empêchement, merci de l'annuler";
+        };
+        String corps = "Bonjour " + patient.getPrenom() + " " + patient.getNom() + ",\n\n"
+                + "Votre rendez-vous du " + date
+                + " avec le Dr " + medecin.getPrenom() + " " + medecin.getNom()
+                + " (" + medecin.getSpecialite() + ") " + etat + ".\n\nHealthBook";
+
+        return notificationRepository.save(new Notification(cle, type, rendezVous.getId(),
+                patient.getEmail(), sujet, corps));
+    }
+}
@@ -0,0 +1,310 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.PatientRecherche;
+import com.healthbook.entity.Patient;
+import com.healthbook.repository.PatientRepository;
+import com.healthbook.util.TexteUtils;
+import com.healthbook.util.Transactions;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index trigrammes en mémoire sur le nom, le prénom, l'email et le téléphone des patients.
+ * Deux champs normalisés par patient, l'identité (" nom prenom") et les coordonnées
+ * (" email telephone") ; dans chaque champ, un trigramme pointe vers la liste triée des
+ * documents qui le contiennent. Une recherche intersecte les listes des trigrammes de la
+ * requête puis vérifie les candidats : son coût suit la liste la plus courte, pas le
+ * nombre de patients.
+ *
+ * Les résultats sont remplis par catégorie de pertinence (début de nom ou de prénom,
+ * début de mot des coordonnées, puis sous-chaîne), dans l'ordre d'indexation : chaque
+ * parcours s'arrête dès que la limite est atteinte.
+ *
+ * Chargé à la première recherche, puis maintenu après commit par PatientService. Une
+ * modification ajoute un nouveau document et marque l'ancien comme supprimé ; les
+ * listes sont compactées quand les documents supprimés deviennent majoritaires.
+ */
+@Component
+public class PatientRechercheIndex {
+
+    public static final int LONGUEUR_MIN = 2;
+    private static final int COMPACTAGE_MIN = 1024;
+
+    private final PatientRepository patientRepository;
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    // Protégés par le verrou
+    private final Champ identites = new Champ();
+    private final Champ coordonnees = new Champ();
+    private final Map<Long, Integer> documentParPatient = new HashMap<>();
+    private long[] patients = new long[COMPACTAGE_MIN];
+    private int nombreDocuments;
+    private int documentsSupprimes;
+    private volatile boolean charge;
+
+    public PatientRechercheIndex(PatientRepository patientRepository) {
+        this.patientRepository = patientRepository;
+    }
+
+    // ========================
+    // RECHERCHE
+    // ========================
+    // Identifiants des patients correspondants, les plus pertinents d'abord
+    public List<Long> rechercher(String recherche, int limite) {
+        String requete = normaliserRequete(recherche);
+        if (requete.length() < LONGUEUR_MIN || limite <= 0) {
+            return List.of();
+        }
+        String debutMot = " " + requete;
+
+        assurerChargement();
+        verrou.readLock().lock();
+        try {
+            LinkedHashSet<Integer> documents = new LinkedHashSet<>();
+            identites.chercher(debutMot, limite, documents);
+            coordonnees.chercher(debutMot, limite, documents);
+            // Deux caractères : un seul trigramme possible, en début de mot uniquement
+            if (requete.length() >= 3) {
+                identites.chercher(requete, limite, documents);
+                coordonnees.chercher(requete, limite, documents);
+            }
+            List<Long> resultats = new ArrayList<>(documents.size());
+            documents.forEach(document -> resultats.add(patients[document]));
+            return resultats;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public int taille() {
+        verrou.readLock().lock();
+        try {
+            return nombreDocuments - documentsSupprimes;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // ========================
+    // MISE À JOUR (après commit)
+    // ========================
+    public void indexer(Patient patient) {
+        PatientRecherche document = new PatientRecherche(patient.getId(), patient.getNom(),
+                patient.getPrenom(), patient.getEmail(), patient.getTelephone());
+        Transactions.apresCommit(() -> ecrire(() -> {
+            if (charge) {
+                ajouter(document.id(), identite(document), coordonnees(document));
+            }
+        }));
+    }
+
+    public void retirer(Long patientId) {
+        Transactions.apresCommit(() -> ecrire(() -> {
+            if (charge) {
+                supprimer(patientId);
+            }
+        }));
+    }
+
+    // Après une écriture en masse : rechargement complet à la prochaine recherche
+    public void invalider() {
+        Transactions.apresCommit(() -> ecrire(() -> {
+            vider();
+            charge = false;
+        }));
+    }
+
+    // ========================
+    // CHARGEMENT PARESSEUX
+    // ========================
+    // Sous verrou d'écriture : une mise à jour commitée pendant la lecture en base
+    // attend la fin du chargement puis s'applique (les ajouts remplacent l'existant)
+    private void assurerChargement() {
+        if (charge) {
+            return;
+        }
+        ecrire(() -> {
+            if (!charge) {
+                vider();
+                patientRepository.findAllPourRecherche()
+                        .forEach(patient -> ajouter(patient.id(), identite(patient), coordonnees(patient)));
+                charge = true;
+            }
+        });
+    }
+
+    // ========================
+    // STRUCTURE
+    // ========================
+    private void ajouter(long patientId, String identite, String coordonnees) {
+        supprimer(patientId);
+        if (nombreDocuments == patients.length) {
+            patients = Arrays.copyOf(patients, nombreDocuments * 2);
+        }
+        int document = nombreDocuments++;
+        patients[document] = patientId;
+        documentParPatient.put(patientId, document);
+        identites.ajouter(document, identite);
+        this.coordonnees.ajouter(document, coordonnees);
+    }
+
+    private void supprimer(long patientId) {
+        Integer document = documentParPatient.remove(patientId);
+        if (document == null) {
+            return;
+        }
+        identites.textes[document] = null;
+        coordonnees.textes[document] = null;
+        documentsSupprimes++;
+        if (documentsSupprimes >= COMPACTAGE_MIN && documentsSupprimes * 2 > nombreDocuments) {
+            compacter();
+        }
+    }
+
+    // Réindexe les documents vivants, dans le même ordre, sans relire la base
+    private void compacter() {
+        long[] anciensPatients = patients;
+        String[] anciennesIdentites = identites.textes;
+        String[] anciennesCoordonnees = coordonnees.textes;
+        int anciensDocuments = nombreDocuments;
+        vider();
+        for (int document = 0; document < anciensDocuments; document++) {
+            if (anciennesIdentites[document] != null) {
+                ajouter(anciensPatients[document], anciennesIdentites[document], anciennesCoordonnees[document]);
+            }
+        }
+    }
+
+    private void vider() {
+        identites.vider();
+        coordonnees.vider();
+        documentParPatient.clear();
+        patients = new long[COMPACTAGE_MIN];
+        nombreDocuments = 0;
+        documentsSupprimes = 0;
+    }
+
+    private void ecrire(Runnable action) {
+        verrou.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private static String identite(PatientRecherche patient) {
+        return " " + TexteUtils.normaliser(patient.nom()) + " " + TexteUtils.normaliser(patient.prenom());
+    }
+
+    private static String coordonnees(PatientRecherche patient) {
+        return " " + TexteUtils.normaliser(patient.email()) + " " + TexteUtils.chiffres(patient.telephone());
+    }
+
+    // Une requête sans lettre est un numéro de téléphone : espaces et tirets ignorés
+    private static String normaliserRequete(String recherche) {
+        String requete = TexteUtils.normaliser(recherche);
+        return TexteUtils.contientLettre(requete) ? requete : TexteUtils.chiffres(requete);
+    }
+
+    private static long trigramme(String texte, int debut) {
+        return ((long) texte.charAt(debut) << 32) | ((long) texte.charAt(debut + 1) << 16) | texte.charAt(debut + 2);
+    }
+
+
+    // Textes d'un champ par document (null si supprimé) et listes de documents par trigramme
+    private static final class Champ {
+        final Map<Long, Postings> postings = new HashMap<>();
+        String[] textes = new String[COMPACTAGE_MIN];
+
+        void ajouter(int document, String texte) {
+            if (document >= textes.length) {
+                textes = Arrays.copyOf(textes, textes.length * 2);
+            }
+            textes[document] = texte;
+            for (int i = 0; i + 3 <= texte.length(); i++) {
+                postings.computeIfAbsent(trigramme(texte, i), cle -> new Postings()).ajouter(document);
+            }
+        }
+
+        // Ajoute aux résultats les documents dont le texte contient le motif, jusqu'à la limite
+        void chercher(String motif, int limite, LinkedHashSet<Integer> resultats) {
+            if (resultats.size() >= limite) {
+                return;
+            }
+            Postings[] listes = new Postings[motif.length() - 2];
+            for (int i = 0; i < listes.length; i++) {
+                listes[i] = postings.get(trigramme(motif, i));
+                if (listes[i] == null) {
+                    return;
+                }
+            }
+            Arrays.sort(listes, Comparator.comparingInt(liste -> liste.taille));
+
+            int[] positions = new int[listes.length];
+            Postings plusCourte = listes[0];
+            candidats:
+            for (int k = 0; k < plusCourte.taille; k++) {
+                int document = plusCourte.documents[k];
+                for (int j = 1; j < listes.length; j++) {
+                    int position = listes[j].rang(document, positions[j]);
+                    positions[j] = position;
+                    if (position == listes[j].taille) {
+                        return;
+                    }
+                    if (listes[j].documents[position] != document) {
+                        continue candidats;
+                    }
+                }
+                String texte = textes[document];
+                // Document supprimé, ou trigrammes présents mais pas dans l'ordre
+                if (texte != null && texte.contains(motif) && resultats.add(document) && resultats.size() >= limite) {
+                    return;
+                }
+            }
+        }
+
+        void vider() {
+            postings.clear();
+            textes = new String[COMPACTAGE_MIN];
+        }
+    }
+
+    // Documents contenant un trigramme, par numéro croissant (ajouts toujours en fin)
+    private static final class Postings {
+        int[] documents = new int[4];
+        int taille;
+
+        void ajouter(int document) {
+            // Trigramme répété dans le même texte
+            if (taille > 0 && documents[taille - 1] == document) {
+                return;
+            }
+            if (taille == documents.length) {
+                documents = Arrays.copyOf(documents, taille * 2);
+            }
+            documents[taille++] = document;
+        }
+
+        // Position du premier document >= document, à partir de depuis : recherche
+        // exponentielle, les positions successives d'une intersection étant croissantes
+        int rang(int document, int depuis) {
+            int bas = depuis;
+            int pas = 1;
+            while (bas + pas < taille && documents[bas + pas] < document) {
+                bas += pas;
+                pas <<= 1;
+            }
+            int position = Arrays.binarySearch(documents, bas, Math.min(bas + pas, taille), document);
+            return position >= 0 ? position : -position - 1;
+        }
+    }
+}
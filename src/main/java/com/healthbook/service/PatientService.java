@@ -5,15 +5,27 @@ import com.healthbook.repository.PatientRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class PatientService {
 
+    public static final int LIMITE_RECHERCHE = 50;
+
     private final PatientRepository patientRepository;
+    private final StatistiquesAccueilService statistiquesAccueil;
+    private final PatientRechercheIndex rechercheIndex;
 
-    public PatientService(PatientRepository patientRepository) {
+    public PatientService(PatientRepository patientRepository,
+                          StatistiquesAccueilService statistiquesAccueil,
+                          PatientRechercheIndex rechercheIndex) {
         this.patientRepository = patientRepository;
+        this.statistiquesAccueil = statistiquesAccueil;
+        this.rechercheIndex = rechercheIndex;
     }
 
     // ========================
@@ -25,7 +37,10 @@ public class PatientService {
             throw new RuntimeException("Un patient avec cet email existe déjà");
         }
         
-        return patientRepository.save(patient);
+        Patient patientSauvegarde = patientRepository.save(patient);
+        statistiquesAccueil.invalider();
+        rechercheIndex.indexer(patientSauvegarde);
+        return patientSauvegarde;
     }
 
     // ========================
@@ -64,7 +79,9 @@ public class PatientService {
         patient.setTelephone(patientDetails.getTelephone());
         patient.setDateNaissance(patientDetails.getDateNaissance());
 
-        return patientRepository.save(patient);
+        Patient patientSauvegarde = patientRepository.save(patient);
+        rechercheIndex.indexer(patientSauvegarde);
+        return patientSauvegarde;
     }
 
     // ========================
@@ -75,13 +92,22 @@ public class PatientService {
                 .orElseThrow(() -> new RuntimeException("Patient non trouvé avec l'id: " + id));
         
         patientRepository.delete(patient);
+        statistiquesAccueil.invalider();
+        rechercheIndex.retirer(id);
     }
 
     // ========================
-    // RECHERCHER DES PATIENTS
+    // RECHERCHER DES PATIENTS (index trigrammes, sans accents)
     // ========================
     public List<Patient> searchPatients(String recherche) {
-        return patientRepository.searchPatients(recherche);
+        List<Long> ids = rechercheIndex.rechercher(recherche, LIMITE_RECHERCHE);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // findAllById ne garantit pas l'ordre : on rétablit celui du classement
+        Map<Long, Patient> parId = patientRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+        return ids.stream().map(parId::get).filter(Objects::nonNull).toList();
     }
 
     // ========================
@@ -107,10 +133,15 @@ public class PatientService {
     }
 
     public Patient savePatient(Patient patient) {
-        return patientRepository.save(patient);
+        Patient patientSauvegarde = patientRepository.save(patient);
+        statistiquesAccueil.invalider();
+        rechercheIndex.indexer(patientSauvegarde);
+        return patientSauvegarde;
     }
 
     public void deletePatientById(Long id) {
         patientRepository.deleteById(id);
+        statistiquesAccueil.invalider();
+        rechercheIndex.retirer(id);
     }
 }
\ No newline at end of file
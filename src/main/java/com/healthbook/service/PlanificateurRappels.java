@@ -0,0 +1,278 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.Creneau;
+import com.healthbook.dto.Rappel;
+import com.healthbook.entity.Notification.TypeNotification;
+import com.healthbook.entity.RendezVous;
+import com.healthbook.repository.RendezVousRepository;
+import com.healthbook.util.Transactions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Rappels aux patients 24 h et 1 h avant chaque RDV, tenus dans une roue temporelle (une
+ * minute par tic). Seule la fenêtre à venir est en mémoire : chargée au démarrage par une
+ * requête sur l'intervalle de dates (avec un rattrapage des rappels manqués pendant l'arrêt),
+ * étendue au fil du temps, et maintenue après commit des prises, confirmations et annulations.
+ * Un rappel échu est remis à NotificationService, qui l'écarte s'il est déjà en file.
+ */
+@Component
+public class PlanificateurRappels {
+
+    private static final Logger log = LoggerFactory.getLogger(PlanificateurRappels.class);
+    static final int TAILLE_LOT = 500;
+
+    private static final Map<TypeNotification, Duration> AVANCES = new EnumMap<>(Map.of(
+            TypeNotification.RAPPEL_24H, Duration.ofHours(24),
+            TypeNotification.RAPPEL_1H, Duration.ofHours(1)));
+    private static final Duration AVANCE_MIN = Duration.ofHours(1);
+    private static final Duration AVANCE_MAX = Duration.ofHours(24);
+
+    private final RendezVousRepository rendezVousRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration fenetre;
+    private final Duration rattrapage;
+    private final Duration rechargement;
+
+    // Roue et bornes de la fenêtre chargée ; les requêtes se font hors verrou
+    private final ReentrantLock verrou = new ReentrantLock();
+    private RoueRappels roue;
+    private LocalDateTime limiteChargee;
+    private LocalDateTime prochaineRecharge;
+    private final AtomicLong rappelsEmis = new AtomicLong();
+
+    public PlanificateurRappels(RendezVousRepository rendezVousRepository,
+                                NotificationService notificationService,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${app.rappels.fenetre-heures:48}") long fenetreHeures,
+                                @Value("${app.rappels.rattrapage-minutes:60}") long rattrapageMinutes,
+                                @Value("${app.rappels.recharge-minutes:60}") long rechargeMinutes) {
+        this.rendezVousRepository = rendezVousRepository;
+        this.notificationService = notificationService;
+        this.transactionTemplate = transactionTemplate;
+        this.fenetre = Duration.ofHours(fenetreHeures);
+        this.rattrapage = Duration.ofMinutes(rattrapageMinutes);
+        this.rechargement = Duration.ofMinutes(rechargeMinutes);
+        if (fenetre.plus(rattrapage).toMinutes() >= RoueRappels.capacite()) {
+            throw new IllegalArgumentException("Fenêtre des rappels trop longue (max " + RoueRappels.capacite() / 60 + " h)");
+        }
+        LocalDateTime maintenant = LocalDateTime.now();
+        this.roue = new RoueRappels(tic(maintenant));
+        this.limiteChargee = maintenant;
+        this.prochaineRecharge = maintenant;
+    }
+
+    // ========================
+    // CHARGEMENT DE LA FENÊTRE
+    // ========================
+    @EventListener(ApplicationReadyEvent.class)
+    public void recharger() {
+        recharger(LocalDateTime.now());
+    }
+
+    // Repart d'une roue vide : démarrage, ou après des écritures en masse (import)
+    void recharger(LocalDateTime maintenant) {
+        LocalDateTime fin = maintenant.plus(fenetre);
+        verrou.lock();
+        try {
+            roue = new RoueRappels(tic(maintenant));
+            limiteChargee = fin;
+            prochaineRecharge = maintenant.plus(rechargement);
+        } finally {
+            verrou.unlock();
+        }
+        charger(maintenant.minus(rattrapage), fin);
+    }
+
+    // ========================
+    // MISE À JOUR (après commit)
+    // ========================
+    public void planifier(RendezVous rendezVous) {
+        Long id = rendezVous.getId();
+        LocalDateTime dateHeure = rendezVous.getDateHeure();
+        Transactions.apresCommit(() -> {
+            verrou.lock();
+            try {
+                roue.retirer(id);
+                long maintenant = roue.getTicCourant();
+                AVANCES.forEach((type, avance) -> {
+                    LocalDateTime instant = dateHeure.minus(avance);
+                    // Au-delà de la fenêtre : sera lu par la prochaine extension ; déjà passé : sans objet
+                    if (instant.isBefore(limiteChargee) && tic(instant) > maintenant) {
+                        roue.ajouter(new Rappel(id, dateHeure, type), tic(instant));
+                    }
+                });
+            } finally {
+                verrou.unlock();
+            }
+        });
+    }
+
+    public void retirer(Long rendezVousId) {
+        Transactions.apresCommit(() -> {
+            verrou.lock();
+            try {
+                roue.retirer(rendezVousId);
+            } finally {
+                verrou.unlock();
+            }
+        });
+    }
+
+    // ========================
+    // AVANCE DE LA ROUE
+    // ========================
+    @Scheduled(initialDelayString = "${app.rappels.intervalle-ms:15000}",
+            fixedDelayString = "${app.rappels.intervalle-ms:15000}")
+    public int avancer() {
+        return avancer(LocalDateTime.now());
+    }
+
+    int avancer(LocalDateTime maintenant) {
+        List<Rappel> dus;
+        LocalDateTime debut = null;
+        LocalDateTime fin = maintenant.plus(fenetre);
+        verrou.lock();
+        try {
+            dus = roue.avancer(tic(maintenant));
+            // Extension de la fenêtre : la limite est avancée avant la requête, un RDV validé
+            // entre-temps est donc ajouté par planifier() s'il n'est pas lu par la requête
+            if (!maintenant.isBefore(prochaineRecharge) && fin.isAfter(limiteChargee)) {
+                debut = limiteChargee;
+                limiteChargee = fin;
+                prochaineRecharge = maintenant.plus(rechargement);
+            }
+        } finally {
+            verrou.unlock();
+        }
+        if (debut != null) {
+            charger(debut, fin);
+        }
+        return envoyer(dus, maintenant);
+    }
+
+    public int getNombreProgrammes() {
+        verrou.lock();
+        try {
+            return roue.taille();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    public long getRappelsEmis() {
+        return rappelsEmis.get();
+    }
+
+    // ========================
+    // MÉTHODES PRIVÉES
+    // ========================
+    // Rappels dont l'instant tombe dans [debut, fin) : RDV entre debut + 1 h et fin + 24 h
+    private void charger(LocalDateTime debut, LocalDateTime fin) {
+        List<Creneau> creneaux = rendezVousRepository.findCreneauxEntre(debut.plus(AVANCE_MIN), fin.plus(AVANCE_MAX));
+        verrou.lock();
+        try {
+            for (Creneau creneau : creneaux) {
+                AVANCES.forEach((type, avance) -> {
+                    LocalDateTime instant = creneau.debut().minus(avance);
+                    if (!instant.isBefore(debut) && instant.isBefore(fin)) {
+                        roue.ajouter(new Rappel(creneau.rendezVousId(), creneau.debut(), type), tic(instant));
+                    }
+                });
+            }
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    // Le RDV est relu : annulé, déplacé ou commencé entre-temps, le rappel est abandonné.
+    // Une transaction par rappel : un échec ne concerne que le sien, remis dans la roue pour la minute suivante
+    private int envoyer(List<Rappel> dus, LocalDateTime maintenant) {
+        int envoyes = 0;
+        List<Rappel> aReprendre = new ArrayList<>();
+        for (int i = 0; i < dus.size(); i += TAILLE_LOT) {
+            List<Rappel> lot = dus.subList(i, Math.min(i + TAILLE_LOT, dus.size()));
+            Map<Long, RendezVous> rendezVous;
+            try {
+                rendezVous = transactionTemplate.execute(statut -> rendezVousRepository
+                        .findAvecPatientEtMedecin(lot.stream().map(Rappel::rendezVousId).distinct().toList())
+                        .stream().collect(Collectors.toMap(RendezVous::getId, Function.identity())));
+            } catch (RuntimeException e) {
+                log.warn("Lecture de {} RDV à rappeler impossible, nouvel essai à la minute suivante : {}",
+                        dus.size() - i, e.getMessage());
+                aReprendre.addAll(dus.subList(i, dus.size()));
+                break;
+            }
+            for (Rappel rappel : lot) {
+                RendezVous rdv = rendezVous.get(rappel.rendezVousId());
+                if (rdv == null || !estAVenir(rdv, rappel, maintenant)) {
+                    continue;
+                }
+                try {
+                    if (transactionTemplate.execute(statut -> notificationService.planifierRappel(rdv, rappel.type())) != null) {
+                        envoyes++;
+                    }
+                } catch (DataIntegrityViolationException e) {
+                    // Même rappel mis en file au même instant par une autre instance
+                    log.debug("Rappel {} du RDV {} déjà mis en file ailleurs", rappel.type(), rappel.rendezVousId());
+                } catch (RuntimeException e) {
+                    log.warn("Rappel {} du RDV {} non mis en file, nouvel essai à la minute suivante : {}",
+                            rappel.type(), rappel.rendezVousId(), e.getMessage());
+                    aReprendre.add(rappel);
+                }
+            }
+        }
+        reprendre(aReprendre);
+        rappelsEmis.addAndGet(envoyes);
+        return envoyes;
+    }
+
+    private void reprendre(List<Rappel> rappels) {
+        if (rappels.isEmpty()) {
+            return;
+        }
+        verrou.lock();
+        try {
+            long prochainTic = roue.getTicCourant() + 1;
+            for (Rappel rappel : rappels) {
+                // Reprogrammé entre-temps (RDV déplacé ou confirmé) : le nouveau rappel prime
+                if (!roue.contient(rappel.rendezVousId(), rappel.type())) {
+                    roue.ajouter(rappel, prochainTic);
+                }
+            }
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    private static boolean estAVenir(RendezVous rdv, Rappel rappel, LocalDateTime maintenant) {
+        return (rdv.getStatut() == RendezVous.StatutRDV.EN_ATTENTE || rdv.getStatut() == RendezVous.StatutRDV.CONFIRME)
+                && tic(rdv.getDateHeure()) == tic(rappel.dateHeure())
+                && rdv.getDateHeure().isAfter(maintenant);
+    }
+
+    // Minute écoulée depuis l'époque, dans le fuseau des dates enregistrées
+    static long tic(LocalDateTime dateHeure) {
+        return Math.floorDiv(dateHeure.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+}
@@ -0,0 +1,252 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.Creneau;
+import com.healthbook.dto.RapportImport;
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Patient;
+import com.healthbook.entity.RendezVous;
+import com.healthbook.repository.MedecinRepository;
+import com.healthbook.repository.PatientRepository;
+import com.healthbook.repository.RendezVousRepository;
+import com.healthbook.util.Transactions;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Import en masse de rendez-vous depuis un CSV (séparateur « ; ») :
+ * patient_id;medecin_id;date_heure;duree;statut;motif
+ *
+ * Les lignes sont validées puis traitées médecin par médecin, chacun dans sa transaction
+ * et sous son verrou comme une réservation : chevauchements détectés en mémoire contre
+ * l'agenda existant puis entre elles, lignes retenues insérées par lots (batch JDBC).
+ */
+@Service
+public class RendezVousImportService {
+
+    private static final String DEBUT_ENTETE = "patient_id";
+    private static final int ERREURS_MAX = 100;
+
+    private final RendezVousRepository rendezVousRepository;
+    private final PatientRepository patientRepository;
+    private final MedecinRepository medecinRepository;
+    private final DisponibiliteIndex disponibiliteIndex;
+    private final StatistiquesAccueilService statistiquesAccueil;
+    private final VersionsRendezVous versionsRendezVous;
+    private final PlanificateurRappels planificateurRappels;
+    private final VerrousMedecins verrousMedecins;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.import.taille-lot:1000}")
+    private int tailleLot;
+
+    public RendezVousImportService(RendezVousRepository rendezVousRepository,
+                                   PatientRepository patientRepository,
+                                   MedecinRepository medecinRepository,
+                                   DisponibiliteIndex disponibiliteIndex,
+                                   StatistiquesAccueilService statistiquesAccueil,
+                                   VersionsRendezVous versionsRendezVous,
+                                   PlanificateurRappels planificateurRappels,
+                                   VerrousMedecins verrousMedecins,
+                                   EntityManager entityManager,
+                                   TransactionTemplate transactionTemplate) {
+        this.rendezVousRepository = rendezVousRepository;
+        this.patientRepository = patientRepository;
+        this.medecinRepository = medecinRepository;
+        this.disponibiliteIndex = disponibiliteIndex;
+        this.statistiquesAccueil = statistiquesAccueil;
+        this.versionsRendezVous = versionsRendezVous;
+        this.planificateurRappels = planificateurRappels;
+        this.verrousMedecins = verrousMedecins;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // ========================
+    // IMPORT CSV
+    // ========================
+    public RapportImport importerCsv(InputStream flux) {
+        long debut = System.nanoTime();
+        Set<Long> patients = new HashSet<>(patientRepository.findAllIds());
+        Set<Long> medecins = new HashSet<>(medecinRepository.findAllIds());
+        List<String> erreurs = new ArrayList<>();
+        int lignesLues = 0;
+
+        // 1. Lecture et validation unitaire
+        Map<Long, List<LigneImport>> parMedecin = new HashMap<>();
+        try (BufferedReader lecteur = new BufferedReader(new InputStreamReader(flux, StandardCharsets.UTF_8))) {
+            String ligne;
+            int numero = 0;
+            while ((ligne = lecteur.readLine()) != null) {
+                numero++;
+                if (ligne.isBlank() || (numero == 1 && ligne.startsWith(DEBUT_ENTETE))) {
+                    continue;
+                }
+                lignesLues++;
+                try {
+                    LigneImport rdv = lire(numero, ligne);
+                    if (!patients.contains(rdv.patientId())) {
+                        throw new RuntimeException("patient inconnu (" + rdv.patientId() + ")");
+                    }
+                    if (!medecins.contains(rdv.medecinId())) {
+                        throw new RuntimeException("médecin inconnu (" + rdv.medecinId() + ")");
+                    }
+                    parMedecin.computeIfAbsent(rdv.medecinId(), id -> new ArrayList<>()).add(rdv);
+                } catch (RuntimeException e) {
+                    rejeter(erreurs, numero, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Lecture du fichier impossible : " + e.getMessage());
+        }
+
+        // 2 et 3 médecin par médecin, comme une réservation : verrou JVM et ligne du médecin
+        // (SELECT … FOR UPDATE) tenus jusqu'au commit de sa transaction, puis relâchés avant le suivant
+        List<LigneImport> retenues = new ArrayList<>();
+        try {
+            parMedecin.forEach((medecinId, lignes) -> retenues.addAll(
+                    transactionTemplate.execute(statut -> verrousMedecins.avecVerrou(medecinId,
+                            () -> importerPourMedecin(medecinId, lignes, erreurs)))));
+        } finally {
+            // Les médecins déjà importés restent visibles même si un suivant échoue
+            statistiquesAccueil.invalider();
+            retenues.forEach(rdv -> versionsRendezVous.modifier(rdv.patientId(), rdv.medecinId()));
+            if (!retenues.isEmpty()) {
+                planificateurRappels.recharger();
+            }
+        }
+
+        long dureeMillis = (System.nanoTime() - debut) / 1_000_000;
+        return new RapportImport(lignesLues, retenues.size(), lignesLues - retenues.size(),
+                List.copyOf(erreurs), dureeMillis);
+    }
+
+    private List<LigneImport> importerPourMedecin(Long medecinId, List<LigneImport> lignes, List<String> erreurs) {
+        if (medecinRepository.findByIdForUpdate(medecinId).isEmpty()) {
+            // Supprimé depuis la lecture du fichier
+            lignes.forEach(ligne -> rejeter(erreurs, ligne.numero(), "médecin inconnu (" + medecinId + ")"));
+            return List.of();
+        }
+
+        // 2. Chevauchements avec l'agenda du médecin et entre lignes
+        List<LigneImport> sansConflit = sansChevauchement(medecinId, lignes, erreurs);
+
+        // 3. Insertion par lots (batch JDBC), dans la transaction du médecin
+        for (int i = 0; i < sansConflit.size(); i += tailleLot) {
+            inserer(sansConflit.subList(i, Math.min(i + tailleLot, sansConflit.size())));
+        }
+        // Avant la libération du verrou : aucune réservation ne lit l'index périmé
+        Transactions.apresCommit(() -> disponibiliteIndex.invalider(medecinId));
+        return sansConflit;
+    }
+
+    private LigneImport lire(int numero, String ligne) {
+        // Le motif est la dernière colonne : il peut contenir des « ; »
+        String[] colonnes = ligne.split(";", 6);
+        if (colonnes.length < 3) {
+            throw new RuntimeException("colonnes manquantes");
+        }
+        try {
+            Long patientId = Long.valueOf(colonnes[0].trim());
+            Long medecinId = Long.valueOf(colonnes[1].trim());
+            LocalDateTime dateHeure = LocalDateTime.parse(colonnes[2].trim().replace(' ', 'T'));
+            int duree = colonnes.length > 3 && !colonnes[3].isBlank()
+                    ? Integer.parseInt(colonnes[3].trim()) : Creneau.DUREE_PAR_DEFAUT;
+            if (duree <= 0 || duree > Creneau.DUREE_MAX) {
+                throw new RuntimeException("durée invalide (" + duree + ")");
+            }
+            RendezVous.StatutRDV statut = colonnes.length > 4 && !colonnes[4].isBlank()
+                    ? RendezVous.StatutRDV.valueOf(colonnes[4].trim().toUpperCase()) : RendezVous.StatutRDV.EN_ATTENTE;
+            String motif = colonnes.length > 5 ? colonnes[5].trim() : null;
+            return new LigneImport(numero, patientId, medecinId, dateHeure, duree, statut, motif);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new RuntimeException("format invalide (" + e.getMessage() + ")");
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("statut inconnu (" + colonnes[4].trim() + ")");
+        }
+    }
+
+    // Balayage par date de début : un RDV est retenu s'il commence après la fin de tous
+    // les RDV retenus avant lui et se termine avant le prochain RDV existant.
+    private List<LigneImport> sansChevauchement(Long medecinId, List<LigneImport> lignes, List<String> erreurs) {
+        lignes.sort(Comparator.comparing(LigneImport::dateHeure).thenComparingInt(LigneImport::numero));
+        // Seuls les RDV existants commençant moins de DUREE_MAX avant le premier importé peuvent déborder
+        LocalDateTime depuis = lignes.get(0).dateHeure().minusMinutes(Creneau.DUREE_MAX);
+        List<Creneau> existants = new ArrayList<>(rendezVousRepository.findCreneauxOccupes(medecinId, depuis));
+        existants.sort(Comparator.comparing(Creneau::debut));
+
+        List<LigneImport> retenues = new ArrayList<>(lignes.size());
+        LocalDateTime finMax = null;
+        int suivant = 0;
+        for (LigneImport ligne : lignes) {
+            if (ligne.statut() == RendezVous.StatutRDV.ANNULE) {
+                // Un RDV annulé n'occupe pas de créneau
+                retenues.add(ligne);
+                continue;
+            }
+            while (suivant < existants.size() && !existants.get(suivant).debut().isAfter(ligne.dateHeure())) {
+                finMax = plusTard(finMax, existants.get(suivant).fin());
+                suivant++;
+            }
+            boolean chevauche = (finMax != null && finMax.isAfter(ligne.dateHeure()))
+                    || (suivant < existants.size() && existants.get(suivant).debut().isBefore(ligne.fin()));
+            if (chevauche) {
+                rejeter(erreurs, ligne.numero(), "créneau déjà occupé pour le médecin "
+                        + medecinId + " le " + ligne.dateHeure());
+            } else {
+                retenues.add(ligne);
+                finMax = plusTard(finMax, ligne.fin());
+            }
+        }
+        return retenues;
+    }
+
+    private void inserer(List<LigneImport> lot) {
+        for (LigneImport ligne : lot) {
+            // Références sans SELECT : les identifiants ont déjà été validés
+            RendezVous rdv = new RendezVous(
+                    entityManager.getReference(Patient.class, ligne.patientId()),
+                    entityManager.getReference(Medecin.class, ligne.medecinId()),
+                    ligne.dateHeure(), ligne.motif());
+            rdv.setDuree(ligne.duree());
+            rdv.setStatut(ligne.statut());
+            entityManager.persist(rdv);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static LocalDateTime plusTard(LocalDateTime a, LocalDateTime b) {
+        return a == null || b.isAfter(a) ? b : a;
+    }
+
+    private static void rejeter(List<String> erreurs, int numero, String message) {
+        if (erreurs.size() < ERREURS_MAX) {
+            erreurs.add("Ligne " + numero + " : " + message);
+        }
+    }
+
+    private record LigneImport(int numero, Long patientId, Long medecinId, LocalDateTime dateHeure,
+                               int duree, RendezVous.StatutRDV statut, String motif) {
+        LocalDateTime fin() {
+            return dateHeure.plusMinutes(duree);
+        }
+    }
+}
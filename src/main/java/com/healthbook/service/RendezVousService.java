@@ -1,15 +1,25 @@
 package com.healthbook.service;
 
+import com.healthbook.dto.Creneau;
+import com.healthbook.dto.CurseurRendezVous;
+import com.healthbook.dto.EvenementRendezVous;
+import com.healthbook.dto.NombreParStatut;
+import com.healthbook.dto.PageRendezVous;
+import com.healthbook.dto.TableauDeBord;
+import com.healthbook.dto.UtilisateurConnecte;
 import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Notification.TypeNotification;
 import com.healthbook.entity.Patient;
 import com.healthbook.entity.RendezVous;
 import com.healthbook.entity.User;
 import com.healthbook.entity.Role;
 import com.healthbook.repository.RendezVousRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -18,16 +28,39 @@ import java.util.Optional;
 @Transactional
 public class RendezVousService {
 
+    public static final int TAILLE_PAGE = 20;
+
     private final RendezVousRepository rendezVousRepository;
     private final PatientService patientService;
     private final MedecinService medecinService;
+    private final DisponibiliteIndex disponibiliteIndex;
+    private final VerrousMedecins verrousMedecins;
+    private final StatistiquesAccueilService statistiquesAccueil;
+    private final VersionsRendezVous versionsRendezVous;
+    private final DiffusionRendezVous diffusion;
+    private final NotificationService notificationService;
+    private final PlanificateurRappels planificateurRappels;
 
     public RendezVousService(RendezVousRepository rendezVousRepository, 
                            PatientService patientService, 
-                           MedecinService medecinService) {
+                           MedecinService medecinService,
+                           DisponibiliteIndex disponibiliteIndex,
+                           VerrousMedecins verrousMedecins,
+                           StatistiquesAccueilService statistiquesAccueil,
+                           VersionsRendezVous versionsRendezVous,
+                           DiffusionRendezVous diffusion,
+                           NotificationService notificationService,
+                           PlanificateurRappels planificateurRappels) {
         this.rendezVousRepository = rendezVousRepository;
         this.patientService = patientService;
         this.medecinService = medecinService;
+        this.disponibiliteIndex = disponibiliteIndex;
+        this.verrousMedecins = verrousMedecins;
+        this.statistiquesAccueil = statistiquesAccueil;
+        this.versionsRendezVous = versionsRendezVous;
+        this.diffusion = diffusion;
+        this.notificationService = notificationService;
+        this.planificateurRappels = planificateurRappels;
     }
 
     // ========================
@@ -38,12 +71,26 @@ public class RendezVousService {
         Patient patient = patientService.getPatientById(patientId)
                 .orElseThrow(() -> new RuntimeException("Patient non trouvé"));
 
-        // Vérifier que le médecin existe
-        Medecin medecin = medecinService.getMedecinById(medecinId)
+        // 🔒 Vérification + insertion atomiques pour un même médecin (verrou JVM jusqu'au commit)
+        return verrousMedecins.avecVerrou(medecinId, () -> reserver(patient, medecinId, dateHeure, motif));
+    }
+
+    private RendezVous reserver(Patient patient, Long medecinId, LocalDateTime dateHeure, String motif) {
+        // Vérifier que le médecin existe et verrouiller sa ligne (garde entre instances)
+        Medecin medecin = medecinService.getMedecinPourReservation(medecinId)
                 .orElseThrow(() -> new RuntimeException("Médecin non trouvé"));
 
-        // Vérifier la disponibilité du créneau
-        if (!isCreneauDisponible(medecin, dateHeure)) {
+        // Créer le rendez-vous (durée par défaut de l'entité, non choisie par l'appelant)
+        RendezVous rendezVous = new RendezVous();
+        rendezVous.setPatient(patient);
+        rendezVous.setMedecin(medecin);
+        rendezVous.setDateHeure(dateHeure);
+        rendezVous.setMotif(motif);
+        rendezVous.setStatut(RendezVous.StatutRDV.EN_ATTENTE);
+        int duree = rendezVous.getDuree();
+
+        // Vérifier la disponibilité du créneau (chevauchement sur toute la durée)
+        if (!isCreneauDisponible(medecin, dateHeure, duree)) {
             throw new RuntimeException("Ce créneau n'est pas disponible");
         }
 
@@ -52,23 +99,34 @@ public class RendezVousService {
             throw new RuntimeException("Impossible de prendre un RDV dans le passé");
         }
 
-        // Créer le rendez-vous
-        RendezVous rendezVous = new RendezVous();
-        rendezVous.setPatient(patient);
-        rendezVous.setMedecin(medecin);
-        rendezVous.setDateHeure(dateHeure);
-        rendezVous.setMotif(motif);
-        rendezVous.setStatut(RendezVous.StatutRDV.EN_ATTENTE);
+        // Contrôle final en base, sous verrou : l'index peut ignorer une écriture d'une autre instance
+        if (chevaucheEnBase(medecinId, dateHeure, duree, null)) {
+            throw new RuntimeException("Ce créneau n'est pas disponible");
+        }
+
+        RendezVous rdvSauvegarde = rendezVousRepository.save(rendezVous);
+        disponibiliteIndex.enregistrer(rdvSauvegarde);
+        statistiquesAccueil.invalider();
+        versionsRendezVous.modifier(rdvSauvegarde);
+        diffusion.publier(EvenementRendezVous.depuis(EvenementRendezVous.Type.CREE, rdvSauvegarde));
+        planificateurRappels.planifier(rdvSauvegarde);
+        return rdvSauvegarde;
+    }
 
-        return rendezVousRepository.save(rendezVous);
+    // Un RDV dure au plus Creneau.DUREE_MAX : seuls ceux commençant dans cette fenêtre peuvent déborder.
+    // rendezVousExclu : le RDV lui-même quand il reprend son propre créneau (null sinon)
+    private boolean chevaucheEnBase(Long medecinId, LocalDateTime debut, int dureeMinutes, Long rendezVousExclu) {
+        LocalDateTime fin = debut.plusMinutes(dureeMinutes);
+        return rendezVousRepository.findCreneauxOccupesEntre(medecinId, debut.minusMinutes(Creneau.DUREE_MAX), fin).stream()
+                .filter(creneau -> !creneau.rendezVousId().equals(rendezVousExclu))
+                .anyMatch(creneau -> creneau.fin().isAfter(debut));
     }
 
     // ========================
-    // VÉRIFIER DISPONIBILITÉ CRÉNEAU
+    // VÉRIFIER DISPONIBILITÉ CRÉNEAU (index en mémoire, sans requête)
     // ========================
-    public boolean isCreneauDisponible(Medecin medecin, LocalDateTime dateHeure) {
-        long nbRendezVous = rendezVousRepository.countRendezVousByMedecinAndDateHeure(medecin, dateHeure);
-        return nbRendezVous == 0;
+    public boolean isCreneauDisponible(Medecin medecin, LocalDateTime dateHeure, int dureeMinutes) {
+        return disponibiliteIndex.estDisponible(medecin.getId(), dateHeure, dureeMinutes);
     }
 
     // ========================
@@ -79,12 +137,41 @@ public class RendezVousService {
         RendezVous rendezVous = rendezVousRepository.findById(rdvId)
                 .orElseThrow(() -> new RuntimeException("Rendez-vous non trouvé"));
 
+        // Un RDV annulé a rendu son créneau : il ne le reprend que s'il est resté libre,
+        // avec le même contrôle que la réservation (verrou JVM + ligne médecin jusqu'au commit)
+        if (rendezVous.getStatut() == RendezVous.StatutRDV.ANNULE) {
+            Long medecinId = rendezVous.getMedecin().getId();
+            return verrousMedecins.avecVerrou(medecinId, () -> {
+                medecinService.getMedecinPourReservation(medecinId)
+                        .orElseThrow(() -> new RuntimeException("Médecin non trouvé"));
+                int duree = rendezVous.getDuree() != null ? rendezVous.getDuree() : Creneau.DUREE_PAR_DEFAUT;
+                if (chevaucheEnBase(medecinId, rendezVous.getDateHeure(), duree, rdvId)) {
+                    throw new RuntimeException("Ce créneau n'est plus disponible");
+                }
+                return confirmer(rendezVous);
+            });
+        }
+        return confirmer(rendezVous);
+    }
+
+    private RendezVous confirmer(RendezVous rendezVous) {
+        RendezVous.StatutRDV ancienStatut = rendezVous.getStatut();
         rendezVous.setStatut(RendezVous.StatutRDV.CONFIRME);
         RendezVous rdvSauvegarde = rendezVousRepository.save(rendezVous);
         
         // 🔥 FORCER le flush pour s'assurer que c'est sauvegardé
         rendezVousRepository.flush();
         
+        // Un RDV annulé puis confirmé occupe de nouveau son créneau
+        disponibiliteIndex.enregistrer(rdvSauvegarde);
+        statistiquesAccueil.invalider();
+        versionsRendezVous.modifier(rdvSauvegarde);
+        diffusion.publier(EvenementRendezVous.depuis(EvenementRendezVous.Type.CONFIRME, rdvSauvegarde));
+        // Patient prévenu une seule fois (double clic) ; le message part avec le commit
+        if (ancienStatut != RendezVous.StatutRDV.CONFIRME) {
+            notificationService.planifier(rdvSauvegarde, TypeNotification.CONFIRMATION);
+        }
+        planificateurRappels.planifier(rdvSauvegarde);
         return rdvSauvegarde;
     }
 
@@ -96,12 +183,22 @@ public class RendezVousService {
         RendezVous rendezVous = rendezVousRepository.findById(rdvId)
                 .orElseThrow(() -> new RuntimeException("Rendez-vous non trouvé"));
 
+        RendezVous.StatutRDV ancienStatut = rendezVous.getStatut();
         rendezVous.setStatut(RendezVous.StatutRDV.ANNULE);
         RendezVous rdvSauvegarde = rendezVousRepository.save(rendezVous);
         
         // 🔥 FORCER le flush pour s'assurer que c'est sauvegardé
         rendezVousRepository.flush();
         
+        disponibiliteIndex.liberer(rdvSauvegarde);
+        statistiquesAccueil.invalider();
+        versionsRendezVous.modifier(rdvSauvegarde);
+        diffusion.publier(EvenementRendezVous.depuis(EvenementRendezVous.Type.ANNULE, rdvSauvegarde));
+        // Patient prévenu une seule fois (double clic) ; le message part avec le commit
+        if (ancienStatut != RendezVous.StatutRDV.ANNULE) {
+            notificationService.planifier(rdvSauvegarde, TypeNotification.ANNULATION);
+        }
+        planificateurRappels.retirer(rdvSauvegarde.getId());
         return rdvSauvegarde;
     }
 
@@ -122,15 +219,97 @@ public class RendezVousService {
     }
 
     // ========================
-    // PROCHAINS RDV (pour dashboard)
+    // RDV PAR UTILISATEUR, PAGE PAR PAGE (pagination par clé sur dateHeure, id)
     // ========================
-    public List<RendezVous> getProchainsRendezVous() {
-        return rendezVousRepository.findProchainsRendezVous(LocalDateTime.now());
+    @Transactional(readOnly = true)
+    public PageRendezVous getPageRendezVousByUser(UtilisateurConnecte user, CurseurRendezVous avant, CurseurRendezVous apres) {
+        if (!peutConsulter(user)) {
+            return PageRendezVous.vide();
+        }
+        Limit limite = Limit.of(TAILLE_PAGE + 1);
+
+        if (apres != null) {
+            // Page plus récente : lue dans l'ordre croissant puis inversée
+            List<RendezVous> lignes = new ArrayList<>(pageApres(user, apres, limite));
+            boolean encorePlusRecents = lignes.size() > TAILLE_PAGE;
+            if (encorePlusRecents) {
+                lignes = new ArrayList<>(lignes.subList(0, TAILLE_PAGE));
+            }
+            Collections.reverse(lignes);
+            if (lignes.isEmpty()) {
+                return getPageRendezVousByUser(user, null, null);
+            }
+            return new PageRendezVous(lignes,
+                    encorePlusRecents ? curseur(lignes.get(0)) : null,
+                    curseur(lignes.get(lignes.size() - 1)));
+        }
+
+        CurseurRendezVous depuis = avant != null ? avant : CurseurRendezVous.FIN;
+        List<RendezVous> lignes = pageAvant(user, depuis, limite);
+        boolean encorePlusAnciens = lignes.size() > TAILLE_PAGE;
+        if (encorePlusAnciens) {
+            lignes = lignes.subList(0, TAILLE_PAGE);
+        }
+        return new PageRendezVous(lignes,
+                avant != null && !lignes.isEmpty() ? curseur(lignes.get(0)) : null,
+                encorePlusAnciens ? curseur(lignes.get(lignes.size() - 1)) : null);
+    }
+
+    // ========================
+    // TABLEAU DE BORD : page affichée, comptages groupés par statut et prochain RDV
+    // ========================
+    @Transactional(readOnly = true)
+    public TableauDeBord getTableauDeBord(UtilisateurConnecte user, CurseurRendezVous avant, CurseurRendezVous apres) {
+        PageRendezVous page = getPageRendezVousByUser(user, avant, apres);
+        // Le tableau de bord médecin n'affiche ni comptages ni prochain RDV
+        if (!peutConsulter(user) || user.getRole() == Role.MEDECIN) {
+            return TableauDeBord.construire(page, List.of(), null);
+        }
+        LocalDateTime maintenant = LocalDateTime.now();
+        Limit premier = Limit.of(1);
+
+        List<NombreParStatut> nombres;
+        List<RendezVous> prochains;
+        if (user.getRole() == Role.PATIENT) {
+            nombres = rendezVousRepository.countParStatutPatient(user.getPatientId());
+            prochains = rendezVousRepository.findProchainsRendezVousPatient(user.getPatientId(), maintenant, premier);
+        } else {
+            nombres = rendezVousRepository.countParStatut();
+            prochains = rendezVousRepository.findProchainsRendezVous(maintenant, premier);
+        }
+        return TableauDeBord.construire(page, nombres, prochains.isEmpty() ? null : prochains.get(0));
+    }
+
+    private boolean peutConsulter(UtilisateurConnecte user) {
+        return user.estPatient() || user.estMedecin() || user.estAdmin();
+    }
+
+    private List<RendezVous> pageAvant(UtilisateurConnecte user, CurseurRendezVous curseur, Limit limite) {
+        if (user.getRole() == Role.PATIENT) {
+            return rendezVousRepository.findPagePatientAvant(user.getPatientId(), curseur.dateHeure(), curseur.id(), limite);
+        } else if (user.getRole() == Role.MEDECIN) {
+            return rendezVousRepository.findPageMedecinAvant(user.getMedecinId(), curseur.dateHeure(), curseur.id(), limite);
+        }
+        return rendezVousRepository.findPageAvant(curseur.dateHeure(), curseur.id(), limite);
+    }
+
+    private List<RendezVous> pageApres(UtilisateurConnecte user, CurseurRendezVous curseur, Limit limite) {
+        if (user.getRole() == Role.PATIENT) {
+            return rendezVousRepository.findPagePatientApres(user.getPatientId(), curseur.dateHeure(), curseur.id(), limite);
+        } else if (user.getRole() == Role.MEDECIN) {
+            return rendezVousRepository.findPageMedecinApres(user.getMedecinId(), curseur.dateHeure(), curseur.id(), limite);
+        }
+        return rendezVousRepository.findPageApres(curseur.dateHeure(), curseur.id(), limite);
+    }
+
+    private static String curseur(RendezVous rendezVous) {
+        return new CurseurRendezVous(rendezVous.getDateHeure(), rendezVous.getId()).jeton();
     }
 
     // ========================
     // TOUS LES RDV
     // ========================
+    @Transactional(readOnly = true)
     public List<RendezVous> findAll() {
         return rendezVousRepository.findAll();
     }
@@ -138,6 +317,7 @@ public class RendezVousService {
     // ========================
     // RDV PAR ID
     // ========================
+    @Transactional(readOnly = true)
     public Optional<RendezVous> findById(Long id) {
         return rendezVousRepository.findById(id);
     }
@@ -146,12 +326,20 @@ public class RendezVousService {
     // SUPPRIMER RDV
     // ========================
     public void deleteRendezVous(Long id) {
-        rendezVousRepository.deleteById(id);
+        rendezVousRepository.findById(id).ifPresent(rendezVous -> {
+            rendezVousRepository.delete(rendezVous);
+            disponibiliteIndex.liberer(rendezVous);
+            statistiquesAccueil.invalider();
+            versionsRendezVous.modifier(rendezVous);
+            diffusion.publier(EvenementRendezVous.depuis(EvenementRendezVous.Type.SUPPRIME, rendezVous));
+            planificateurRappels.retirer(rendezVous.getId());
+        });
     }
 
     // ========================
     // RÉCUPÉRER RDV D'UN PATIENT
     // ========================
+    @Transactional(readOnly = true)
     public List<RendezVous> getRendezVousByPatient(Long patientId) {
         Patient patient = patientService.getPatientById(patientId)
                 .orElseThrow(() -> new RuntimeException("Patient non trouvé"));
@@ -162,6 +350,7 @@ public class RendezVousService {
     // ========================
     // RÉCUPÉRER RDV D'UN MÉDECIN
     // ========================
+    @Transactional(readOnly = true)
     public List<RendezVous> getRendezVousByMedecin(Long medecinId) {
         Medecin medecin = medecinService.getMedecinById(medecinId)
                 .orElseThrow(() -> new RuntimeException("Médecin non trouvé"));
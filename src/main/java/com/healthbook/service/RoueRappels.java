@@ -0,0 +1,190 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.Rappel;
+import com.healthbook.entity.Notification.TypeNotification;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Roue temporelle hiérarchique : NIVEAUX roues de 64 cases, une case du niveau n couvrant
+ * 64^n tics (une minute par tic pour les rappels). Un rappel est rangé au niveau le plus bas
+ * dont la case courante partage ses bits de poids fort ; quand le tic atteint le début de sa
+ * case, il redescend d'un niveau. Ajout, retrait et avance d'un tic sont en O(1) (chaque rappel
+ * redescend au plus NIVEAUX - 1 fois), quel que soit le nombre de rappels programmés.
+ *
+ * Non synchronisée : l'appelant sérialise les accès.
+ */
+class RoueRappels {
+
+    static final int BITS = 6;
+    static final int CASES = 1 << BITS;
+    static final int NIVEAUX = 3;
+
+    private final List<Entree>[][] cases;
+    // Dernier rappel programmé par RDV et par type : retrait et remplacement sans parcourir la roue
+    private final Map<Long, Map<TypeNotification, Entree>> parRendezVous = new HashMap<>();
+    private final List<Entree> enRetard = new ArrayList<>();
+    private long ticCourant;
+    private int taille;
+
+    RoueRappels(long ticInitial) {
+        this.ticCourant = ticInitial;
+        this.cases = casesVides();
+    }
+
+    // Pas de tableau générique en Java : conversion sûre, les cases ne reçoivent que des List<Entree>
+    @SuppressWarnings("unchecked")
+    private static List<Entree>[][] casesVides() {
+        List<Entree>[][] cases = (List<Entree>[][]) new List<?>[NIVEAUX][CASES];
+        for (int niveau = 0; niveau < NIVEAUX; niveau++) {
+            for (int i = 0; i < CASES; i++) {
+                cases[niveau][i] = new ArrayList<>();
+            }
+        }
+        return cases;
+    }
+
+    // Horizon garanti en tics : au-delà, selon la position dans la case du dernier niveau, un rappel peut être refusé
+    static long capacite() {
+        return (long) (CASES - 1) << (BITS * (NIVEAUX - 1));
+    }
+
+    long getTicCourant() {
+        return ticCourant;
+    }
+
+    int taille() {
+        return taille;
+    }
+
+    boolean contient(Long rendezVousId, TypeNotification type) {
+        Map<TypeNotification, Entree> entrees = parRendezVous.get(rendezVousId);
+        return entrees != null && entrees.containsKey(type);
+    }
+
+    /**
+     * Programme un rappel au tic donné (un tic déjà passé le rend dû au prochain tic) ;
+     * remplace le rappel de même type du même RDV.
+     * @return false si l'échéance est à plus d'un tour du dernier niveau
+     */
+    boolean ajouter(Rappel rappel, long echeance) {
+        int decalage = BITS * (NIVEAUX - 1);
+        if ((echeance >>> decalage) - (ticCourant >>> decalage) >= CASES) {
+            return false;
+        }
+        retirer(rappel.rendezVousId(), rappel.type());
+        Entree entree = new Entree(rappel, echeance);
+        parRendezVous.computeIfAbsent(rappel.rendezVousId(),
+                id -> new EnumMap<>(TypeNotification.class)).put(rappel.type(), entree);
+        taille++;
+        if (echeance <= ticCourant) {
+            enRetard.add(entree);
+        } else {
+            ranger(entree);
+        }
+        return true;
+    }
+
+    // Retrait paresseux : l'entrée reste dans sa case, marquée, jusqu'à ce que la roue y passe
+    void retirer(Long rendezVousId) {
+        Map<TypeNotification, Entree> entrees = parRendezVous.remove(rendezVousId);
+        if (entrees != null) {
+            entrees.values().forEach(this::annuler);
+        }
+    }
+
+    /**
+     * Avance jusqu'au tic donné inclus.
+     * @return les rappels échus, dans l'ordre des échéances
+     */
+    List<Rappel> avancer(long ticCible) {
+        List<Rappel> dus = new ArrayList<>();
+        enRetard.forEach(entree -> declencher(entree, dus));
+        enRetard.clear();
+
+        while (ticCourant < ticCible) {
+            ticCourant++;
+            for (int niveau = NIVEAUX - 1; niveau > 0; niveau--) {
+                if ((ticCourant & ((1L << (BITS * niveau)) - 1)) == 0) {
+                    redescendre(niveau, dus);
+                }
+            }
+            List<Entree> caseCourante = cases[0][(int) (ticCourant & (CASES - 1))];
+            caseCourante.forEach(entree -> declencher(entree, dus));
+            caseCourante.clear();
+        }
+        return dus;
+    }
+
+    // ========================
+    // MÉTHODES PRIVÉES
+    // ========================
+    private void retirer(Long rendezVousId, TypeNotification type) {
+        Map<TypeNotification, Entree> entrees = parRendezVous.get(rendezVousId);
+        if (entrees != null) {
+            Entree ancienne = entrees.remove(type);
+            if (ancienne != null) {
+                annuler(ancienne);
+            }
+            if (entrees.isEmpty()) {
+                parRendezVous.remove(rendezVousId);
+            }
+        }
+    }
+
+    private void annuler(Entree entree) {
+        if (!entree.annulee) {
+            entree.annulee = true;
+            taille--;
+        }
+    }
+
+    // Niveau le plus bas dont la case courante contient l'échéance (mêmes bits de poids fort) ;
+    // le dernier niveau est circulaire, ajouter y garantit moins d'un tour d'avance
+    private void ranger(Entree entree) {
+        int niveau = 0;
+        while (niveau < NIVEAUX - 1 && (entree.echeance >>> (BITS * (niveau + 1))) != (ticCourant >>> (BITS * (niveau + 1)))) {
+            niveau++;
+        }
+        cases[niveau][(int) ((entree.echeance >>> (BITS * niveau)) & (CASES - 1))].add(entree);
+    }
+
+    private void redescendre(int niveau, List<Rappel> dus) {
+        List<Entree> caseNiveau = cases[niveau][(int) ((ticCourant >>> (BITS * niveau)) & (CASES - 1))];
+        List<Entree> entrees = new ArrayList<>(caseNiveau);
+        caseNiveau.clear();
+        for (Entree entree : entrees) {
+            if (entree.annulee) {
+                continue;
+            }
+            if (entree.echeance <= ticCourant) {
+                declencher(entree, dus);
+            } else {
+                ranger(entree);
+            }
+        }
+    }
+
+    private void declencher(Entree entree, List<Rappel> dus) {
+        if (entree.annulee) {
+            return;
+        }
+        retirer(entree.rappel.rendezVousId(), entree.rappel.type());
+        dus.add(entree.rappel);
+    }
+
+    private static final class Entree {
+        private final Rappel rappel;
+        private final long echeance;
+        private boolean annulee;
+
+        private Entree(Rappel rappel, long echeance) {
+            this.rappel = rappel;
+            this.echeance = echeance;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.StatistiquesAccueil;
+import com.healthbook.repository.MedecinRepository;
+import com.healthbook.repository.PatientRepository;
+import com.healthbook.repository.RendezVousRepository;
+import com.healthbook.util.Transactions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Statistiques de la page d'accueil gardées en mémoire pendant une durée fixe.
+ * Un seul thread recharge à l'expiration, les autres continuent de servir
+ * l'ancienne valeur : la base est interrogée au plus une fois par période.
+ * Les créations et suppressions invalident le cache après commit.
+ */
+@Service
+public class StatistiquesAccueilService {
+
+    private final PatientRepository patientRepository;
+    private final MedecinRepository medecinRepository;
+    private final RendezVousRepository rendezVousRepository;
+    private final long dureeVieNanos;
+
+    private final ReentrantLock rechargement = new ReentrantLock();
+    // Incrémentée à chaque invalidation : un rechargement commencé avant ne rend pas le cache « frais »
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Entree entree;
+
+    public StatistiquesAccueilService(PatientRepository patientRepository,
+                                      MedecinRepository medecinRepository,
+                                      RendezVousRepository rendezVousRepository,
+                                      @Value("${app.accueil.cache-ttl-secondes:30}") long dureeVieSecondes) {
+        this.patientRepository = patientRepository;
+        this.medecinRepository = medecinRepository;
+        this.rendezVousRepository = rendezVousRepository;
+        this.dureeVieNanos = TimeUnit.SECONDS.toNanos(dureeVieSecondes);
+    }
+
+    // ========================
+    // LECTURE (CACHE)
+    // ========================
+    public StatistiquesAccueil getStatistiques() {
+        Entree courante = entree;
+        if (courante != null && courante.estFraiche(generation.get())) {
+            return courante.statistiques;
+        }
+        if (courante != null) {
+            // Valeur périmée : un seul thread recharge, les autres la servent en attendant
+            if (!rechargement.tryLock()) {
+                return courante.statistiques;
+            }
+        } else {
+            // Premier appel : tout le monde attend le premier chargement
+            rechargement.lock();
+        }
+        try {
+            Entree actuelle = entree;
+            if (actuelle != null && actuelle != courante && actuelle.estFraiche(generation.get())) {
+                return actuelle.statistiques;
+            }
+            long generationLue = generation.get();
+            StatistiquesAccueil statistiques = new StatistiquesAccueil(
+                    patientRepository.count(),
+                    medecinRepository.count(),
+                    rendezVousRepository.countRendezVousAVenir(LocalDateTime.now()));
+            entree = new Entree(statistiques, System.nanoTime() + dureeVieNanos, generationLue);
+            return statistiques;
+        } finally {
+            rechargement.unlock();
+        }
+    }
+
+    // ========================
+    // INVALIDATION (après commit)
+    // ========================
+    public void invalider() {
+        Transactions.apresCommit(() -> generation.incrementAndGet());
+    }
+
+    private record Entree(StatistiquesAccueil statistiques, long expiration, long generation) {
+        boolean estFraiche(long generationCourante) {
+            return generation == generationCourante && System.nanoTime() - expiration < 0;
+        }
+    }
+}
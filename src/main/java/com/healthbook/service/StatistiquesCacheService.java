@@ -0,0 +1,49 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.StatistiquesRegionCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+public class StatistiquesCacheService {
+
+    private final Statistics statistiques;
+
+    public StatistiquesCacheService(EntityManagerFactory entityManagerFactory) {
+        this.statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // ========================
+    // RÉGIONS DU CACHE DE SECOND NIVEAU
+    // ========================
+    public List<StatistiquesRegionCache> getRegions() {
+        if (!statistiques.isStatisticsEnabled()) {
+            return List.of();
+        }
+        return Arrays.stream(statistiques.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(this::region)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // ========================
+    // MÉTHODES PRIVÉES
+    // ========================
+    private StatistiquesRegionCache region(String nom) {
+        CacheRegionStatistics region = statistiques.getCacheRegionStatistics(nom);
+        if (region == null) {
+            return null;
+        }
+        long elements = region.getElementCountInMemory();
+        return new StatistiquesRegionCache(nom, region.getHitCount(), region.getMissCount(), region.getPutCount(),
+                elements < 0 ? -1 : elements);
+    }
+}
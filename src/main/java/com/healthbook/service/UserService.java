@@ -1,19 +1,22 @@
 package com.healthbook.service;
 
+import com.healthbook.dto.UtilisateurConnecte;
 import com.healthbook.entity.Role;
 import com.healthbook.entity.User;
 import com.healthbook.repository.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Value;
-
-import jakarta.annotation.PostConstruct;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
@@ -35,8 +38,9 @@ public class UserService implements UserDetailsService {
 
     // ========================
     // CRÉATION AUTO DE L'ADMIN AVEC CONFIG EXTERNE
+    // Une fois l'application prête : le hachage ne retarde plus le démarrage
     // ========================
-    @PostConstruct
+    @EventListener(ApplicationReadyEvent.class)
     public void createDefaultAdmin() {
         if (!autoCreateAdmin) {
             System.out.println("⚙️  Création auto admin désactivée");
@@ -65,11 +69,24 @@ public class UserService implements UserDetailsService {
         }
     }
 
+    // Instantané mis en session à la connexion (voir UtilisateurConnecte)
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return userRepository.findByUsername(username)
+                .map(UtilisateurConnecte::depuis)
                 .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé: " + username));
     }
+
+    // Rehachage à la connexion quand le coût BCrypt configuré a augmenté
+    // (appelé par Spring Security avec le mot de passe déjà haché)
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User compte = userRepository.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé: " + user.getUsername()));
+        compte.setPassword(newPassword);
+        return UtilisateurConnecte.depuis(userRepository.save(compte));
+    }
     
  
     public boolean userExists(String email) {
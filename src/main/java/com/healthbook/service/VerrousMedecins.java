@@ -0,0 +1,79 @@
+package com.healthbook.service;
+
+import com.healthbook.util.Transactions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Verrous répartis (striped) par médecin : les réservations d'un même médecin
+ * sont sérialisées dans la JVM sans créer un verrou par médecin.
+ * Dans une transaction, le verrou est conservé jusqu'au commit ou rollback
+ * pour que la vérification et l'insertion restent atomiques.
+ */
+@Component
+public class VerrousMedecins {
+
+    private final ReentrantLock[] verrous;
+    private final long attenteMaxMillis;
+
+    public VerrousMedecins(@Value("${app.reservation.nombre-verrous:64}") int nombreVerrous,
+                           @Value("${app.reservation.attente-verrou-ms:5000}") long attenteMaxMillis) {
+        // Puissance de 2 pour répartir par masque
+        int taille = Integer.highestOneBit(Math.max(1, nombreVerrous - 1)) << 1;
+        this.verrous = new ReentrantLock[taille];
+        for (int i = 0; i < taille; i++) {
+            verrous[i] = new ReentrantLock();
+        }
+        this.attenteMaxMillis = attenteMaxMillis;
+    }
+
+    // ========================
+    // EXÉCUTER SOUS LE VERROU DU MÉDECIN
+    // ========================
+    public <T> T avecVerrou(Long medecinId, Supplier<T> action) {
+        return avecVerrous(List.of(medecinId), action);
+    }
+
+    // Plusieurs médecins (import) : verrous pris dans l'ordre croissant des indices,
+    // deux appelants ne peuvent donc pas s'attendre mutuellement
+    public <T> T avecVerrous(Collection<Long> medecinIds, Supplier<T> action) {
+        int[] indices = medecinIds.stream().mapToInt(this::indice).distinct().sorted().toArray();
+        List<ReentrantLock> pris = new ArrayList<>(indices.length);
+        boolean liberationDifferee = false;
+        try {
+            for (int indice : indices) {
+                verrouiller(verrous[indice]);
+                pris.add(verrous[indice]);
+            }
+            liberationDifferee = Transactions.apresFin(() -> pris.forEach(ReentrantLock::unlock));
+            return action.get();
+        } finally {
+            if (!liberationDifferee) {
+                pris.forEach(ReentrantLock::unlock);
+            }
+        }
+    }
+
+    private void verrouiller(ReentrantLock verrou) {
+        try {
+            if (!verrou.tryLock(attenteMaxMillis, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("Trop de réservations en cours pour ce médecin, veuillez réessayer");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Réservation interrompue");
+        }
+    }
+
+    private int indice(Long medecinId) {
+        int hash = Long.hashCode(medecinId);
+        return (hash ^ (hash >>> 16)) & (verrous.length - 1);
+    }
+}
@@ -0,0 +1,92 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.UtilisateurConnecte;
+import com.healthbook.entity.RendezVous;
+import com.healthbook.entity.Role;
+import com.healthbook.util.Transactions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Numéros de version des RDV, un par patient, un par médecin et un global (vue admin),
+ * incrémentés après commit de chaque création, confirmation, annulation ou suppression.
+ * Ils servent à calculer les ETag du tableau de bord et de la liste des RDV : une page
+ * inchangée est revalidée (304) sans requête SQL ni rendu Thymeleaf.
+ *
+ * L'ETag contient aussi l'instant de démarrage (les compteurs repartent de zéro) et une
+ * tranche de temps : le « prochain RDV » et les noms affichés finissent par être rafraîchis
+ * même sans modification de RDV.
+ */
+@Component
+public class VersionsRendezVous {
+
+    private final Map<Long, AtomicLong> parPatient = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> parMedecin = new ConcurrentHashMap<>();
+    private final AtomicLong globale = new AtomicLong();
+    private final long demarrage = System.currentTimeMillis();
+    private final long dureeTrancheMillis;
+
+    public VersionsRendezVous(@Value("${app.rendezvous.etag-duree-max-secondes:300}") long dureeMaxSecondes) {
+        this.dureeTrancheMillis = Math.max(1, TimeUnit.SECONDS.toMillis(dureeMaxSecondes));
+    }
+
+    // ========================
+    // MODIFICATION (après commit)
+    // ========================
+    public void modifier(RendezVous rendezVous) {
+        modifier(rendezVous.getPatient() != null ? rendezVous.getPatient().getId() : null,
+                rendezVous.getMedecin() != null ? rendezVous.getMedecin().getId() : null);
+    }
+
+    public void modifier(Long patientId, Long medecinId) {
+        Transactions.apresCommit(() -> incrementer(patientId, medecinId));
+    }
+
+    // ========================
+    // LECTURE
+    // ========================
+    public long version(UtilisateurConnecte user) {
+        if (user.getRole() == Role.PATIENT) {
+            return lire(parPatient, user.getPatientId());
+        } else if (user.getRole() == Role.MEDECIN) {
+            return lire(parMedecin, user.getMedecinId());
+        }
+        return globale.get();
+    }
+
+    /**
+     * ETag fort d'une vue des RDV de l'utilisateur. Les discriminants distinguent ce que
+     * l'URL ne porte pas : nom de la vue, session (jeton CSRF des formulaires), profil affiché.
+     */
+    public String etag(UtilisateurConnecte user, Object... discriminants) {
+        long tranche = System.currentTimeMillis() / dureeTrancheMillis;
+        int empreinte = Objects.hash(user.getRole(), user.getId(), user.getNom(), user.getPrenom(),
+                Objects.hash(discriminants));
+        return "\"" + Long.toString(demarrage, 36) + "-" + Long.toString(tranche, 36) + "-"
+                + version(user) + "-" + Integer.toHexString(empreinte) + "\"";
+    }
+
+    // ========================
+    // MÉTHODES PRIVÉES
+    // ========================
+    private void incrementer(Long patientId, Long medecinId) {
+        if (patientId != null) {
+            parPatient.computeIfAbsent(patientId, id -> new AtomicLong()).incrementAndGet();
+        }
+        if (medecinId != null) {
+            parMedecin.computeIfAbsent(medecinId, id -> new AtomicLong()).incrementAndGet();
+        }
+        globale.incrementAndGet();
+    }
+
+    private static long lire(Map<Long, AtomicLong> versions, Long id) {
+        AtomicLong version = id != null ? versions.get(id) : null;
+        return version != null ? version.get() : 0;
+    }
+}
@@ -0,0 +1,73 @@
+package com.healthbook.util;
+
+import java.text.Normalizer;
+
+/**
+ * Normalisation du texte pour les recherches : minuscules, sans accents,
+ * ponctuation remplacée par un espace simple.
+ */
+public final class TexteUtils {
+
+    private TexteUtils() {
+    }
+
+    // "Hélène-Chloé  D'Œuvray" -> "helene chloe d oeuvray"
+    public static String normaliser(String texte) {
+        if (texte == null || texte.isEmpty()) {
+            return "";
+        }
+        String decompose = Normalizer.normalize(texte, Normalizer.Form.NFD);
+        StringBuilder resultat = new StringBuilder(decompose.length());
+        boolean espace = true;
+        for (int i = 0; i < decompose.length(); i++) {
+            char c = decompose.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                c = Character.toLowerCase(c);
+                // Ligatures françaises non décomposées par NFD
+                if (c == 'œ') {
+                    resultat.append("oe");
+                } else if (c == 'æ') {
+                    resultat.append("ae");
+                } else {
+                    resultat.append(c);
+                }
+                espace = false;
+            } else if (!espace) {
+                resultat.append(' ');
+                espace = true;
+            }
+        }
+        int fin = resultat.length();
+        if (fin > 0 && resultat.charAt(fin - 1) == ' ') {
+            resultat.setLength(fin - 1);
+        }
+        return resultat.toString();
+    }
+
+    // "01 23-45.67" -> "01234567"
+    public static String chiffres(String texte) {
+        if (texte == null) {
+            return "";
+        }
+        StringBuilder resultat = new StringBuilder(texte.length());
+        for (int i = 0; i < texte.length(); i++) {
+            char c = texte.charAt(i);
+            if (c >= '0' && c <= '9') {
+                resultat.append(c);
+            }
+        }
+        return resultat.toString();
+    }
+
+    public static boolean contientLettre(String texte) {
+        for (int i = 0; i < texte.length(); i++) {
+            if (Character.isLetter(texte.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,43 @@
+package com.healthbook.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Actions différées à la fin de la transaction en cours (index en mémoire, caches,
+ * diffusion, verrous) : rien n'est visible ni libéré avant que la base ne le soit.
+ */
+public final class Transactions {
+
+    private Transactions() {
+    }
+
+    // Après le commit de la transaction en cours, jamais après un rollback ; immédiatement hors transaction
+    public static void apresCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Après le commit ou le rollback de la transaction en cours.
+    // Hors transaction rien n'est enregistré : retourne false, l'appelant agit lui-même
+    public static boolean apresFin(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+        return true;
+    }
+}
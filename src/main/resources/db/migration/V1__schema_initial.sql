@@ -0,0 +1,61 @@
+-- ========================
+-- SCHÉMA INITIAL
+-- Reprend exactement le schéma que créait spring.jpa.hibernate.ddl-auto=update :
+-- une base existante (sans historique Flyway) est marquée à cette version
+-- (spring.flyway.baseline-on-migrate) et reçoit les migrations suivantes.
+-- Tout ajout au schéma va dans une nouvelle migration, jamais ici.
+-- SQL commun à MySQL et H2 (tests).
+-- ========================
+
+CREATE TABLE patient (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    nom VARCHAR(100) NOT NULL,
+    prenom VARCHAR(100) NOT NULL,
+    email VARCHAR(150) NOT NULL,
+    telephone VARCHAR(20),
+    date_naissance DATE,
+    date_creation DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_patient_email UNIQUE (email)
+);
+
+CREATE TABLE medecin (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    nom VARCHAR(100) NOT NULL,
+    prenom VARCHAR(100) NOT NULL,
+    specialite VARCHAR(100) NOT NULL,
+    email VARCHAR(150) NOT NULL,
+    telephone VARCHAR(20),
+    tarif_consultation DECIMAL(8,2),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_medecin_email UNIQUE (email)
+);
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role ENUM('PATIENT','MEDECIN','ADMIN') NOT NULL,
+    patient_id BIGINT,
+    medecin_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_patient UNIQUE (patient_id),
+    CONSTRAINT uk_users_medecin UNIQUE (medecin_id),
+    CONSTRAINT fk_users_patient FOREIGN KEY (patient_id) REFERENCES patient (id),
+    CONSTRAINT fk_users_medecin FOREIGN KEY (medecin_id) REFERENCES medecin (id)
+);
+
+CREATE TABLE rendez_vous (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    patient_id BIGINT NOT NULL,
+    medecin_id BIGINT NOT NULL,
+    date_heure DATETIME(6) NOT NULL,
+    duree INT,
+    statut ENUM('EN_ATTENTE','CONFIRME','ANNULE','TERMINE') NOT NULL,
+    motif TEXT,
+    date_creation DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_rdv_patient FOREIGN KEY (patient_id) REFERENCES patient (id),
+    CONSTRAINT fk_rdv_medecin FOREIGN KEY (medecin_id) REFERENCES medecin (id)
+);
@@ -0,0 +1,14 @@
+-- ========================
+-- IDENTIFIANTS DES RDV PAR BLOCS
+-- Compteur de l'allocateur de RendezVous (@IdentifiantParBlocs) : les identifiants sont
+-- réservés par blocs au lieu d'un AUTO_INCREMENT par insertion, qui empêchait le batch JDBC.
+-- La colonne rendez_vous.id garde son AUTO_INCREMENT (inutilisé, les INSERT fournissent l'id) ;
+-- la ligne du compteur est alignée sur MAX(id) au démarrage (GenerateurIdsConfig).
+-- ========================
+
+CREATE TABLE generateurs_id (
+    entite VARCHAR(255) NOT NULL,
+    prochain_id BIGINT,
+    PRIMARY KEY (entite)
+);
+
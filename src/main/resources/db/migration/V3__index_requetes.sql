@@ -0,0 +1,21 @@
+-- ========================
+-- INDEX DES REQUÊTES DES REPOSITORIES
+-- Les plans sont vérifiés par PlansRequetesTest (aucun parcours complet hors exceptions listées).
+--
+-- rendez_vous :
+--   idx_rdv_medecin_date (medecin_id, date_heure) : agenda et créneaux d'un médecin, pagination, comptages
+--   idx_rdv_patient_date (patient_id, date_heure) : RDV d'un patient, pagination, comptages
+--   idx_rdv_date (date_heure)                     : prochains RDV, plages de dates, pagination admin, rappels
+--   En InnoDB l'index secondaire porte la clé primaire : (…, date_heure, id) sert le tri de la pagination.
+-- users.patient_id / users.medecin_id : uniques (V1), donc déjà indexés.
+-- ========================
+
+CREATE INDEX idx_rdv_medecin_date ON rendez_vous (medecin_id, date_heure);
+CREATE INDEX idx_rdv_patient_date ON rendez_vous (patient_id, date_heure);
+CREATE INDEX idx_rdv_date ON rendez_vous (date_heure);
+
+-- RDV par statut, comptage par statut (parcours de l'index seul, sans lire les lignes)
+CREATE INDEX idx_rdv_statut_date ON rendez_vous (statut, date_heure);
+
+-- Médecins par spécialité (filtre puis nom), comptage, liste des spécialités (index seul)
+CREATE INDEX idx_medecin_specialite_nom ON medecin (specialite, nom);
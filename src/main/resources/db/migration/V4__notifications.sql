@@ -0,0 +1,27 @@
+-- ========================
+-- NOTIFICATIONS
+-- File d'envoi des messages aux patients (NotificationService, DistributeurNotifications).
+-- La clé unique rend chaque message idempotent ; le jeton marque la ligne réservée par un envoi.
+-- ========================
+
+CREATE TABLE notifications (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    cle VARCHAR(80) NOT NULL,
+    type ENUM('CONFIRMATION','ANNULATION','RAPPEL_24H','RAPPEL_1H') NOT NULL,
+    rendez_vous_id BIGINT NOT NULL,
+    destinataire VARCHAR(150) NOT NULL,
+    sujet VARCHAR(200) NOT NULL,
+    corps TEXT NOT NULL,
+    statut ENUM('EN_ATTENTE','ENVOYEE','ECHEC') NOT NULL,
+    tentatives INT NOT NULL,
+    prochain_essai DATETIME(6) NOT NULL,
+    jeton VARCHAR(36),
+    derniere_erreur VARCHAR(500),
+    date_creation DATETIME(6) NOT NULL,
+    date_envoi DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_notifications_cle UNIQUE (cle)
+);
+
+CREATE INDEX idx_notif_statut_essai ON notifications (statut, prochain_essai);
+CREATE INDEX idx_notif_jeton ON notifications (jeton);
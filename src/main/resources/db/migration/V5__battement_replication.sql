@@ -0,0 +1,13 @@
+-- ========================
+-- BATTEMENT DE RÉPLICATION
+-- Écrit sur la base principale et relu sur chaque réplica pour mesurer son retard
+-- (RoutageDataSource, actif seulement si app.datasource.replicas.urls est renseigné)
+-- ========================
+
+CREATE TABLE battement_replication (
+    id INT NOT NULL,
+    instant BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO battement_replication (id, instant) VALUES (1, 0);
@@ -0,0 +1,46 @@
+package com.healthbook.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoherenceLectureFilterTest {
+
+    private final CoherenceLectureFilter filtre = new CoherenceLectureFilter();
+
+    @Test
+    void doFilter_EcritureGardeeEnSession_PuisExigeeALaRequeteSuivante() throws Exception {
+        // Given
+        MockHttpSession session = new MockHttpSession();
+
+        // When : une requête écrit
+        filtre.doFilter(requete(session), new MockHttpServletResponse(),
+                (req, rep) -> CoherenceLecture.ecritureValidee(1234L));
+
+        // Then
+        assertEquals(1234L, session.getAttribute(CoherenceLectureFilter.DERNIERE_ECRITURE));
+        long[] exigence = new long[1];
+        filtre.doFilter(requete(session), new MockHttpServletResponse(),
+                (req, rep) -> exigence[0] = CoherenceLecture.exigence());
+        assertEquals(1234L, exigence[0]);
+        assertEquals(0, CoherenceLecture.exigence(), "Contexte effacé après la requête");
+    }
+
+    @Test
+    void ecritureHorsRequete_NonSuivie() {
+        // When
+        CoherenceLecture.ecritureValidee(1234L);
+
+        // Then
+        assertNull(CoherenceLecture.ecritureDeLaRequete());
+    }
+
+    private static MockHttpServletRequest requete(MockHttpSession session) {
+        MockHttpServletRequest requete = new MockHttpServletRequest("POST", "/rendezvous/nouveau");
+        requete.setSession(session);
+        return requete;
+    }
+}
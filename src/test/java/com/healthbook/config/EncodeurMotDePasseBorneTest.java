@@ -0,0 +1,109 @@
+package com.healthbook.config;
+
+import com.healthbook.dto.StatistiquesHachage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncodeurMotDePasseBorneTest {
+
+    private EncodeurMotDePasseBorne encodeur;
+
+    @AfterEach
+    void tearDown() {
+        if (encodeur != null) {
+            encodeur.arreter();
+        }
+    }
+
+    @Test
+    void encodeEtMatches_CoutConfigureEtStatistiques() {
+        // Given
+        encodeur = new EncodeurMotDePasseBorne(new BCryptPasswordEncoder(4), 1, 4, 5_000);
+
+        // When
+        String hache = encodeur.encode("Secret123!");
+
+        // Then
+        assertTrue(hache.startsWith("$2a$04$"));
+        assertTrue(encodeur.matches("Secret123!", hache));
+        assertFalse(encodeur.matches("Autre123!", hache));
+        StatistiquesHachage statistiques = encodeur.statistiques();
+        assertEquals(3, statistiques.operations());
+        assertEquals(0, statistiques.rejets());
+    }
+
+    @Test
+    void upgradeEncoding_CoutStockeInferieur_DemandeUnRehachage() {
+        // Given
+        encodeur = new EncodeurMotDePasseBorne(new BCryptPasswordEncoder(5), 1, 4, 5_000);
+        String ancien = new BCryptPasswordEncoder(4).encode("Secret123!");
+
+        // When / Then
+        assertTrue(encodeur.upgradeEncoding(ancien));
+        assertFalse(encodeur.upgradeEncoding(encodeur.encode("Secret123!")));
+    }
+
+    @Test
+    void fileSaturee_RefuseImmediatement() throws Exception {
+        // Given : un thread occupé et une file d'une place déjà prise
+        CountDownLatch demarre = new CountDownLatch(1);
+        CountDownLatch liberer = new CountDownLatch(1);
+        encodeur = new EncodeurMotDePasseBorne(new Bloquant(demarre, liberer), 1, 1, 5_000);
+        CompletableFuture<String> enCours = CompletableFuture.supplyAsync(() -> encodeur.encode("a"));
+        assertTrue(demarre.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> enFile = CompletableFuture.supplyAsync(() -> encodeur.encode("b"));
+        while (encodeur.statistiques().enFile() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // When / Then
+        long debut = System.nanoTime();
+        assertThrows(AuthenticationServiceException.class, () -> encodeur.encode("c"));
+        assertTrue(System.nanoTime() - debut < TimeUnit.SECONDS.toNanos(1));
+
+        liberer.countDown();
+        assertEquals("a", enCours.get(5, TimeUnit.SECONDS));
+        assertEquals("b", enFile.get(5, TimeUnit.SECONDS));
+        assertEquals(1, encodeur.statistiques().rejets());
+    }
+
+    @Test
+    void delaiDepasse_LeveUneErreurDAuthentification() throws Exception {
+        // Given
+        CountDownLatch liberer = new CountDownLatch(1);
+        encodeur = new EncodeurMotDePasseBorne(new Bloquant(new CountDownLatch(1), liberer), 1, 1, 50);
+
+        // When / Then
+        assertThrows(AuthenticationServiceException.class, () -> encodeur.matches("a", "a"));
+        liberer.countDown();
+    }
+
+    // Encodeur factice qui attend un signal avant de répondre
+    private record Bloquant(CountDownLatch demarre, CountDownLatch liberer) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence motDePasse) {
+            demarre.countDown();
+            try {
+                liberer.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return motDePasse.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence motDePasse, String hache) {
+            return encode(motDePasse).equals(hache);
+        }
+    }
+}
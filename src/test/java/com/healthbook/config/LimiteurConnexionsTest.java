@@ -0,0 +1,108 @@
+package com.healthbook.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteurConnexionsTest {
+
+    private final AtomicLong horloge = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void tenter_RafaleEpuisee_AttendUneRecharge() {
+        // Given : 3 tentatives par identifiant puis 1 par seconde
+        LimiteurConnexions limiteur = limiteur(3, 1_000, 100, 10, 1_000);
+
+        // When / Then
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiteur.tenter("marie@email.com", "10.0.0.1"));
+        }
+        assertEquals(1_000, limiteur.tenter("Marie@Email.com ", "10.0.0.2"));
+
+        avancer(999);
+        assertTrue(limiteur.tenter("marie@email.com", "10.0.0.3") > 0);
+        avancer(1);
+        assertEquals(0, limiteur.tenter("marie@email.com", "10.0.0.3"));
+        assertEquals(0, limiteur.tenter("jean@email.com", "10.0.0.1"));
+    }
+
+    @Test
+    void tenter_MemeAdresse_LimiteeQuelQueSoitLIdentifiant() {
+        // Given
+        LimiteurConnexions limiteur = limiteur(100, 1_000, 4, 500, 1_000);
+
+        // When / Then
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, limiteur.tenter("compte" + i + "@email.com", "10.0.0.9"));
+        }
+        assertEquals(500, limiteur.tenter("autre@email.com", "10.0.0.9"));
+        assertEquals(0, limiteur.tenter("autre@email.com", "10.0.0.10"));
+    }
+
+    @Test
+    void tenter_NombreDeClesBorne() {
+        // Given
+        LimiteurConnexions limiteur = limiteur(5, 1_000, 5, 1_000, 100);
+
+        // When : une adresse différente à chaque tentative, sans recharge
+        for (int i = 0; i < 1_000; i++) {
+            limiteur.tenter(null, "10.1." + (i / 256) + "." + (i % 256));
+        }
+
+        // Then
+        assertTrue(limiteur.taille() <= 100, "Clés conservées : " + limiteur.taille());
+    }
+
+    @Test
+    void tenter_SeauxRecharges_PurgesEnPriorite() {
+        // Given : une adresse a épuisé son seau, 99 autres n'ont pris qu'un jeton
+        LimiteurConnexions limiteur = limiteur(5, 1_000, 2, 60_000, 100);
+        limiteur.tenter(null, "10.0.0.1");
+        limiteur.tenter(null, "10.0.0.1");
+        for (int i = 0; i < 99; i++) {
+            limiteur.tenter(null, "10.2.0." + i);
+        }
+        avancer(60_000);
+
+        // When : la nouvelle clé déclenche la purge des seaux redevenus pleins
+        limiteur.tenter(null, "10.3.0.1");
+
+        // Then : seul le seau encore entamé est conservé (un jeton rechargé sur deux), avec la nouvelle clé
+        assertEquals(2, limiteur.taille());
+        assertEquals(0, limiteur.tenter(null, "10.0.0.1"));
+        assertTrue(limiteur.tenter(null, "10.0.0.1") > 0);
+    }
+
+    @Test
+    void tenter_SousAttaque_SeauxLesMoinsEntamesEvincesEnPremier() {
+        // Given : une adresse a épuisé son seau, puis 99 autres prennent un jeton chacune
+        LimiteurConnexions limiteur = limiteur(5, 1_000, 5, 60_000, 100);
+        for (int i = 0; i < 5; i++) {
+            limiteur.tenter(null, "10.0.0.1");
+        }
+        for (int i = 0; i < 99; i++) {
+            avancer(1);
+            limiteur.tenter(null, "10.2.0." + i);
+        }
+
+        // When : aucun seau n'est plein, la nouvelle clé force l'éviction d'un quart des clés
+        limiteur.tenter(null, "10.3.0.1");
+
+        // Then : le seau épuisé est conservé, l'adresse reste bloquée
+        assertEquals(76, limiteur.taille());
+        assertTrue(limiteur.tenter(null, "10.0.0.1") > 0);
+    }
+
+    private LimiteurConnexions limiteur(int rafaleIdentifiant, long rechargeIdentifiantMillis,
+                                        int rafaleAdresse, long rechargeAdresseMillis, int clesMax) {
+        return new LimiteurConnexions(new LimiteurConnexions.Regle(rafaleIdentifiant, rechargeIdentifiantMillis),
+                new LimiteurConnexions.Regle(rafaleAdresse, rechargeAdresseMillis), clesMax, horloge::get);
+    }
+
+    private void avancer(long millis) {
+        horloge.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
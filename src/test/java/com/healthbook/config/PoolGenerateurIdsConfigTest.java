@@ -0,0 +1,71 @@
+package com.healthbook.config;
+
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Patient;
+import com.healthbook.entity.RendezVous;
+import com.healthbook.repository.MedecinRepository;
+import com.healthbook.repository.PatientRepository;
+import com.healthbook.repository.RendezVousRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pool principal de deux connexions dont une tenue par le test : les identifiants des RDV sont
+ * réservés par le pool à part pendant que la transaction tient la dernière connexion principale.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:generateur-ids;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=2000",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.springframework.web=INFO",
+        "app.notifications.intervalle-ms=3600000",
+        "app.rappels.intervalle-ms=3600000"
+})
+class PoolGenerateurIdsConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MedecinRepository medecinRepository;
+
+    @Autowired
+    private RendezVousRepository rendezVousRepository;
+
+    @Test
+    void reservationDansUneTransaction_SansSecondeConnexionPrincipale() throws Exception {
+        // When
+        Long id;
+        try (Connection tenue = dataSource.getConnection()) {
+            id = transactionTemplate.execute(statut -> {
+                Patient patient = patientRepository.save(new Patient("Dupont", "Marie", "pool-ids@email.com"));
+                Medecin medecin = medecinRepository.save(new Medecin("Martin", "Jean", "Cardiologie", "pool-ids-medecin@email.com"));
+                return rendezVousRepository.save(new RendezVous(patient, medecin, LocalDateTime.now().plusDays(3), "Contrôle")).getId();
+            });
+        }
+
+        // Then
+        assertNotNull(id);
+        assertTrue(rendezVousRepository.existsById(id));
+    }
+}
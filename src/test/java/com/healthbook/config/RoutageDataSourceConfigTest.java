@@ -0,0 +1,77 @@
+package com.healthbook.config;
+
+import com.healthbook.entity.Patient;
+import com.healthbook.service.PatientService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Câblage avec JPA : le « réplica » est ici la même base H2 que la principale, seul l'aiguillage
+ * des transactions Hibernate (lecture seule ou non) est vérifié.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routage;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "app.datasource.replicas.urls=jdbc:h2:mem:routage;DB_CLOSE_DELAY=-1",
+        "app.datasource.replicas.retard-max-ms=600000",
+        "app.datasource.replicas.battement-ms=3600000",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.springframework.web=INFO",
+        "app.notifications.intervalle-ms=3600000"
+})
+class RoutageDataSourceConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private RoutageDataSource routage;
+
+    @Autowired
+    private PatientService patientService;
+
+    // Comme une requête HTTP (CoherenceLectureFilter) : les écritures de l'utilisateur sont suivies
+    @BeforeEach
+    void setUp() {
+        CoherenceLecture.ouvrir(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        CoherenceLecture.effacer();
+    }
+
+    @Test
+    void transactionsJpa_LecturesSurReplica_PuisPrimaireApresEcriture() {
+        // Given : battement rejoué au démarrage, plus de battement ensuite
+        assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+        long replicaAvant = routage.getLecturesReplica();
+        long primaireAvant = routage.getLecturesPrimaire();
+
+        // When : lecture seule (transaction Spring Data)
+        long nombre = patientService.countPatients();
+
+        // Then
+        assertEquals(replicaAvant + 1, routage.getLecturesReplica());
+
+        // When : écriture, puis relecture par le même utilisateur
+        patientService.createPatient(new Patient("Routage", "Léa", "lea.routage@email.com"));
+        long apresEcriture = patientService.countPatients();
+
+        // Then : le réplica n'a pas rejoué de battement postérieur à l'écriture
+        assertEquals(nombre + 1, apresEcriture);
+        assertEquals(primaireAvant + 1, routage.getLecturesPrimaire());
+    }
+}
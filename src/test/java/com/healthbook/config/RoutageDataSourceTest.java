@@ -0,0 +1,149 @@
+package com.healthbook.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Deux bases H2 en mémoire tiennent lieu de base principale et de réplica ; la réplication
+ * du battement est simulée par repliquer(). Chaque base contient une ligne qui la nomme.
+ */
+class RoutageDataSourceTest {
+
+    private static final long RETARD_MAX_MS = 300;
+
+    private DataSource primaire;
+    private DataSource replica;
+    private RoutageDataSource routage;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate ecriture;
+    private TransactionTemplate lecture;
+
+    @BeforeEach
+    void setUp() {
+        primaire = base("primaire");
+        replica = base("replica");
+        // Table créée par la migration V5 sur une vraie base
+        for (DataSource base : List.of(primaire, replica)) {
+            new JdbcTemplate(base).execute("CREATE TABLE battement_replication (id INT PRIMARY KEY, instant BIGINT NOT NULL)");
+            new JdbcTemplate(base).update("INSERT INTO battement_replication (id, instant) VALUES (1, 0)");
+        }
+
+        routage = new RoutageDataSource(primaire, List.of(replica), RETARD_MAX_MS);
+        routage.initialiser();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routage);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactions = new DataSourceTransactionManager(dataSource);
+        ecriture = new TransactionTemplate(transactions);
+        lecture = new TransactionTemplate(transactions);
+        lecture.setReadOnly(true);
+        repliquer();
+        // Comme en début de requête HTTP (CoherenceLectureFilter)
+        CoherenceLecture.ouvrir(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        CoherenceLecture.effacer();
+    }
+
+    @Test
+    void lectureSeule_VersReplica_EcritureEtHorsTransactionVersPrimaire() {
+        assertEquals("replica", lecture.execute(statut -> lieu()));
+        assertEquals("primaire", ecriture.execute(statut -> lieu()));
+        assertEquals("primaire", lieu());
+        assertEquals(1, routage.getLecturesReplica());
+    }
+
+    @Test
+    void replicaEnRetard_LectureSurPrimaire() throws Exception {
+        // Given : plus de réplication depuis retardMax
+        Thread.sleep(RETARD_MAX_MS + 50);
+        routage.battre();
+
+        // Then
+        assertEquals("primaire", lecture.execute(statut -> lieu()));
+        assertEquals(1, routage.getLecturesPrimaire());
+
+        // When : le réplica rattrape son retard
+        repliquer();
+
+        // Then
+        assertEquals("replica", lecture.execute(statut -> lieu()));
+    }
+
+    @Test
+    void apresEcriture_LecturesSurPrimaireJusquAuRattrapage() throws Exception {
+        // Given : une écriture validée, le réplica n'a pas encore rejoué de battement postérieur
+        Thread.sleep(5);
+        ecriture.executeWithoutResult(statut -> jdbc.update("UPDATE lieu SET nom = 'primaire modifiée'"));
+        assertNotNull(CoherenceLecture.ecritureDeLaRequete());
+
+        // Then : l'utilisateur relit sa propre écriture
+        assertEquals("primaire modifiée", lecture.execute(statut -> lieu()));
+
+        // When : battement postérieur à l'écriture rejoué par le réplica
+        Thread.sleep(5);
+        repliquer();
+
+        // Then
+        assertEquals("replica", lecture.execute(statut -> lieu()));
+    }
+
+    @Test
+    void exigenceDeSession_AppliqueeAuxLecturesDeLaRequete() {
+        // Given : écriture faite lors d'une requête précédente, après le dernier battement rejoué
+        CoherenceLecture.ouvrir(System.currentTimeMillis() + 60_000);
+
+        // Then
+        assertEquals("primaire", lecture.execute(statut -> lieu()));
+    }
+
+    @Test
+    void replicaInjoignable_Ecarte() {
+        // Given
+        RoutageDataSource sansReplica = new RoutageDataSource(primaire,
+                List.of(new DriverManagerDataSource("jdbc:h2:mem:absente-" + UUID.randomUUID() + ";IFEXISTS=TRUE", "sa", "")),
+                RETARD_MAX_MS);
+        sansReplica.battre();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(sansReplica);
+        TransactionTemplate lectureSeule = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        lectureSeule.setReadOnly(true);
+
+        // Then
+        assertEquals("primaire", lectureSeule.execute(statut -> new JdbcTemplate(dataSource)
+                .queryForObject("SELECT nom FROM lieu", String.class)));
+        assertEquals(List.of(-1L), sansReplica.getRetardsMillis());
+    }
+
+    private String lieu() {
+        return jdbc.queryForObject("SELECT nom FROM lieu", String.class);
+    }
+
+    // Réplication du battement, puis relecture par le routage
+    private void repliquer() {
+        routage.battre();
+        Long instant = new JdbcTemplate(primaire).queryForObject("SELECT instant FROM battement_replication WHERE id = 1", Long.class);
+        new JdbcTemplate(replica).update("UPDATE battement_replication SET instant = ? WHERE id = 1", instant);
+        routage.battre();
+    }
+
+    private static DataSource base(String nom) {
+        DataSource base = new DriverManagerDataSource("jdbc:h2:mem:" + nom + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(base);
+        jdbc.execute("CREATE TABLE lieu (nom VARCHAR(50))");
+        jdbc.update("INSERT INTO lieu (nom) VALUES (?)", nom);
+        return base;
+    }
+}
@@ -0,0 +1,69 @@
+package com.healthbook.controller;
+
+import com.healthbook.config.EncodeurMotDePasseBorne;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Au-delà de la rafale autorisée pour un identifiant, la connexion reçoit un 429
+ * sans qu'aucun mot de passe ne soit vérifié.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "logging.level.org.springframework.web=INFO"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class ConnexionLimiteeTest {
+
+    private static final String CIBLE = "cible.limitee@email.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EncodeurMotDePasseBorne passwordEncoder;
+
+    @Test
+    void connexion_RafaleDepassee_Renvoie429SansHachage() throws Exception {
+        // Given : la rafale par identifiant est épuisée depuis plusieurs adresses
+        for (int i = 0; i < 5; i++) {
+            String adresse = "192.0.2." + i;
+            mockMvc.perform(connexion(CIBLE, adresse))
+                    .andExpect(redirectedUrl("/login?error=true"));
+        }
+        long hachages = passwordEncoder.statistiques().operations();
+
+        // When / Then
+        String attente = mockMvc.perform(connexion(CIBLE, "192.0.2.100"))
+                .andExpect(status().isTooManyRequests())
+                .andReturn().getResponse().getHeader("Retry-After");
+        assertTrue(Integer.parseInt(attente) > 0 && Integer.parseInt(attente) <= 12, "Retry-After : " + attente);
+        assertEquals(hachages, passwordEncoder.statistiques().operations());
+    }
+
+    private static MockHttpServletRequestBuilder connexion(String identifiant, String adresse) {
+        return post("/login").param("username", identifiant).param("password", "Mauvais123!")
+                .with(csrf())
+                .with(requete -> {
+                    requete.setRemoteAddr(adresse);
+                    return requete;
+                });
+    }
+}
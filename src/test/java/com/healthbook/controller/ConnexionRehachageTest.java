@@ -0,0 +1,82 @@
+package com.healthbook.controller;
+
+import com.healthbook.entity.Role;
+import com.healthbook.entity.User;
+import com.healthbook.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+
+/**
+ * Un hash BCrypt d'un coût inférieur au coût configuré est remplacé à la connexion.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "logging.level.org.springframework.web=INFO"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class ConnexionRehachageTest {
+
+    private static final String EMAIL = "rehachage@email.com";
+    private static final String MOT_DE_PASSE = "Secret123!";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void nettoyer() {
+        userRepository.findByUsername(EMAIL).ifPresent(userRepository::delete);
+    }
+
+    @Test
+    void connexion_HashDeCoutInferieur_EstRehache() throws Exception {
+        // Given
+        String ancien = new BCryptPasswordEncoder(4).encode(MOT_DE_PASSE);
+        userRepository.save(new User(EMAIL, ancien, Role.ADMIN));
+
+        // When
+        mockMvc.perform(formLogin("/login").user(EMAIL).password(MOT_DE_PASSE))
+                .andExpect(redirectedUrl("/dashboard"));
+
+        // Then
+        String nouveau = userRepository.findByUsername(EMAIL).orElseThrow().getPassword();
+        assertNotEquals(ancien, nouveau);
+        assertFalse(passwordEncoder.upgradeEncoding(nouveau));
+        assertTrue(passwordEncoder.matches(MOT_DE_PASSE, nouveau));
+    }
+
+    @Test
+    void connexion_MauvaisMotDePasse_HashInchange() throws Exception {
+        // Given
+        String ancien = new BCryptPasswordEncoder(4).encode(MOT_DE_PASSE);
+        userRepository.save(new User(EMAIL, ancien, Role.ADMIN));
+
+        // When
+        mockMvc.perform(formLogin("/login").user(EMAIL).password("Mauvais123!"))
+                .andExpect(redirectedUrl("/login?error=true"));
+
+        // Then
+        assertEquals(ancien, userRepository.findByUsername(EMAIL).orElseThrow().getPassword());
+    }
+}
@@ -0,0 +1,152 @@
+package com.healthbook.controller;
+
+import com.healthbook.config.EncodeurMotDePasseBorne;
+import com.healthbook.entity.Role;
+import com.healthbook.entity.User;
+import com.healthbook.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Latence des connexions légitimes pendant une attaque par bourrage d'identifiants
+ * (comptes aléatoires depuis quelques adresses). Le limiteur renvoie 429 avant BCrypt :
+ * les connexions légitimes ne doivent pas être beaucoup plus lentes qu'à vide.
+ * Lancer avec : mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.springframework.web=INFO",
+        "app.connexion.rafale-ip=5",
+        "app.connexion.recharge-ip-ms=5000"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class ConnexionSousAttaqueBenchmarkTest {
+
+    private static final String MOT_DE_PASSE = "Secret123!";
+    private static final int CONNEXIONS = 30;
+    private static final int ATTAQUANTS = 2;
+    private static final int ADRESSES_ATTAQUE = 2;
+    // Débit de chaque attaquant : les requêtes sont générées dans la même JVM (un seul coeur
+    // possible), un attaquant sans pause mesurerait surtout le coût du client de test
+    private static final long PAUSE_ATTAQUE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EncodeurMotDePasseBorne passwordEncoder;
+
+    @Test
+    void connexionsLegitimes_LatenceConserveeSousAttaque() throws Exception {
+        String hache = passwordEncoder.encode(MOT_DE_PASSE);
+        for (int i = 0; i < 2 * CONNEXIONS; i++) {
+            userRepository.save(new User("legitime" + i + "@email.com", hache, Role.ADMIN));
+        }
+        // Chauffe (JIT, chaîne de filtres) : connexions acceptées puis tentatives refusées
+        mesurer(0, 5, "198.51.102.");
+        for (int i = 0; i < 2_000; i++) {
+            mockMvc.perform(connexion("chauffe" + i + "@email.com", "Mauvais123!", "203.0.114.1"));
+        }
+
+        List<Long> aVide = mesurer(0, CONNEXIONS, "198.51.100.");
+
+        AtomicBoolean arret = new AtomicBoolean();
+        AtomicLong refusees = new AtomicLong();
+        AtomicLong tentatives = new AtomicLong();
+        ExecutorService attaque = Executors.newFixedThreadPool(ATTAQUANTS);
+        for (int t = 0; t < ATTAQUANTS; t++) {
+            int attaquant = t;
+            attaque.submit(() -> {
+                long n = 0;
+                while (!arret.get()) {
+                    n++;
+                    int statut = mockMvc.perform(connexion("victime" + attaquant + "-" + n + "@email.com", "Mauvais123!",
+                            "203.0.113." + (n % ADRESSES_ATTAQUE))).andReturn().getResponse().getStatus();
+                    tentatives.incrementAndGet();
+                    if (statut == 429) {
+                        refusees.incrementAndGet();
+                    }
+                    LockSupport.parkNanos(PAUSE_ATTAQUE_NANOS);
+                }
+                return null;
+            });
+        }
+        // Les rafales initiales des adresses attaquantes sont absorbées avant la mesure
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while ((refusees.get() < 100 || passwordEncoder.statistiques().enFile() > 0) && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+
+        List<Long> sousAttaque = mesurer(CONNEXIONS, 2 * CONNEXIONS, "198.51.101.");
+        arret.set(true);
+        attaque.shutdown();
+        assertTrue(attaque.awaitTermination(30, TimeUnit.SECONDS));
+
+        long p95AVide = centile(aVide, 0.95);
+        long p95SousAttaque = centile(sousAttaque, 0.95);
+        System.out.printf("Connexions légitimes p50/p95 : %d/%d ms à vide, %d/%d ms sous attaque (%d tentatives, %d refusées en 429)%n",
+                centile(aVide, 0.5), p95AVide, centile(sousAttaque, 0.5), p95SousAttaque, tentatives.get(), refusees.get());
+        assertTrue(refusees.get() * 10 >= tentatives.get() * 9, "L'attaque doit être majoritairement refusée");
+        // Marge pour le coeur partagé avec les threads attaquants de la même JVM
+        assertTrue(centile(sousAttaque, 0.5) <= centile(aVide, 0.5) * 3 / 2 + 50,
+                "Latence médiane dégradée : " + centile(sousAttaque, 0.5) + " ms contre " + centile(aVide, 0.5) + " ms à vide");
+        assertTrue(p95SousAttaque <= 2 * p95AVide + 100,
+                "Latence p95 dégradée : " + p95SousAttaque + " ms contre " + p95AVide + " ms à vide");
+    }
+
+    // Une connexion par compte, chacune depuis sa propre adresse du réseau donné
+    private List<Long> mesurer(int premier, int dernier, String reseau) throws Exception {
+        List<Long> durees = new ArrayList<>();
+        for (int i = premier; i < dernier; i++) {
+            long debut = System.nanoTime();
+            String cible = mockMvc.perform(connexion("legitime" + i + "@email.com", MOT_DE_PASSE, reseau + i))
+                    .andReturn().getResponse().getRedirectedUrl();
+            durees.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debut));
+            assertEquals("/dashboard", cible);
+        }
+        return durees;
+    }
+
+    private static long centile(List<Long> durees, double rang) {
+        List<Long> triees = new ArrayList<>(durees);
+        Collections.sort(triees);
+        return triees.get((int) Math.ceil(triees.size() * rang) - 1);
+    }
+
+    private static MockHttpServletRequestBuilder connexion(String identifiant, String motDePasse, String adresse) {
+        return post("/login").param("username", identifiant).param("password", motDePasse)
+                .with(csrf())
+                .with(requete -> {
+                    requete.setRemoteAddr(adresse);
+                    return requete;
+                });
+    }
+}
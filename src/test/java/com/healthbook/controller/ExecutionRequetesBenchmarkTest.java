@@ -0,0 +1,337 @@
+package com.healthbook.controller;
+
+import com.healthbook.HealthBookApplication;
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Patient;
+import com.healthbook.entity.Role;
+import com.healthbook.entity.User;
+import com.healthbook.repository.MedecinRepository;
+import com.healthbook.repository.PatientRepository;
+import com.healthbook.repository.UserRepository;
+import com.sun.management.UnixOperatingSystemMXBean;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tomcat sur threads de plateforme (pool de 200) puis sur threads virtuels, mêmes requêtes :
+ * tableau de bord patient puis prise de RDV, pour 1 000 puis 10 000 utilisateurs simultanés.
+ * Chaque ordre SQL subit une latence simulée (aller-retour MySQL), sans quoi H2 en mémoire
+ * ne bloquerait jamais. Client et serveur partagent la JVM : un palier qui dépasserait la
+ * limite de descripteurs de fichiers (deux sockets par utilisateur) est ignoré.
+ * Lancer avec : mvn test -Pbenchmark [-Dbenchmark.utilisateurs=1000,10000] [-Dbenchmark.latence-ms=2]
+ */
+@Tag("benchmark")
+class ExecutionRequetesBenchmarkTest {
+
+    private static final String MOT_DE_PASSE = "Secret123!";
+    private static final int SESSIONS = 20;
+    private static final int MEDECINS = 100;
+    private static final int CHAUFFE = 200;
+    private static final Duration ATTENTE_MAX = Duration.ofMinutes(10);
+    private static final Pattern JETON_CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+
+    private final LocalDateTime premierCreneau = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+    @Test
+    void threadsVirtuels_ComparesAuxThreadsDePlateforme() throws Exception {
+        int[] paliers = paliers();
+        long latenceMillis = Long.getLong("benchmark.latence-ms", 2);
+
+        List<Mesure> plateforme = executer(false, paliers, latenceMillis);
+        List<Mesure> virtuels = executer(true, paliers, latenceMillis);
+
+        for (int i = 0; i < paliers.length; i++) {
+            for (Mesure mesure : List.of(plateforme.get(i), virtuels.get(i))) {
+                System.out.printf("%-10s %6d utilisateurs : %6d ms, %5d req/s, p50 %4d ms, p99 %5d ms, %d erreurs, %4d threads max%n",
+                        mesure.virtuels() ? "virtuels" : "plateforme", mesure.utilisateurs(), mesure.dureeMillis(),
+                        mesure.requetesParSeconde(), mesure.p50Millis(), mesure.p99Millis(), mesure.erreurs(),
+                        mesure.threadsMax());
+                assertEquals(0, mesure.erreurs(), "Requêtes en échec : " + mesure);
+            }
+        }
+        Mesure dernierPlateforme = plateforme.getLast();
+        Mesure dernierVirtuels = virtuels.getLast();
+        assertTrue(dernierVirtuels.threadsMax() < dernierPlateforme.threadsMax(),
+                "Threads virtuels sans économie de threads système : " + dernierVirtuels + " / " + dernierPlateforme);
+        // Même plafond (le pool Hikari) dans les deux modes : pas de régression de débit attendue
+        assertTrue(dernierVirtuels.requetesParSeconde() >= dernierPlateforme.requetesParSeconde() * 8 / 10,
+                "Débit en recul avec les threads virtuels : " + dernierVirtuels + " / " + dernierPlateforme);
+    }
+
+    // ========================
+    // DÉROULEMENT D'UN MODE
+    // ========================
+    private List<Mesure> executer(boolean virtuels, int[] paliers, long latenceMillis) throws Exception {
+        try (ConfigurableApplicationContext contexte = demarrer(virtuels, latenceMillis);
+             ExecutorService executeurClients = Executors.newVirtualThreadPerTaskExecutor()) {
+            int port = ((WebServerApplicationContext) contexte).getWebServer().getPort();
+            List<Session> sessions = preparer(contexte, "http://localhost:" + port, executeurClients);
+            AtomicInteger creneaux = new AtomicInteger();
+
+            charger(virtuels, sessions, CHAUFFE, creneaux, executeurClients);
+            List<Mesure> mesures = new ArrayList<>();
+            for (int utilisateurs : paliers) {
+                mesures.add(charger(virtuels, sessions, utilisateurs, creneaux, executeurClients));
+            }
+            return mesures;
+        }
+    }
+
+    private static ConfigurableApplicationContext demarrer(boolean virtuels, long latenceMillis) {
+        return new SpringApplicationBuilder(HealthBookApplication.class)
+                .initializers(contexte -> contexte.getBeanFactory().addBeanPostProcessor(new LatenceSimulee(latenceMillis)))
+                // Arguments de ligne de commande : prioritaires sur application.properties (MySQL)
+                .run(
+                        "--server.port=0",
+                        "--server.tomcat.accept-count=10000",
+                        // Une connexion en file peut attendre longtemps son traitement : pas de fermeture entre-temps
+                        "--server.tomcat.connection-timeout=10m",
+                        "--server.tomcat.keep-alive-timeout=10m",
+                        "--spring.threads.virtual.enabled=" + virtuels,
+                        "--spring.datasource.url=jdbc:h2:mem:execution-" + virtuels + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.com.zaxxer.hikari=INFO",
+                        "--logging.level.org.springframework.web=INFO",
+                        "--app.hachage.cout-bcrypt=4",
+                        "--app.connexion.rafale-ip=100",
+                        // On mesure la file d'attente du pool, pas les abandons sur délai de connexion
+                        "--spring.datasource.hikari.connection-timeout=" + ATTENTE_MAX.toMillis());
+    }
+
+    // Médecins, comptes patients et une session HTTP connectée par compte
+    private List<Session> preparer(ConfigurableApplicationContext contexte, String base,
+                                   ExecutorService executeurClients) throws Exception {
+        MedecinRepository medecinRepository = contexte.getBean(MedecinRepository.class);
+        PatientRepository patientRepository = contexte.getBean(PatientRepository.class);
+        UserRepository userRepository = contexte.getBean(UserRepository.class);
+        String hache = contexte.getBean(PasswordEncoder.class).encode(MOT_DE_PASSE);
+
+        List<Long> medecins = new ArrayList<>();
+        for (int i = 0; i < MEDECINS; i++) {
+            medecins.add(medecinRepository.save(new Medecin("Medecin" + i, "Jean", "Cardiologie", "medecin" + i + "@email.com")).getId());
+        }
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            String email = "patient" + i + "@email.com";
+            Patient patient = patientRepository.save(new Patient("Patient" + i, "Marie", email));
+            User compte = new User(email, hache, Role.PATIENT);
+            compte.setPatient(patient);
+            userRepository.save(compte);
+
+            CookieManager cookies = new CookieManager();
+            HttpClient client = client(cookies, executeurClients);
+            String jeton = jetonCsrf(client.send(HttpRequest.newBuilder(URI.create(base + "/login")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body());
+            HttpResponse<Void> connexion = client.send(formulaire(base + "/login",
+                    "username=" + encoder(email) + "&password=" + encoder(MOT_DE_PASSE) + "&_csrf=" + encoder(jeton)),
+                    HttpResponse.BodyHandlers.discarding());
+            assertTrue(connexion.headers().firstValue("Location").orElse("").endsWith("/dashboard"), "Connexion refusée");
+            // Jeton CSRF renouvelé à la connexion : relu sur le formulaire de prise de RDV
+            String jetonSession = jetonCsrf(client.send(HttpRequest.newBuilder(URI.create(base + "/rendezvous/new")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body());
+            sessions.add(new Session(cookies, base, patient.getId(), jetonSession, medecins));
+            client.close();
+        }
+        return sessions;
+    }
+
+    // ========================
+    // CHARGE : N UTILISATEURS SIMULTANÉS
+    // ========================
+    private Mesure charger(boolean virtuels, List<Session> sessions, int utilisateurs, AtomicInteger creneaux,
+                           ExecutorService executeurClients) throws Exception {
+        // Clients neufs à chaque palier : pas de connexion gardée ouverte depuis le palier précédent
+        List<HttpClient> clients = sessions.stream().map(session -> client(session.cookies(), executeurClients)).toList();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long[] latences = new long[2 * utilisateurs];
+        AtomicInteger erreurs = new AtomicInteger();
+        CountDownLatch depart = new CountDownLatch(1);
+
+        long debut;
+        try (ExecutorService utilisateursSimultanes = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < utilisateurs; i++) {
+                Session session = sessions.get(i % SESSIONS);
+                HttpClient client = clients.get(i % SESSIONS);
+                int indice = i;
+                int creneau = creneaux.getAndIncrement();
+                utilisateursSimultanes.submit(() -> {
+                    depart.await();
+                    latences[2 * indice] = requete(client, tableauDeBord(session), 200, "", erreurs);
+                    latences[2 * indice + 1] = requete(client, reservation(session, creneau), 302,
+                            "/rendezvous?success", erreurs);
+                    return null;
+                });
+            }
+            debut = System.nanoTime();
+            depart.countDown();
+        }
+        long dureeMillis = (System.nanoTime() - debut) / 1_000_000;
+        clients.forEach(HttpClient::close);
+
+        Arrays.sort(latences);
+        return new Mesure(virtuels, utilisateurs, dureeMillis,
+                latences[latences.length / 2] / 1_000_000, latences[latences.length * 99 / 100] / 1_000_000,
+                erreurs.get(), threads.getPeakThreadCount());
+    }
+
+    private static long requete(HttpClient client, HttpRequest requete, int statutAttendu, String redirection,
+                                AtomicInteger erreurs) {
+        long debut = System.nanoTime();
+        try {
+            HttpResponse<Void> reponse = client.send(requete, HttpResponse.BodyHandlers.discarding());
+            if (reponse.statusCode() != statutAttendu
+                    || !reponse.headers().firstValue("Location").orElse("").contains(redirection)) {
+                erreurs.incrementAndGet();
+            }
+        } catch (Exception e) {
+            erreurs.incrementAndGet();
+        }
+        return System.nanoTime() - debut;
+    }
+
+    private static HttpRequest tableauDeBord(Session session) {
+        return HttpRequest.newBuilder(URI.create(session.base() + "/dashboard"))
+                .timeout(ATTENTE_MAX)
+                .build();
+    }
+
+    // Un créneau distinct par utilisateur, réparti sur les médecins
+    private HttpRequest reservation(Session session, int creneau) {
+        Long medecinId = session.medecins().get(creneau % MEDECINS);
+        LocalDateTime dateHeure = premierCreneau.plusMinutes(30L * (creneau / MEDECINS));
+        return formulaire(session.base() + "/rendezvous/new",
+                "patientId=" + session.patientId() + "&medecinId=" + medecinId + "&dateHeure=" + encoder(dateHeure.toString())
+                        + "&motif=Consultation&_csrf=" + encoder(session.jetonCsrf()));
+    }
+
+    // ========================
+    // OUTILS
+    // ========================
+    private static int[] paliers() {
+        long descripteursMax = ManagementFactory.getOperatingSystemMXBean() instanceof UnixOperatingSystemMXBean unix
+                ? unix.getMaxFileDescriptorCount() : Long.MAX_VALUE;
+        return Arrays.stream(System.getProperty("benchmark.utilisateurs", "1000,10000").split(","))
+                .mapToInt(palier -> Integer.parseInt(palier.trim()))
+                .filter(utilisateurs -> {
+                    boolean possible = 2L * utilisateurs + 1_000 <= descripteursMax;
+                    if (!possible) {
+                        System.out.printf("Palier de %d utilisateurs ignoré : %d descripteurs de fichiers au plus%n",
+                                utilisateurs, descripteursMax);
+                    }
+                    return possible;
+                })
+                .toArray();
+    }
+
+    private static HttpClient client(CookieManager cookies, ExecutorService executeur) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .cookieHandler(cookies)
+                .executor(executeur)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    private static HttpRequest formulaire(String url, String corps) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(ATTENTE_MAX)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(corps))
+                .build();
+    }
+
+    private static String jetonCsrf(String page) {
+        Matcher jeton = JETON_CSRF.matcher(page);
+        assertTrue(jeton.find(), "Jeton CSRF absent de la page");
+        return jeton.group(1);
+    }
+
+    private static String encoder(String valeur) {
+        return URLEncoder.encode(valeur, StandardCharsets.UTF_8);
+    }
+
+    private record Session(CookieManager cookies, String base, Long patientId, String jetonCsrf, List<Long> medecins) {
+    }
+
+    private record Mesure(boolean virtuels, int utilisateurs, long dureeMillis, long p50Millis, long p99Millis,
+                          int erreurs, int threadsMax) {
+
+        long requetesParSeconde() {
+            return dureeMillis > 0 ? 2L * utilisateurs * 1000 / dureeMillis : 2L * utilisateurs;
+        }
+    }
+
+    // Chaque exécution d'ordre SQL attend latenceMillis, connexion tenue, comme un aller-retour réseau
+    private record LatenceSimulee(long latenceMillis) implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof DataSource dataSource ? avecLatence(dataSource, DataSource.class) : bean;
+        }
+
+        private <T> T avecLatence(T cible, Class<T> type) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, methode, arguments) -> {
+                if (methode.getName().startsWith("execute")) {
+                    Thread.sleep(latenceMillis);
+                }
+                Object resultat;
+                try {
+                    resultat = methode.invoke(cible, arguments);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                return switch (resultat) {
+                    case Connection connexion when methode.getName().equals("getConnection") ->
+                            avecLatence(connexion, Connection.class);
+                    case CallableStatement appel -> avecLatence(appel, CallableStatement.class);
+                    case PreparedStatement ordre -> avecLatence(ordre, PreparedStatement.class);
+                    case Statement ordre when cible instanceof Connection -> avecLatence(ordre, Statement.class);
+                    case null, default -> resultat;
+                };
+            }));
+        }
+    }
+}
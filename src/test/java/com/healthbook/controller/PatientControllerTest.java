@@ -3,6 +3,7 @@ package com.healthbook.controller;
 import com.healthbook.entity.Patient;
 import com.healthbook.entity.Role;
 import com.healthbook.entity.User;
+import com.healthbook.service.AnnuaireImportService;
 import com.healthbook.service.PatientService;
 import com.healthbook.service.UserService;
 import org.junit.jupiter.api.Test;
@@ -34,6 +35,9 @@ class PatientControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private AnnuaireImportService annuaireImportService;
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void listPatients_AdminUser_ReturnsAllPatients() throws Exception {
@@ -75,6 +79,7 @@ class PatientControllerTest {
         patientUser.setPatient(currentPatient);
         
         when(userService.loadUserByUsername(any())).thenReturn(patientUser);
+        when(patientService.getPatientById(1L)).thenReturn(Optional.of(currentPatient));
 
         // When & Then
         mockMvc.perform(get("/patients"))
@@ -0,0 +1,153 @@
+package com.healthbook.controller;
+
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Patient;
+import com.healthbook.entity.RendezVous;
+import com.healthbook.entity.Role;
+import com.healthbook.entity.User;
+import com.healthbook.repository.MedecinRepository;
+import com.healthbook.repository.PatientRepository;
+import com.healthbook.repository.RendezVousRepository;
+import com.healthbook.repository.UserRepository;
+import com.healthbook.service.RendezVousService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Un tableau de bord ou une liste de RDV inchangés sont revalidés (304) sans requête SQL ;
+ * la moindre modification d'un RDV de l'utilisateur change l'ETag.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "logging.level.org.springframework.web=INFO",
+        "app.notifications.intervalle-ms=3600000"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class RendezVousEtagTest {
+
+    private static final String EMAIL = "paul.etag@email.com";
+    private static final String EMAIL_MEDECIN = "medecin.etag@email.com";
+    private static final String MOT_DE_PASSE = "Secret123!";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MedecinRepository medecinRepository;
+
+    @Autowired
+    private RendezVousRepository rendezVousRepository;
+
+    @Autowired
+    private RendezVousService rendezVousService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Patient patient;
+    private Medecin medecin;
+
+    @AfterEach
+    void nettoyer() {
+        if (patient != null) {
+            rendezVousRepository.deleteAll(rendezVousRepository.findByPatient(patient));
+        }
+        userRepository.findByUsername(EMAIL).ifPresent(userRepository::delete);
+        patientRepository.findByEmail(EMAIL).ifPresent(patientRepository::delete);
+        if (medecin != null) {
+            medecinRepository.deleteById(medecin.getId());
+        }
+    }
+
+    @Test
+    void pagesInchangees_304SansRequete() throws Exception {
+        // Given
+        MockHttpSession session = connecter();
+        rendezVousService.prendreRendezVous(patient.getId(), medecin.getId(), demain(), "Contrôle");
+
+        for (String url : new String[] {"/dashboard", "/rendezvous"}) {
+            String etag = mockMvc.perform(get(url).session(session))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Cache-Control", "private, no-cache"))
+                    .andReturn().getResponse().getHeader("ETag");
+            assertNotNull(etag, url);
+            Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistiques.clear();
+
+            // When
+            mockMvc.perform(get(url).session(session).header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            // Then
+            assertEquals(0, statistiques.getPrepareStatementCount(), url);
+        }
+    }
+
+    @Test
+    void rdvAnnule_NouvelEtag() throws Exception {
+        // Given
+        MockHttpSession session = connecter();
+        RendezVous rdv = rendezVousService.prendreRendezVous(patient.getId(), medecin.getId(), demain(), "Contrôle");
+        String avant = mockMvc.perform(get("/dashboard").session(session))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When
+        rendezVousService.annulerRendezVous(rdv.getId());
+
+        // Then
+        String apres = mockMvc.perform(get("/dashboard").session(session).header("If-None-Match", avant))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("tableau"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(avant, apres);
+    }
+
+    private MockHttpSession connecter() throws Exception {
+        patient = patientRepository.save(new Patient("Martin", "Paul", EMAIL));
+        medecin = medecinRepository.save(new Medecin("Bernard", "Luc", "Dermatologie", EMAIL_MEDECIN));
+        User compte = new User(EMAIL, passwordEncoder.encode(MOT_DE_PASSE), Role.PATIENT);
+        compte.setPatient(patient);
+        userRepository.save(compte);
+
+        return (MockHttpSession) mockMvc.perform(formLogin("/login").user(EMAIL).password(MOT_DE_PASSE))
+                .andExpect(redirectedUrl("/dashboard"))
+                .andReturn().getRequest().getSession(false);
+    }
+
+    private static LocalDateTime demain() {
+        return LocalDate.now().plusDays(1).atTime(10, 0);
+    }
+}
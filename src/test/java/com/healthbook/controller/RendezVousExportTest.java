@@ -0,0 +1,59 @@
+package com.healthbook.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Exports réservés : CSV pour l'administrateur, agenda .ics pour un médecin désigné.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "logging.level.org.springframework.web=INFO"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class RendezVousExportTest {
+
+    private static final String ADMIN = "admin@healthbook.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void exportCsv_Admin_ReponseEnFlux() throws Exception {
+        // When
+        MvcResult resultat = mockMvc.perform(get("/rendezvous/export").with(user(ADMIN).roles("ADMIN")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(resultat))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", startsWith("attachment; filename=\"rendez-vous-")))
+                .andExpect(content().string(startsWith("id;date_heure;duree;statut;motif;")));
+    }
+
+    @Test
+    void exports_Refuses() throws Exception {
+        mockMvc.perform(get("/rendezvous/export").with(user("patient@email.com").roles("PATIENT")))
+                .andExpect(status().isForbidden());
+        // L'administrateur doit désigner le médecin
+        mockMvc.perform(get("/rendezvous/agenda.ics").with(user(ADMIN).roles("ADMIN")))
+                .andExpect(status().isForbidden());
+    }
+}
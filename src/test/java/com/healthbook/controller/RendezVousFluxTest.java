@@ -0,0 +1,145 @@
+package com.healthbook.controller;
+
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Patient;
+import com.healthbook.entity.RendezVous;
+import com.healthbook.entity.Role;
+import com.healthbook.entity.User;
+import com.healthbook.repository.MedecinRepository;
+import com.healthbook.repository.PatientRepository;
+import com.healthbook.repository.RendezVousRepository;
+import com.healthbook.repository.UserRepository;
+import com.healthbook.service.DiffusionRendezVous;
+import com.healthbook.service.RendezVousService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Un tableau de bord abonné au flux reçoit les modifications de ses propres RDV,
+ * et seulement celles-là.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "logging.level.org.springframework.web=INFO"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class RendezVousFluxTest {
+
+    private static final String EMAIL = "julie.flux@email.com";
+    private static final String AUTRE_EMAIL = "marc.flux@email.com";
+    private static final String MOT_DE_PASSE = "Secret123!";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MedecinRepository medecinRepository;
+
+    @Autowired
+    private RendezVousRepository rendezVousRepository;
+
+    @Autowired
+    private RendezVousService rendezVousService;
+
+    @Autowired
+    private DiffusionRendezVous diffusion;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Medecin medecin;
+
+    @AfterEach
+    void nettoyer() {
+        for (String email : new String[] {EMAIL, AUTRE_EMAIL}) {
+            patientRepository.findByEmail(email).ifPresent(patient ->
+                    rendezVousRepository.deleteAll(rendezVousRepository.findByPatient(patient)));
+            userRepository.findByUsername(email).ifPresent(userRepository::delete);
+            patientRepository.findByEmail(email).ifPresent(patientRepository::delete);
+        }
+        if (medecin != null) {
+            medecinRepository.deleteById(medecin.getId());
+        }
+    }
+
+    @Test
+    void flux_RecoitSeulementSesPropresRdv() throws Exception {
+        // Given
+        medecin = medecinRepository.save(new Medecin("Petit", "Anne", "Pédiatrie", "medecin.flux@email.com"));
+        Patient patient = creerPatient(EMAIL, "Julie");
+        Patient autre = creerPatient(AUTRE_EMAIL, "Marc");
+        int abonnesAvant = diffusion.getNombreAbonnes();
+        MvcResult flux = mockMvc.perform(get("/rendezvous/flux").session(connecter(EMAIL)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(abonnesAvant + 1, diffusion.getNombreAbonnes());
+
+        // When
+        LocalDateTime demain = LocalDate.now().plusDays(1).atTime(9, 0);
+        rendezVousService.prendreRendezVous(autre.getId(), medecin.getId(), demain, "Vaccin de Marc");
+        RendezVous rdv = rendezVousService.prendreRendezVous(patient.getId(), medecin.getId(), demain.plusHours(1), "Vaccin de Julie");
+        rendezVousService.confirmerRendezVous(rdv.getId());
+
+        // Then
+        MockHttpServletResponse reponse = flux.getResponse();
+        String contenu = attendre(reponse, texte -> texte.contains("\"type\":\"CONFIRME\""));
+        assertEquals("text/event-stream", reponse.getContentType().split(";")[0]);
+        assertTrue(contenu.contains("event:rendezvous"));
+        assertTrue(contenu.contains("\"type\":\"CREE\"") && contenu.contains("Vaccin de Julie"));
+        assertFalse(contenu.contains("Vaccin de Marc"), "Événement d'un autre patient reçu");
+    }
+
+    private Patient creerPatient(String email, String prenom) {
+        Patient patient = patientRepository.save(new Patient("Flux", prenom, email));
+        User compte = new User(email, passwordEncoder.encode(MOT_DE_PASSE), Role.PATIENT);
+        compte.setPatient(patient);
+        userRepository.save(compte);
+        return patient;
+    }
+
+    private MockHttpSession connecter(String email) throws Exception {
+        return (MockHttpSession) mockMvc.perform(formLogin("/login").user(email).password(MOT_DE_PASSE))
+                .andExpect(redirectedUrl("/dashboard"))
+                .andReturn().getRequest().getSession(false);
+    }
+
+    // Les envois partent sur des threads virtuels : on attend le dernier événement attendu
+    private static String attendre(MockHttpServletResponse reponse, Predicate<String> condition) throws Exception {
+        long limite = System.nanoTime() + 5_000_000_000L;
+        String contenu = reponse.getContentAsString();
+        while (!condition.test(contenu) && System.nanoTime() < limite) {
+            Thread.sleep(20);
+            contenu = reponse.getContentAsString();
+        }
+        return contenu;
+    }
+}
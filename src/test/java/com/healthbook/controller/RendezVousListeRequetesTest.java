@@ -0,0 +1,118 @@
+package com.healthbook.controller;
+
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Patient;
+import com.healthbook.entity.RendezVous;
+import com.healthbook.entity.Role;
+import com.healthbook.entity.User;
+import com.healthbook.repository.MedecinRepository;
+import com.healthbook.repository.PatientRepository;
+import com.healthbook.repository.RendezVousRepository;
+import com.healthbook.repository.UserRepository;
+import com.healthbook.service.StatistiquesAccueilService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Le nombre de requêtes SQL d'une page de liste ne doit pas dépendre du nombre
+ * de RDV affichés (pas de chargement paresseux ligne par ligne).
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "logging.level.org.springframework.web=INFO",
+        "app.notifications.intervalle-ms=3600000"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class RendezVousListeRequetesTest {
+
+    private static final String ADMIN = "admin@healthbook.com";
+    private static final String PATIENT = "patient.requetes@email.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RendezVousRepository rendezVousRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MedecinRepository medecinRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StatistiquesAccueilService statistiquesAccueilService;
+
+    @Test
+    void listes_NombreDeRequetesIndependantDuNombreDeRdv() throws Exception {
+        for (String[] page : new String[][] {{ADMIN, "/rendezvous"}, {ADMIN, "/dashboard"}, {ADMIN, "/"}, {PATIENT, "/dashboard"},
+                {ADMIN, "/rendezvous/agenda?medecinId={medecin}"}, {ADMIN, "/rendezvous/agenda?vue=MOIS&medecinId={medecin}"}}) {
+            long peu = requetesPour(2, page[0], page[1]);
+            long beaucoup = requetesPour(15, page[0], page[1]);
+            assertEquals(peu, beaucoup, "Requêtes SQL pour " + page[1] + " (" + page[0] + ")");
+        }
+    }
+
+    // Recrée les données pour n patients et n médecins, puis compte les requêtes d'un affichage
+    private long requetesPour(int nombre, String utilisateur, String url) throws Exception {
+        userRepository.findByUsername(PATIENT).ifPresent(userRepository::delete);
+        rendezVousRepository.deleteAll();
+        patientRepository.deleteAll();
+        medecinRepository.deleteAll();
+
+        // n RDV du premier patient chez des médecins différents, n RDV du premier médecin
+        // avec des patients différents, tous dans la semaine en cours
+        List<Patient> patients = new ArrayList<>();
+        List<Medecin> medecins = new ArrayList<>();
+        for (int i = 0; i < nombre; i++) {
+            patients.add(patientRepository.save(new Patient("Patient" + i, "Test", "patient" + i + "@email.com")));
+            medecins.add(medecinRepository.save(new Medecin("Medecin" + i, "Test", "Cardiologie", "medecin" + i + "@email.com")));
+        }
+        Patient premier = patients.get(0);
+        LocalDateTime lundi = LocalDate.now().with(DayOfWeek.MONDAY).atTime(8, 0);
+        for (int i = 0; i < nombre; i++) {
+            rendezVousRepository.save(new RendezVous(premier, medecins.get(i), lundi.plusMinutes(30L * i), "Motif " + i));
+            rendezVousRepository.save(new RendezVous(patients.get(i), medecins.get(0), lundi.plusDays(1).plusMinutes(30L * i), "Motif " + i));
+        }
+        User compte = new User(PATIENT, "x", Role.PATIENT);
+        compte.setPatient(premier);
+        userRepository.save(compte);
+        // Données écrites sans passer par les services : l'accueil doit recompter
+        statistiquesAccueilService.invalider();
+
+        Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+        mockMvc.perform(get(url.replace("{medecin}", medecins.get(0).getId().toString())).with(user(utilisateur).roles(utilisateur.equals(ADMIN) ? "ADMIN" : "PATIENT")))
+                .andExpect(status().isOk());
+        return statistiques.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,127 @@
+package com.healthbook.controller;
+
+import com.healthbook.dto.UtilisateurConnecte;
+import com.healthbook.entity.Patient;
+import com.healthbook.entity.Role;
+import com.healthbook.entity.User;
+import com.healthbook.repository.PatientRepository;
+import com.healthbook.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Après la connexion, l'utilisateur est lu dans la session et non plus en base ;
+ * une modification du profil remplace l'instantané de session.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "logging.level.org.springframework.web=INFO",
+        "app.notifications.intervalle-ms=3600000"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class UtilisateurConnecteSessionTest {
+
+    private static final String EMAIL = "marie.session@email.com";
+    private static final String MOT_DE_PASSE = "Secret123!";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void nettoyer() {
+        userRepository.findByUsername(EMAIL).ifPresent(userRepository::delete);
+        patientRepository.findByEmail(EMAIL).ifPresent(patientRepository::delete);
+    }
+
+    @Test
+    void pagesApresConnexion_SansRelireLUtilisateur() throws Exception {
+        // Given
+        MockHttpSession session = connecter();
+        Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+
+        // When
+        mockMvc.perform(get("/dashboard").session(session)).andExpect(status().isOk());
+        mockMvc.perform(get("/rendezvous").session(session)).andExpect(status().isOk());
+        mockMvc.perform(get("/").session(session)).andExpect(status().isOk());
+
+        // Then
+        assertEquals(0, statistiques.getEntityStatistics(User.class.getName()).getLoadCount());
+        UtilisateurConnecte principal = principal(session);
+        assertEquals(Role.PATIENT, principal.getRole());
+        assertNotNull(principal.getPatientId());
+        assertNull(principal.getPassword(), "Le mot de passe ne doit pas rester en session");
+    }
+
+    @Test
+    void modificationProfil_RemplaceLInstantaneDeSession() throws Exception {
+        // Given
+        MockHttpSession session = connecter();
+
+        // When
+        mockMvc.perform(post("/dashboard/edit").session(session).with(csrf())
+                        .param("nom", "Durand").param("prenom", "Marie").param("telephone", "0612345678"))
+                .andExpect(status().is3xxRedirection());
+
+        // Then
+        assertEquals("Durand", principal(session).getNom());
+        mockMvc.perform(get("/dashboard").session(session))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("user", hasProperty("telephone", is("0612345678"))));
+    }
+
+    private MockHttpSession connecter() throws Exception {
+        Patient patient = patientRepository.save(new Patient("Dupont", "Marie", EMAIL));
+        User compte = new User(EMAIL, passwordEncoder.encode(MOT_DE_PASSE), Role.PATIENT);
+        compte.setPatient(patient);
+        userRepository.save(compte);
+
+        return (MockHttpSession) mockMvc.perform(formLogin("/login").user(EMAIL).password(MOT_DE_PASSE))
+                .andExpect(redirectedUrl("/dashboard"))
+                .andReturn().getRequest().getSession(false);
+    }
+
+    private static UtilisateurConnecte principal(MockHttpSession session) {
+        SecurityContext contexte = (SecurityContext) session.getAttribute(
+                HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+        return (UtilisateurConnecte) contexte.getAuthentication().getPrincipal();
+    }
+}
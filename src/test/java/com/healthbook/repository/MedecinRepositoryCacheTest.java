@@ -0,0 +1,96 @@
+package com.healthbook.repository;
+
+import com.healthbook.entity.Medecin;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cache de second niveau et cache de requêtes sur les médecins, transactions réellement commitées.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MedecinRepositoryCacheTest {
+
+    @Autowired
+    private MedecinRepository medecinRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistiques;
+    private Medecin martin;
+
+    @BeforeEach
+    void setUp() {
+        martin = medecinRepository.save(new Medecin("Martin", "Jean", "Cardiologie", "martin@email.com"));
+        medecinRepository.save(new Medecin("Bernard", "Sophie", "Pédiatrie", "bernard@email.com"));
+        entityManagerFactory.getCache().evictAll();
+        statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        medecinRepository.deleteAll();
+    }
+
+    @Test
+    void findById_DeuxiemeLecture_ServieParLeCache() {
+        // Given
+        medecinRepository.findById(martin.getId()).orElseThrow();
+        long requetes = statistiques.getPrepareStatementCount();
+
+        // When
+        Medecin relu = medecinRepository.findById(martin.getId()).orElseThrow();
+
+        // Then
+        assertEquals("Martin", relu.getNom());
+        assertEquals(requetes, statistiques.getPrepareStatementCount());
+        assertEquals(1, statistiques.getDomainDataRegionStatistics(Medecin.class.getName()).getHitCount());
+    }
+
+    @Test
+    void findAll_DeuxiemeAppel_SansRequeteSql() {
+        // Given
+        medecinRepository.findAll();
+        long requetes = statistiques.getPrepareStatementCount();
+
+        // When
+        List<Medecin> medecins = medecinRepository.findAll();
+
+        // Then
+        assertEquals(2, medecins.size());
+        assertEquals(requetes, statistiques.getPrepareStatementCount());
+        assertEquals(1, statistiques.getQueryCacheHitCount());
+    }
+
+    @Test
+    void findAllSpecialites_EnCacheEtInvalideeParUneEcriture() {
+        // Given
+        assertEquals(List.of("Cardiologie", "Pédiatrie"), medecinRepository.findAllSpecialites());
+        long requetes = statistiques.getPrepareStatementCount();
+        assertEquals(List.of("Cardiologie", "Pédiatrie"), medecinRepository.findAllSpecialites());
+        assertEquals(requetes, statistiques.getPrepareStatementCount());
+
+        // When
+        medecinRepository.save(new Medecin("Petit", "Luc", "Dermatologie", "petit@email.com"));
+
+        // Then
+        assertEquals(List.of("Cardiologie", "Dermatologie", "Pédiatrie"), medecinRepository.findAllSpecialites());
+    }
+}
@@ -0,0 +1,275 @@
+package com.healthbook.repository;
+
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Patient;
+import com.healthbook.entity.RendezVous;
+import com.healthbook.service.ExportRendezVousService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EXPLAIN de chaque requête déclarée dans les repositories RendezVous, Patient et Medecin et des exports,
+ * sur le schéma des migrations Flyway : aucune ne doit parcourir toute une table ou tout un index,
+ * hormis les lectures complètes voulues listées ci-dessous.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.healthbook.repository.PlansRequetesTest$RequetesCapturees",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+class PlansRequetesTest {
+
+    // Plan H2 : « /* PUBLIC.IDX_RDV_DATE: DATE_HEURE >= ?1 */ » ; sans condition, tout est parcouru
+    private static final Pattern ACCES = Pattern.compile("/\\* (PUBLIC\\.[^:*]+?)(: [^*]+)? \\*/");
+
+    private static final Set<String> PARCOURS_COMPLETS_ATTENDUS = Set.of(
+            // Listes et exports complets
+            "RendezVousRepository.findAll",
+            "ExportRendezVousService.REQUETE_EXPORT",
+            "MedecinRepository.findAll",
+            // Comptages et chargements de tout l'annuaire (index en mémoire, imports)
+            "RendezVousRepository.countParStatut",
+            "PatientRepository.count",
+            "PatientRepository.findAllIds",
+            "PatientRepository.findAllEmails",
+            "PatientRepository.findAllPourRecherche",
+            "MedecinRepository.findAllIds",
+            "MedecinRepository.findAllEmails",
+            "MedecinRepository.findAllPourSuggestion",
+            "MedecinRepository.findAllSpecialites",
+            // LIKE '%…%' : aucun index B-tree ne s'applique (recherche servie par les index en mémoire)
+            "PatientRepository.findByNomContainingIgnoreCase",
+            "PatientRepository.findByPrenomContainingIgnoreCase",
+            "MedecinRepository.findByNomContainingIgnoreCase"
+    );
+
+    @Autowired
+    private RendezVousRepository rendezVousRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MedecinRepository medecinRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Patient patient;
+    private Medecin medecin;
+    private final LocalDateTime debut = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+    @BeforeEach
+    void setUp() {
+        // Assez de lignes pour que l'optimiseur préfère les index à un parcours de la table
+        String[] specialites = {"Cardiologie", "Dermatologie", "Pédiatrie", "Radiologie"};
+        List<Medecin> medecins = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Medecin m = new Medecin("Medecin" + i, "Prenom" + i, specialites[i % specialites.length], "medecin" + i + "@email.com");
+            entityManager.persist(m);
+            medecins.add(m);
+        }
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Patient p = new Patient("Patient" + i, "Prenom" + i, "patient" + i + "@email.com");
+            entityManager.persist(p);
+            patients.add(p);
+        }
+        RendezVous.StatutRDV[] statuts = RendezVous.StatutRDV.values();
+        for (int i = 0; i < 500; i++) {
+            RendezVous rdv = new RendezVous(patients.get(i % patients.size()), medecins.get(i % medecins.size()),
+                    debut.plusMinutes(30L * i), "RDV " + i);
+            rdv.setStatut(statuts[i % statuts.length]);
+            entityManager.persist(rdv);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        patient = patients.get(0);
+        medecin = medecins.get(0);
+    }
+
+    @Test
+    void requetes_ToutesVerifiees() {
+        // Given
+        Set<String> declarees = new TreeSet<>();
+        for (Class<?> repository : List.of(RendezVousRepository.class, PatientRepository.class, MedecinRepository.class)) {
+            Arrays.stream(repository.getDeclaredMethods())
+                    .filter(methode -> !methode.isDefault() && !methode.isSynthetic())
+                    .map(Method::getName)
+                    .forEach(nom -> declarees.add(repository.getSimpleName() + "." + nom));
+        }
+
+        // Then : une nouvelle requête doit être ajoutée à requetes()
+        declarees.removeAll(requetes().keySet());
+        assertEquals(Set.of(), declarees);
+    }
+
+    @Test
+    void requetes_SansParcoursComplet() {
+        // Given
+        List<String> parcoursComplets = new ArrayList<>();
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+
+        for (Map.Entry<String, Runnable> requete : requetes().entrySet()) {
+            // When : SQL généré par Hibernate, hors caches
+            cache.evictAllRegions();
+            RequetesCapturees.SQL.clear();
+            requete.getValue().run();
+            List<String> selects = RequetesCapturees.SQL.stream()
+                    .filter(sql -> sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select"))
+                    .toList();
+            assertFalse(selects.isEmpty(), "Aucune requête SQL pour " + requete.getKey());
+
+            Set<String> acces = new TreeSet<>();
+            for (String sql : selects) {
+                acces.addAll(parcoursComplets(plan(sql)));
+            }
+
+            // Then
+            boolean attendu = PARCOURS_COMPLETS_ATTENDUS.contains(requete.getKey());
+            if (!acces.isEmpty() && !attendu) {
+                parcoursComplets.add(requete.getKey() + " -> " + acces);
+            }
+        }
+        assertEquals(List.of(), parcoursComplets);
+    }
+
+    // ========================
+    // MÉTHODES PRIVÉES
+    // ========================
+    private Map<String, Runnable> requetes() {
+        LocalDateTime fin = debut.plusDays(7);
+        Long patientId = patient.getId();
+        Long medecinId = medecin.getId();
+        Map<String, Runnable> requetes = new LinkedHashMap<>();
+
+        requetes.put("RendezVousRepository.findAll", () -> rendezVousRepository.findAll());
+        requetes.put("ExportRendezVousService.REQUETE_EXPORT", () -> premier(entityManager
+                .createQuery(ExportRendezVousService.REQUETE_EXPORT, RendezVous.class).getResultStream()));
+        requetes.put("ExportRendezVousService.REQUETE_EXPORT_MEDECIN", () -> premier(entityManager
+                .createQuery(ExportRendezVousService.REQUETE_EXPORT_MEDECIN, RendezVous.class)
+                .setParameter("medecinId", medecinId).getResultStream()));
+        requetes.put("RendezVousRepository.findByPatient", () -> rendezVousRepository.findByPatient(patient));
+        requetes.put("RendezVousRepository.findByMedecin", () -> rendezVousRepository.findByMedecin(medecin));
+        requetes.put("RendezVousRepository.findByStatut", () -> rendezVousRepository.findByStatut(RendezVous.StatutRDV.EN_ATTENTE));
+        requetes.put("RendezVousRepository.findByDateHeureBetween", () -> rendezVousRepository.findByDateHeureBetween(debut, fin));
+        requetes.put("RendezVousRepository.findByMedecinAndPeriode", () -> rendezVousRepository.findByMedecinAndPeriode(medecinId, debut, fin));
+        requetes.put("RendezVousRepository.countRendezVousByMedecinAndDateHeure", () -> rendezVousRepository.countRendezVousByMedecinAndDateHeure(medecin, debut));
+        requetes.put("RendezVousRepository.findCreneauxOccupes", () -> rendezVousRepository.findCreneauxOccupes(medecinId, debut));
+        requetes.put("RendezVousRepository.findCreneauxOccupesEntre", () -> rendezVousRepository.findCreneauxOccupesEntre(medecinId, debut, fin));
+        requetes.put("RendezVousRepository.findCreneauxEntre", () -> rendezVousRepository.findCreneauxEntre(debut, fin));
+        requetes.put("RendezVousRepository.findPagePatientAvant", () -> rendezVousRepository.findPagePatientAvant(patientId, fin, Long.MAX_VALUE, Limit.of(20)));
+        requetes.put("RendezVousRepository.findPagePatientApres", () -> rendezVousRepository.findPagePatientApres(patientId, debut, 0L, Limit.of(20)));
+        requetes.put("RendezVousRepository.findPageMedecinAvant", () -> rendezVousRepository.findPageMedecinAvant(medecinId, fin, Long.MAX_VALUE, Limit.of(20)));
+        requetes.put("RendezVousRepository.findPageMedecinApres", () -> rendezVousRepository.findPageMedecinApres(medecinId, debut, 0L, Limit.of(20)));
+        requetes.put("RendezVousRepository.findPageAvant", () -> rendezVousRepository.findPageAvant(fin, Long.MAX_VALUE, Limit.of(20)));
+        requetes.put("RendezVousRepository.findPageApres", () -> rendezVousRepository.findPageApres(debut, 0L, Limit.of(20)));
+        requetes.put("RendezVousRepository.countParStatutPatient", () -> rendezVousRepository.countParStatutPatient(patientId));
+        requetes.put("RendezVousRepository.countParStatut", () -> rendezVousRepository.countParStatut());
+        requetes.put("RendezVousRepository.findProchainsRendezVousPatient", () -> rendezVousRepository.findProchainsRendezVousPatient(patientId, debut, Limit.of(5)));
+        requetes.put("RendezVousRepository.findProchainsRendezVous", () -> rendezVousRepository.findProchainsRendezVous(debut, Limit.of(5)));
+        requetes.put("RendezVousRepository.countRendezVousAVenir", () -> rendezVousRepository.countRendezVousAVenir(debut));
+        requetes.put("RendezVousRepository.findAvecPatientEtMedecin", () -> rendezVousRepository.findAvecPatientEtMedecin(List.of(1L, 2L, 3L)));
+
+        requetes.put("PatientRepository.findByEmail", () -> patientRepository.findByEmail("patient1@email.com"));
+        requetes.put("PatientRepository.findByNomContainingIgnoreCase", () -> patientRepository.findByNomContainingIgnoreCase("ent1"));
+        requetes.put("PatientRepository.findByPrenomContainingIgnoreCase", () -> patientRepository.findByPrenomContainingIgnoreCase("nom1"));
+        requetes.put("PatientRepository.count", () -> patientRepository.count());
+        requetes.put("PatientRepository.findAllIds", () -> patientRepository.findAllIds());
+        requetes.put("PatientRepository.findAllEmails", () -> patientRepository.findAllEmails());
+        requetes.put("PatientRepository.findAllPourRecherche", () -> patientRepository.findAllPourRecherche());
+
+        requetes.put("MedecinRepository.findAll", () -> medecinRepository.findAll());
+        requetes.put("MedecinRepository.findByEmail", () -> medecinRepository.findByEmail("medecin1@email.com"));
+        requetes.put("MedecinRepository.findBySpecialite", () -> medecinRepository.findBySpecialite("Cardiologie"));
+        requetes.put("MedecinRepository.findByNomContainingIgnoreCase", () -> medecinRepository.findByNomContainingIgnoreCase("ecin1"));
+        requetes.put("MedecinRepository.findAllIds", () -> medecinRepository.findAllIds());
+        requetes.put("MedecinRepository.findAllEmails", () -> medecinRepository.findAllEmails());
+        requetes.put("MedecinRepository.findAllPourSuggestion", () -> medecinRepository.findAllPourSuggestion());
+        requetes.put("MedecinRepository.findAllSpecialites", () -> medecinRepository.findAllSpecialites());
+        requetes.put("MedecinRepository.findBySpecialiteAndNomContainingIgnoreCase", () -> medecinRepository.findBySpecialiteAndNomContainingIgnoreCase("Cardiologie", "ecin"));
+        requetes.put("MedecinRepository.findByIdForUpdate", () -> medecinRepository.findByIdForUpdate(medecinId));
+        requetes.put("MedecinRepository.countBySpecialite", () -> medecinRepository.countBySpecialite("Cardiologie"));
+        return requetes;
+    }
+
+    private static void premier(Stream<RendezVous> flux) {
+        try (flux) {
+            flux.findFirst();
+        }
+    }
+
+    // EXPLAIN sur la connexion de la transaction du test ; les paramètres n'influencent pas le plan H2
+    private String plan(String sql) {
+        StringBuilder plan = new StringBuilder();
+        entityManager.unwrap(Session.class).doWork(connexion -> {
+            try (PreparedStatement explain = connexion.prepareStatement("EXPLAIN " + sql)) {
+                int parametres = explain.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parametres; i++) {
+                    explain.setObject(i, null);
+                }
+                try (ResultSet resultat = explain.executeQuery()) {
+                    while (resultat.next()) {
+                        plan.append(resultat.getString(1));
+                    }
+                }
+            }
+        });
+        return plan.toString();
+    }
+
+    // Accès sans condition : « PUBLIC.TABLE.tableScan » ou index parcouru en entier
+    private static List<String> parcoursComplets(String plan) {
+        List<String> acces = new ArrayList<>();
+        Matcher matcher = ACCES.matcher(plan);
+        while (matcher.find()) {
+            if (matcher.group(2) == null) {
+                acces.add(matcher.group(1));
+            }
+        }
+        return acces;
+    }
+
+    public static class RequetesCapturees implements StatementInspector {
+
+        private static final long serialVersionUID = 1L;
+
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.healthbook.repository;
+
+import com.healthbook.dto.NombreParStatut;
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Patient;
+import com.healthbook.entity.RendezVous;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+class RendezVousRepositoryTest {
+
+    @Autowired
+    private RendezVousRepository rendezVousRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Patient patient;
+    private Medecin medecin;
+    private final LocalDateTime debut = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+    @BeforeEach
+    void setUp() {
+        patient = new Patient("Dupont", "Marie", "dupont@email.com");
+        medecin = new Medecin("Martin", "Jean", "Cardiologie", "martin@email.com");
+        Patient autrePatient = new Patient("Durand", "Paul", "durand@email.com");
+        entityManager.persist(patient);
+        entityManager.persist(medecin);
+        entityManager.persist(autrePatient);
+
+        // 5 RDV pour le patient, dont deux à la même heure (départagés par l'id)
+        for (int i = 0; i < 4; i++) {
+            entityManager.persist(new RendezVous(patient, medecin, debut.plusHours(i), "RDV " + i));
+        }
+        entityManager.persist(new RendezVous(patient, medecin, debut.plusHours(2), "RDV 2 bis"));
+        entityManager.persist(new RendezVous(autrePatient, medecin, debut.plusHours(1), "Autre patient"));
+        entityManager.flush();
+    }
+
+    @Test
+    void findPagePatientAvant_ParcoursComplet_SansDoublonNiOubli() {
+        // Given
+        LocalDateTime date = LocalDateTime.of(9999, 12, 31, 23, 59);
+        Long id = Long.MAX_VALUE;
+
+        // When : pages de 2 en suivant le dernier élément de chaque page
+        List<RendezVous> page1 = rendezVousRepository.findPagePatientAvant(patient.getId(), date, id, Limit.of(2));
+        RendezVous dernier1 = page1.get(1);
+        List<RendezVous> page2 = rendezVousRepository.findPagePatientAvant(
+                patient.getId(), dernier1.getDateHeure(), dernier1.getId(), Limit.of(2));
+        RendezVous dernier2 = page2.get(1);
+        List<RendezVous> page3 = rendezVousRepository.findPagePatientAvant(
+                patient.getId(), dernier2.getDateHeure(), dernier2.getId(), Limit.of(2));
+
+        // Then
+        assertEquals(List.of("RDV 3", "RDV 2 bis"), page1.stream().map(RendezVous::getMotif).toList());
+        assertEquals(List.of("RDV 2", "RDV 1"), page2.stream().map(RendezVous::getMotif).toList());
+        assertEquals(List.of("RDV 0"), page3.stream().map(RendezVous::getMotif).toList());
+    }
+
+    @Test
+    void findPagePatientApres_RetourArriere_OrdreCroissant() {
+        // Given : curseur sur "RDV 1"
+        RendezVous rdv1 = rendezVousRepository.findByPatient(patient).stream()
+                .filter(rdv -> rdv.getMotif().equals("RDV 1")).findFirst().orElseThrow();
+
+        // When
+        List<RendezVous> page = rendezVousRepository.findPagePatientApres(
+                patient.getId(), rdv1.getDateHeure(), rdv1.getId(), Limit.of(2));
+
+        // Then
+        assertEquals(List.of("RDV 2", "RDV 2 bis"), page.stream().map(RendezVous::getMotif).toList());
+    }
+
+    @Test
+    void countParStatutPatient_UneLigneParStatutPresent() {
+        // Given
+        RendezVous annule = rendezVousRepository.findByPatient(patient).get(0);
+        annule.setStatut(RendezVous.StatutRDV.ANNULE);
+        entityManager.flush();
+
+        // When
+        Map<RendezVous.StatutRDV, Long> nombres = rendezVousRepository.countParStatutPatient(patient.getId()).stream()
+                .collect(Collectors.toMap(NombreParStatut::statut, NombreParStatut::nombre));
+
+        // Then : l'autre patient n'est pas compté
+        assertEquals(Map.of(RendezVous.StatutRDV.EN_ATTENTE, 4L, RendezVous.StatutRDV.ANNULE, 1L), nombres);
+    }
+
+    @Test
+    void findProchainsRendezVousPatient_IgnoreLesAnnulesEtLePasse() {
+        // Given : le premier RDV du patient est annulé
+        RendezVous premier = rendezVousRepository.findByPatient(patient).stream()
+                .filter(rdv -> rdv.getMotif().equals("RDV 0")).findFirst().orElseThrow();
+        premier.setStatut(RendezVous.StatutRDV.ANNULE);
+        entityManager.flush();
+
+        // When
+        List<RendezVous> prochains = rendezVousRepository.findProchainsRendezVousPatient(
+                patient.getId(), debut, Limit.of(1));
+
+        // Then
+        assertEquals(List.of("RDV 1"), prochains.stream().map(RendezVous::getMotif).toList());
+    }
+
+    @Test
+    void findRendezVousByMedecinAndDate_PlageDuJour_BornesIncluseEtExclue() {
+        // Given : un RDV à minuit pile le jour même et un autre à minuit le lendemain
+        LocalDateTime minuit = debut.toLocalDate().atStartOfDay();
+        entityManager.persist(new RendezVous(patient, medecin, minuit, "Minuit"));
+        entityManager.persist(new RendezVous(patient, medecin, minuit.plusDays(1), "Lendemain"));
+        entityManager.flush();
+
+        // When
+        List<RendezVous> jour = rendezVousRepository.findRendezVousByMedecinAndDate(medecin, debut.plusHours(5));
+
+        // Then : triés par heure, lendemain exclu
+        assertEquals("Minuit", jour.get(0).getMotif());
+        assertEquals(7, jour.size());
+        assertTrue(jour.stream().noneMatch(rdv -> rdv.getMotif().equals("Lendemain")));
+    }
+}
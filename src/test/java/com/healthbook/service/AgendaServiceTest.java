@@ -0,0 +1,76 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.AgendaMedecin;
+import com.healthbook.dto.JourAgenda;
+import com.healthbook.entity.RendezVous;
+import com.healthbook.repository.RendezVousRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AgendaServiceTest {
+
+    @Mock
+    private RendezVousRepository rendezVousRepository;
+
+    @InjectMocks
+    private AgendaService agendaService;
+
+    @Test
+    void getAgenda_Semaine_DuLundiAuLundiSuivantAvecJoursVides() {
+        // Given : un jeudi, deux RDV le mardi et un le dimanche soir
+        LocalDate jeudi = LocalDate.of(2030, 1, 10);
+        LocalDateTime lundi = LocalDate.of(2030, 1, 7).atStartOfDay();
+        List<RendezVous> rdvs = List.of(
+                rendezVous(lundi.plusDays(1).plusHours(9)),
+                rendezVous(lundi.plusDays(1).plusHours(14)),
+                rendezVous(lundi.plusDays(6).plusHours(23)));
+        when(rendezVousRepository.findByMedecinAndPeriode(1L, lundi, lundi.plusWeeks(1))).thenReturn(rdvs);
+
+        // When
+        AgendaMedecin agenda = agendaService.getAgenda(1L, jeudi, AgendaMedecin.Vue.SEMAINE);
+
+        // Then
+        assertEquals(7, agenda.jours().size());
+        assertEquals(List.of(0, 2, 0, 0, 0, 0, 1),
+                agenda.jours().stream().map(jour -> jour.rendezVous().size()).toList());
+        assertEquals(3, agenda.nombreRendezVous());
+        assertEquals(LocalDate.of(2029, 12, 31), agenda.precedent());
+        assertEquals(LocalDate.of(2030, 1, 14), agenda.suivant());
+        verify(rendezVousRepository, times(1)).findByMedecinAndPeriode(anyLong(), any(), any());
+    }
+
+    @Test
+    void getAgenda_Mois_TousLesJoursDuMois() {
+        // Given
+        LocalDateTime premierFevrier = LocalDate.of(2030, 2, 1).atStartOfDay();
+        when(rendezVousRepository.findByMedecinAndPeriode(1L, premierFevrier, premierFevrier.plusMonths(1)))
+                .thenReturn(List.of(rendezVous(premierFevrier.plusDays(27).plusHours(10))));
+
+        // When
+        AgendaMedecin agenda = agendaService.getAgenda(1L, LocalDate.of(2030, 2, 15), AgendaMedecin.Vue.MOIS);
+
+        // Then
+        assertEquals(28, agenda.jours().size());
+        JourAgenda dernierJour = agenda.jours().get(27);
+        assertEquals(LocalDate.of(2030, 2, 28), dernierJour.date());
+        assertEquals(1, dernierJour.rendezVous().size());
+        assertEquals(LocalDate.of(2030, 1, 1), agenda.precedent());
+    }
+
+    private static RendezVous rendezVous(LocalDateTime dateHeure) {
+        RendezVous rdv = new RendezVous();
+        rdv.setDateHeure(dateHeure);
+        return rdv;
+    }
+}
@@ -0,0 +1,63 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.RapportImport;
+import com.healthbook.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Import de 50 000 patients sur H2, lots réellement commités : moins de 10 s attendues.
+ * Lancer avec : mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@Import({AnnuaireImportService.class, PatientRechercheIndex.class, MedecinSuggestionIndex.class, StatistiquesAccueilService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AnnuaireImportBenchmarkTest {
+
+    private static final int LIGNES = 50_000;
+    private static final long DUREE_MAX_MILLIS = 10_000;
+
+    @Autowired
+    private AnnuaireImportService importService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void importerPatients_50000Lignes_MoinsDe10Secondes() {
+        StringBuilder csv = new StringBuilder("nom;prenom;email;telephone;date_naissance\n");
+        for (int i = 0; i < LIGNES; i++) {
+            csv.append("Nom").append(i).append(";Prenom;patient").append(i).append("@email.com;06")
+                    .append(String.format("%08d", i)).append(";1980-01-01\n");
+        }
+
+        RapportImport rapport = importService.importerPatients(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        System.out.printf("Import patients : %d lignes en %d ms (%d lignes/s)%n",
+                rapport.lignesImportees(), rapport.dureeMillis(), rapport.lignesParSeconde());
+        assertEquals(LIGNES, rapport.lignesImportees());
+        assertTrue(rapport.dureeMillis() < DUREE_MAX_MILLIS, "Import trop lent : " + rapport.dureeMillis() + " ms");
+    }
+}
@@ -0,0 +1,128 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.RapportImport;
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Patient;
+import com.healthbook.repository.MedecinRepository;
+import com.healthbook.repository.PatientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Import de l'annuaire : les lots JDBC sont réellement commités, d'où le nettoyage après chaque test.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "app.import.taille-lot=2"
+})
+@Import({AnnuaireImportService.class, PatientRechercheIndex.class, MedecinSuggestionIndex.class, StatistiquesAccueilService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AnnuaireImportServiceTest {
+
+    @Autowired
+    private AnnuaireImportService importService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MedecinRepository medecinRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        patientRepository.save(new Patient("Dupont", "Marie", "dupont@email.com"));
+        medecinRepository.save(new Medecin("Martin", "Jean", "Cardiologie", "martin@email.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+        medecinRepository.deleteAll();
+    }
+
+    @Test
+    void importerPatients_LignesValidesEtInvalides_RejetteDoublonsEtErreurs() {
+        // Given
+        String csv = """
+                nom;prenom;email;telephone;date_naissance
+                Bernard;Luc;luc.bernard@email.com;0612345678;1985-04-12
+                Durand;Alice;alice.durand@email.com;;
+                Petit;Paul;DUPONT@email.com;;
+                Roux;Léa;alice.durand@email.com;;
+                Moreau;;moreau@email.com;;
+                Simon;Eva;pas-un-email;;
+                Girard;Tom;tom.girard@email.com;;12/04/1990
+                Lefebvre;Anne;anne.lefebvre@email.com
+                """;
+
+        // When
+        RapportImport rapport = importService.importerPatients(flux(csv));
+
+        // Then
+        assertEquals(8, rapport.lignesLues());
+        assertEquals(3, rapport.lignesImportees());
+        assertEquals(5, rapport.lignesRejetees());
+        assertEquals(5, rapport.erreurs().size());
+        assertTrue(rapport.erreurs().get(0).startsWith("Ligne 4 : email déjà utilisé"), rapport.erreurs().get(0));
+        assertTrue(rapport.erreurs().get(1).startsWith("Ligne 5 : email déjà utilisé"), rapport.erreurs().get(1));
+        assertEquals("Ligne 6 : prénom manquant", rapport.erreurs().get(2));
+        assertTrue(rapport.erreurs().get(3).startsWith("Ligne 7 : email invalide"));
+        assertTrue(rapport.erreurs().get(4).startsWith("Ligne 8 : date de naissance invalide"));
+
+        Patient luc = patientRepository.findByEmail("luc.bernard@email.com").orElseThrow();
+        assertEquals(LocalDate.of(1985, 4, 12), luc.getDateNaissance());
+        assertNotNull(luc.getDateCreation());
+        assertTrue(patientRepository.findByEmail("anne.lefebvre@email.com").isPresent());
+        assertEquals(4, patientRepository.count());
+    }
+
+    @Test
+    void importerMedecins_VideLeCacheDeRequetes() {
+        // Given : la liste des médecins est en cache de requêtes
+        medecinRepository.findAll();
+        Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+        String csv = """
+                Leroy;Anne;Dermatologie;anne.leroy@email.com;0145678910;45,50
+                Petit;Paul;Pédiatrie;martin@email.com;;
+                Roux;Léa;Cardiologie;lea.roux@email.com;;-10
+                """;
+
+        // When
+        RapportImport rapport = importService.importerMedecins(flux(csv));
+
+        // Then
+        assertEquals(1, rapport.lignesImportees());
+        assertEquals(2, rapport.lignesRejetees());
+        assertEquals(new BigDecimal("45.50"),
+                medecinRepository.findByEmail("anne.leroy@email.com").orElseThrow().getTarifConsultation());
+        assertEquals(2, medecinRepository.findAll().size(), "Liste servie depuis un cache périmé");
+        assertEquals(0, statistiques.getQueryCacheHitCount());
+    }
+
+    private static ByteArrayInputStream flux(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,131 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.Creneau;
+import com.healthbook.dto.CreneauLibre;
+import com.healthbook.entity.Medecin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CreneauxLibresServiceTest {
+
+    @Mock
+    private MedecinService medecinService;
+
+    @Mock
+    private DisponibiliteIndex disponibiliteIndex;
+
+    private CreneauxLibresService creneauxLibresService;
+
+    // Un lundi à venir, 7h00 (avant l'ouverture)
+    private final LocalDateTime lundi7h = LocalDate.now()
+            .with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atTime(7, 0);
+
+    @BeforeEach
+    void setUp() {
+        creneauxLibresService = service(8, 18, 30, EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+    }
+
+    @Test
+    void prochainsCreneauxLibres_FusionneLesAgendasParDate() {
+        // Given : le Dr 1 est occupé à 8h00, le Dr 2 est libre
+        Medecin dr1 = medecin(1L, "Martin");
+        Medecin dr2 = medecin(2L, "Durand");
+        when(medecinService.getMedecinsBySpecialite("Cardiologie")).thenReturn(List.of(dr1, dr2));
+        when(disponibiliteIndex.creneauxOccupes(eq(1L), any(), any()))
+                .thenReturn(List.of(new Creneau(10L, lundi7h.withHour(8), 30)));
+        when(disponibiliteIndex.creneauxOccupes(eq(2L), any(), any())).thenReturn(List.of());
+
+        // When
+        List<CreneauLibre> creneaux = creneauxLibresService.prochainsCreneauxLibres("Cardiologie", 3, lundi7h);
+
+        // Then
+        assertEquals(3, creneaux.size());
+        assertEquals(2L, creneaux.get(0).medecinId());
+        assertEquals(lundi7h.withHour(8), creneaux.get(0).debut());
+        assertEquals(1L, creneaux.get(1).medecinId());
+        assertEquals(lundi7h.withHour(8).withMinute(30), creneaux.get(1).debut());
+        assertEquals(2L, creneaux.get(2).medecinId());
+        assertEquals(lundi7h.withHour(8).withMinute(30), creneaux.get(2).debut());
+    }
+
+    @Test
+    void prochainsCreneauxLibres_ApresFermeture_ReporteAuJourOuvreSuivant() {
+        // Given : vendredi 17h45, après le dernier créneau de la journée
+        LocalDateTime vendredi = lundi7h.plusDays(4).withHour(17).withMinute(45);
+        when(medecinService.getMedecinsBySpecialite("Cardiologie")).thenReturn(List.of(medecin(1L, "Martin")));
+        when(disponibiliteIndex.creneauxOccupes(eq(1L), any(), any())).thenReturn(List.of());
+
+        // When
+        List<CreneauLibre> creneaux = creneauxLibresService.prochainsCreneauxLibres("Cardiologie", 1, vendredi);
+
+        // Then : lundi suivant à l'ouverture
+        assertEquals(lundi7h.plusWeeks(1).withHour(8), creneaux.get(0).debut());
+    }
+
+    @Test
+    void prochainsCreneauxLibres_AgendaComplet_RetourneVide() {
+        // Given : un RDV couvre tout l'horizon de recherche
+        when(medecinService.getMedecinsBySpecialite("Cardiologie")).thenReturn(List.of(medecin(1L, "Martin")));
+        when(disponibiliteIndex.creneauxOccupes(eq(1L), any(), any()))
+                .thenReturn(List.of(new Creneau(10L, lundi7h, 61 * 24 * 60)));
+
+        // When & Then
+        assertTrue(creneauxLibresService.prochainsCreneauxLibres("Cardiologie", 5, lundi7h).isEmpty());
+    }
+
+    @Test
+    void prochainsCreneauxLibres_RdvChevauchants_ReporteApresLePlusLong() {
+        // Given : 8h00-10h00 et 8h30-9h00 fusionnés, puis 10h15-10h45 qui décale le créneau de 10h00
+        when(medecinService.getMedecinsBySpecialite("Cardiologie")).thenReturn(List.of(medecin(1L, "Martin")));
+        when(disponibiliteIndex.creneauxOccupes(eq(1L), any(), any())).thenReturn(List.of(
+                new Creneau(10L, lundi7h.withHour(8), 120),
+                new Creneau(11L, lundi7h.withHour(8).withMinute(30), 30),
+                new Creneau(12L, lundi7h.withHour(10).withMinute(15), 30)));
+
+        // When
+        List<CreneauLibre> creneaux = creneauxLibresService.prochainsCreneauxLibres("Cardiologie", 2, lundi7h);
+
+        // Then
+        assertEquals(List.of(lundi7h.withHour(11), lundi7h.withHour(11).withMinute(30)),
+                creneaux.stream().map(CreneauLibre::debut).toList());
+        verify(disponibiliteIndex, never()).estDisponible(any(), any(), anyInt());
+    }
+
+    @Test
+    void constructeur_ConfigurationSansCreneau_Refusee() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> service(8, 18, 30, EnumSet.noneOf(DayOfWeek.class)));
+        assertThrows(IllegalArgumentException.class, () -> service(18, 18, 30, EnumSet.of(DayOfWeek.MONDAY)));
+        assertThrows(IllegalArgumentException.class, () -> service(18, 8, 30, EnumSet.of(DayOfWeek.MONDAY)));
+        assertThrows(IllegalArgumentException.class, () -> service(8, 9, 90, EnumSet.of(DayOfWeek.MONDAY)));
+        assertThrows(IllegalArgumentException.class, () -> service(8, 18, 0, EnumSet.of(DayOfWeek.MONDAY)));
+    }
+
+    private CreneauxLibresService service(int ouverture, int fermeture, int dureeCreneau, Set<DayOfWeek> joursOuvres) {
+        return new CreneauxLibresService(medecinService, disponibiliteIndex, ouverture, fermeture, dureeCreneau, 60, joursOuvres);
+    }
+
+    private static Medecin medecin(Long id, String nom) {
+        Medecin medecin = new Medecin(nom, "Jean", "Cardiologie", nom.toLowerCase() + "@email.com");
+        medecin.setId(id);
+        return medecin;
+    }
+}
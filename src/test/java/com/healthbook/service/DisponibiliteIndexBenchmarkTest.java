@@ -0,0 +1,78 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.Creneau;
+import com.healthbook.repository.RendezVousRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mesure le coût d'un test de chevauchement quand l'historique d'un médecin
+ * passe de 10 000 à 1 000 000 de créneaux. Lancer avec : mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class DisponibiliteIndexBenchmarkTest {
+
+    private static final int REQUETES = 500_000;
+
+    @Test
+    void estDisponible_CoutIndependantDeLHistorique() {
+        double petit = nanosParRequete(10_000);
+        double moyen = nanosParRequete(100_000);
+        double grand = nanosParRequete(1_000_000);
+
+        System.out.printf("Chevauchement : %.0f ns (10k créneaux), %.0f ns (100k), %.0f ns (1M) par requête%n",
+                petit, moyen, grand);
+
+        // Une recherche linéaire serait 10x plus lente à chaque palier. Entre 100k et 1M,
+        // les deux jeux dépassent le cache CPU : seule la complexité de l'index compte.
+        assertTrue(grand < moyen * 3, "Le coût ne doit pas croître linéairement avec l'historique");
+    }
+
+    private static double nanosParRequete(int nbCreneaux) {
+        LocalDateTime origine = LocalDate.now().plusDays(1).atTime(8, 0);
+        List<Creneau> creneaux = new ArrayList<>(nbCreneaux);
+        for (int i = 0; i < nbCreneaux; i++) {
+            // Un RDV de 30 min toutes les 45 min : des trous de 15 min entre chaque créneau
+            creneaux.add(new Creneau((long) i, origine.plusMinutes(45L * i), 30));
+        }
+
+        RendezVousRepository repository = mock(RendezVousRepository.class);
+        when(repository.findCreneauxOccupes(anyLong(), any())).thenReturn(creneaux);
+        DisponibiliteIndex index = new DisponibiliteIndex(repository);
+
+        long etendueMinutes = 45L * nbCreneaux;
+        ThreadLocalRandom aleatoire = ThreadLocalRandom.current();
+        LocalDateTime[] requetes = new LocalDateTime[REQUETES];
+        for (int i = 0; i < REQUETES; i++) {
+            requetes[i] = origine.plusMinutes(aleatoire.nextLong(etendueMinutes));
+        }
+        int disponibles = 0;
+
+        // Échauffement du JIT puis mesure
+        for (int passe = 0; passe < 2; passe++) {
+            long debut = System.nanoTime();
+            for (LocalDateTime dateHeure : requetes) {
+                if (index.estDisponible(1L, dateHeure, 15)) {
+                    disponibles++;
+                }
+            }
+            if (passe == 1) {
+                assertTrue(disponibles > 0);
+                return (System.nanoTime() - debut) / (double) REQUETES;
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
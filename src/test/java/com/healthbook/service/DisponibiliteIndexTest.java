@@ -0,0 +1,131 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.Creneau;
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.RendezVous;
+import com.healthbook.repository.RendezVousRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DisponibiliteIndexTest {
+
+    @Mock
+    private RendezVousRepository rendezVousRepository;
+
+    @InjectMocks
+    private DisponibiliteIndex disponibiliteIndex;
+
+    private final LocalDateTime demain10h = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+    @Test
+    void estDisponible_CreneauDejaPris_RetourneFalse() {
+        // Given
+        when(rendezVousRepository.findCreneauxOccupes(eq(1L), any()))
+            .thenReturn(List.of(new Creneau(10L, demain10h, 30)));
+
+        // When & Then
+        assertFalse(disponibiliteIndex.estDisponible(1L, demain10h, 30));
+        assertTrue(disponibiliteIndex.estDisponible(1L, demain10h.plusHours(1), 30));
+    }
+
+    @Test
+    void estDisponible_ChevauchementPartiel_RetourneFalse() {
+        // Given : RDV de 30 min à 10h00
+        when(rendezVousRepository.findCreneauxOccupes(eq(1L), any()))
+            .thenReturn(List.of(new Creneau(10L, demain10h, 30)));
+
+        // When & Then
+        assertFalse(disponibiliteIndex.estDisponible(1L, demain10h.plusMinutes(15), 30));
+        assertFalse(disponibiliteIndex.estDisponible(1L, demain10h.minusMinutes(15), 30));
+        assertTrue(disponibiliteIndex.estDisponible(1L, demain10h.plusMinutes(30), 30));
+        assertTrue(disponibiliteIndex.estDisponible(1L, demain10h.minusMinutes(30), 30));
+    }
+
+    @Test
+    void estDisponible_RendezVousLongAnterieur_RetourneFalse() {
+        // Given : RDV de 2h à 8h00, suivi d'un RDV court à 9h00
+        when(rendezVousRepository.findCreneauxOccupes(eq(1L), any()))
+            .thenReturn(List.of(new Creneau(10L, demain10h.minusHours(2), 120),
+                                new Creneau(11L, demain10h.minusHours(1), 15)));
+
+        // When & Then : 9h30 est encore couvert par le RDV de 8h00
+        assertFalse(disponibiliteIndex.estDisponible(1L, demain10h.minusMinutes(30), 15));
+        assertTrue(disponibiliteIndex.estDisponible(1L, demain10h, 15));
+    }
+
+    @Test
+    void creneauxOccupes_ChevauchantLaPeriode_TriesParDebut() {
+        // Given : RDV de 2h la veille au soir, RDV à 9h00 et à 10h00, RDV le surlendemain
+        when(rendezVousRepository.findCreneauxOccupes(eq(1L), any()))
+            .thenReturn(List.of(new Creneau(13L, demain10h.plusDays(1), 30),
+                                new Creneau(12L, demain10h, 30),
+                                new Creneau(11L, demain10h.minusHours(1), 15),
+                                new Creneau(10L, demain10h.minusHours(11), 120)));
+
+        // When
+        List<Creneau> occupes = disponibiliteIndex.creneauxOccupes(1L, demain10h.minusHours(10), demain10h.plusHours(2));
+
+        // Then
+        assertEquals(List.of(10L, 11L, 12L), occupes.stream().map(Creneau::rendezVousId).toList());
+    }
+
+    @Test
+    void estDisponible_ChargeLeCalendrierUneSeuleFois() {
+        // Given
+        when(rendezVousRepository.findCreneauxOccupes(eq(1L), any())).thenReturn(List.of());
+
+        // When
+        disponibiliteIndex.estDisponible(1L, demain10h, 30);
+        disponibiliteIndex.estDisponible(1L, demain10h.plusHours(1), 30);
+        disponibiliteIndex.estDisponible(1L, demain10h.plusHours(2), 30);
+
+        // Then
+        verify(rendezVousRepository, times(1)).findCreneauxOccupes(eq(1L), any());
+    }
+
+    @Test
+    void enregistrerPuisLiberer_MetAJourLeCalendrier() {
+        // Given
+        when(rendezVousRepository.findCreneauxOccupes(eq(1L), any())).thenReturn(List.of());
+        RendezVous rdv = rendezVous(20L, 1L, demain10h);
+        assertTrue(disponibiliteIndex.estDisponible(1L, demain10h, 30));
+
+        // When & Then
+        disponibiliteIndex.enregistrer(rdv);
+        assertFalse(disponibiliteIndex.estDisponible(1L, demain10h, 30));
+
+        disponibiliteIndex.liberer(rdv);
+        assertTrue(disponibiliteIndex.estDisponible(1L, demain10h, 30));
+    }
+
+    @Test
+    void enregistrer_CalendrierNonCharge_NeChargePasLaBase() {
+        // When
+        disponibiliteIndex.enregistrer(rendezVous(20L, 1L, demain10h));
+
+        // Then
+        verify(rendezVousRepository, never()).findCreneauxOccupes(any(), any());
+    }
+
+    private static RendezVous rendezVous(Long id, Long medecinId, LocalDateTime dateHeure) {
+        Medecin medecin = new Medecin();
+        medecin.setId(medecinId);
+        RendezVous rdv = new RendezVous();
+        rdv.setId(id);
+        rdv.setMedecin(medecin);
+        rdv.setDateHeure(dateHeure);
+        return rdv;
+    }
+}
@@ -0,0 +1,205 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.MessageNotification;
+import com.healthbook.dto.StatistiquesNotifications;
+import com.healthbook.entity.Notification;
+import com.healthbook.entity.Notification.StatutNotification;
+import com.healthbook.entity.Notification.TypeNotification;
+import com.healthbook.repository.NotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Distribution des notifications : réservation et résultat sont réellement commités,
+ * d'où le nettoyage après chaque test. Délai initial nul : un message refusé est réessayé aussitôt.
+ * Passage périodique repoussé : les tests appellent distribuer() eux-mêmes.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.hibernate.SQL=WARN",
+        "app.notifications.taille-lot=2",
+        "app.notifications.tentatives-max=3",
+        "app.notifications.delai-initial-ms=0",
+        "app.notifications.intervalle-ms=3600000"
+})
+@Import({DistributeurNotifications.class, DistributeurNotificationsTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DistributeurNotificationsTest {
+
+    @Autowired
+    private DistributeurNotifications distributeur;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ExpediteurMemoire expediteur;
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+        expediteur.reinitialiser();
+    }
+
+    @Test
+    void distribuer_PlusieursLots_ToutEnvoyeUneFois() {
+        // Given
+        for (int i = 1; i <= 5; i++) {
+            notificationRepository.save(notification("cle-" + i));
+        }
+        long envoyeesAvant = distributeur.statistiques().envoyees();
+
+        // When
+        int traitees = distributeur.distribuer();
+
+        // Then
+        assertEquals(5, traitees);
+        assertEquals(List.of(2, 2, 1), expediteur.taillesLots);
+        assertEquals(5, notificationRepository.countByStatut(StatutNotification.ENVOYEE));
+        assertEquals(0, distributeur.distribuer(), "Message envoyé repris");
+        StatistiquesNotifications statistiques = distributeur.statistiques();
+        assertEquals(5, statistiques.envoyees() - envoyeesAvant);
+        assertEquals(0, statistiques.enAttente());
+    }
+
+    @Test
+    void distribuer_MessageRefuse_ReessaiPuisAbandon_SansBloquerLesAutres() {
+        // Given
+        notificationRepository.save(notification("ok"));
+        notificationRepository.save(notification("refuse"));
+        expediteur.refusees.add("refuse");
+        StatistiquesNotifications avant = distributeur.statistiques();
+
+        // When : 2 essais au premier passage (le lot suivant est échu aussitôt), le dernier au second
+        distributeur.distribuer();
+        distributeur.distribuer();
+
+        // Then
+        Notification envoyee = notificationRepository.findByJeton(null).stream()
+                .filter(n -> n.getCle().equals("ok")).findFirst().orElseThrow();
+        Notification abandonnee = notificationRepository.findByJeton(null).stream()
+                .filter(n -> n.getCle().equals("refuse")).findFirst().orElseThrow();
+        assertEquals(StatutNotification.ENVOYEE, envoyee.getStatut());
+        assertEquals(StatutNotification.ECHEC, abandonnee.getStatut());
+        assertEquals(3, abandonnee.getTentatives());
+        assertEquals("boîte pleine", abandonnee.getDerniereErreur());
+        assertEquals(1, expediteur.recues.stream().filter(m -> m.cle().equals("ok")).count());
+        StatistiquesNotifications apres = distributeur.statistiques();
+        assertEquals(2, apres.nouvellesTentatives() - avant.nouvellesTentatives());
+        assertEquals(1, apres.echecs() - avant.echecs());
+    }
+
+    @Test
+    void distribuer_ExpediteurIndisponible_LotReporte() {
+        // Given
+        Notification notification = notificationRepository.save(notification("cle"));
+        expediteur.indisponible = true;
+
+        // When
+        distributeur.distribuer();
+
+        // Then
+        Notification reportee = notificationRepository.findById(notification.getId()).orElseThrow();
+        assertEquals(StatutNotification.EN_ATTENTE, reportee.getStatut());
+        assertEquals(1, reportee.getTentatives());
+        assertEquals("serveur injoignable", reportee.getDerniereErreur());
+        assertNull(reportee.getJeton());
+    }
+
+    @Test
+    void reserver_LigneDejaReservee_Ignoree() {
+        // Given : réservée par une autre instance, bail en cours
+        Notification notification = notification("cle");
+        notification.setJeton("autre-instance");
+        notification.setProchainEssai(LocalDateTime.now().plusMinutes(1));
+        notificationRepository.save(notification);
+
+        // When
+        int traitees = distributeur.distribuer();
+
+        // Then
+        assertEquals(0, traitees);
+        assertTrue(expediteur.recues.isEmpty());
+        assertEquals(1, distributeur.statistiques().enAttente());
+    }
+
+    @Test
+    void delai_DoubleAChaqueEchec_Plafonne() {
+        // Given
+        DistributeurNotifications avecDelais = new DistributeurNotifications(notificationRepository, null, expediteur,
+                100, 10, 1000, 5000, 60000);
+
+        // Then
+        assertEquals(1000, avecDelais.delai(1));
+        assertEquals(2000, avecDelais.delai(2));
+        assertEquals(4000, avecDelais.delai(3));
+        assertEquals(5000, avecDelais.delai(4));
+        assertEquals(5000, avecDelais.delai(40));
+    }
+
+    private static Notification notification(String cle) {
+        return new Notification(cle, TypeNotification.CONFIRMATION, 1L, "dupont@email.com",
+                "Votre rendez-vous est confirmé", "Bonjour");
+    }
+
+    // ========================
+    // EXPÉDITEUR EN MÉMOIRE (remplace SMTP)
+    // ========================
+    static class ExpediteurMemoire implements ExpediteurNotifications {
+
+        final List<MessageNotification> recues = new ArrayList<>();
+        final List<Integer> taillesLots = new ArrayList<>();
+        final Set<String> refusees = new HashSet<>();
+        boolean indisponible;
+
+        @Override
+        public synchronized Map<String, String> envoyer(List<MessageNotification> lot) {
+            if (indisponible) {
+                throw new IllegalStateException("serveur injoignable");
+            }
+            taillesLots.add(lot.size());
+            Map<String, String> refus = new HashMap<>();
+            for (MessageNotification message : lot) {
+                if (refusees.contains(message.cle())) {
+                    refus.put(message.cle(), "boîte pleine");
+                } else {
+                    recues.add(message);
+                }
+            }
+            return refus;
+        }
+
+        synchronized void reinitialiser() {
+            recues.clear();
+            taillesLots.clear();
+            refusees.clear();
+            indisponible = false;
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        ExpediteurMemoire expediteurMemoire() {
+            return new ExpediteurMemoire();
+        }
+    }
+}
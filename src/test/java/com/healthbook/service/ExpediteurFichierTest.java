@@ -0,0 +1,55 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.MessageNotification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpediteurFichierTest {
+
+    @TempDir
+    Path dossier;
+
+    @Test
+    void envoyer_MemeCleApresRedemarrage_PasDeDoublon() throws Exception {
+        // Given
+        Path fichier = dossier.resolve("notifications/envoi.log");
+        MessageNotification premier = new MessageNotification("a", "dupont@email.com", "Sujet", "Ligne 1\nLigne\t2");
+        MessageNotification second = new MessageNotification("b", "martin@email.com", "Sujet", "Corps");
+
+        // When
+        new ExpediteurFichier(fichier, 100).envoyer(List.of(premier, premier));
+        new ExpediteurFichier(fichier, 100).envoyer(List.of(premier, second));
+
+        // Then
+        List<String> lignes = Files.readAllLines(fichier, StandardCharsets.UTF_8);
+        assertEquals(List.of("a\tdupont@email.com\tSujet\tLigne 1\\nLigne\\t2", "b\tmartin@email.com\tSujet\tCorps"), lignes);
+    }
+
+    @Test
+    void envoyer_ClesRetenuesBornees_SeulesLesDernieresRelues() throws Exception {
+        // Given : un journal plus long que la fin relue au démarrage (2 clés × 1 Kio)
+        Path fichier = dossier.resolve("envoi.log");
+        StringBuilder journal = new StringBuilder("ancienne\tdupont@email.com\tSujet\tCorps\n");
+        for (int i = 0; i < 10; i++) {
+            journal.append("k").append(i).append('\t').append("x".repeat(500)).append('\n');
+        }
+        Files.writeString(fichier, journal, StandardCharsets.UTF_8);
+        ExpediteurFichier expediteur = new ExpediteurFichier(fichier, 2);
+
+        // When
+        expediteur.envoyer(List.of(new MessageNotification("ancienne", "dupont@email.com", "Sujet", "Corps"),
+                new MessageNotification("k9", "dupont@email.com", "Sujet", "Corps")));
+
+        // Then : la clé du début du journal est oubliée, la dernière est reconnue
+        List<String> lignes = Files.readAllLines(fichier, StandardCharsets.UTF_8);
+        assertEquals(12, lignes.size());
+        assertEquals("ancienne\tdupont@email.com\tSujet\tCorps", lignes.get(11));
+    }
+}
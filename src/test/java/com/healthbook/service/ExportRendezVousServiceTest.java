@@ -0,0 +1,122 @@
+package com.healthbook.service;
+
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Patient;
+import com.healthbook.entity.RendezVous;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@Import(ExportRendezVousService.class)
+class ExportRendezVousServiceTest {
+
+    @Autowired
+    private ExportRendezVousService exportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Medecin medecin;
+
+    @BeforeEach
+    void setUp() {
+        Patient patient = new Patient("Dupont", "Marie", "dupont@email.com");
+        medecin = new Medecin("Martin", "Jean", "Cardiologie", "martin@email.com");
+        Medecin autreMedecin = new Medecin("Leroy", "Anne", "Dermatologie", "leroy@email.com");
+        entityManager.persist(patient);
+        entityManager.persist(medecin);
+        entityManager.persist(autreMedecin);
+
+        LocalDateTime debut = LocalDateTime.of(2030, 1, 7, 8, 0);
+        // Assez de RDV pour traverser plusieurs vidages du contexte de persistance
+        for (int i = 0; i < ExportRendezVousService.LIGNES_PAR_VIDAGE + 5; i++) {
+            entityManager.persist(new RendezVous(patient, medecin, debut.plusMinutes(30L * i), "RDV " + i));
+        }
+        RendezVous annule = new RendezVous(patient, autreMedecin, debut, "Douleur; \"aiguë\"\nà revoir");
+        annule.setStatut(RendezVous.StatutRDV.ANNULE);
+        entityManager.persist(annule);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void exporterCsv_ToutesLesLignesDansLOrdre_ChampsEchappes() throws Exception {
+        // Given
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+
+        // When
+        long nombre = exportService.exporterCsv(sortie);
+
+        // Then
+        String csv = sortie.toString(StandardCharsets.UTF_8);
+        assertEquals(ExportRendezVousService.LIGNES_PAR_VIDAGE + 6, nombre);
+        assertTrue(csv.startsWith("id;date_heure;duree;statut;motif;"));
+        assertTrue(csv.contains(";ANNULE;\"Douleur; \"\"aiguë\"\"\nà revoir\";"));
+        assertTrue(csv.contains(";RDV 1004;"));
+        assertTrue(csv.indexOf(";RDV 1;") < csv.indexOf(";RDV 2;"), "Tri par date");
+    }
+
+    @Test
+    void champCsv_DebutDeFormule_PrefixeEtGuillemets() {
+        // When / Then
+        assertEquals("\"'=HYPERLINK(\"\"http://x\"\")\"", ExportRendezVousService.champCsv("=HYPERLINK(\"http://x\")"));
+        assertEquals("\"'+33 6 12\"", ExportRendezVousService.champCsv("+33 6 12"));
+        assertEquals("\"'-2+3\"", ExportRendezVousService.champCsv("-2+3"));
+        assertEquals("\"'@SUM(A1)\"", ExportRendezVousService.champCsv("@SUM(A1)"));
+        assertEquals("\"'\tcmd\"", ExportRendezVousService.champCsv("\tcmd"));
+        assertEquals("\"'\rcmd\"", ExportRendezVousService.champCsv("\rcmd"));
+        assertEquals("Jean-Pierre", ExportRendezVousService.champCsv("Jean-Pierre"));
+        assertEquals("", ExportRendezVousService.champCsv(""));
+    }
+
+    @Test
+    void exporterIcs_SeulementLeMedecin_StatutsEtFinDeLigneCrlf() throws Exception {
+        // Given
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+
+        // When
+        long nombre = exportService.exporterIcs(medecin.getId(), sortie);
+
+        // Then
+        String ics = sortie.toString(StandardCharsets.UTF_8);
+        assertEquals(ExportRendezVousService.LIGNES_PAR_VIDAGE + 5, nombre);
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(ics.contains("DTSTART:20300107T080000\r\nDTEND:20300107T083000\r\nSUMMARY:RDV Dupont Marie\r\n"));
+        assertTrue(ics.contains("STATUS:TENTATIVE"));
+        assertFalse(ics.contains("Douleur"), "RDV d'un autre médecin exporté");
+    }
+
+    @Test
+    void ligneIcs_Longue_Repliee75Octets() throws Exception {
+        // Given
+        StringWriter ecrivain = new StringWriter();
+        String description = "DESCRIPTION:" + ExportRendezVousService.texteIcs("é".repeat(60) + ", suite; fin");
+
+        // When
+        ExportRendezVousService.ligneIcs(ecrivain, description);
+
+        // Then
+        String[] lignes = ecrivain.toString().split("\r\n");
+        assertTrue(lignes.length > 1);
+        for (String ligne : lignes) {
+            assertTrue(ligne.getBytes(StandardCharsets.UTF_8).length <= 75, ligne);
+        }
+        assertEquals(description, String.join("", ecrivain.toString().split("\r\n ")).trim());
+        assertTrue(description.endsWith("\\, suite\\; fin"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.SuggestionMedecin;
+import com.healthbook.repository.MedecinRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Latence de l'autocomplétion sur 100 000 médecins, saisies de 1 à 6 caractères
+ * (une frappe = une requête). Lancer avec : mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class MedecinSuggestionIndexBenchmarkTest {
+
+    private static final int MEDECINS = 100_000;
+    private static final int REQUETES = 50_000;
+    private static final long P99_MAX_NANOS = 2_000_000;
+    private static final String[] SYLLABES = {"ma", "ri", "lo", "du", "pon", "ber", "nar", "lé", "fè", "vre",
+            "cha", "rel", "mon", "tin", "ga", "bri", "el", "ro", "ché", "san", "tos", "vi", "al", "lin",
+            "bou", "cher", "fa", "ni", "gué", "rin", "mo", "reau", "lau", "rent", "si", "fon", "taine"};
+    private static final String[] SPECIALITES = {"Cardiologie", "Dermatologie", "Pédiatrie", "Généraliste",
+            "Gynécologie", "Ophtalmologie", "Psychiatrie", "Radiologie", "Neurologie", "Rhumatologie"};
+
+    @Test
+    void suggerer_P99SousDeuxMillisecondes() {
+        Random aleatoire = new Random(42);
+        List<SuggestionMedecin> medecins = new ArrayList<>(MEDECINS);
+        for (int i = 0; i < MEDECINS; i++) {
+            medecins.add(new SuggestionMedecin((long) i, mot(aleatoire, 3), mot(aleatoire, 2),
+                    SPECIALITES[aleatoire.nextInt(SPECIALITES.length)]));
+        }
+        MedecinRepository repository = mock(MedecinRepository.class);
+        when(repository.findAllPourSuggestion()).thenReturn(medecins);
+        MedecinSuggestionIndex index = new MedecinSuggestionIndex(repository);
+        index.suggerer("a", 1);
+
+        // Préfixes de noms, prénoms et spécialités existants, parfois avec un second mot
+        String[] requetes = new String[REQUETES];
+        for (int i = 0; i < REQUETES; i++) {
+            SuggestionMedecin medecin = medecins.get(aleatoire.nextInt(MEDECINS));
+            String mot = switch (aleatoire.nextInt(3)) {
+                case 0 -> medecin.nom();
+                case 1 -> medecin.prenom();
+                default -> medecin.specialite();
+            };
+            String requete = mot.substring(0, Math.min(mot.length(), 1 + aleatoire.nextInt(6)));
+            requetes[i] = aleatoire.nextInt(4) == 0 ? requete + " " + medecin.specialite().substring(0, 3) : requete;
+        }
+        for (int i = 0; i < 5_000; i++) {
+            index.suggerer(requetes[i], 10);
+        }
+
+        long[] durees = new long[REQUETES];
+        for (int i = 0; i < REQUETES; i++) {
+            long debut = System.nanoTime();
+            index.suggerer(requetes[i], 10);
+            durees[i] = System.nanoTime() - debut;
+        }
+        Arrays.sort(durees);
+        long mediane = durees[REQUETES / 2];
+        long p99 = durees[REQUETES * 99 / 100];
+
+        System.out.printf("Suggestions médecins (100k) : médiane %d µs, p99 %d µs%n", mediane / 1_000, p99 / 1_000);
+        assertTrue(p99 < P99_MAX_NANOS, "p99 trop élevé : " + p99 / 1_000 + " µs");
+    }
+
+    private static String mot(Random aleatoire, int syllabes) {
+        StringBuilder mot = new StringBuilder();
+        for (int i = 0; i < syllabes; i++) {
+            mot.append(SYLLABES[aleatoire.nextInt(SYLLABES.length)]);
+        }
+        return Character.toUpperCase(mot.charAt(0)) + mot.substring(1);
+    }
+}
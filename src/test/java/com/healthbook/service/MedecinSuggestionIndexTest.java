@@ -0,0 +1,114 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.SuggestionMedecin;
+import com.healthbook.entity.Medecin;
+import com.healthbook.repository.MedecinRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MedecinSuggestionIndexTest {
+
+    @Mock
+    private MedecinRepository medecinRepository;
+
+    @InjectMocks
+    private MedecinSuggestionIndex index;
+
+    private static final SuggestionMedecin HELENE = new SuggestionMedecin(1L, "Lefèvre", "Hélène", "Cardiologie");
+    private static final SuggestionMedecin HECTOR = new SuggestionMedecin(2L, "Martin", "Hector", "Dermatologie");
+    private static final SuggestionMedecin MARC = new SuggestionMedecin(3L, "Hébert", "Marc", "Cardiologie");
+
+    private static List<Long> ids(List<SuggestionMedecin> suggestions) {
+        return suggestions.stream().map(SuggestionMedecin::id).toList();
+    }
+
+    @Test
+    void suggerer_PrefixeSansAccentsNiMajuscules_OrdreAlphabetique() {
+        // Given
+        when(medecinRepository.findAllPourSuggestion()).thenReturn(List.of(HELENE, HECTOR, MARC));
+
+        // When & Then : hebert < hector < helene
+        assertEquals(List.of(3L, 2L, 1L), ids(index.suggerer("HE", 10)));
+        assertEquals(List.of(1L), ids(index.suggerer("hél", 10)));
+        assertEquals(List.of(1L), ids(index.suggerer("Lefev", 10)));
+        assertEquals(List.of(), ids(index.suggerer("zz", 10)));
+        assertEquals(List.of(), ids(index.suggerer("  ", 10)));
+    }
+
+    @Test
+    void suggerer_SpecialiteEtPlusieursMots() {
+        // Given
+        when(medecinRepository.findAllPourSuggestion()).thenReturn(List.of(HELENE, HECTOR, MARC));
+
+        // When & Then
+        assertEquals(List.of(1L, 3L), ids(index.suggerer("cardio", 10)));
+        assertEquals(List.of(3L), ids(index.suggerer("cardio mar", 10)));
+        assertEquals(List.of(1L), ids(index.suggerer("hel card", 10)));
+        assertEquals(List.of(1L), ids(index.suggerer("cardio", 1)));
+    }
+
+    @Test
+    void suggerer_ChampsAbsents_PasDeMotNull() {
+        // Given : prénom et spécialité non renseignés
+        when(medecinRepository.findAllPourSuggestion()).thenReturn(List.of(
+                new SuggestionMedecin(4L, "Roux", null, null), HELENE));
+
+        // When & Then
+        assertEquals(List.of(), ids(index.suggerer("null", 10)));
+        assertEquals(List.of(), ids(index.suggerer("roux nu", 10)));
+        assertEquals(List.of(4L), ids(index.suggerer("roux", 10)));
+    }
+
+    @Test
+    void indexer_ApresChargement_MiseAJourIncrementale() {
+        // Given
+        when(medecinRepository.findAllPourSuggestion()).thenReturn(List.of(HELENE, HECTOR));
+        assertEquals(List.of(2L), ids(index.suggerer("martin", 10)));
+
+        Medecin modifie = new Medecin("Martinez", "Hector", "Pédiatrie", "hector@email.com");
+        modifie.setId(2L);
+        Medecin nouveau = new Medecin("Roux", "Élodie", "Pédiatrie", "elodie@email.com");
+        nouveau.setId(4L);
+
+        // When
+        index.indexer(modifie);
+        index.indexer(nouveau);
+
+        // Then
+        assertEquals(List.of(2L), ids(index.suggerer("martinez", 10)));
+        assertEquals(List.of(), ids(index.suggerer("dermato", 10)));
+        assertEquals(List.of(2L, 4L), ids(index.suggerer("pedia", 10)));
+        assertEquals("Élodie", index.suggerer("elo", 10).get(0).prenom());
+
+        // When
+        index.retirer(4L);
+
+        // Then
+        assertEquals(List.of(), ids(index.suggerer("roux", 10)));
+        assertEquals(List.of(2L), ids(index.suggerer("pedia", 10)));
+        verify(medecinRepository, times(1)).findAllPourSuggestion();
+    }
+
+    @Test
+    void invalider_RechargeAlaProchaineSuggestion() {
+        // Given
+        when(medecinRepository.findAllPourSuggestion()).thenReturn(List.of(HELENE));
+        index.suggerer("hel", 10);
+
+        // When
+        index.invalider();
+        index.suggerer("hel", 10);
+
+        // Then
+        verify(medecinRepository, times(2)).findAllPourSuggestion();
+    }
+}
@@ -0,0 +1,85 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.PatientRecherche;
+import com.healthbook.repository.PatientRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Temps de recherche sur un million de patients aux noms réalistes (syllabes
+ * aléatoires, accents compris). Lancer avec : mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class PatientRechercheIndexBenchmarkTest {
+
+    private static final int PATIENTS = 1_000_000;
+    private static final int REQUETES = 20_000;
+    private static final long P99_MAX_NANOS = 5_000_000;
+    private static final String[] SYLLABES = {"ma", "ri", "lo", "du", "pon", "ber", "nar", "lé", "fè", "vre",
+            "cha", "rel", "mon", "tin", "ga", "bri", "el", "ro", "ché", "san", "tos", "vi", "al", "lin",
+            "bou", "cher", "fa", "ni", "gué", "rin", "mo", "reau", "lau", "rent", "si", "mon", "fon", "taine",
+            "ler", "oy", "gi", "rard", "bon", "net", "cla", "ude", "co", "lin", "pe", "tit", "ja", "cques",
+            "roux", "dav", "id", "ber", "tho", "mas", "hé", "lène"};
+
+    @Test
+    void rechercher_P99SousCinqMillisecondes() {
+        Random aleatoire = new Random(42);
+        List<PatientRecherche> patients = new ArrayList<>(PATIENTS);
+        for (int i = 0; i < PATIENTS; i++) {
+            String nom = mot(aleatoire, 3);
+            String prenom = mot(aleatoire, 2);
+            patients.add(new PatientRecherche((long) i, nom, prenom, prenom + "." + nom + i + "@email.com",
+                    String.format("06%08d", aleatoire.nextInt(100_000_000))));
+        }
+        PatientRepository repository = mock(PatientRepository.class);
+        when(repository.findAllPourRecherche()).thenReturn(patients);
+        PatientRechercheIndex index = new PatientRechercheIndex(repository);
+
+        long debutChargement = System.nanoTime();
+        index.rechercher("dupont", 1);
+        long chargementMillis = (System.nanoTime() - debutChargement) / 1_000_000;
+
+        // Requêtes tirées des noms existants : préfixes et fragments de 3 à 8 caractères
+        String[] requetes = new String[REQUETES];
+        for (int i = 0; i < REQUETES; i++) {
+            PatientRecherche patient = patients.get(aleatoire.nextInt(PATIENTS));
+            String nom = patient.nom();
+            int debut = aleatoire.nextInt(Math.max(1, nom.length() - 3));
+            requetes[i] = nom.substring(debut, Math.min(nom.length(), debut + 3 + aleatoire.nextInt(6)));
+        }
+        for (int i = 0; i < 2_000; i++) {
+            index.rechercher(requetes[i], PatientService.LIMITE_RECHERCHE);
+        }
+
+        long[] durees = new long[REQUETES];
+        for (int i = 0; i < REQUETES; i++) {
+            long debut = System.nanoTime();
+            index.rechercher(requetes[i], PatientService.LIMITE_RECHERCHE);
+            durees[i] = System.nanoTime() - debut;
+        }
+        Arrays.sort(durees);
+        long mediane = durees[REQUETES / 2];
+        long p99 = durees[REQUETES * 99 / 100];
+
+        System.out.printf("Recherche patients (1M) : chargement %d ms, médiane %d µs, p99 %d µs%n",
+                chargementMillis, mediane / 1_000, p99 / 1_000);
+        assertTrue(p99 < P99_MAX_NANOS, "p99 trop élevé : " + p99 / 1_000 + " µs");
+    }
+
+    private static String mot(Random aleatoire, int syllabes) {
+        StringBuilder mot = new StringBuilder();
+        for (int i = 0; i < syllabes; i++) {
+            mot.append(SYLLABES[aleatoire.nextInt(SYLLABES.length)]);
+        }
+        return Character.toUpperCase(mot.charAt(0)) + mot.substring(1);
+    }
+}
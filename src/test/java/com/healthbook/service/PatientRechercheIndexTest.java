@@ -0,0 +1,148 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.PatientRecherche;
+import com.healthbook.entity.Patient;
+import com.healthbook.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PatientRechercheIndexTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @InjectMocks
+    private PatientRechercheIndex index;
+
+    private void charger(PatientRecherche... patients) {
+        when(patientRepository.findAllPourRecherche()).thenReturn(List.of(patients));
+    }
+
+    @Test
+    void rechercher_SansAccentsNiMajuscules() {
+        // Given
+        charger(new PatientRecherche(1L, "Lefèvre", "Hélène", "helene.lefevre@email.com", null),
+                new PatientRecherche(2L, "Martin", "Jean", "jean.martin@email.com", null));
+
+        // When & Then
+        assertEquals(List.of(1L), index.rechercher("LEFEVRE", 10));
+        assertEquals(List.of(1L), index.rechercher("hélè", 10));
+        assertEquals(List.of(1L), index.rechercher("Helene", 10));
+        assertEquals(List.of(), index.rechercher("dupont", 10));
+    }
+
+    @Test
+    void rechercher_EmailEtTelephone() {
+        // Given
+        charger(new PatientRecherche(1L, "Dupont", "Marie", "marie.d@exemple.fr", "06 12 34 56 78"),
+                new PatientRecherche(2L, "Martin", "Jean", "jean.martin@email.com", "0798765432"));
+
+        // When & Then
+        assertEquals(List.of(2L), index.rechercher("jean.martin@", 10));
+        assertEquals(List.of(1L), index.rechercher("06 12 34", 10));
+        assertEquals(List.of(1L), index.rechercher("0612", 10));
+        assertEquals(List.of(2L), index.rechercher("87654", 10));
+    }
+
+    @Test
+    void rechercher_ClassementPuisLimite() {
+        // Given : "mar" en début de nom, de prénom, d'email puis au milieu d'un mot
+        charger(new PatientRecherche(1L, "Lamarre", "Paul", "paul@email.com", null),
+                new PatientRecherche(2L, "Durand", "Paul", "marcel.durand@email.com", null),
+                new PatientRecherche(3L, "Martin", "Jean", "jean@email.com", null),
+                new PatientRecherche(4L, "Bernard", "Marie", "marie@email.com", null));
+
+        // When
+        List<Long> tous = index.rechercher("mar", 10);
+        List<Long> deux = index.rechercher("mar", 2);
+
+        // Then : nom/prénom, puis email, puis sous-chaîne ; à égalité, ordre d'indexation
+        assertEquals(List.of(3L, 4L, 2L, 1L), tous);
+        assertEquals(List.of(3L, 4L), deux);
+    }
+
+    @Test
+    void rechercher_DeuxCaracteres_DebutDeMotUniquement() {
+        // Given
+        charger(new PatientRecherche(1L, "Leroy", "Anne", "a@email.com", null),
+                new PatientRecherche(2L, "Valet", "Paul", "p@email.com", null));
+
+        // When & Then
+        assertEquals(List.of(1L), index.rechercher("le", 10));
+        assertEquals(List.of(), index.rechercher("l", 10));
+    }
+
+    @Test
+    void indexer_ApresChargement_MiseAJourIncrementale() {
+        // Given
+        charger(new PatientRecherche(1L, "Dupont", "Marie", "marie@email.com", null));
+        assertEquals(List.of(1L), index.rechercher("dupont", 10));
+
+        Patient modifie = new Patient("Durand", "Marie", "marie@email.com");
+        modifie.setId(1L);
+        Patient nouveau = new Patient("Dupontel", "Albert", "albert@email.com");
+        nouveau.setId(2L);
+
+        // When
+        index.indexer(modifie);
+        index.indexer(nouveau);
+
+        // Then
+        assertEquals(List.of(2L), index.rechercher("dupont", 10));
+        assertEquals(List.of(1L), index.rechercher("durand", 10));
+
+        // When
+        index.retirer(2L);
+
+        // Then
+        assertEquals(List.of(), index.rechercher("dupont", 10));
+        assertEquals(1, index.taille());
+        verify(patientRepository, times(1)).findAllPourRecherche();
+    }
+
+    @Test
+    void retirer_NombreuxPatients_CompactageSansRelireLaBase() {
+        // Given
+        List<PatientRecherche> patients = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            patients.add(new PatientRecherche(id, "Nom" + id, "Prenom", "patient" + id + "@email.com", null));
+        }
+        when(patientRepository.findAllPourRecherche()).thenReturn(patients);
+        index.rechercher("nom1", 10);
+
+        // When : plus de la moitié des documents supprimés
+        for (long id = 1; id <= 2000; id++) {
+            index.retirer(id);
+        }
+
+        // Then
+        assertEquals(1000, index.taille());
+        assertEquals(List.of(2999L), index.rechercher("nom2999", 10));
+        assertEquals(List.of(), index.rechercher("nom1999", 10));
+        verify(patientRepository, times(1)).findAllPourRecherche();
+    }
+
+    @Test
+    void invalider_RechargeAlaProchaineRecherche() {
+        // Given
+        charger(new PatientRecherche(1L, "Dupont", "Marie", "marie@email.com", null));
+        index.rechercher("dupont", 10);
+
+        // When
+        index.invalider();
+        index.rechercher("dupont", 10);
+
+        // Then
+        verify(patientRepository, times(2)).findAllPourRecherche();
+    }
+}
@@ -23,6 +23,12 @@ class PatientServiceTest {
     @Mock
     private PatientRepository patientRepository;
 
+    @Mock
+    private StatistiquesAccueilService statistiquesAccueil;
+
+    @Mock
+    private PatientRechercheIndex rechercheIndex;
+
     @InjectMocks
     private PatientService patientService;
 
@@ -216,4 +222,21 @@ class PatientServiceTest {
         assertEquals(5L, result);
         verify(patientRepository, times(1)).count();
     }
+
+    @Test
+    void searchPatients_ConserveLOrdreDeLIndex() {
+        // Given
+        Patient dupont = new Patient("Dupont", "Hélène", "helene@email.com");
+        dupont.setId(1L);
+        Patient dupuis = new Patient("Dupuis", "Jean", "jean@email.com");
+        dupuis.setId(2L);
+        when(rechercheIndex.rechercher("dup", PatientService.LIMITE_RECHERCHE)).thenReturn(List.of(2L, 1L));
+        when(patientRepository.findAllById(List.of(2L, 1L))).thenReturn(Arrays.asList(dupont, dupuis));
+
+        // When
+        List<Patient> result = patientService.searchPatients("dup");
+
+        // Then
+        assertEquals(List.of(dupuis, dupont), result);
+    }
 }
\ No newline at end of file
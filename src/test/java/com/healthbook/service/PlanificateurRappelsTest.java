@@ -0,0 +1,188 @@
+package com.healthbook.service;
+
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Notification;
+import com.healthbook.entity.Notification.TypeNotification;
+import com.healthbook.entity.Patient;
+import com.healthbook.entity.RendezVous;
+import com.healthbook.repository.MedecinRepository;
+import com.healthbook.repository.NotificationRepository;
+import com.healthbook.repository.PatientRepository;
+import com.healthbook.repository.RendezVousRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Rappels : fenêtre chargée depuis la base, échéances, relecture du RDV et reprise après redémarrage.
+ * Les instants sont passés explicitement ; le passage périodique est repoussé.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.hibernate.SQL=WARN",
+        "app.rappels.intervalle-ms=3600000"
+})
+@Import({PlanificateurRappels.class, NotificationService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PlanificateurRappelsTest {
+
+    private static final LocalDateTime MAINTENANT = LocalDateTime.of(2030, 1, 7, 7, 0);
+
+    @Autowired
+    private PlanificateurRappels planificateur;
+
+    @Autowired
+    private RendezVousRepository rendezVousRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MedecinRepository medecinRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @MockitoSpyBean
+    private NotificationService notificationService;
+
+    private Patient patient;
+    private Medecin medecin;
+
+    @BeforeEach
+    void setUp() {
+        patient = patientRepository.save(new Patient("Dupont", "Marie", "dupont@email.com"));
+        medecin = medecinRepository.save(new Medecin("Martin", "Jean", "Cardiologie", "martin@email.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+        rendezVousRepository.deleteAll();
+        patientRepository.deleteAll();
+        medecinRepository.deleteAll();
+    }
+
+    @Test
+    void recharger_SeulementLaFenetre_PuisRappelAuBonMoment() {
+        // Given
+        RendezVous dansDeuxHeures = rdv(MAINTENANT.plusHours(2), RendezVous.StatutRDV.CONFIRME);
+        rdv(MAINTENANT.plusHours(30), RendezVous.StatutRDV.EN_ATTENTE);
+        rdv(MAINTENANT.plusHours(2), RendezVous.StatutRDV.ANNULE);
+        rdv(MAINTENANT.plusDays(10), RendezVous.StatutRDV.EN_ATTENTE);
+
+        // When
+        planificateur.recharger(MAINTENANT);
+
+        // Then : 1 h avant le premier, 24 h et 1 h avant le second ; ni l'annulé ni le lointain
+        assertEquals(3, planificateur.getNombreProgrammes());
+        assertEquals(0, planificateur.avancer(MAINTENANT.plusMinutes(59)));
+        assertEquals(1, planificateur.avancer(MAINTENANT.plusMinutes(60)));
+        List<Notification> notifications = notificationRepository.findAll();
+        assertEquals(1, notifications.size());
+        assertEquals(TypeNotification.RAPPEL_1H, notifications.get(0).getType());
+        assertEquals(dansDeuxHeures.getId(), notifications.get(0).getRendezVousId());
+        assertEquals("dupont@email.com", notifications.get(0).getDestinataire());
+    }
+
+    @Test
+    void avancer_RdvAnnuleEntreTemps_RappelAbandonne() {
+        // Given
+        RendezVous rendezVous = rdv(MAINTENANT.plusHours(30), RendezVous.StatutRDV.EN_ATTENTE);
+        planificateur.recharger(MAINTENANT);
+        rendezVous.setStatut(RendezVous.StatutRDV.ANNULE);
+        rendezVousRepository.save(rendezVous);
+
+        // When
+        int envoyes = planificateur.avancer(MAINTENANT.plusHours(6));
+
+        // Then
+        assertEquals(0, envoyes);
+        assertEquals(0, notificationRepository.count());
+        assertEquals(1, planificateur.getNombreProgrammes(), "Rappel 1 h encore programmé");
+    }
+
+    @Test
+    void avancer_FenetreEtendue_RdvLointainCharge() {
+        // Given : rappel 24 h à MAINTENANT + 48 h, juste après la fenêtre initiale
+        rdv(MAINTENANT.plusHours(72), RendezVous.StatutRDV.CONFIRME);
+        planificateur.recharger(MAINTENANT);
+        assertEquals(0, planificateur.getNombreProgrammes());
+
+        // When : recharge horaire
+        planificateur.avancer(MAINTENANT.plusMinutes(60));
+
+        // Then
+        assertEquals(1, planificateur.getNombreProgrammes());
+    }
+
+    @Test
+    void planifier_NouveauRdvHorsTransaction_ProgrammeAussitot() {
+        // Given
+        planificateur.recharger(MAINTENANT);
+        RendezVous nouveau = rdv(MAINTENANT.plusHours(3), RendezVous.StatutRDV.EN_ATTENTE);
+
+        // When : le rappel 24 h est déjà passé, seul celui d'1 h est programmé
+        planificateur.planifier(nouveau);
+
+        // Then
+        assertEquals(1, planificateur.getNombreProgrammes());
+        assertEquals(1, planificateur.avancer(MAINTENANT.plusHours(2)));
+    }
+
+    @Test
+    void recharger_ApresRedemarrage_RappelDejaEnvoyeNonDuplique() {
+        // Given : rappel envoyé, puis arrêt
+        rdv(MAINTENANT.plusHours(2), RendezVous.StatutRDV.CONFIRME);
+        planificateur.recharger(MAINTENANT);
+        assertEquals(1, planificateur.avancer(MAINTENANT.plusHours(1)));
+
+        // When : redémarrage peu après ; le rappel est relu dans la période de rattrapage
+        planificateur.recharger(MAINTENANT.plusMinutes(70));
+        int envoyes = planificateur.avancer(MAINTENANT.plusMinutes(70));
+
+        // Then
+        assertEquals(0, envoyes);
+        assertEquals(1, notificationRepository.count());
+    }
+
+    @Test
+    void avancer_EchecSurUnRappel_LesAutresEnvoyes_PuisNouvelEssai() {
+        // Given : deux RDV à la même heure, la mise en file du premier échoue une fois
+        RendezVous enEchec = rdv(MAINTENANT.plusHours(2), RendezVous.StatutRDV.CONFIRME);
+        rdv(MAINTENANT.plusHours(2), RendezVous.StatutRDV.CONFIRME);
+        doThrow(new RuntimeException("Base indisponible")).doCallRealMethod()
+                .when(AopTestUtils.<NotificationService>getUltimateTargetObject(notificationService)).planifierRappel(argThat(r -> r.getId().equals(enEchec.getId())), any());
+        planificateur.recharger(MAINTENANT);
+
+        // When
+        int envoyes = planificateur.avancer(MAINTENANT.plusHours(1));
+
+        // Then : l'autre rappel est parti, celui en échec est reprogrammé à la minute suivante
+        assertEquals(1, envoyes);
+        assertEquals(1, planificateur.getNombreProgrammes());
+        assertEquals(1, planificateur.avancer(MAINTENANT.plusMinutes(61)));
+        assertEquals(2, notificationRepository.count());
+    }
+
+    private RendezVous rdv(LocalDateTime dateHeure, RendezVous.StatutRDV statut) {
+        RendezVous rendezVous = new RendezVous(patient, medecin, dateHeure, "Contrôle");
+        rendezVous.setStatut(statut);
+        return rendezVousRepository.save(rendezVous);
+    }
+}
@@ -0,0 +1,79 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.RapportImport;
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Patient;
+import com.healthbook.repository.MedecinRepository;
+import com.healthbook.repository.PatientRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Débit de l'import en masse sur H2, lots réellement commités.
+ * H2 en mémoire n'a pas d'aller-retour réseau : le seuil mesure surtout le coût CPU
+ * (lecture, contrôles, Hibernate), le gain du batch JDBC se voit sur MySQL.
+ * Lancer avec : mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@Import({RendezVousImportService.class, DisponibiliteIndex.class, StatistiquesAccueilService.class, VersionsRendezVous.class,
+        PlanificateurRappels.class, NotificationService.class, VerrousMedecins.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RendezVousImportBenchmarkTest {
+
+    private static final int LIGNES = 50_000;
+    private static final int MEDECINS = 50;
+    private static final long DEBIT_MINIMAL = 2_000;
+
+    @Autowired
+    private RendezVousImportService importService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MedecinRepository medecinRepository;
+
+    @Test
+    void importerCsv_DebitMinimal() {
+        Patient patient = patientRepository.save(new Patient("Dupont", "Marie", "dupont@email.com"));
+        List<Medecin> medecins = new ArrayList<>();
+        for (int i = 0; i < MEDECINS; i++) {
+            medecins.add(medecinRepository.save(new Medecin("Medecin" + i, "Jean", "Cardiologie", "medecin" + i + "@email.com")));
+        }
+
+        StringBuilder csv = new StringBuilder("patient_id;medecin_id;date_heure;duree;statut;motif\n");
+        LocalDateTime debut = LocalDateTime.of(2030, 1, 1, 8, 0);
+        for (int i = 0; i < LIGNES; i++) {
+            Medecin medecin = medecins.get(i % MEDECINS);
+            csv.append(patient.getId()).append(';').append(medecin.getId()).append(';')
+                    .append(debut.plusMinutes(30L * (i / MEDECINS))).append(";30;CONFIRME;Import\n");
+        }
+
+        RapportImport rapport = importService.importerCsv(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        System.out.printf("Import : %d lignes en %d ms (%d lignes/s)%n",
+                rapport.lignesImportees(), rapport.dureeMillis(), rapport.lignesParSeconde());
+        assertEquals(LIGNES, rapport.lignesImportees());
+        assertTrue(rapport.lignesParSeconde() >= DEBIT_MINIMAL,
+                "Débit insuffisant : " + rapport.lignesParSeconde() + " lignes/s");
+    }
+}
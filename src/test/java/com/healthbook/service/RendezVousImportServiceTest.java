@@ -0,0 +1,154 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.RapportImport;
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Patient;
+import com.healthbook.entity.RendezVous;
+import com.healthbook.repository.RendezVousRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "app.reservation.attente-verrou-ms=200"
+})
+@Import({RendezVousImportService.class, DisponibiliteIndex.class, StatistiquesAccueilService.class, VersionsRendezVous.class,
+        PlanificateurRappels.class, NotificationService.class, VerrousMedecins.class})
+class RendezVousImportServiceTest {
+
+    @Autowired
+    private RendezVousImportService importService;
+
+    @Autowired
+    private RendezVousRepository rendezVousRepository;
+
+    @Autowired
+    private VerrousMedecins verrousMedecins;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Patient patient;
+    private Medecin medecin;
+
+    @BeforeEach
+    void setUp() {
+        patient = new Patient("Dupont", "Marie", "dupont@email.com");
+        medecin = new Medecin("Martin", "Jean", "Cardiologie", "martin@email.com");
+        entityManager.persist(patient);
+        entityManager.persist(medecin);
+
+        RendezVous existant = new RendezVous(patient, medecin, LocalDateTime.of(2030, 1, 7, 10, 0), "Existant");
+        existant.setDuree(60);
+        entityManager.persist(existant);
+        entityManager.flush();
+    }
+
+    @Test
+    void importerCsv_LignesValidesEtInvalides_RejetteErreursEtChevauchements() {
+        // Given
+        String csv = """
+                patient_id;medecin_id;date_heure;duree;statut;motif
+                %1$d;%2$d;2030-01-07T09:00;30;CONFIRME;Contrôle; suivi
+                %1$d;%2$d;2030-01-07T10:30;30;;Chevauche le RDV existant
+                %1$d;%2$d;2030-01-07 11:00;;EN_ATTENTE;
+                %1$d;%2$d;2030-01-07T11:15;30;;Chevauche la ligne précédente
+                %1$d;%2$d;2030-01-07T11:15;30;ANNULE;Annulé, n'occupe pas le créneau
+                999;%2$d;2030-01-08T09:00;30;;Patient inconnu
+                %1$d;%2$d;pas-une-date;30;;Date invalide
+                %1$d;%2$d;2030-01-08T09:00;30;INCONNU;Statut invalide
+                %1$d;%2$d;2030-01-09T09:00;1441;;Durée au-delà d'une journée
+                """.formatted(patient.getId(), medecin.getId());
+
+        // When
+        RapportImport rapport = importService.importerCsv(flux(csv));
+
+        // Then
+        assertEquals(9, rapport.lignesLues());
+        assertEquals(3, rapport.lignesImportees());
+        assertEquals(6, rapport.lignesRejetees());
+        assertEquals(6, rapport.erreurs().size());
+        assertTrue(rapport.erreurs().stream().anyMatch(e -> e.startsWith("Ligne 3 : créneau déjà occupé")));
+        assertTrue(rapport.erreurs().stream().anyMatch(e -> e.startsWith("Ligne 5 : créneau déjà occupé")));
+        assertTrue(rapport.erreurs().stream().anyMatch(e -> e.startsWith("Ligne 7 : patient inconnu")));
+        assertTrue(rapport.erreurs().stream().anyMatch(e -> e.startsWith("Ligne 10 : durée invalide (1441)")));
+
+        RendezVous importe = rendezVousRepository.findByMedecin(medecin).stream()
+                .filter(rdv -> rdv.getDateHeure().equals(LocalDateTime.of(2030, 1, 7, 9, 0)))
+                .findFirst().orElseThrow();
+        assertEquals(RendezVous.StatutRDV.CONFIRME, importe.getStatut());
+        assertEquals("Contrôle; suivi", importe.getMotif());
+        assertEquals(4, rendezVousRepository.findByMedecin(medecin).size());
+    }
+
+    @Test
+    void importerCsv_NombreusesLignes_InsertsRegroupesEnBatch() {
+        // Given
+        StringBuilder csv = new StringBuilder();
+        LocalDateTime debut = LocalDateTime.of(2030, 2, 1, 8, 0);
+        for (int i = 0; i < 500; i++) {
+            csv.append(patient.getId()).append(';').append(medecin.getId()).append(';')
+                    .append(debut.plusMinutes(30L * i)).append(";30;;Import\n");
+        }
+        Statistics statistiques = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+
+        // When
+        RapportImport rapport = importService.importerCsv(flux(csv.toString()));
+
+        // Then : 500 INSERT en lots de 50, plus quelques requêtes de lecture et d'allocation d'identifiants
+        assertEquals(500, rapport.lignesImportees());
+        assertTrue(statistiques.getPrepareStatementCount() < 50,
+                "Requêtes préparées : " + statistiques.getPrepareStatementCount());
+    }
+
+    @Test
+    void importerCsv_ReservationEnCoursSurLeMedecin_AttendLeVerrou() throws Exception {
+        // Given : une réservation tient le verrou du médecin
+        CountDownLatch verrouPris = new CountDownLatch(1);
+        CountDownLatch fin = new CountDownLatch(1);
+        Thread reservation = Thread.ofVirtual().start(() -> verrousMedecins.avecVerrou(medecin.getId(), () -> {
+            verrouPris.countDown();
+            try {
+                return fin.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }));
+        assertTrue(verrouPris.await(5, TimeUnit.SECONDS));
+        String csv = patient.getId() + ";" + medecin.getId() + ";2030-01-08T09:00;30;;Import\n";
+
+        // When & Then : l'import ne vérifie ni n'insère tant que la réservation n'est pas terminée
+        try {
+            RuntimeException erreur = assertThrows(RuntimeException.class, () -> importService.importerCsv(flux(csv)));
+            assertTrue(erreur.getMessage().startsWith("Trop de réservations en cours"));
+            assertEquals(1, rendezVousRepository.findByMedecin(medecin).size());
+        } finally {
+            fin.countDown();
+            reservation.join();
+        }
+        assertEquals(1, importService.importerCsv(flux(csv)).lignesImportees());
+    }
+
+    private static ByteArrayInputStream flux(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,132 @@
+package com.healthbook.service;
+
+import com.healthbook.entity.Medecin;
+import com.healthbook.entity.Patient;
+import com.healthbook.repository.MedecinRepository;
+import com.healthbook.repository.PatientRepository;
+import com.healthbook.repository.RendezVousRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Des centaines de threads réservent les mêmes créneaux d'un médecin, sur H2 avec les vrais
+ * repositories (transactions, SELECT … FOR UPDATE, index de disponibilité) :
+ * aucun créneau ne doit être attribué deux fois.
+ * Lancer avec : mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "app.notifications.intervalle-ms=3600000",
+        "app.rappels.intervalle-ms=3600000",
+        // Toutes les tentatives attendent leur tour : un refus ne vient que d'un créneau déjà pris
+        "app.reservation.attente-verrou-ms=600000"
+})
+@AutoConfigureTestDatabase
+class RendezVousServiceConcurrenceTest {
+
+    private static final int THREADS = 300;
+    private static final int TENTATIVES_PAR_THREAD = 20;
+    private static final int CRENEAUX = 40;
+
+    @Autowired
+    private RendezVousService rendezVousService;
+
+    @Autowired
+    private RendezVousRepository rendezVousRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MedecinRepository medecinRepository;
+
+    private Patient patient;
+    private Medecin medecin;
+
+    @AfterEach
+    void nettoyer() {
+        if (medecin != null) {
+            rendezVousRepository.deleteAll(rendezVousRepository.findByMedecin(medecin));
+            medecinRepository.deleteById(medecin.getId());
+        }
+        if (patient != null) {
+            patientRepository.deleteById(patient.getId());
+        }
+    }
+
+    @Test
+    void prendreRendezVous_ReservationsConcurrentes_AucunDoubleRendezVous() throws Exception {
+        // Given
+        patient = patientRepository.save(new Patient("Dupont", "Marie", "dupont.concurrence@email.com"));
+        medecin = medecinRepository.save(new Medecin("Martin", "Jean", "Cardiologie", "martin.concurrence@email.com"));
+        Long patientId = patient.getId();
+        Long medecinId = medecin.getId();
+
+        LocalDateTime premier = LocalDate.now().plusDays(1).atTime(8, 0);
+        List<LocalDateTime> creneaux = new ArrayList<>();
+        for (int i = 0; i < CRENEAUX; i++) {
+            creneaux.add(premier.plusMinutes(30L * i));
+        }
+
+        ConcurrentMap<LocalDateTime, AtomicInteger> reservationsParCreneau = new ConcurrentHashMap<>();
+        AtomicInteger refus = new AtomicInteger();
+        CountDownLatch depart = new CountDownLatch(1);
+        CountDownLatch fin = new CountDownLatch(THREADS);
+
+        // When
+        for (int t = 0; t < THREADS; t++) {
+            Thread.ofPlatform().start(() -> {
+                try {
+                    depart.await();
+                    for (int i = 0; i < TENTATIVES_PAR_THREAD; i++) {
+                        LocalDateTime creneau = creneaux.get(ThreadLocalRandom.current().nextInt(CRENEAUX));
+                        try {
+                            rendezVousService.prendreRendezVous(patientId, medecinId, creneau, "Consultation");
+                            reservationsParCreneau.computeIfAbsent(creneau, c -> new AtomicInteger()).incrementAndGet();
+                        } catch (RuntimeException e) {
+                            refus.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    fin.countDown();
+                }
+            });
+        }
+        long debut = System.nanoTime();
+        depart.countDown();
+        fin.await();
+        double secondes = (System.nanoTime() - debut) / 1e9;
+
+        // Then
+        int tentatives = THREADS * TENTATIVES_PAR_THREAD;
+        System.out.printf("%d tentatives en %.3f s (%.0f tentatives/s), %d réservations, %d refus%n",
+                tentatives, secondes, tentatives / secondes, reservationsParCreneau.size(), refus.get());
+
+        reservationsParCreneau.forEach((creneau, nombre) ->
+                assertEquals(1, nombre.get(), "Créneau réservé plusieurs fois : " + creneau));
+        assertEquals(CRENEAUX, reservationsParCreneau.size());
+        assertEquals(tentatives - CRENEAUX, refus.get());
+        assertEquals(CRENEAUX, rendezVousRepository.findByMedecin(medecin).size());
+    }
+}
@@ -1,20 +1,33 @@
 package com.healthbook.service;
 
+import com.healthbook.dto.Creneau;
+import com.healthbook.dto.CurseurRendezVous;
+import com.healthbook.dto.EvenementRendezVous;
+import com.healthbook.dto.NombreParStatut;
+import com.healthbook.dto.PageRendezVous;
+import com.healthbook.dto.TableauDeBord;
+import com.healthbook.dto.UtilisateurConnecte;
 import com.healthbook.entity.*;
 import com.healthbook.repository.RendezVousRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +42,27 @@ class RendezVousServiceTest {
     @Mock
     private MedecinService medecinService;
 
+    @Mock
+    private DisponibiliteIndex disponibiliteIndex;
+
+    @Mock
+    private StatistiquesAccueilService statistiquesAccueil;
+
+    @Mock
+    private VersionsRendezVous versionsRendezVous;
+
+    @Mock
+    private DiffusionRendezVous diffusion;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private PlanificateurRappels planificateurRappels;
+
+    @Spy
+    private VerrousMedecins verrousMedecins = new VerrousMedecins(16, 1000);
+
     @InjectMocks
     private RendezVousService rendezVousService;
 
@@ -54,8 +88,8 @@ class RendezVousServiceTest {
         rdv.setStatut(RendezVous.StatutRDV.EN_ATTENTE);
 
         when(patientService.getPatientById(patientId)).thenReturn(Optional.of(patient));
-        when(medecinService.getMedecinById(medecinId)).thenReturn(Optional.of(medecin));
-        when(rendezVousRepository.countRendezVousByMedecinAndDateHeure(medecin, dateTime)).thenReturn(0L);
+        when(medecinService.getMedecinPourReservation(medecinId)).thenReturn(Optional.of(medecin));
+        when(disponibiliteIndex.estDisponible(medecin.getId(), dateTime, 30)).thenReturn(true);
         when(rendezVousRepository.save(any(RendezVous.class))).thenReturn(rdv);
 
         // When
@@ -67,6 +101,7 @@ class RendezVousServiceTest {
         assertEquals(patient, result.getPatient());
         assertEquals(medecin, result.getMedecin());
         verify(rendezVousRepository, times(1)).save(any(RendezVous.class));
+        verify(disponibiliteIndex, times(1)).enregistrer(rdv);
     }
 
     @Test
@@ -80,8 +115,8 @@ class RendezVousServiceTest {
         Medecin medecin = new Medecin();
 
         when(patientService.getPatientById(patientId)).thenReturn(Optional.of(patient));
-        when(medecinService.getMedecinById(medecinId)).thenReturn(Optional.of(medecin));
-        when(rendezVousRepository.countRendezVousByMedecinAndDateHeure(medecin, dateTime)).thenReturn(1L);
+        when(medecinService.getMedecinPourReservation(medecinId)).thenReturn(Optional.of(medecin));
+        when(disponibiliteIndex.estDisponible(medecin.getId(), dateTime, 30)).thenReturn(false);
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class,
@@ -102,8 +137,8 @@ class RendezVousServiceTest {
         Medecin medecin = new Medecin();
 
         when(patientService.getPatientById(patientId)).thenReturn(Optional.of(patient));
-        when(medecinService.getMedecinById(medecinId)).thenReturn(Optional.of(medecin));
-        when(rendezVousRepository.countRendezVousByMedecinAndDateHeure(medecin, dateTime)).thenReturn(0L);
+        when(medecinService.getMedecinPourReservation(medecinId)).thenReturn(Optional.of(medecin));
+        when(disponibiliteIndex.estDisponible(medecin.getId(), dateTime, 30)).thenReturn(true);
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class,
@@ -131,6 +166,102 @@ class RendezVousServiceTest {
         assertEquals(RendezVous.StatutRDV.CONFIRME, result.getStatut());
         verify(rendezVousRepository, times(1)).save(rdv);
         verify(rendezVousRepository, times(1)).flush();
+        verify(notificationService, times(1)).planifier(rdv, Notification.TypeNotification.CONFIRMATION);
+        verify(planificateurRappels, times(1)).planifier(rdv);
+    }
+
+    @Test
+    void confirmerRendezVous_DejaConfirme_PasDeNouvelleNotification() {
+        // Given
+        Long rdvId = 1L;
+        RendezVous rdv = new RendezVous();
+        rdv.setId(rdvId);
+        rdv.setStatut(RendezVous.StatutRDV.CONFIRME);
+
+        when(rendezVousRepository.findById(rdvId)).thenReturn(Optional.of(rdv));
+        when(rendezVousRepository.save(any(RendezVous.class))).thenReturn(rdv);
+
+        // When
+        rendezVousService.confirmerRendezVous(rdvId);
+
+        // Then
+        verify(notificationService, never()).planifier(any(), any());
+    }
+
+    @Test
+    void confirmerRendezVous_AnnulePuisCreneauRepris_Refuse() {
+        // Given : RDV annulé, puis le créneau réservé par un autre patient
+        Long rdvId = 1L;
+        Medecin medecin = new Medecin();
+        medecin.setId(2L);
+        LocalDateTime dateHeure = LocalDateTime.now().plusDays(1);
+        RendezVous rdv = new RendezVous();
+        rdv.setId(rdvId);
+        rdv.setMedecin(medecin);
+        rdv.setDateHeure(dateHeure);
+        rdv.setStatut(RendezVous.StatutRDV.ANNULE);
+
+        when(rendezVousRepository.findById(rdvId)).thenReturn(Optional.of(rdv));
+        when(medecinService.getMedecinPourReservation(2L)).thenReturn(Optional.of(medecin));
+        when(rendezVousRepository.findCreneauxOccupesEntre(eq(2L), any(), any()))
+                .thenReturn(List.of(new Creneau(3L, dateHeure, 30)));
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> rendezVousService.confirmerRendezVous(rdvId));
+        assertEquals("Ce créneau n'est plus disponible", exception.getMessage());
+        assertEquals(RendezVous.StatutRDV.ANNULE, rdv.getStatut());
+        verify(verrousMedecins, times(1)).avecVerrou(eq(2L), any());
+        verify(rendezVousRepository, never()).save(any());
+        verify(disponibiliteIndex, never()).enregistrer(any());
+        verify(notificationService, never()).planifier(any(), any());
+    }
+
+    @Test
+    void confirmerRendezVous_AnnuleCreneauLibre_Confirme() {
+        // Given : seul le RDV lui-même est renvoyé (sa ligne n'est pas encore relue comme annulée)
+        Long rdvId = 1L;
+        Medecin medecin = new Medecin();
+        medecin.setId(2L);
+        LocalDateTime dateHeure = LocalDateTime.now().plusDays(1);
+        RendezVous rdv = new RendezVous();
+        rdv.setId(rdvId);
+        rdv.setMedecin(medecin);
+        rdv.setDateHeure(dateHeure);
+        rdv.setStatut(RendezVous.StatutRDV.ANNULE);
+
+        when(rendezVousRepository.findById(rdvId)).thenReturn(Optional.of(rdv));
+        when(medecinService.getMedecinPourReservation(2L)).thenReturn(Optional.of(medecin));
+        when(rendezVousRepository.findCreneauxOccupesEntre(eq(2L), any(), any()))
+                .thenReturn(List.of(new Creneau(rdvId, dateHeure, 30)));
+        when(rendezVousRepository.save(any(RendezVous.class))).thenReturn(rdv);
+
+        // When
+        RendezVous result = rendezVousService.confirmerRendezVous(rdvId);
+
+        // Then
+        assertEquals(RendezVous.StatutRDV.CONFIRME, result.getStatut());
+        verify(disponibiliteIndex, times(1)).enregistrer(rdv);
+        verify(notificationService, times(1)).planifier(rdv, Notification.TypeNotification.CONFIRMATION);
+    }
+
+    @Test
+    void deleteRendezVous_RetireLesRappels() {
+        // Given
+        Long rdvId = 1L;
+        RendezVous rdv = new RendezVous();
+        rdv.setId(rdvId);
+        rdv.setStatut(RendezVous.StatutRDV.CONFIRME);
+
+        when(rendezVousRepository.findById(rdvId)).thenReturn(Optional.of(rdv));
+
+        // When
+        rendezVousService.deleteRendezVous(rdvId);
+
+        // Then
+        verify(rendezVousRepository, times(1)).delete(rdv);
+        verify(disponibiliteIndex, times(1)).liberer(rdv);
+        verify(planificateurRappels, times(1)).retirer(rdvId);
     }
 
     @Test
@@ -151,6 +282,12 @@ class RendezVousServiceTest {
         assertEquals(RendezVous.StatutRDV.ANNULE, result.getStatut());
         verify(rendezVousRepository, times(1)).save(rdv);
         verify(rendezVousRepository, times(1)).flush();
+        verify(disponibiliteIndex, times(1)).liberer(rdv);
+        verify(versionsRendezVous, times(1)).modifier(rdv);
+        verify(diffusion, times(1)).publier(argThat(evenement ->
+                evenement.type() == EvenementRendezVous.Type.ANNULE && evenement.id().equals(rdvId)));
+        verify(notificationService, times(1)).planifier(rdv, Notification.TypeNotification.ANNULATION);
+        verify(planificateurRappels, times(1)).retirer(rdvId);
     }
 
     @Test
@@ -190,4 +327,129 @@ class RendezVousServiceTest {
         assertEquals(3, result.size());
         verify(rendezVousRepository, times(1)).findAll();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getPageRendezVousByUser_PremierePage_JetonVersPlusAnciens() {
+        // Given : une ligne de plus que la taille de page
+        User user = new User();
+        user.setRole(Role.ADMIN);
+        List<RendezVous> lignes = rendezVousDecroissants(RendezVousService.TAILLE_PAGE + 1);
+        when(rendezVousRepository.findPageAvant(CurseurRendezVous.FIN.dateHeure(), CurseurRendezVous.FIN.id(),
+                Limit.of(RendezVousService.TAILLE_PAGE + 1))).thenReturn(lignes);
+
+        // When
+        PageRendezVous page = rendezVousService.getPageRendezVousByUser(UtilisateurConnecte.depuis(user), null, null);
+
+        // Then
+        RendezVous dernier = lignes.get(RendezVousService.TAILLE_PAGE - 1);
+        assertEquals(RendezVousService.TAILLE_PAGE, page.rendezVous().size());
+        assertNull(page.plusRecents());
+        assertEquals(dernier.getDateHeure() + "_" + dernier.getId(), page.plusAnciens());
+        verify(rendezVousRepository, never()).findAll();
+    }
+
+    @Test
+    void getPageRendezVousByUser_PagePlusRecente_RemiseEnOrdreDecroissant() {
+        // Given : trois RDV plus récents que le curseur, renvoyés dans l'ordre croissant
+        User user = new User();
+        user.setRole(Role.PATIENT);
+        Patient patient = new Patient();
+        patient.setId(1L);
+        user.setPatient(patient);
+
+        List<RendezVous> croissants = new ArrayList<>(rendezVousDecroissants(3));
+        Collections.reverse(croissants);
+        CurseurRendezVous curseur = new CurseurRendezVous(LocalDateTime.of(2030, 1, 1, 8, 0), 100L);
+        when(rendezVousRepository.findPagePatientApres(eq(1L), eq(curseur.dateHeure()), eq(100L), any(Limit.class)))
+                .thenReturn(croissants);
+
+        // When
+        PageRendezVous page = rendezVousService.getPageRendezVousByUser(UtilisateurConnecte.depuis(user), null, curseur);
+
+        // Then : plus rien de plus récent, la page suivante repart du plus ancien affiché
+        assertEquals(List.of(1L, 2L, 3L), page.rendezVous().stream().map(RendezVous::getId).toList());
+        assertNull(page.plusRecents());
+        assertEquals(page.rendezVous().get(2).getDateHeure() + "_3", page.plusAnciens());
+    }
+
+    @Test
+    void getPageRendezVousByUser_MedecinSansProfil_PageVide() {
+        // Given
+        User user = new User();
+        user.setRole(Role.MEDECIN);
+
+        // When
+        PageRendezVous page = rendezVousService.getPageRendezVousByUser(UtilisateurConnecte.depuis(user), null, null);
+
+        // Then
+        assertTrue(page.rendezVous().isEmpty());
+        verifyNoInteractions(rendezVousRepository);
+    }
+
+    @Test
+    void getTableauDeBord_Patient_PartitionEtComptagesParStatut() {
+        // Given : une page de trois RDV dont un annulé
+        User user = new User();
+        user.setRole(Role.PATIENT);
+        Patient patient = new Patient();
+        patient.setId(1L);
+        user.setPatient(patient);
+
+        List<RendezVous> lignes = rendezVousDecroissants(3);
+        lignes.get(1).setStatut(RendezVous.StatutRDV.ANNULE);
+        when(rendezVousRepository.findPagePatientAvant(eq(1L), any(LocalDateTime.class), any(Long.class), any(Limit.class)))
+                .thenReturn(lignes);
+        when(rendezVousRepository.countParStatutPatient(1L)).thenReturn(List.of(
+                new NombreParStatut(RendezVous.StatutRDV.EN_ATTENTE, 5),
+                new NombreParStatut(RendezVous.StatutRDV.ANNULE, 2)));
+        when(rendezVousRepository.findProchainsRendezVousPatient(eq(1L), any(LocalDateTime.class), eq(Limit.of(1))))
+                .thenReturn(List.of(lignes.get(0)));
+
+        // When
+        TableauDeBord tableau = rendezVousService.getTableauDeBord(UtilisateurConnecte.depuis(user), null, null);
+
+        // Then : comptages sur tout l'historique, statuts absents à zéro
+        assertEquals(List.of(1L, 3L), tableau.actifs().stream().map(RendezVous::getId).toList());
+        assertEquals(List.of(2L), tableau.annules().stream().map(RendezVous::getId).toList());
+        assertEquals(5, tableau.nombreActifs());
+        assertEquals(2, tableau.nombreAnnules());
+        assertEquals(0, tableau.nombreConfirmes());
+        assertEquals(7, tableau.total());
+        assertSame(lignes.get(0), tableau.prochainRendezVous());
+        verify(rendezVousRepository, never()).countParStatut();
+    }
+
+    @Test
+    void getTableauDeBord_Medecin_SansComptagesNiProchainRdv() {
+        // Given
+        User user = new User();
+        user.setRole(Role.MEDECIN);
+        Medecin medecin = new Medecin();
+        medecin.setId(2L);
+        user.setMedecin(medecin);
+        when(rendezVousRepository.findPageMedecinAvant(eq(2L), any(LocalDateTime.class), any(Long.class), any(Limit.class)))
+                .thenReturn(rendezVousDecroissants(2));
+
+        // When
+        TableauDeBord tableau = rendezVousService.getTableauDeBord(UtilisateurConnecte.depuis(user), null, null);
+
+        // Then : seule la page est lue
+        assertEquals(2, tableau.actifs().size());
+        assertNull(tableau.prochainRendezVous());
+        verify(rendezVousRepository).findPageMedecinAvant(eq(2L), any(LocalDateTime.class), any(Long.class), any(Limit.class));
+        verifyNoMoreInteractions(rendezVousRepository);
+    }
+
+    // RDV d'ids 1..n, du plus récent au plus ancien
+    private static List<RendezVous> rendezVousDecroissants(int nombre) {
+        List<RendezVous> rdvs = new ArrayList<>();
+        LocalDateTime plusRecent = LocalDateTime.of(2030, 6, 1, 18, 0);
+        for (int i = 0; i < nombre; i++) {
+            RendezVous rdv = new RendezVous();
+            rdv.setId((long) i + 1);
+            rdv.setDateHeure(plusRecent.minusHours(i));
+            rdvs.add(rdv);
+        }
+        return rdvs;
+    }
+}
@@ -0,0 +1,59 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.Rappel;
+import com.healthbook.entity.Notification.TypeNotification;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Coût d'un tic de la roue quand 100 000 puis 2 000 000 de rappels sont programmés sur 48 h :
+ * seul le nombre de rappels échus compte, pas le nombre de rappels en attente.
+ * Lancer avec : mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class RoueRappelsBenchmarkTest {
+
+    private static final int FENETRE_MINUTES = 48 * 60;
+
+    @Test
+    void avancer_CoutParRappelIndependantDuVolume() {
+        mesurer(100_000);
+        double petit = mesurer(100_000);
+        double grand = mesurer(2_000_000);
+
+        System.out.printf("Roue des rappels : %.0f ns (100k programmés), %.0f ns (2M) par rappel, ajout et échéance compris%n",
+                petit, grand);
+
+        // Un balayage de la liste à chaque tic coûterait 20x plus cher par rappel
+        assertTrue(grand < petit * 4, "Le coût par rappel ne doit pas croître avec le volume");
+    }
+
+    private static double mesurer(int nombre) {
+        LocalDateTime dateHeure = LocalDateTime.of(2030, 1, 7, 8, 0);
+        ThreadLocalRandom aleatoire = ThreadLocalRandom.current();
+        long[] echeances = new long[nombre];
+        for (int i = 0; i < nombre; i++) {
+            echeances[i] = 1 + aleatoire.nextInt(FENETRE_MINUTES);
+        }
+
+        long debut = System.nanoTime();
+        RoueRappels roue = new RoueRappels(0);
+        for (int i = 0; i < nombre; i++) {
+            roue.ajouter(new Rappel((long) i, dateHeure, TypeNotification.RAPPEL_24H), echeances[i]);
+        }
+        long dus = 0;
+        for (long tic = 1; tic <= FENETRE_MINUTES; tic++) {
+            dus += roue.avancer(tic).size();
+        }
+        long duree = System.nanoTime() - debut;
+
+        assertEquals(nombre, dus);
+        return duree / (double) nombre;
+    }
+}
@@ -0,0 +1,105 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.Rappel;
+import com.healthbook.entity.Notification.TypeNotification;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoueRappelsTest {
+
+    private static final LocalDateTime RDV = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+    @Test
+    void avancer_EcheancesSurTousLesNiveaux_DeclencheAuBonTic() {
+        // Given : départ juste avant un changement de case du dernier niveau
+        long depart = (1L << 20) - 3;
+        RoueRappels roue = new RoueRappels(depart);
+        long[] delais = {1, 2, 3, 63, 64, 65, 4095, 4096, 4097, 100_000, RoueRappels.capacite() - 1};
+        Map<Long, Long> echeances = new TreeMap<>();
+        for (long delai : delais) {
+            assertTrue(roue.ajouter(rappel(delai, TypeNotification.RAPPEL_1H), depart + delai));
+            echeances.put(delai, depart + delai);
+        }
+
+        // When / Then : chaque rappel sort exactement à son tic
+        for (Map.Entry<Long, Long> echeance : echeances.entrySet()) {
+            assertTrue(roue.avancer(echeance.getValue() - 1).isEmpty(), "Déclenché trop tôt : " + echeance.getKey());
+            List<Rappel> dus = roue.avancer(echeance.getValue());
+            assertEquals(List.of(echeance.getKey()), dus.stream().map(Rappel::rendezVousId).toList());
+        }
+        assertEquals(0, roue.taille());
+    }
+
+    @Test
+    void avancer_Aleatoire_ToutSortDansLOrdreDesTics() {
+        // Given
+        long depart = 29_000_000L;
+        RoueRappels roue = new RoueRappels(depart);
+        Map<Long, Long> echeanceParId = new TreeMap<>();
+        ThreadLocalRandom aleatoire = ThreadLocalRandom.current();
+        for (long id = 0; id < 20_000; id++) {
+            long echeance = depart + 1 + aleatoire.nextLong(3 * 24 * 60);
+            roue.ajouter(rappel(id, TypeNotification.RAPPEL_24H), echeance);
+            echeanceParId.put(id, echeance);
+        }
+
+        // When : avance par pas irréguliers
+        List<long[]> sorties = new ArrayList<>();
+        long tic = depart;
+        while (roue.taille() > 0) {
+            tic += 1 + aleatoire.nextInt(90);
+            for (Rappel rappel : roue.avancer(tic)) {
+                sorties.add(new long[] {rappel.rendezVousId(), tic});
+            }
+        }
+
+        // Then : chaque rappel sort une fois, au premier pas qui atteint son échéance
+        assertEquals(echeanceParId.size(), sorties.size());
+        for (long[] sortie : sorties) {
+            long echeance = echeanceParId.get(sortie[0]);
+            assertTrue(sortie[1] >= echeance && sortie[1] - echeance <= 90, "Rappel " + sortie[0]);
+        }
+    }
+
+    @Test
+    void retirerEtRemplacer_RappelAnnuleOuDeplace_PlusDeclenche() {
+        // Given
+        RoueRappels roue = new RoueRappels(1000);
+        roue.ajouter(rappel(1, TypeNotification.RAPPEL_24H), 1100);
+        roue.ajouter(rappel(1, TypeNotification.RAPPEL_1H), 2000);
+        roue.ajouter(rappel(2, TypeNotification.RAPPEL_1H), 1500);
+
+        // When : RDV 1 annulé, RDV 2 déplacé (même type : remplace)
+        roue.retirer(1L);
+        roue.ajouter(rappel(2, TypeNotification.RAPPEL_1H), 1600);
+
+        // Then
+        assertEquals(1, roue.taille());
+        assertTrue(roue.avancer(1599).isEmpty());
+        assertEquals(1, roue.avancer(1600).size());
+        assertEquals(0, roue.taille());
+    }
+
+    @Test
+    void ajouter_EcheancePasseeOuHorsCapacite() {
+        // Given
+        RoueRappels roue = new RoueRappels(5000);
+
+        // Then : en retard, dû au prochain passage ; trop loin, refusé
+        assertTrue(roue.ajouter(rappel(1, TypeNotification.RAPPEL_1H), 4990));
+        assertFalse(roue.ajouter(rappel(2, TypeNotification.RAPPEL_1H), 5000 + (1L << 18)));
+        assertEquals(1, roue.avancer(5000).size());
+    }
+
+    private static Rappel rappel(long id, TypeNotification type) {
+        return new Rappel(id, RDV, type);
+    }
+}
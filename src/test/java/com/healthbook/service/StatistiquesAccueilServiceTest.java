@@ -0,0 +1,108 @@
+package com.healthbook.service;
+
+import com.healthbook.dto.StatistiquesAccueil;
+import com.healthbook.repository.MedecinRepository;
+import com.healthbook.repository.PatientRepository;
+import com.healthbook.repository.RendezVousRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatistiquesAccueilServiceTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private MedecinRepository medecinRepository;
+
+    @Mock
+    private RendezVousRepository rendezVousRepository;
+
+    private StatistiquesAccueilService service(long dureeVieSecondes) {
+        return new StatistiquesAccueilService(patientRepository, medecinRepository, rendezVousRepository, dureeVieSecondes);
+    }
+
+    @Test
+    void getStatistiques_AppelsRepetes_UneSeuleLectureEnBase() {
+        // Given
+        when(patientRepository.count()).thenReturn(12L);
+        when(medecinRepository.count()).thenReturn(3L);
+        when(rendezVousRepository.countRendezVousAVenir(any(LocalDateTime.class))).thenReturn(7L);
+        StatistiquesAccueilService service = service(60);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            service.getStatistiques();
+        }
+        StatistiquesAccueil statistiques = service.getStatistiques();
+
+        // Then
+        assertEquals(new StatistiquesAccueil(12, 3, 7), statistiques);
+        verify(patientRepository, times(1)).count();
+        verify(medecinRepository, times(1)).count();
+        verify(rendezVousRepository, times(1)).countRendezVousAVenir(any(LocalDateTime.class));
+    }
+
+    @Test
+    void invalider_SansTransaction_RechargeAuProchainAppel() {
+        // Given
+        when(patientRepository.count()).thenReturn(12L, 13L);
+        StatistiquesAccueilService service = service(60);
+        service.getStatistiques();
+
+        // When
+        service.invalider();
+        StatistiquesAccueil statistiques = service.getStatistiques();
+
+        // Then
+        assertEquals(13, statistiques.totalPatients());
+        verify(patientRepository, times(2)).count();
+    }
+
+    @Test
+    void getStatistiques_ValeurPerimeePendantRechargement_ServieSansAttendre() throws Exception {
+        // Given : premier chargement, puis un rechargement bloqué en base
+        CountDownLatch rechargementCommence = new CountDownLatch(1);
+        CountDownLatch finRechargement = new CountDownLatch(1);
+        when(patientRepository.count()).thenReturn(12L).thenAnswer(invocation -> {
+            rechargementCommence.countDown();
+            assertTrue(finRechargement.await(5, TimeUnit.SECONDS));
+            return 13L;
+        });
+        StatistiquesAccueilService service = service(60);
+        service.getStatistiques();
+        service.invalider();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<StatistiquesAccueil> rechargement = executor.submit(service::getStatistiques);
+            assertTrue(rechargementCommence.await(5, TimeUnit.SECONDS));
+
+            // When : les autres lecteurs arrivent pendant le rechargement
+            StatistiquesAccueil pendant = service.getStatistiques();
+            finRechargement.countDown();
+
+            // Then
+            assertEquals(12, pendant.totalPatients());
+            assertEquals(13, rechargement.get(5, TimeUnit.SECONDS).totalPatients());
+            assertEquals(13, service.getStatistiques().totalPatients());
+            verify(patientRepository, times(2)).count();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}